@@ -3,6 +3,7 @@ plugins {
 	id("io.spring.dependency-management") version "1.1.5"
 	kotlin("jvm") version "1.9.22"
 	kotlin("plugin.spring") version "1.9.22"
+	id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "com.example.challenge"
@@ -23,11 +24,25 @@ extra["springCloudAwsVersion"] = "3.2.1"
 dependencies {
 	implementation("org.springframework.boot:spring-boot-starter-web")
 	implementation("org.springframework.boot:spring-boot-starter-actuator")
+	implementation("io.micrometer:micrometer-registry-prometheus")
 	implementation("com.fasterxml.jackson.module:jackson-module-kotlin")
+	// Formato binário opcional (Smile) das mensagens SQS
+	implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-smile")
+	// Acesso às propriedades por lambdas geradas em vez de reflexão na (de)serialização
+	implementation("com.fasterxml.jackson.module:jackson-module-blackbird")
 	implementation("org.jetbrains.kotlin:kotlin-reflect")
 
 	implementation("io.awspring.cloud:spring-cloud-aws-starter-sqs")
 	implementation("io.awspring.cloud:spring-cloud-aws-starter-s3")
+	implementation("software.amazon.awssdk:dynamodb")
+
+	// Filtro de Bloom do índice de idempotência de transações
+	implementation("com.google.guava:guava:33.1.0-jre")
+
+	// Saída colunar (Parquet) dos eventos processados
+	implementation("org.apache.parquet:parquet-hadoop:1.14.1")
+	implementation("org.apache.hadoop:hadoop-client-api:3.3.6")
+	runtimeOnly("org.apache.hadoop:hadoop-client-runtime:3.3.6")
 
     testImplementation("org.springframework.boot:spring-boot-starter-test")
     testImplementation("org.mockito.kotlin:mockito-kotlin:5.2.1")
@@ -50,4 +65,55 @@ tasks.withType<org.jetbrains.kotlin.gradle.tasks.KotlinCompile> {
 
 tasks.withType<Test> {
 	useJUnitPlatform()
-}
\ No newline at end of file
+}
+
+// Benchmarks JMH (src/jmh/kotlin): ./gradlew jmh [-PjmhRows=1000,100000] [-PjmhIncludes=ConsumerPipeline]
+// Os eventos são gerados a partir de docs/example_valid.csv; o resultado em JSON fica em build/results/jmh/results.json
+jmh {
+	warmupIterations.set(3)
+	iterations.set(5)
+	fork.set(1)
+	resultFormat.set("JSON")
+	resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+	// As dependências do Hadoop (Parquet) ultrapassam o limite de entradas de um jar sem zip64
+	zip64.set(true)
+	jvmArgsAppend.add("-Dfixtures.dir=${rootProject.file("../docs").absolutePath}")
+	findProperty("jmhRows")?.let { rows ->
+		benchmarkParameters.put("rows", objects.listProperty(String::class.java).value(rows.toString().split(',')))
+	}
+	findProperty("jmhIncludes")?.let { includes.set(it.toString().split(',')) }
+}
+// Inicialização rápida com AppCDS: ./gradlew cdsArchive gera em build/fast-startup um jar com as classes da aplicação,
+// as dependências em lib/ e o arquivo app-consumer.jsa, treinado com uma inicialização do contexto no perfil fast-startup
+// (encerrada após o refresh). Usado pelo Dockerfile.fast-startup; execução local, a partir desse diretório:
+// java -XX:SharedArchiveFile=app-consumer.jsa -Dspring.profiles.active=fast-startup -jar app-consumer.jar
+val fastStartupDir = layout.buildDirectory.dir("fast-startup")
+
+val fastStartupLibs by tasks.registering(Sync::class) {
+	from(configurations.runtimeClasspath)
+	into(fastStartupDir.map { it.dir("lib") })
+}
+
+val fastStartupJar by tasks.registering(Jar::class) {
+	dependsOn(fastStartupLibs)
+	from(sourceSets.main.get().output)
+	archiveFileName.set("app-consumer.jar")
+	destinationDirectory.set(fastStartupDir)
+	// O CDS não carrega classes de jars aninhados: as dependências ficam fora do jar, no Class-Path do manifesto
+	doFirst {
+		manifest.attributes(
+				"Main-Class" to "com.example.challenge.appconsumer.AppConsumerApplicationKt",
+				"Class-Path" to configurations.runtimeClasspath.get().files.joinToString(" ") { "lib/${it.name}" })
+	}
+}
+
+tasks.register<Exec>("cdsArchive") {
+	dependsOn(fastStartupJar)
+	workingDir(fastStartupDir)
+	// Valores fictícios para as propriedades obrigatórias: o treinamento não acessa a AWS
+	environment("AWS_REGION", "us-east-1")
+	environment("AWS_SQS_QUEUE_NAME", "cds-training")
+	environment("AWS_S3_OUTPUT_BUCKET_NAME", "cds-training")
+	commandLine("java", "-XX:ArchiveClassesAtExit=app-consumer.jsa", "-Dspring.context.exit=onRefresh",
+			"-Dspring.profiles.active=fast-startup", "-jar", "app-consumer.jar")
+}
@@ -0,0 +1,83 @@
+package com.example.challenge.appconsumer.service
+
+import com.example.challenge.appconsumer.config.AwsConfig
+import com.example.challenge.appconsumer.listener.TransactionEventDecoder
+import com.example.challenge.appconsumer.model.TransactionEvent
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.module.kotlin.readValue
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.infra.Blackhole
+import software.amazon.awssdk.core.sync.RequestBody
+import software.amazon.awssdk.services.s3.S3Client
+import software.amazon.awssdk.services.s3.model.PutObjectRequest
+import software.amazon.awssdk.services.s3.model.PutObjectResponse
+import java.util.concurrent.TimeUnit
+
+/**
+ * Caminho de cada mensagem no consumer, sobre eventos gerados por [TransactionEventFixtures]: desserialização do
+ * [TransactionEvent] e o processamento completo pelo [DataProcessorService] no formato JSON, com um S3 que descarta
+ * os objetos. A desserialização é medida pela busca genérica do ObjectMapper (`deserializeEvent`) e pelo
+ * [TransactionEventDecoder], com o leitor já resolvido para o tipo (`decodeEvent`). Cada operação processa todas as mensagens.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+open class ConsumerPipelineBenchmark {
+
+    @Param("10000")
+    @JvmField
+    var rows: Int = 0
+
+    private lateinit var objectMapper: ObjectMapper
+    private lateinit var decoder: TransactionEventDecoder
+    private lateinit var dataProcessorService: DataProcessorService
+    private lateinit var messageBodies: List<String>
+
+    @Setup
+    fun setUp() {
+        // Mesmo ObjectMapper da aplicação
+        objectMapper = AwsConfig("us-east-1").objectMapper()
+        decoder = TransactionEventDecoder(objectMapper)
+        dataProcessorService = DataProcessorService(S3Service(DiscardingS3Client()), objectMapper, "benchmark-bucket")
+        messageBodies = TransactionEventFixtures.generate(rows).map { objectMapper.writeValueAsString(it) }
+    }
+
+    @Benchmark
+    fun deserializeEvent(blackhole: Blackhole) {
+        for (body in messageBodies) {
+            blackhole.consume(objectMapper.readValue<TransactionEvent>(body))
+        }
+    }
+
+    @Benchmark
+    fun decodeEvent(blackhole: Blackhole) {
+        for (body in messageBodies) {
+            blackhole.consume(decoder.decode(body))
+        }
+    }
+
+    @Benchmark
+    fun processEvent() {
+        for (body in messageBodies) {
+            decoder.decode(body).forEach(dataProcessorService::processEvent)
+        }
+    }
+
+    private class DiscardingS3Client : S3Client {
+
+        override fun putObject(putObjectRequest: PutObjectRequest, requestBody: RequestBody): PutObjectResponse =
+                PutObjectResponse.builder().build()
+
+        override fun serviceName(): String = S3Client.SERVICE_NAME
+
+        override fun close() {
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.challenge.appconsumer.service
+
+import com.example.challenge.appconsumer.model.TransactionEvent
+import java.nio.file.Files
+import java.nio.file.Path
+import java.time.Instant
+import java.time.LocalDateTime
+import java.time.ZoneOffset
+
+/**
+ * Gera eventos de transação para os benchmarks a partir das linhas de `docs/example_valid.csv`,
+ * repetidas com um transactionId único. O diretório dos exemplos é definido pela propriedade de sistema `fixtures.dir`.
+ */
+object TransactionEventFixtures {
+
+    private val fixturesDir: Path = Path.of(System.getProperty("fixtures.dir", "../docs"))
+
+    fun generate(rows: Int): List<TransactionEvent> {
+        val templates = Files.readAllLines(fixturesDir.resolve("example_valid.csv"))
+                .drop(1)
+                .filter { it.isNotBlank() }
+                .map { it.split(',', limit = 6) }
+        check(templates.isNotEmpty()) { "O arquivo de exemplo example_valid.csv não possui linhas de dados." }
+
+        val processingTimestamp = Instant.now()
+        return List(rows) { i ->
+            val (_, _, amount, timestamp, customerId) = templates[i % templates.size]
+            TransactionEvent(
+                    transactionId = "tx_$i",
+                    userId = customerId,
+                    amount = amount.toDouble(),
+                    currency = "BRL",
+                    transactionDate = LocalDateTime.ofInstant(Instant.parse(timestamp), ZoneOffset.UTC),
+                    status = "PENDING",
+                    originalSource = "GoogleDrive",
+                    sourceFileId = "file_1",
+                    processingTimestamp = processingTimestamp
+            )
+        }
+    }
+}
@@ -1,11 +1,11 @@
 package com.example.challenge.appconsumer
 
 import org.springframework.boot.autoconfigure.SpringBootApplication
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan
 import org.springframework.boot.runApplication
-import io.awspring.cloud.sqs.annotation.EnableSqs
 
 @SpringBootApplication
-@EnableSqs
+@ConfigurationPropertiesScan
 class AppConsumerApplication
 
 fun main(args: Array<String>) {
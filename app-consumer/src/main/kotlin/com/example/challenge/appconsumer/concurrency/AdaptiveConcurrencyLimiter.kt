@@ -0,0 +1,166 @@
+package com.example.challenge.appconsumer.concurrency
+
+import com.example.challenge.appconsumer.config.AdaptiveConcurrencyProperties
+import io.micrometer.core.instrument.Counter
+import io.micrometer.core.instrument.Gauge
+import io.micrometer.core.instrument.MeterRegistry
+import org.slf4j.LoggerFactory
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty
+import org.springframework.stereotype.Component
+import software.amazon.awssdk.awscore.exception.AwsServiceException
+import java.util.concurrent.locks.ReentrantLock
+import kotlin.concurrent.withLock
+
+/**
+ * Limita o número de mensagens em processamento com um limite adaptativo AIMD (aumento aditivo, redução multiplicativa),
+ * como o `AIMDLimit` do Netflix concurrency-limits.
+ *
+ * - Uma execução concluída abaixo de `latency-threshold` com o limite em uso (ao menos metade das vagas ocupadas)
+ *   aumenta o limite em 1/limite, ou seja, cerca de uma vaga a cada limite de execuções.
+ * - Uma execução acima de `latency-threshold` ou que falhe por throttling (HTTP 429/503, como o `SlowDown` do S3)
+ *   reduz o limite por `backoff-ratio`. Só as execuções iniciadas após a última redução reduzem o limite de novo,
+ *   para que uma rajada de erros da mesma janela conte como uma única sobrecarga.
+ * - As demais falhas não alteram o limite.
+ *
+ * As threads do listener aguardam uma vaga em [execute]; com as threads ocupadas, o container SQS deixa de buscar
+ * novas mensagens, reduzindo também o número de mensagens por poll. No formato Parquet, a execução de uma mensagem
+ * apenas acumula os eventos no arquivo local: o envio ao S3 acontece depois, na rotação do arquivo, e é informado
+ * por [recordBackgroundWrite]. O limite, as execuções em andamento e as
+ * sobrecargas são expostos como `consumer.concurrency.limit`, `consumer.concurrency.in.flight` e
+ * `consumer.concurrency.overload`.
+ */
+@Component
+@ConditionalOnProperty(name = ["aws.sqs.adaptive-concurrency.enabled"], havingValue = "true")
+class AdaptiveConcurrencyLimiter(
+        private val properties: AdaptiveConcurrencyProperties,
+        registry: MeterRegistry,
+        private val nanoClock: () -> Long = System::nanoTime
+) {
+
+    private val logger = LoggerFactory.getLogger(javaClass)
+
+    private val latencyThresholdNanos = properties.latencyThreshold.toNanos()
+    private val lock = ReentrantLock()
+    private val permitReleased = lock.newCondition()
+    private var estimatedLimit = properties.initialLimit.toDouble()
+    private var running = 0
+    private var lastDecreaseAt: Long? = null
+
+    private val throttled: Counter = overloadCounter(registry, "throttled")
+    private val slow: Counter = overloadCounter(registry, "latency")
+
+    init {
+        Gauge.builder("consumer.concurrency.limit", this) { it.limit.toDouble() }
+                .description("Limite adaptativo de mensagens SQS em processamento")
+                .register(registry)
+        Gauge.builder("consumer.concurrency.in.flight", this) { it.inFlight.toDouble() }
+                .description("Mensagens SQS em processamento")
+                .register(registry)
+    }
+
+    /** O limite atual de execuções simultâneas. */
+    val limit: Int
+        get() = lock.withLock { estimatedLimit.toInt() }
+
+    /** O número de execuções em andamento. */
+    val inFlight: Int
+        get() = lock.withLock { running }
+
+    /**
+     * Executa [block] quando houver uma vaga no limite atual e ajusta o limite pela latência ou pela falha da execução.
+     *
+     * @throws InterruptedException Se a thread for interrompida enquanto aguarda uma vaga.
+     */
+    fun <T> execute(block: () -> T): T {
+        val startedAt = acquire()
+        val result = try {
+            block()
+        } catch (e: Throwable) {
+            release(startedAt, if (isThrottling(e)) throttled else null, succeeded = false)
+            throw e
+        }
+        release(startedAt, if (nanoClock() - startedAt > latencyThresholdNanos) slow else null, succeeded = true)
+        return result
+    }
+
+    private fun acquire(): Long = lock.withLock {
+        while (running >= estimatedLimit.toInt()) {
+            permitReleased.await()
+        }
+        running++
+        nanoClock()
+    }
+
+    /**
+     * Registra o resultado de uma gravação feita fora de [execute], sem vaga associada: no formato Parquet, o envio de um
+     * arquivo ao S3 acontece na rotação, depois que as mensagens cujos eventos ele contém já liberaram suas vagas.
+     * Só o throttling reduz o limite. A duração de um envio depende do tamanho do arquivo e não é comparável a
+     * `latency-threshold`, e as execuções das mensagens já aumentam o limite enquanto não há sobrecarga.
+     *
+     * @param elapsedNanos A duração da gravação.
+     * @param error A falha da gravação, ou null se ela foi concluída.
+     */
+    fun recordBackgroundWrite(elapsedNanos: Long, error: Throwable?) {
+        if (error == null || !isThrottling(error)) {
+            return
+        }
+        lock.withLock {
+            throttled.increment()
+            decrease(nanoClock() - elapsedNanos)
+        }
+    }
+
+    /**
+     * Libera a vaga de uma execução e ajusta o limite.
+     *
+     * @param overload O contador do sinal de sobrecarga da execução, ou null se ela não indicou sobrecarga.
+     */
+    private fun release(startedAt: Long, overload: Counter?, succeeded: Boolean) {
+        lock.withLock {
+            val previousLimit = estimatedLimit.toInt()
+            if (overload != null) {
+                overload.increment()
+                decrease(startedAt)
+            } else if (succeeded && running * 2 >= previousLimit) {
+                estimatedLimit = minOf(properties.maxLimit.toDouble(), estimatedLimit + 1.0 / estimatedLimit)
+            }
+            running--
+            if (estimatedLimit.toInt() > previousLimit) {
+                permitReleased.signalAll()
+            } else {
+                permitReleased.signal()
+            }
+        }
+    }
+
+    /** Deve ser chamado com o lock adquirido. */
+    private fun decrease(startedAt: Long) {
+        val decreasedAt = lastDecreaseAt
+        if (decreasedAt != null && startedAt - decreasedAt < 0) {
+            // A execução começou antes da última redução, cuja sobrecarga ela provavelmente compartilha
+            return
+        }
+        val previousLimit = estimatedLimit.toInt()
+        estimatedLimit = maxOf(properties.minLimit.toDouble(), estimatedLimit * properties.backoffRatio)
+        lastDecreaseAt = nanoClock()
+        logger.debug("Limite de concorrência reduzido de {} para {}.", previousLimit, estimatedLimit.toInt())
+    }
+
+    /** Se a falha, ou uma das suas causas, é um throttling do serviço AWS (HTTP 429 ou 503, como o `SlowDown` do S3). */
+    private fun isThrottling(error: Throwable): Boolean {
+        var cause: Throwable? = error
+        while (cause != null) {
+            if (cause is AwsServiceException && (cause.isThrottlingException || cause.statusCode() == 503)) {
+                return true
+            }
+            cause = cause.cause
+        }
+        return false
+    }
+
+    private fun overloadCounter(registry: MeterRegistry, signal: String): Counter =
+            Counter.builder("consumer.concurrency.overload")
+                    .description("Sinais de sobrecarga das gravações que reduzem o limite de concorrência")
+                    .tag("signal", signal)
+                    .register(registry)
+}
@@ -0,0 +1,27 @@
+package com.example.challenge.appconsumer.config
+
+import org.springframework.boot.context.properties.ConfigurationProperties
+import java.time.Duration
+
+/**
+ * Limite adaptativo (AIMD) de mensagens em processamento, ajustado pela latência e pelos erros de throttling das
+ * gravações no S3. O limite nunca ultrapassa a concorrência do container SQS (`aws.sqs.max-concurrent-messages` ou
+ * `aws.sqs.batch.max-concurrent-messages`), que deve ser ao menos [maxLimit].
+ */
+@ConfigurationProperties(prefix = "aws.sqs.adaptive-concurrency")
+data class AdaptiveConcurrencyProperties(
+        val enabled: Boolean = false,
+        val initialLimit: Int = 10,
+        val minLimit: Int = 1,
+        val maxLimit: Int = 100,
+        /** Latência a partir da qual uma gravação é tratada como sinal de sobrecarga, como um throttling. */
+        val latencyThreshold: Duration = Duration.ofSeconds(1),
+        /** Fator aplicado ao limite a cada sobrecarga (redução multiplicativa). */
+        val backoffRatio: Double = 0.9
+) {
+    init {
+        require(minLimit in 1..maxLimit) { "O limite mínimo de concorrência deve estar entre 1 e o limite máximo." }
+        require(initialLimit in minLimit..maxLimit) { "O limite inicial de concorrência deve estar entre os limites mínimo e máximo." }
+        require(backoffRatio > 0.0 && backoffRatio < 1.0) { "O fator de redução da concorrência deve estar entre 0 e 1." }
+    }
+}
@@ -1,14 +1,19 @@
 package com.example.challenge.appconsumer.config
 
+import com.example.challenge.appconsumer.listener.SqsBatchMessageListener
+import com.example.challenge.appconsumer.listener.SqsMessageListener
 import com.fasterxml.jackson.databind.ObjectMapper
 import com.fasterxml.jackson.databind.SerializationFeature
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule
 import com.fasterxml.jackson.module.kotlin.KotlinModule
 import org.springframework.beans.factory.annotation.Value
+import org.springframework.boot.LazyInitializationExcludeFilter
 import org.springframework.context.annotation.Bean
 import org.springframework.context.annotation.Configuration
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider
 import software.amazon.awssdk.regions.Region
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient
 import software.amazon.awssdk.services.s3.S3Client
 import software.amazon.awssdk.services.sqs.SqsClient
 
@@ -33,11 +38,28 @@ class AwsConfig(
                 .build()
     }
 
+    @Bean
+    fun dynamoDbClient(): DynamoDbClient {
+        return DynamoDbClient.builder()
+                .region(Region.of(awsRegion))
+                .credentialsProvider(DefaultCredentialsProvider.create())
+                .build()
+    }
+
+    /**
+     * Com `spring.main.lazy-initialization` (perfil fast-startup), os listeners SQS ainda precisam ser criados na
+     * inicialização: o registro dos `@SqsListener` acontece na criação do bean.
+     */
+    @Bean
+    fun sqsListenerLazyInitializationExcludeFilter(): LazyInitializationExcludeFilter =
+            LazyInitializationExcludeFilter.forBeanTypes(SqsMessageListener::class.java, SqsBatchMessageListener::class.java)
+
     @Bean
     fun objectMapper(): ObjectMapper {
         return ObjectMapper()
                 .registerModule(KotlinModule.Builder().build())
                 .registerModule(JavaTimeModule())
+                .registerModule(BlackbirdModule())
                 .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
     }
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.example.challenge.appconsumer.config
+
+import org.springframework.boot.context.properties.ConfigurationProperties
+import java.time.Duration
+
+/**
+ * Amostragem dos diagnósticos por mensagem (mensagens inválidas e falhas de processamento): em cada intervalo de resumo,
+ * as primeiras [firstOccurrences] ocorrências de cada categoria são registradas em log e, depois delas, uma a cada
+ * [sampleEvery]. As demais aparecem apenas no resumo periódico.
+ */
+@ConfigurationProperties(prefix = "app.diagnostics")
+data class DiagnosticsProperties(
+        val firstOccurrences: Long = 10,
+        val sampleEvery: Long = 1000,
+        val summaryInterval: Duration = Duration.ofMinutes(1)
+) {
+    init {
+        require(firstOccurrences >= 0) { "O número de ocorrências registradas integralmente não pode ser negativo." }
+        require(sampleEvery >= 1) { "A amostragem dos diagnósticos deve registrar ao menos 1 a cada N ocorrências." }
+        require(!summaryInterval.isNegative && !summaryInterval.isZero) { "O intervalo do resumo de diagnósticos deve ser positivo." }
+    }
+}
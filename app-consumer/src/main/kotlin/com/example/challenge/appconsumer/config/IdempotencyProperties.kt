@@ -0,0 +1,21 @@
+package com.example.challenge.appconsumer.config
+
+import org.springframework.boot.context.properties.ConfigurationProperties
+import java.time.Duration
+
+/**
+ * Índice de idempotência por transação (sourceFileId + transactionId), compartilhado com o app-producer.
+ * O consumidor registra as transações gravadas no S3 para descartar reentregas do SQS e reprocessamentos.
+ */
+@ConfigurationProperties(prefix = "aws.dynamodb.idempotency")
+data class IdempotencyProperties(
+        val enabled: Boolean = false,
+        val tableName: String = "transaction-processor-transaction-idempotency-dev",
+        /** Capacidade do filtro de Bloom de cada arquivo de origem. */
+        val expectedTransactionsPerFile: Long = 100_000,
+        val falsePositiveProbability: Double = 0.01,
+        /** Número de arquivos de origem com filtro mantido em memória (os menos usados são descartados). */
+        val maxCachedFiles: Int = 1_000,
+        /** Validade dos registros (TTL do DynamoDB). */
+        val recordTtl: Duration = Duration.ofDays(7)
+)
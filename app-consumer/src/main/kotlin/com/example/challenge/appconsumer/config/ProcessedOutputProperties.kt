@@ -0,0 +1,31 @@
+package com.example.challenge.appconsumer.config
+
+import org.springframework.boot.context.properties.ConfigurationProperties
+import org.springframework.util.unit.DataSize
+import java.time.Duration
+
+/**
+ * Formato de gravação dos eventos processados no bucket de saída.
+ */
+@ConfigurationProperties(prefix = "aws.s3.output")
+data class ProcessedOutputProperties(
+        val format: OutputFormat = OutputFormat.JSON,
+        val parquet: Parquet = Parquet()
+) {
+
+    enum class OutputFormat {
+        /** Um objeto JSON por evento (ou um NDJSON por partição no consumo em lote). */
+        JSON,
+        /** Arquivos Parquet por partição de data, acumulados e rotacionados por tamanho ou tempo. */
+        PARQUET
+    }
+
+    data class Parquet(
+            /** Tamanho a partir do qual o arquivo da partição é fechado e enviado ao S3. */
+            val maxFileSize: DataSize = DataSize.ofMegabytes(128),
+            /** Tempo máximo de um arquivo aberto. Deve ser menor que o visibility timeout da fila. */
+            val rollInterval: Duration = Duration.ofMinutes(2),
+            /** Diretório dos arquivos locais em construção. Se vazio, usa o diretório temporário padrão da JVM. */
+            val spoolDirectory: String? = null
+    )
+}
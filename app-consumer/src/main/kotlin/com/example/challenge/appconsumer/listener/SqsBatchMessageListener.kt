@@ -0,0 +1,111 @@
+package com.example.challenge.appconsumer.listener
+
+import com.example.challenge.appconsumer.config.DiagnosticsProperties
+import com.example.challenge.appconsumer.metrics.MessageDiagnostics
+import com.example.challenge.appconsumer.model.MessageTrace
+import com.example.challenge.appconsumer.model.TransactionEvent
+import com.example.challenge.appconsumer.service.BatchDataProcessorService
+import com.fasterxml.jackson.core.JsonProcessingException
+import com.fasterxml.jackson.databind.ObjectMapper
+import io.awspring.cloud.sqs.annotation.SqsListener
+import io.awspring.cloud.sqs.listener.acknowledgement.BatchAcknowledgement
+import org.slf4j.LoggerFactory
+import org.slf4j.event.Level
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty
+import org.springframework.messaging.Message
+import org.springframework.stereotype.Component
+import java.util.concurrent.atomic.AtomicIntegerArray
+
+/**
+ * Listener SQS em lote, ativado com `aws.sqs.batch.enabled=true` no lugar do [SqsMessageListener].
+ *
+ * Recebe até `aws.sqs.batch.max-messages-per-poll` mensagens por vez e confirma (deleta da fila) cada
+ * mensagem somente após a gravação do seu evento no S3. No formato Parquet a confirmação ocorre quando o
+ * arquivo da partição é enviado, após o retorno do listener. As mensagens não confirmadas voltam a ficar
+ * visíveis após o visibility timeout e seguem a política de redrive da fila.
+ *
+ * Uma mensagem com vários eventos agrupados (ver [TransactionEventDecoder]) só é confirmada quando as gravações de
+ * todos os seus eventos, que podem pertencer a partições diferentes, forem concluídas.
+ *
+ * As mensagens inválidas são contadas pelo [MessageDiagnostics], que registra apenas uma amostra delas e um resumo periódico.
+ */
+@Component
+@ConditionalOnProperty(name = ["aws.sqs.batch.enabled"], havingValue = "true")
+class SqsBatchMessageListener(
+        objectMapper: ObjectMapper,
+        private val batchDataProcessorService: BatchDataProcessorService,
+        private val diagnostics: MessageDiagnostics = MessageDiagnostics(DiagnosticsProperties())
+) {
+
+    private val logger = LoggerFactory.getLogger(javaClass)
+    private val decoder = TransactionEventDecoder(objectMapper)
+
+    @SqsListener(
+            value = ["\${aws.sqs.queue-name}"],
+            maxMessagesPerPoll = "\${aws.sqs.batch.max-messages-per-poll:10}",
+            pollTimeoutSeconds = "\${aws.sqs.batch.poll-timeout-seconds:10}",
+            maxConcurrentMessages = "\${aws.sqs.batch.max-concurrent-messages:50}",
+            acknowledgementMode = "MANUAL"
+    )
+    fun receiveMessages(messages: List<Message<String>>, acknowledgement: BatchAcknowledgement<String>) {
+        logger.debug("Lote de {} mensagens SQS recebido.", messages.size)
+
+        // A chave do primeiro evento de cada mensagem é a posição da mensagem; os demais eventos de uma mensagem
+        // agrupada recebem chaves a partir de messages.size. messageOf associa cada chave à posição da sua mensagem.
+        val events = LinkedHashMap<Int, TransactionEvent>(messages.size)
+        val messageOf = ArrayList<Int>(messages.size).apply { addAll(messages.indices) }
+        val pendingEvents = AtomicIntegerArray(messages.size)
+        val emptyMessages = ArrayList<Message<String>>()
+        var invalid = 0
+        messages.forEachIndexed { index, message ->
+            val decoded = try {
+                decoder.decode(message.payload, message.headers)
+            } catch (e: JsonProcessingException) {
+                diagnostics.report(Level.ERROR, "invalid_payload", "Erro ao processar mensagem SQS: conteúdo JSON inválido", e) { message.payload }
+                invalid++
+                return@forEachIndexed
+            } catch (e: IllegalArgumentException) {
+                diagnostics.report(Level.ERROR, "invalid_payload", "Erro ao processar mensagem SQS: ${e.message}") { message.payload }
+                invalid++
+                return@forEachIndexed
+            }
+            if (decoded.isEmpty()) {
+                emptyMessages.add(message)
+                return@forEachIndexed
+            }
+            val trace = MessageTrace.fromHeaders(message.headers)
+            pendingEvents.set(index, decoded.size)
+            decoded.forEachIndexed { position, event ->
+                val key = if (position == 0) index else messageOf.size.also { messageOf.add(index) }
+                events[key] = if (trace == null) event else event.copy(trace = trace)
+            }
+        }
+        if (emptyMessages.isNotEmpty()) {
+            acknowledgement.acknowledgeAsync(emptyMessages)
+        }
+
+        val writes = batchDataProcessorService.processEvents(events)
+        for (write in writes) {
+            write.completion.whenComplete { _, error ->
+                if (error == null) {
+                    // Confirma as mensagens cujo último evento pendente foi gravado por esta partição
+                    val written = write.keys.map { messageOf[it] }
+                            .filter { pendingEvents.decrementAndGet(it) == 0 }
+                            .map { messages[it] }
+                    if (written.isNotEmpty()) {
+                        acknowledgement.acknowledgeAsync(written)
+                    }
+                    diagnostics.processed(written.size, write.keys.size)
+                    logger.debug("{} mensagens SQS da partição {} confirmadas.", written.size, write.datePath)
+                } else {
+                    logger.warn("{} eventos da partição {} não foram gravados; suas mensagens voltarão à fila após o visibility timeout.",
+                            write.keys.size, write.datePath)
+                }
+            }
+        }
+
+        if (invalid > 0) {
+            logger.warn("{} de {} mensagens do lote com JSON inválido não foram confirmadas.", invalid, messages.size)
+        }
+    }
+}
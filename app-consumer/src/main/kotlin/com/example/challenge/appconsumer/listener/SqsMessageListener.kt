@@ -1,36 +1,105 @@
 package com.example.challenge.appconsumer.listener
 
+import com.example.challenge.appconsumer.concurrency.AdaptiveConcurrencyLimiter
+import com.example.challenge.appconsumer.config.DiagnosticsProperties
+import com.example.challenge.appconsumer.metrics.MessageDiagnostics
+import com.example.challenge.appconsumer.model.MessageTrace
 import com.example.challenge.appconsumer.model.TransactionEvent
 import com.example.challenge.appconsumer.service.DataProcessorService
+import com.fasterxml.jackson.core.JsonProcessingException
 import com.fasterxml.jackson.databind.ObjectMapper
-import com.fasterxml.jackson.module.kotlin.readValue
 import io.awspring.cloud.sqs.annotation.SqsListener
+import io.awspring.cloud.sqs.listener.acknowledgement.Acknowledgement
 import org.slf4j.LoggerFactory
+import org.slf4j.event.Level
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty
+import org.springframework.messaging.handler.annotation.Headers
 import org.springframework.stereotype.Component
+import java.util.concurrent.CompletableFuture
 
+/**
+ * Listener SQS de uma mensagem por vez. O corpo é decodificado pelo [TransactionEventDecoder] (JSON ou Smile) e pode conter
+ * vários eventos agrupados; uma falha em qualquer um deles devolve a mensagem inteira à fila, e os eventos já gravados
+ * são descartados na reentrega pelo índice de idempotência.
+ *
+ * A mensagem é confirmada (deletada da fila) somente após a gravação de todos os seus eventos no S3. No formato JSON
+ * isso ocorre antes do retorno do listener; no formato Parquet, quando o arquivo da partição é enviado, após o retorno
+ * (o roll-interval deve ser menor que o visibility timeout da fila). As mensagens não confirmadas voltam a ficar
+ * visíveis após o visibility timeout.
+ *
+ * Os logs por mensagem são de nível DEBUG; as mensagens processadas e as falhas são contadas pelo [MessageDiagnostics],
+ * que registra apenas uma amostra das falhas e um resumo periódico.
+ *
+ * Com `aws.sqs.adaptive-concurrency.enabled=true`, as mensagens em processamento são limitadas pelo
+ * [AdaptiveConcurrencyLimiter], abaixo da concorrência do container (`aws.sqs.max-concurrent-messages`). No formato
+ * Parquet, a vaga de uma mensagem é liberada após o acúmulo dos eventos, e os throttlings dos envios ao S3 chegam ao
+ * limitador pelo [com.example.challenge.appconsumer.sink.ParquetPartitionSink].
+ */
 @Component
+@ConditionalOnProperty(name = ["aws.sqs.batch.enabled"], havingValue = "false", matchIfMissing = true)
 class SqsMessageListener(
-        private val objectMapper: ObjectMapper,
-        private val dataProcessorService: DataProcessorService
+        objectMapper: ObjectMapper,
+        private val dataProcessorService: DataProcessorService,
+        private val diagnostics: MessageDiagnostics = MessageDiagnostics(DiagnosticsProperties()),
+        private val concurrencyLimiter: AdaptiveConcurrencyLimiter? = null
 ) {
 
     private val logger = LoggerFactory.getLogger(javaClass)
+    private val decoder = TransactionEventDecoder(objectMapper)
 
-    @SqsListener("\${aws.sqs.queue-name}")
-    fun receiveMessage(messageBody: String) {
-        logger.info("Mensagem SQS recebida: {}", messageBody)
-        try {
-            val event = objectMapper.readValue<TransactionEvent>(messageBody)
-            logger.debug("Evento desserializado: {}", event)
-
-            // Processa o evento
-            dataProcessorService.processEvent(event)
+    @SqsListener(
+            value = ["\${aws.sqs.queue-name}"],
+            maxConcurrentMessages = "\${aws.sqs.max-concurrent-messages:10}",
+            acknowledgementMode = "MANUAL"
+    )
+    fun receiveMessage(messageBody: String, @Headers headers: Map<String, Any?>, acknowledgement: Acknowledgement) {
+        processMessage(messageBody, headers).whenComplete { _, error ->
+            if (error == null) {
+                acknowledgement.acknowledgeAsync()
+            } else {
+                diagnostics.report(Level.ERROR, "processing_failed", "Eventos da mensagem SQS não gravados no S3: ${error.message}", error) { messageBody }
+            }
+        }
+    }
 
-            logger.info("Mensagem SQS processada com sucesso para transactionId: {}", event.transactionId)
-            // O Spring Cloud AWS SQS automaticamente deleta a mensagem da fila se não houver exceção
+    /**
+     * Decodifica e processa os eventos da mensagem.
+     *
+     * @return Concluído quando todos os eventos da mensagem estiverem gravados no S3.
+     * @throws IllegalArgumentException Se o conteúdo da mensagem for inválido.
+     */
+    fun processMessage(messageBody: String, headers: Map<String, Any?> = emptyMap()): CompletableFuture<Void> {
+        logger.debug("Mensagem SQS recebida: {}", messageBody)
+        try {
+            val events = try {
+                decoder.decode(messageBody, headers)
+            } catch (e: JsonProcessingException) {
+                throw IllegalArgumentException("Erro ao processar mensagem SQS: conteúdo JSON inválido", e)
+            }
+            val trace = MessageTrace.fromHeaders(headers)
+            val written = if (concurrencyLimiter == null) {
+                processEvents(events, trace)
+            } else {
+                concurrencyLimiter.execute { processEvents(events, trace) }
+            }
+            return written.thenRun { diagnostics.processed(1, events.size) }
         } catch (e: Exception) {
-            logger.error("Erro ao processar mensagem SQS: {}", messageBody, e)
+            val category = if (e is IllegalArgumentException) "invalid_payload" else "processing_failed"
+            diagnostics.report(Level.ERROR, category, "Erro ao processar mensagem SQS: ${e.message}", e) { messageBody }
             throw e
         }
     }
-}
\ No newline at end of file
+
+    private fun processEvents(events: List<TransactionEvent>, trace: MessageTrace?): CompletableFuture<Void> {
+        val written = events.map { parsed ->
+            val event = if (trace == null) parsed else parsed.copy(trace = trace)
+            logger.debug("Evento desserializado: {} (trace: {})", event, trace?.traceId)
+
+            // Processa o evento
+            dataProcessorService.processEvent(event).also {
+                logger.debug("Mensagem SQS processada com sucesso para transactionId: {}", event.transactionId)
+            }
+        }
+        return if (written.size == 1) written[0] else CompletableFuture.allOf(*written.toTypedArray())
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.challenge.appconsumer.listener
+
+import com.example.challenge.appconsumer.model.TransactionEvent
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.ObjectReader
+import com.fasterxml.jackson.dataformat.smile.SmileFactory
+import java.util.Base64
+
+/**
+ * Decodifica o corpo das mensagens SQS publicadas pelo app-producer, detectando o formato automaticamente:
+ *
+ * - sem o atributo `contentEncoding` (padrão), o corpo é JSON;
+ * - com `contentEncoding=smile`, o corpo é Smile (JSON binário do Jackson) codificado em Base64.
+ *
+ * Em ambos os formatos o corpo pode conter um único evento ou um array de eventos agrupados em uma mesma mensagem.
+ */
+class TransactionEventDecoder(objectMapper: ObjectMapper) {
+
+    private val jsonReader: ObjectReader = objectMapper.readerFor(TransactionEvent::class.java)
+    private val smileReader: ObjectReader = objectMapper.copyWith(SmileFactory()).readerFor(TransactionEvent::class.java)
+
+    /**
+     * @param payload O corpo da mensagem.
+     * @param headers Os cabeçalhos da mensagem, com os atributos de mensagem SQS.
+     * @return Os eventos da mensagem, na ordem em que foram publicados.
+     * @throws com.fasterxml.jackson.core.JsonProcessingException Se o conteúdo for inválido.
+     * @throws IllegalArgumentException Se o Base64 de uma mensagem Smile for inválido ou o formato for desconhecido.
+     */
+    fun decode(payload: String, headers: Map<String, Any?> = emptyMap()): List<TransactionEvent> =
+            when (val encoding = headers[CONTENT_ENCODING_ATTRIBUTE] as? String) {
+                null, JSON_CONTENT_ENCODING -> jsonReader.readValues<TransactionEvent>(payload).readAll()
+                SMILE_CONTENT_ENCODING -> smileReader.readValues<TransactionEvent>(Base64.getDecoder().decode(payload)).readAll()
+                else -> throw IllegalArgumentException("Formato de mensagem SQS desconhecido: $encoding")
+            }
+
+    companion object {
+        const val CONTENT_ENCODING_ATTRIBUTE = "contentEncoding"
+        const val JSON_CONTENT_ENCODING = "json"
+        const val SMILE_CONTENT_ENCODING = "smile"
+    }
+}
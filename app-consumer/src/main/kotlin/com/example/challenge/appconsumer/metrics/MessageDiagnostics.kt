@@ -0,0 +1,125 @@
+package com.example.challenge.appconsumer.metrics
+
+import com.example.challenge.appconsumer.config.DiagnosticsProperties
+import jakarta.annotation.PostConstruct
+import jakarta.annotation.PreDestroy
+import org.slf4j.LoggerFactory
+import org.slf4j.event.Level
+import org.springframework.stereotype.Component
+import java.util.TreeMap
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Canal de diagnósticos dos listeners SQS, no lugar de um log por mensagem.
+ *
+ * Cada ocorrência é contada na sua categoria, mas só é registrada em log se for uma das primeiras
+ * `app.diagnostics.first-occurrences` da categoria no intervalo atual ou, depois delas, uma a cada
+ * `app.diagnostics.sample-every`. O corpo da mensagem só é lido para as ocorrências registradas. Os logs são estruturados
+ * (pares chave-valor do SLF4J: `category`, `occurrence`, `payload`) e, no logback-spring.xml, vão para um appender
+ * assíncrono que descarta eventos em vez de bloquear.
+ *
+ * A cada `app.diagnostics.summary-interval` um resumo com as mensagens e eventos processados e as ocorrências por
+ * categoria é registrado e as contagens são reiniciadas. O resumo só é agendado no contexto Spring ([start]).
+ */
+@Component
+class MessageDiagnostics(properties: DiagnosticsProperties) {
+
+    private val logger = LoggerFactory.getLogger(javaClass)
+
+    private val firstOccurrences = properties.firstOccurrences
+    private val sampleEvery = properties.sampleEvery
+    private val summaryInterval = properties.summaryInterval
+    private val occurrences = ConcurrentHashMap<String, AtomicLong>()
+    private val processedMessages = AtomicLong()
+    private val processedEvents = AtomicLong()
+    private var summaryScheduler: ScheduledExecutorService? = null
+
+    @PostConstruct
+    fun start() {
+        val scheduler = Executors.newSingleThreadScheduledExecutor { runnable ->
+            Thread(runnable, "message-diagnostics").apply { isDaemon = true }
+        }
+        scheduler.scheduleWithFixedDelay(::logSummary, summaryInterval.toMillis(), summaryInterval.toMillis(), TimeUnit.MILLISECONDS)
+        summaryScheduler = scheduler
+    }
+
+    @PreDestroy
+    fun close() {
+        summaryScheduler?.shutdownNow()
+        logSummary()
+    }
+
+    /** Conta mensagens processadas com sucesso e os seus eventos. */
+    fun processed(messages: Int, events: Int) {
+        processedMessages.addAndGet(messages.toLong())
+        processedEvents.addAndGet(events.toLong())
+    }
+
+    /**
+     * Registra uma ocorrência da categoria, com log apenas se ela for amostrada.
+     *
+     * @param level O nível do log.
+     * @param category A categoria (por exemplo, `invalid_payload`).
+     * @param detail A descrição do problema.
+     * @param error A exceção associada, ou null.
+     * @param payload O corpo da mensagem, lido apenas se a ocorrência for registrada.
+     */
+    fun report(level: Level, category: String, detail: String, error: Throwable? = null, payload: () -> String?) {
+        val occurrence = occurrences.computeIfAbsent(category) { AtomicLong() }.incrementAndGet()
+        if (!isSampled(occurrence) || !logger.isEnabledForLevel(level)) {
+            return
+        }
+        var event = logger.atLevel(level)
+                .addKeyValue("category", category)
+                .addKeyValue("occurrence", occurrence)
+                .addKeyValue("payload", payload())
+        if (error != null) {
+            event = event.setCause(error)
+        }
+        event.log("{}: {}", category, detail)
+    }
+
+    /** Registra o resumo desde o último resumo e reinicia as contagens. */
+    fun logSummary() {
+        try {
+            val messages = processedMessages.getAndSet(0)
+            val events = processedEvents.getAndSet(0)
+            val counts = drain()
+            if (messages == 0L && counts.isEmpty()) {
+                return
+            }
+            val suppressed = counts.values.sumOf { it - loggedOf(it) }
+            logger.atInfo()
+                    .addKeyValue("messages", messages)
+                    .addKeyValue("events", events)
+                    .addKeyValue("occurrences", counts)
+                    .addKeyValue("suppressed", suppressed)
+                    .log("Mensagens SQS processadas: {} ({} eventos). Diagnósticos: {} ({} ocorrências sem log individual).",
+                            messages, events, counts, suppressed)
+        } catch (e: Exception) {
+            logger.error("Erro ao registrar o resumo de diagnósticos: {}", e.message, e)
+        }
+    }
+
+    /** As ocorrências por categoria desde a chamada anterior, em ordem de categoria. */
+    internal fun drain(): Map<String, Long> {
+        val counts = TreeMap<String, Long>()
+        occurrences.forEach { (category, counter) ->
+            val count = counter.getAndSet(0)
+            if (count > 0) {
+                counts[category] = count
+            }
+        }
+        return counts
+    }
+
+    internal fun isSampled(occurrence: Long): Boolean =
+            occurrence <= firstOccurrences || (occurrence - firstOccurrences) % sampleEvery == 0L
+
+    private fun loggedOf(count: Long): Long =
+            if (count <= firstOccurrences) count else firstOccurrences + (count - firstOccurrences) / sampleEvery
+}
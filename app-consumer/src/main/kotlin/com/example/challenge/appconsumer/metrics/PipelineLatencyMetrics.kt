@@ -0,0 +1,88 @@
+package com.example.challenge.appconsumer.metrics
+
+import com.example.challenge.appconsumer.model.MessageTrace
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.TimeGauge
+import io.micrometer.core.instrument.Timer
+import org.slf4j.LoggerFactory
+import org.springframework.stereotype.Component
+import java.lang.management.ManagementFactory
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Registra a latência de ponta a ponta das transações, da ingestão do arquivo no app-producer à gravação no S3,
+ * e o atraso de cada etapa do pipeline:
+ * - `parse`: da ingestão do arquivo ao parsing da linha;
+ * - `publish`: do parsing da linha ao envio do lote ao SQS;
+ * - `queue`: do envio ao recebimento pelo consumer;
+ * - `write`: do recebimento à gravação no S3 (no formato Parquet, até o envio do arquivo da partição).
+ *
+ * Atrasos negativos, causados pelo desvio entre os relógios do producer e do consumer, são registrados como zero.
+ *
+ * Também registra, uma única vez, o tempo do início da JVM até o primeiro evento gravado no S3
+ * (`consumer.startup.first.message`).
+ */
+@Component
+class PipelineLatencyMetrics(private val registry: MeterRegistry) {
+
+    private val logger = LoggerFactory.getLogger(javaClass)
+
+    enum class Stage(val tag: String) {
+        PARSE("parse"),
+        PUBLISH("publish"),
+        QUEUE("queue"),
+        WRITE("write")
+    }
+
+    private val endToEnd: Timer = Timer.builder("consumer.e2e.latency")
+            .description("Latência da ingestão do arquivo no producer até a gravação do evento no S3")
+            .publishPercentileHistogram()
+            .register(registry)
+
+    private val stageLag: Map<Stage, Timer> = Stage.entries.associateWith { stage ->
+        Timer.builder("consumer.stage.lag")
+                .description("Atraso de cada etapa do pipeline de transações")
+                .tag("stage", stage.tag)
+                .publishPercentileHistogram()
+                .register(registry)
+    }
+
+    private val firstMessageMillis = AtomicLong(-1)
+
+    /**
+     * Registra as latências de um evento gravado no S3.
+     *
+     * @param trace O rastreamento da mensagem do evento; sem rastreamento, nada é registrado.
+     * @param writtenAt O instante da gravação no S3.
+     */
+    fun recordWritten(trace: MessageTrace?, writtenAt: Long = System.currentTimeMillis()) {
+        if (firstMessageMillis.get() < 0) {
+            firstMessageWritten(writtenAt)
+        }
+        if (trace == null) {
+            return
+        }
+        record(endToEnd, trace.fileIngestedAt, writtenAt)
+        record(stageLag.getValue(Stage.PARSE), trace.fileIngestedAt, trace.rowParsedAt)
+        record(stageLag.getValue(Stage.PUBLISH), trace.rowParsedAt, trace.publishedAt)
+        record(stageLag.getValue(Stage.QUEUE), trace.publishedAt, trace.receivedAt)
+        record(stageLag.getValue(Stage.WRITE), trace.receivedAt, writtenAt)
+    }
+
+    private fun firstMessageWritten(writtenAt: Long) {
+        val elapsed = maxOf(0L, writtenAt - ManagementFactory.getRuntimeMXBean().startTime)
+        if (firstMessageMillis.compareAndSet(-1, elapsed)) {
+            TimeGauge.builder("consumer.startup.first.message", firstMessageMillis, TimeUnit.MILLISECONDS) { it.get().toDouble() }
+                    .description("Tempo do início da JVM até o primeiro evento gravado no S3")
+                    .register(registry)
+            logger.info("Primeiro evento gravado no S3 {} ms após o início da JVM.", elapsed)
+        }
+    }
+
+    private fun record(timer: Timer, from: Long?, to: Long?) {
+        if (from != null && to != null) {
+            timer.record(maxOf(0L, to - from), TimeUnit.MILLISECONDS)
+        }
+    }
+}
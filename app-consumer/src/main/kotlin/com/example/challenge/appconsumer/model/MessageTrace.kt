@@ -0,0 +1,62 @@
+package com.example.challenge.appconsumer.model
+
+import java.time.Instant
+
+/**
+ * Contexto de rastreamento de ponta a ponta de uma mensagem, lido dos atributos de mensagem SQS definidos pelo app-producer:
+ * `traceparent` (W3C Trace Context) e os instantes, em milissegundos desde a época, da ingestão do arquivo,
+ * do parsing da linha e da publicação. O instante de recebimento é o do container SQS.
+ *
+ * Os instantes do producer e do consumer vêm de relógios diferentes; as diferenças entre eles incluem o desvio entre os relógios.
+ */
+data class MessageTrace(
+        val traceparent: String? = null,
+        val fileIngestedAt: Long? = null,
+        val rowParsedAt: Long? = null,
+        val publishedAt: Long? = null,
+        val receivedAt: Long
+) {
+
+    /**
+     * O trace ID do arquivo de origem, comum a todas as mensagens do arquivo.
+     */
+    val traceId: String?
+        get() = traceparent?.split('-')?.getOrNull(1)
+
+    companion object {
+        const val TRACEPARENT_ATTRIBUTE = "traceparent"
+        const val FILE_INGESTED_AT_ATTRIBUTE = "stageFileIngestedAt"
+        const val ROW_PARSED_AT_ATTRIBUTE = "stageRowParsedAt"
+        const val PUBLISHED_AT_ATTRIBUTE = "stagePublishedAt"
+
+        private const val SQS_SENT_TIMESTAMP_HEADER = "Sqs_Msa_SentTimestamp"
+        private const val SQS_RECEIVED_AT_HEADER = "Sqs_ReceivedAt"
+
+        /**
+         * Extrai o rastreamento dos cabeçalhos da mensagem. Sem o atributo de publicação, usa o `SentTimestamp` do SQS.
+         *
+         * @return O rastreamento, ou `null` se a mensagem não tiver nenhum instante de origem.
+         */
+        fun fromHeaders(headers: Map<String, Any?>, now: Long = System.currentTimeMillis()): MessageTrace? {
+            val publishedAt = millis(headers[PUBLISHED_AT_ATTRIBUTE]) ?: millis(headers[SQS_SENT_TIMESTAMP_HEADER])
+            val fileIngestedAt = millis(headers[FILE_INGESTED_AT_ATTRIBUTE])
+            if (publishedAt == null && fileIngestedAt == null) {
+                return null
+            }
+            return MessageTrace(
+                    traceparent = headers[TRACEPARENT_ATTRIBUTE] as? String,
+                    fileIngestedAt = fileIngestedAt,
+                    rowParsedAt = millis(headers[ROW_PARSED_AT_ATTRIBUTE]),
+                    publishedAt = publishedAt,
+                    receivedAt = millis(headers[SQS_RECEIVED_AT_HEADER]) ?: now
+            )
+        }
+
+        private fun millis(value: Any?): Long? = when (value) {
+            is Instant -> value.toEpochMilli()
+            is Number -> value.toLong()
+            is String -> value.toBigDecimalOrNull()?.toLong()
+            else -> null
+        }
+    }
+}
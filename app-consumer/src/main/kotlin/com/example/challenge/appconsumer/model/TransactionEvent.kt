@@ -1,14 +1,28 @@
 package com.example.challenge.appconsumer.model
 
+import com.fasterxml.jackson.annotation.JsonAlias
+import com.fasterxml.jackson.annotation.JsonIgnore
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties
+import java.time.Instant
 import java.time.LocalDateTime
 
-// Exemplo de estrutura de dados que viria do app-producer via SQS
+// Exemplo de estrutura de dados que viria do app-producer via SQS.
+// Os aliases aceitam os nomes do evento publicado pelo app-producer (SqsTransactionEvent); os demais campos dele são ignorados.
+@JsonIgnoreProperties(ignoreUnknown = true)
 data class TransactionEvent(
         val transactionId: String,
+        @JsonAlias("customerIdentifier")
         val userId: String,
+        @JsonAlias("transactionAmount")
         val amount: Double,
-        val currency: String,
+        val currency: String = "BRL",
+        @JsonAlias("transactionTimestamp")
         val transactionDate: LocalDateTime,
-        val status: String,
-        val originalSource: String? = null
-)
\ No newline at end of file
+        val status: String = "PENDING",
+        val originalSource: String? = null,
+        val sourceFileId: String? = null,
+        val processingTimestamp: Instant? = null,
+        // Rastreamento lido dos atributos da mensagem SQS; não faz parte do corpo do evento
+        @get:JsonIgnore
+        val trace: MessageTrace? = null
+)
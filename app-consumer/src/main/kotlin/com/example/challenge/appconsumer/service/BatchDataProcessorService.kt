@@ -0,0 +1,133 @@
+package com.example.challenge.appconsumer.service
+
+import com.example.challenge.appconsumer.concurrency.AdaptiveConcurrencyLimiter
+import com.example.challenge.appconsumer.metrics.PipelineLatencyMetrics
+import com.example.challenge.appconsumer.model.TransactionEvent
+import com.example.challenge.appconsumer.sink.ParquetPartitionSink
+import com.fasterxml.jackson.core.JsonGenerator
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.ObjectWriter
+import jakarta.annotation.PreDestroy
+import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty
+import org.springframework.stereotype.Service
+import java.io.ByteArrayOutputStream
+import java.util.UUID
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+/**
+ * Processa lotes de eventos, gravando um único objeto por partição de data em vez de um objeto por evento.
+ *
+ * No formato JSON, as partições de um lote são gravadas em paralelo como NDJSON, limitadas por
+ * `aws.s3.batch-write-parallelism`, e [processEvents] só retorna após a conclusão das gravações.
+ * No formato PARQUET, os eventos são acumulados no [ParquetPartitionSink] e a gravação de cada partição
+ * é concluída quando o arquivo que a contém é enviado ao S3.
+ * Com o índice de idempotência ativo, eventos já gravados anteriormente não são gravados novamente,
+ * mas suas chaves continuam na gravação da partição para que as mensagens sejam confirmadas.
+ * As latências de ponta a ponta são registradas apenas para os eventos efetivamente gravados.
+ * Com `aws.sqs.adaptive-concurrency.enabled=true`, as gravações NDJSON simultâneas também são limitadas pelo
+ * [AdaptiveConcurrencyLimiter]; como [processEvents] aguarda as gravações, o listener recebe menos lotes
+ * enquanto o S3 estiver lento ou em throttling.
+ */
+@Service
+@ConditionalOnProperty(name = ["aws.sqs.batch.enabled"], havingValue = "true")
+class BatchDataProcessorService(
+        private val dataProcessorService: DataProcessorService,
+        private val s3Service: S3Service,
+        objectMapper: ObjectMapper,
+        @Value("\${aws.s3.output-bucket-name}")
+        private val s3OutputBucketName: String,
+        @Value("\${aws.s3.batch-write-parallelism:8}")
+        writeParallelism: Int,
+        private val parquetPartitionSink: ParquetPartitionSink? = null,
+        private val idempotencyService: TransactionIdempotencyService? = null,
+        private val latencyMetrics: PipelineLatencyMetrics? = null,
+        private val concurrencyLimiter: AdaptiveConcurrencyLimiter? = null
+) {
+
+    private val logger = LoggerFactory.getLogger(javaClass)
+    private val writeExecutor: ExecutorService = Executors.newFixedThreadPool(writeParallelism)
+    // Cada evento é escrito diretamente no buffer da partição, sem um array de bytes intermediário por evento
+    private val eventWriter: ObjectWriter = objectMapper.writerFor(TransactionEvent::class.java)
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+
+    /**
+     * Gravação dos eventos de uma partição. [completion] é concluído quando os eventos estão gravados no S3.
+     */
+    data class PartitionWrite<K>(val datePath: String, val keys: List<K>, val completion: CompletableFuture<Void>)
+
+    /**
+     * Enriquece os eventos e grava um objeto combinado por partição de data.
+     *
+     * @param events Os eventos do lote, indexados por uma chave do chamador (por exemplo, a posição da mensagem).
+     * @return A gravação de cada partição, com as chaves dos seus eventos.
+     */
+    fun <K> processEvents(events: Map<K, TransactionEvent>): List<PartitionWrite<K>> {
+        if (events.isEmpty()) {
+            return emptyList()
+        }
+
+        val partitions = events.entries.groupBy { dataProcessorService.partitionPath(it.value) }
+        val writes = partitions.map { (datePath, entries) ->
+            val pending = if (idempotencyService == null) entries else entries.filterNot { idempotencyService.isProcessed(it.value) }
+            if (pending.size < entries.size) {
+                logger.info("{} eventos da partição {} já processados anteriormente foram descartados.", entries.size - pending.size, datePath)
+            }
+            val processedEvents = pending.map { dataProcessorService.enrich(it.value) }
+            val completion: CompletableFuture<Void> = when {
+                processedEvents.isEmpty() -> CompletableFuture.completedFuture<Void>(null)
+                parquetPartitionSink != null -> parquetPartitionSink.append(datePath, processedEvents)
+                concurrencyLimiter != null -> CompletableFuture.runAsync({
+                    concurrencyLimiter.execute { writePartition(datePath, processedEvents) }
+                }, writeExecutor)
+                else -> CompletableFuture.runAsync({ writePartition(datePath, processedEvents) }, writeExecutor)
+            }
+            val recorded = if ((idempotencyService == null && latencyMetrics == null) || pending.isEmpty()) completion
+            else completion.thenRun {
+                val writtenAt = System.currentTimeMillis()
+                pending.forEach {
+                    latencyMetrics?.recordWritten(it.value.trace, writtenAt)
+                    idempotencyService?.markProcessed(it.value)
+                }
+            }
+            PartitionWrite(datePath, entries.map { it.key }, recorded)
+        }
+
+        if (parquetPartitionSink == null) {
+            for (write in writes) {
+                try {
+                    write.completion.join()
+                } catch (e: CompletionException) {
+                    logger.error("Erro ao gravar partição {} do lote no S3: {}", write.datePath, e.cause?.message, e.cause)
+                }
+            }
+        }
+        return writes
+    }
+
+    private fun writePartition(datePath: String, events: List<TransactionEvent>) {
+        val content = ByteArrayOutputStream(events.size * 256)
+        for (event in events) {
+            eventWriter.writeValue(content, event)
+            content.write('\n'.code)
+        }
+
+        val s3Key = "processed-transactions/$datePath/batch-${UUID.randomUUID()}.ndjson"
+        s3Service.uploadProcessedData(s3OutputBucketName, s3Key, content.toByteArray(), "application/x-ndjson")
+        logger.info("{} eventos processados e salvos no S3 em s3://{}/{}", events.size, s3OutputBucketName, s3Key)
+    }
+
+    @PreDestroy
+    fun shutdown() {
+        writeExecutor.shutdown()
+        if (!writeExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+            logger.warn("Gravações de lote no S3 ainda em andamento no encerramento; as mensagens não confirmadas voltarão à fila.")
+            writeExecutor.shutdownNow()
+        }
+    }
+}
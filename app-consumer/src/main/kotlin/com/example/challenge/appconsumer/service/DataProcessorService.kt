@@ -1,42 +1,87 @@
 package com.example.challenge.appconsumer.service
 
+import com.example.challenge.appconsumer.metrics.PipelineLatencyMetrics
 import com.example.challenge.appconsumer.model.TransactionEvent
+import com.example.challenge.appconsumer.sink.ParquetPartitionSink
 import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.ObjectWriter
 import org.slf4j.LoggerFactory
 import org.springframework.beans.factory.annotation.Value
 import org.springframework.stereotype.Service
 import java.time.format.DateTimeFormatter
+import java.util.concurrent.CompletableFuture
 
 @Service
 class DataProcessorService(
         private val s3Service: S3Service,
-        private val objectMapper: ObjectMapper,
+        objectMapper: ObjectMapper,
         @Value("\${aws.s3.output-bucket-name}")
-        private val s3OutputBucketName: String
+        private val s3OutputBucketName: String,
+        private val parquetPartitionSink: ParquetPartitionSink? = null,
+        private val idempotencyService: TransactionIdempotencyService? = null,
+        private val latencyMetrics: PipelineLatencyMetrics? = null
 ) {
 
     private val logger = LoggerFactory.getLogger(javaClass)
     private val dateFormatter = DateTimeFormatter.ofPattern("yyyy/MM/dd")
+    private val eventWriter: ObjectWriter = objectMapper.writerFor(TransactionEvent::class.java)
 
-    fun processEvent(event: TransactionEvent) {
-        logger.info("Iniciando processamento do evento para transactionId: {}", event.transactionId)
+    /**
+     * Processa e grava o evento no S3.
+     *
+     * @return Concluído quando o evento estiver gravado no S3 (ou for descartado como já processado). No formato JSON
+     * a gravação é feita na própria chamada e o retorno já está concluído; no formato Parquet o evento é acumulado no
+     * arquivo da partição e o retorno só é concluído quando esse arquivo for enviado ao S3, na rotação ou no encerramento.
+     * A mensagem SQS do evento só deve ser confirmada após a conclusão.
+     */
+    fun processEvent(event: TransactionEvent): CompletableFuture<Void> {
+        logger.debug("Iniciando processamento do evento para transactionId: {}", event.transactionId)
 
-        // Exemplo simples de enriquecimento
-        val processedEvent = event.copy(
-                status = "PROCESSED",
-                originalSource = "SQS-Consumer",
-        )
+        if (idempotencyService?.isProcessed(event) == true) {
+            logger.debug("Transação {} já processada anteriormente. Evento descartado.", event.transactionId)
+            return CompletableFuture.completedFuture(null)
+        }
 
-        // Converte o objeto processado de volta para JSON para armazenamento no S3
-        val processedJson = objectMapper.writeValueAsString(processedEvent)
+        val processedEvent = enrich(event)
+
+        if (parquetPartitionSink != null) {
+            val written = parquetPartitionSink.append(partitionPath(processedEvent), listOf(processedEvent))
+                    .thenRun {
+                        latencyMetrics?.recordWritten(event.trace)
+                        idempotencyService?.markProcessed(event)
+                    }
+            logger.debug("Evento acumulado no arquivo Parquet da partição {} para transactionId: {}", partitionPath(processedEvent), event.transactionId)
+            return written
+        }
+
+        // Converte o objeto processado de volta para JSON (em bytes UTF-8, enviados diretamente no corpo do PUT) para armazenamento no S3
+        val processedJson = eventWriter.writeValueAsBytes(processedEvent)
 
         // Define o path no S3. Uma boa prática é usar uma estrutura baseada em data.
-        val datePath = processedEvent.transactionDate.format(dateFormatter)
-        val s3Key = "processed-transactions/$datePath/${processedEvent.transactionId}.json"
+        val s3Key = "processed-transactions/${partitionPath(processedEvent)}/${processedEvent.transactionId}.json"
 
         // Envia para o S3
-        s3Service.uploadProcessedData(s3OutputBucketName, s3Key, processedJson)
+        s3Service.uploadProcessedData(s3OutputBucketName, s3Key, processedJson, "application/json")
+        latencyMetrics?.recordWritten(event.trace)
+        idempotencyService?.markProcessed(event)
 
-        logger.info("Evento processado e salvo no S3 em s3://$s3OutputBucketName/$s3Key")
+        logger.debug("Evento processado e salvo no S3 em s3://{}/{}", s3OutputBucketName, s3Key)
+        return CompletableFuture.completedFuture(null)
     }
-}
\ No newline at end of file
+
+    /**
+     * Aplica o enriquecimento do consumidor ao evento recebido.
+     */
+    fun enrich(event: TransactionEvent): TransactionEvent {
+        // Exemplo simples de enriquecimento
+        return event.copy(
+                status = "PROCESSED",
+                originalSource = "SQS-Consumer",
+        )
+    }
+
+    /**
+     * @return A partição de data (yyyy/MM/dd) do evento no bucket de saída.
+     */
+    fun partitionPath(event: TransactionEvent): String = event.transactionDate.format(dateFormatter)
+}
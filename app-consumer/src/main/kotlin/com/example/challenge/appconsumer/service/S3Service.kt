@@ -5,6 +5,7 @@ import org.springframework.stereotype.Service
 import software.amazon.awssdk.core.sync.RequestBody
 import software.amazon.awssdk.services.s3.S3Client
 import software.amazon.awssdk.services.s3.model.PutObjectRequest
+import java.nio.file.Path
 
 @Service
 class S3Service(private val s3Client: S3Client) {
@@ -22,4 +23,28 @@ class S3Service(private val s3Client: S3Client) {
         s3Client.putObject(putObjectRequest, RequestBody.fromString(data))
         logger.info("Upload bem-sucedido para S3://{}/{}", bucketName, key)
     }
-}
\ No newline at end of file
+
+    fun uploadProcessedData(bucketName: String, key: String, data: ByteArray, contentType: String) {
+        logger.info("Tentando fazer upload de {} bytes para S3://{}/{}", data.size, bucketName, key)
+        val putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .build()
+
+        s3Client.putObject(putObjectRequest, RequestBody.fromBytes(data))
+        logger.info("Upload bem-sucedido para S3://{}/{}", bucketName, key)
+    }
+
+    fun uploadFile(bucketName: String, key: String, file: Path, contentType: String) {
+        logger.info("Tentando fazer upload do arquivo {} para S3://{}/{}", file, bucketName, key)
+        val putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .build()
+
+        s3Client.putObject(putObjectRequest, RequestBody.fromFile(file))
+        logger.info("Upload bem-sucedido para S3://{}/{}", bucketName, key)
+    }
+}
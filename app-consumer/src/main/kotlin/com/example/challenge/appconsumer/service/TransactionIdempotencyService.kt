@@ -0,0 +1,141 @@
+package com.example.challenge.appconsumer.service
+
+import com.example.challenge.appconsumer.config.IdempotencyProperties
+import com.example.challenge.appconsumer.model.TransactionEvent
+import com.google.common.hash.BloomFilter
+import com.google.common.hash.Funnels
+import org.slf4j.LoggerFactory
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty
+import org.springframework.stereotype.Service
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest
+import java.nio.charset.StandardCharsets
+import java.time.Instant
+
+/**
+ * Índice de idempotência das transações gravadas pelo consumidor, na mesma tabela DynamoDB do app-producer
+ * (chave: sourceFileId + `PROCESSED#`transactionId).
+ *
+ * Na primeira mensagem de cada arquivo de origem, as transações já registradas do arquivo são carregadas
+ * com uma consulta em um filtro de Bloom. A partir daí, uma transação nunca vista é descartada pelo filtro
+ * sem acesso remoto; apenas os positivos são confirmados com uma leitura consistente. O registro após a
+ * gravação usa uma escrita condicional, que detecta entregas duplicadas processadas em paralelo por outra instância.
+ *
+ * Falhas do DynamoDB não interrompem o processamento: na dúvida, o evento é gravado novamente.
+ */
+@Service
+@ConditionalOnProperty(name = ["aws.dynamodb.idempotency.enabled"], havingValue = "true")
+class TransactionIdempotencyService(
+        private val dynamoDbClient: DynamoDbClient,
+        private val properties: IdempotencyProperties
+) {
+
+    companion object {
+        const val PROCESSED_PREFIX = "PROCESSED#"
+    }
+
+    private val logger = LoggerFactory.getLogger(javaClass)
+
+    private val fileFilters = object : LinkedHashMap<String, BloomFilter<CharSequence>>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, BloomFilter<CharSequence>>): Boolean =
+                size > properties.maxCachedFiles
+    }
+
+    /**
+     * @return true se a transação do evento já foi gravada anteriormente.
+     */
+    fun isProcessed(event: TransactionEvent): Boolean {
+        val sourceFileId = event.sourceFileId ?: return false
+        return try {
+            if (!filterFor(sourceFileId).mightContain(event.transactionId)) {
+                return false
+            }
+            val request = GetItemRequest.builder()
+                    .tableName(properties.tableName)
+                    .key(key(sourceFileId, event.transactionId))
+                    .projectionExpression("idempotencyKey")
+                    .consistentRead(true)
+                    .build()
+            dynamoDbClient.getItem(request).hasItem()
+        } catch (e: DynamoDbException) {
+            logger.warn("Erro ao consultar o índice de idempotência para a transação {}: {}", event.transactionId, e.message)
+            false
+        }
+    }
+
+    /**
+     * Registra a transação do evento como gravada.
+     *
+     * @return false se a transação já estava registrada (entrega duplicada).
+     */
+    fun markProcessed(event: TransactionEvent): Boolean {
+        val sourceFileId = event.sourceFileId ?: return true
+        val now = Instant.now()
+        val item = key(sourceFileId, event.transactionId) + mapOf(
+                "recordedAt" to AttributeValue.fromS(now.toString()),
+                "expiresAt" to AttributeValue.fromN(now.plus(properties.recordTtl).epochSecond.toString())
+        )
+        val request = PutItemRequest.builder()
+                .tableName(properties.tableName)
+                .item(item)
+                .conditionExpression("attribute_not_exists(idempotencyKey)")
+                .build()
+        return try {
+            dynamoDbClient.putItem(request)
+            true
+        } catch (e: ConditionalCheckFailedException) {
+            logger.warn("Transação {} do arquivo {} já estava registrada como processada (entrega duplicada).", event.transactionId, sourceFileId)
+            false
+        } catch (e: DynamoDbException) {
+            logger.warn("Erro ao registrar a transação {} no índice de idempotência: {}", event.transactionId, e.message)
+            true
+        } finally {
+            cachedFilter(sourceFileId)?.put(event.transactionId)
+        }
+    }
+
+    private fun filterFor(sourceFileId: String): BloomFilter<CharSequence> {
+        cachedFilter(sourceFileId)?.let { return it }
+        // A consulta é feita fora do bloqueio; se duas threads carregarem o mesmo arquivo, prevalece o primeiro filtro
+        val loaded = loadFilter(sourceFileId)
+        return synchronized(fileFilters) { fileFilters.getOrPut(sourceFileId) { loaded } }
+    }
+
+    private fun cachedFilter(sourceFileId: String): BloomFilter<CharSequence>? = synchronized(fileFilters) { fileFilters[sourceFileId] }
+
+    private fun loadFilter(sourceFileId: String): BloomFilter<CharSequence> {
+        val processedIds = ArrayList<String>()
+        var exclusiveStartKey: Map<String, AttributeValue>? = null
+        do {
+            val request = QueryRequest.builder()
+                    .tableName(properties.tableName)
+                    .keyConditionExpression("sourceFileId = :sourceFileId AND begins_with(idempotencyKey, :prefix)")
+                    .expressionAttributeValues(mapOf(
+                            ":sourceFileId" to AttributeValue.fromS(sourceFileId),
+                            ":prefix" to AttributeValue.fromS(PROCESSED_PREFIX)
+                    ))
+                    .projectionExpression("idempotencyKey")
+                    .exclusiveStartKey(exclusiveStartKey)
+                    .build()
+            val response = dynamoDbClient.query(request)
+            response.items().forEach { processedIds.add(it.getValue("idempotencyKey").s().removePrefix(PROCESSED_PREFIX)) }
+            exclusiveStartKey = if (response.hasLastEvaluatedKey()) response.lastEvaluatedKey() else null
+        } while (exclusiveStartKey != null)
+
+        val filter = BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8),
+                maxOf(properties.expectedTransactionsPerFile, processedIds.size * 2L), properties.falsePositiveProbability)
+        processedIds.forEach { filter.put(it) }
+        logger.info("Índice de idempotência do arquivo {} carregado com {} transações já processadas.", sourceFileId, processedIds.size)
+        return filter
+    }
+
+    private fun key(sourceFileId: String, transactionId: String): Map<String, AttributeValue> = mapOf(
+            "sourceFileId" to AttributeValue.fromS(sourceFileId),
+            "idempotencyKey" to AttributeValue.fromS(PROCESSED_PREFIX + transactionId)
+    )
+}
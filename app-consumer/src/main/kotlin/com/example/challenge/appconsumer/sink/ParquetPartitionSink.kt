@@ -0,0 +1,181 @@
+package com.example.challenge.appconsumer.sink
+
+import com.example.challenge.appconsumer.concurrency.AdaptiveConcurrencyLimiter
+import com.example.challenge.appconsumer.config.ProcessedOutputProperties
+import com.example.challenge.appconsumer.model.TransactionEvent
+import com.example.challenge.appconsumer.service.S3Service
+import jakarta.annotation.PreDestroy
+import org.apache.hadoop.conf.Configuration
+import org.apache.parquet.hadoop.ParquetFileWriter
+import org.apache.parquet.hadoop.ParquetWriter
+import org.apache.parquet.hadoop.api.WriteSupport
+import org.apache.parquet.hadoop.metadata.CompressionCodecName
+import org.apache.parquet.io.LocalOutputFile
+import org.apache.parquet.io.OutputFile
+import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty
+import org.springframework.stereotype.Component
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.Paths
+import java.time.Duration
+import java.time.Instant
+import java.time.ZoneOffset
+import java.time.format.DateTimeFormatter
+import java.util.UUID
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.locks.ReentrantLock
+import kotlin.concurrent.withLock
+
+/**
+ * Acumula eventos processados em um arquivo Parquet local por partição de data e o envia ao S3
+ * quando atinge `aws.s3.output.parquet.max-file-size` ou `aws.s3.output.parquet.roll-interval`.
+ *
+ * `currency` e `status` usam dictionary encoding; as demais colunas, não. Os arquivos abertos são
+ * finalizados e enviados no encerramento da aplicação.
+ *
+ * Com o [AdaptiveConcurrencyLimiter] ativo, o resultado de cada envio é informado a ele: os envios acontecem depois
+ * que as mensagens já liberaram suas vagas, e um throttling do S3 só chegaria ao limite por esse caminho.
+ */
+@Component
+@ConditionalOnProperty(name = ["aws.s3.output.format"], havingValue = "PARQUET")
+class ParquetPartitionSink(
+        private val s3Service: S3Service,
+        properties: ProcessedOutputProperties,
+        @Value("\${aws.s3.output-bucket-name}")
+        private val s3OutputBucketName: String,
+        private val concurrencyLimiter: AdaptiveConcurrencyLimiter? = null
+) {
+
+    private val logger = LoggerFactory.getLogger(javaClass)
+
+    private val maxFileBytes = properties.parquet.maxFileSize.toBytes()
+    private val rollInterval = properties.parquet.rollInterval
+    private val spoolDirectory: Path? = properties.parquet.spoolDirectory?.takeIf { it.isNotBlank() }?.let { Paths.get(it) }
+
+    private val lock = ReentrantLock()
+    private val openFiles = HashMap<String, OpenFile>()
+    private val uploadExecutor = Executors.newFixedThreadPool(2)
+    private val rollScheduler = Executors.newSingleThreadScheduledExecutor()
+
+    init {
+        val checkPeriod = minOf(rollInterval.toMillis() / 4, 10_000L).coerceAtLeast(100L)
+        rollScheduler.scheduleWithFixedDelay(::rollExpired, checkPeriod, checkPeriod, TimeUnit.MILLISECONDS)
+    }
+
+    /**
+     * Acrescenta eventos já enriquecidos ao arquivo aberto da partição.
+     *
+     * @param datePath A partição de data (yyyy/MM/dd).
+     * @param events Os eventos a gravar.
+     * @return Um future concluído quando o(s) arquivo(s) que contém os eventos tiverem sido enviados ao S3.
+     */
+    fun append(datePath: String, events: List<TransactionEvent>): CompletableFuture<Void> {
+        val completions = ArrayList<CompletableFuture<Void>>(1)
+        lock.withLock {
+            for (event in events) {
+                val file = openFiles.getOrPut(datePath) { open(datePath) }
+                file.writer.write(event)
+                file.records++
+                if (completions.lastOrNull() !== file.completion) {
+                    completions.add(file.completion)
+                }
+                if (file.writer.dataSize >= maxFileBytes) {
+                    roll(datePath)
+                }
+            }
+        }
+        return if (completions.size == 1) completions[0] else CompletableFuture.allOf(*completions.toTypedArray())
+    }
+
+    /**
+     * Finaliza e envia os arquivos de todas as partições, aguardando a conclusão dos envios.
+     */
+    @PreDestroy
+    fun close() {
+        rollScheduler.shutdownNow()
+        lock.withLock {
+            openFiles.keys.toList().forEach(::roll)
+        }
+        uploadExecutor.shutdown()
+        if (!uploadExecutor.awaitTermination(60, TimeUnit.SECONDS)) {
+            logger.warn("Envio de arquivos Parquet ao S3 não concluído no encerramento; as mensagens não confirmadas voltarão à fila.")
+        }
+    }
+
+    private fun open(datePath: String): OpenFile {
+        val path = if (spoolDirectory != null) Files.createTempFile(spoolDirectory, "events-", ".parquet") else Files.createTempFile("events-", ".parquet")
+        val writer = Builder(LocalOutputFile(path))
+                .withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+                .withCompressionCodec(CompressionCodecName.SNAPPY)
+                .withDictionaryEncoding(false)
+                .withDictionaryEncoding("currency", true)
+                .withDictionaryEncoding("status", true)
+                .build()
+        return OpenFile(datePath, path, writer, Instant.now())
+    }
+
+    private fun rollExpired() {
+        try {
+            val now = Instant.now()
+            lock.withLock {
+                openFiles.filterValues { Duration.between(it.openedAt, now) >= rollInterval }.keys.forEach(::roll)
+            }
+        } catch (e: Exception) {
+            logger.error("Erro ao rotacionar arquivos Parquet por tempo: {}", e.message, e)
+        }
+    }
+
+    /** Deve ser chamado com o lock adquirido. */
+    private fun roll(datePath: String) {
+        val file = openFiles.remove(datePath) ?: return
+        try {
+            file.writer.close()
+        } catch (e: Exception) {
+            logger.error("Erro ao finalizar arquivo Parquet da partição {}: {}", datePath, e.message, e)
+            Files.deleteIfExists(file.path)
+            file.completion.completeExceptionally(e)
+            return
+        }
+        uploadExecutor.execute { upload(file) }
+    }
+
+    private fun upload(file: OpenFile) {
+        val s3Key = "processed-transactions/${file.datePath}/part-${FILE_TIMESTAMP.format(file.openedAt)}-${UUID.randomUUID()}.parquet"
+        val startedAt = System.nanoTime()
+        try {
+            s3Service.uploadFile(s3OutputBucketName, s3Key, file.path, "application/vnd.apache.parquet")
+            concurrencyLimiter?.recordBackgroundWrite(System.nanoTime() - startedAt, null)
+            logger.info("{} eventos gravados em Parquet no S3 em s3://{}/{}", file.records, s3OutputBucketName, s3Key)
+            file.completion.complete(null)
+        } catch (e: Exception) {
+            concurrencyLimiter?.recordBackgroundWrite(System.nanoTime() - startedAt, e)
+            logger.error("Erro ao enviar arquivo Parquet para s3://{}/{}: {}", s3OutputBucketName, s3Key, e.message, e)
+            file.completion.completeExceptionally(e)
+        } finally {
+            Files.deleteIfExists(file.path)
+        }
+    }
+
+    private class OpenFile(
+            val datePath: String,
+            val path: Path,
+            val writer: ParquetWriter<TransactionEvent>,
+            val openedAt: Instant
+    ) {
+        val completion = CompletableFuture<Void>()
+        var records = 0L
+    }
+
+    private class Builder(file: OutputFile) : ParquetWriter.Builder<TransactionEvent, Builder>(file) {
+        override fun self(): Builder = this
+        override fun getWriteSupport(conf: Configuration): WriteSupport<TransactionEvent> = TransactionEventWriteSupport()
+    }
+
+    companion object {
+        private val FILE_TIMESTAMP: DateTimeFormatter = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC)
+    }
+}
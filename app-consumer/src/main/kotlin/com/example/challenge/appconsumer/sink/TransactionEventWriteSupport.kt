@@ -0,0 +1,62 @@
+package com.example.challenge.appconsumer.sink
+
+import com.example.challenge.appconsumer.model.TransactionEvent
+import org.apache.hadoop.conf.Configuration
+import org.apache.parquet.hadoop.api.WriteSupport
+import org.apache.parquet.io.api.Binary
+import org.apache.parquet.io.api.RecordConsumer
+import org.apache.parquet.schema.MessageType
+import org.apache.parquet.schema.MessageTypeParser
+import java.time.ZoneOffset
+
+/**
+ * Mapeia um [TransactionEvent] para o esquema Parquet dos eventos processados.
+ * `transactionDate` é gravado como timestamp local (sem fuso) em microssegundos.
+ */
+class TransactionEventWriteSupport : WriteSupport<TransactionEvent>() {
+
+    private lateinit var recordConsumer: RecordConsumer
+
+    override fun init(configuration: Configuration): WriteContext = WriteContext(SCHEMA, emptyMap())
+
+    override fun prepareForWrite(recordConsumer: RecordConsumer) {
+        this.recordConsumer = recordConsumer
+    }
+
+    override fun write(event: TransactionEvent) {
+        recordConsumer.startMessage()
+        writeString(0, "transactionId", event.transactionId)
+        writeString(1, "userId", event.userId)
+        recordConsumer.startField("amount", 2)
+        recordConsumer.addDouble(event.amount)
+        recordConsumer.endField("amount", 2)
+        writeString(3, "currency", event.currency)
+        val instant = event.transactionDate.toInstant(ZoneOffset.UTC)
+        recordConsumer.startField("transactionDate", 4)
+        recordConsumer.addLong(Math.addExact(Math.multiplyExact(instant.epochSecond, 1_000_000L), instant.nano / 1_000L))
+        recordConsumer.endField("transactionDate", 4)
+        writeString(5, "status", event.status)
+        event.originalSource?.let { writeString(6, "originalSource", it) }
+        recordConsumer.endMessage()
+    }
+
+    private fun writeString(index: Int, name: String, value: String) {
+        recordConsumer.startField(name, index)
+        recordConsumer.addBinary(Binary.fromString(value))
+        recordConsumer.endField(name, index)
+    }
+
+    companion object {
+        val SCHEMA: MessageType = MessageTypeParser.parseMessageType("""
+            message transaction_event {
+              required binary transactionId (STRING);
+              required binary userId (STRING);
+              required double amount;
+              required binary currency (STRING);
+              required int64 transactionDate (TIMESTAMP(MICROS,false));
+              required binary status (STRING);
+              optional binary originalSource (STRING);
+            }
+        """.trimIndent())
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.challenge.appconsumer.concurrency
+
+import com.example.challenge.appconsumer.config.AdaptiveConcurrencyProperties
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.DisplayName
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import software.amazon.awssdk.services.s3.model.S3Exception
+import java.time.Duration
+import java.util.concurrent.TimeUnit
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private lateinit var registry: SimpleMeterRegistry
+
+    private var now = 0L
+
+    private lateinit var limiter: AdaptiveConcurrencyLimiter
+
+    @BeforeEach
+    fun setUp() {
+        registry = SimpleMeterRegistry()
+        val properties = AdaptiveConcurrencyProperties(enabled = true, initialLimit = 2, minLimit = 1, maxLimit = 4,
+                latencyThreshold = Duration.ofMillis(100), backoffRatio = 0.5)
+        limiter = AdaptiveConcurrencyLimiter(properties, registry) { now }
+    }
+
+    @Test
+    @DisplayName("Deve aumentar o limite enquanto as execuções forem rápidas e o limite estiver em uso, até o limite máximo")
+    fun shouldIncreaseLimitWhileExecutionsAreFast() {
+        // Duas execuções simultâneas: a externa mantém o limite em uso enquanto as internas terminam
+        limiter.execute {
+            repeat(100) {
+                limiter.execute { now += TimeUnit.MICROSECONDS.toNanos(100) }
+            }
+        }
+
+        assertEquals(4, limiter.limit)
+        assertEquals(4.0, registry.get("consumer.concurrency.limit").gauge().value())
+        assertEquals(0, limiter.inFlight)
+    }
+
+    @Test
+    @DisplayName("Deve reduzir o limite em uma execução lenta")
+    fun shouldDecreaseLimitOnSlowExecution() {
+        limiter.execute { now += TimeUnit.MILLISECONDS.toNanos(500) }
+
+        assertEquals(1, limiter.limit)
+        assertEquals(1.0, registry.get("consumer.concurrency.overload").tag("signal", "latency").counter().count())
+    }
+
+    @Test
+    @DisplayName("Deve reduzir o limite em um throttling do S3 e propagar o erro")
+    fun shouldDecreaseLimitOnThrottling() {
+        val slowDown = S3Exception.builder().statusCode(503).message("SlowDown").build()
+
+        val error = assertThrows<RuntimeException> {
+            limiter.execute { throw RuntimeException("Falha ao gravar", slowDown) }
+        }
+
+        assertEquals(slowDown, error.cause)
+        assertEquals(1, limiter.limit)
+        assertEquals(1.0, registry.get("consumer.concurrency.overload").tag("signal", "throttled").counter().count())
+    }
+
+    @Test
+    @DisplayName("Deve reduzir o limite apenas no throttling de uma gravação feita fora das execuções")
+    fun shouldDecreaseLimitOnlyOnBackgroundWriteThrottling() {
+        limiter.recordBackgroundWrite(TimeUnit.SECONDS.toNanos(30), null)
+        limiter.recordBackgroundWrite(TimeUnit.MILLISECONDS.toNanos(10), IllegalStateException("Falha"))
+        assertEquals(2, limiter.limit)
+
+        now += TimeUnit.SECONDS.toNanos(1)
+        limiter.recordBackgroundWrite(TimeUnit.MILLISECONDS.toNanos(10), S3Exception.builder().statusCode(503).message("SlowDown").build())
+
+        assertEquals(1, limiter.limit)
+        assertEquals(0, limiter.inFlight)
+        assertEquals(1.0, registry.get("consumer.concurrency.overload").tag("signal", "throttled").counter().count())
+    }
+
+    @Test
+    @DisplayName("Não deve alterar o limite em falhas que não indicam sobrecarga")
+    fun shouldKeepLimitOnOtherFailures() {
+        assertThrows<IllegalStateException> {
+            limiter.execute { throw IllegalStateException("Falha") }
+        }
+
+        assertEquals(2, limiter.limit)
+        assertEquals(0, limiter.inFlight)
+    }
+
+    @Test
+    @DisplayName("Deve reduzir o limite uma única vez para execuções iniciadas antes da última redução")
+    fun shouldDecreaseOncePerOverloadWindow() {
+        val properties = AdaptiveConcurrencyProperties(enabled = true, initialLimit = 4, minLimit = 1, maxLimit = 4,
+                latencyThreshold = Duration.ofMillis(100), backoffRatio = 0.5)
+        val limiter = AdaptiveConcurrencyLimiter(properties, SimpleMeterRegistry()) { now }
+
+        // A execução externa começa antes da interna, que termina primeiro e reduz o limite
+        limiter.execute {
+            limiter.execute { now += TimeUnit.MILLISECONDS.toNanos(500) }
+            now += TimeUnit.MILLISECONDS.toNanos(10)
+        }
+
+        assertEquals(2, limiter.limit)
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.challenge.appconsumer.listener
+
+import com.example.challenge.appconsumer.model.TransactionEvent
+import com.example.challenge.appconsumer.service.BatchDataProcessorService
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.SerializationFeature
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule
+import com.fasterxml.jackson.module.kotlin.KotlinModule
+import io.awspring.cloud.sqs.listener.acknowledgement.BatchAcknowledgement
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.DisplayName
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.extension.ExtendWith
+import org.mockito.Mock
+import org.mockito.junit.jupiter.MockitoExtension
+import org.mockito.kotlin.any
+import org.mockito.kotlin.eq
+import org.mockito.kotlin.never
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+import org.springframework.messaging.Message
+import org.springframework.messaging.support.MessageBuilder
+import java.time.LocalDateTime
+import java.util.concurrent.CompletableFuture
+
+@ExtendWith(MockitoExtension::class)
+class SqsBatchMessageListenerTest {
+
+    @Mock
+    private lateinit var batchDataProcessorService: BatchDataProcessorService
+
+    @Mock
+    private lateinit var acknowledgement: BatchAcknowledgement<String>
+
+    private lateinit var objectMapper: ObjectMapper
+
+    private lateinit var sqsBatchMessageListener: SqsBatchMessageListener
+
+    @BeforeEach
+    fun setUp() {
+        objectMapper = ObjectMapper().apply {
+            registerModule(KotlinModule.Builder().build())
+            registerModule(JavaTimeModule())
+            disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        }
+
+        sqsBatchMessageListener = SqsBatchMessageListener(objectMapper, batchDataProcessorService)
+    }
+
+    @Test
+    @DisplayName("Deve confirmar apenas as mensagens gravadas e ignorar mensagens com JSON inválido")
+    fun shouldAcknowledgeOnlyWrittenMessages() {
+        val first = event("tx-1")
+        val second = event("tx-2")
+        val messages = listOf(
+                message(objectMapper.writeValueAsString(first)),
+                message("{ \"transactionId\": \"123\", "),
+                message(objectMapper.writeValueAsString(second))
+        )
+        whenever(batchDataProcessorService.processEvents(eq(mapOf(0 to first, 2 to second)))).thenReturn(listOf(
+                BatchDataProcessorService.PartitionWrite("2024/01/15", listOf(0), CompletableFuture.failedFuture(RuntimeException("Erro de upload para S3 simulado"))),
+                BatchDataProcessorService.PartitionWrite("2024/01/16", listOf(2), CompletableFuture.completedFuture(null))
+        ))
+
+        sqsBatchMessageListener.receiveMessages(messages, acknowledgement)
+
+        verify(acknowledgement).acknowledgeAsync(eq(listOf(messages[2])))
+        verify(acknowledgement, never()).acknowledgeAsync(eq(listOf(messages[0])))
+    }
+
+    @Test
+    @DisplayName("Deve confirmar as mensagens somente quando a gravação da partição for concluída")
+    fun shouldAcknowledgeOnlyAfterPartitionWriteCompletes() {
+        val messages = listOf(message(objectMapper.writeValueAsString(event("tx-1"))))
+        val completion = CompletableFuture<Void>()
+        whenever(batchDataProcessorService.processEvents(any<Map<Int, TransactionEvent>>()))
+                .thenReturn(listOf(BatchDataProcessorService.PartitionWrite("2024/01/15", listOf(0), completion)))
+
+        sqsBatchMessageListener.receiveMessages(messages, acknowledgement)
+        verify(acknowledgement, never()).acknowledgeAsync(any<Collection<Message<String>>>())
+
+        completion.complete(null)
+        verify(acknowledgement).acknowledgeAsync(eq(messages))
+    }
+
+    @Test
+    @DisplayName("Deve confirmar uma mensagem agrupada somente após a gravação de todos os seus eventos")
+    fun shouldAcknowledgePackedMessageOnlyAfterAllPartitionsComplete() {
+        val first = event("tx-1")
+        val second = event("tx-2").copy(transactionDate = LocalDateTime.of(2024, 1, 16, 10, 0))
+        val third = event("tx-3")
+        val messages = listOf(
+                message(objectMapper.writeValueAsString(listOf(first, second))),
+                message(objectMapper.writeValueAsString(third))
+        )
+        val firstPartition = CompletableFuture<Void>()
+        val secondPartition = CompletableFuture<Void>()
+        whenever(batchDataProcessorService.processEvents(eq(mapOf(0 to first, 2 to second, 1 to third)))).thenReturn(listOf(
+                BatchDataProcessorService.PartitionWrite("2024/01/15", listOf(0, 1), firstPartition),
+                BatchDataProcessorService.PartitionWrite("2024/01/16", listOf(2), secondPartition)
+        ))
+
+        sqsBatchMessageListener.receiveMessages(messages, acknowledgement)
+
+        firstPartition.complete(null)
+        verify(acknowledgement).acknowledgeAsync(eq(listOf(messages[1])))
+        verify(acknowledgement, never()).acknowledgeAsync(eq(listOf(messages[0])))
+
+        secondPartition.complete(null)
+        verify(acknowledgement).acknowledgeAsync(eq(listOf(messages[0])))
+    }
+
+    private fun message(body: String): Message<String> = MessageBuilder.withPayload(body).build()
+
+    private fun event(transactionId: String) = TransactionEvent(
+            transactionId = transactionId,
+            userId = "user123",
+            amount = 100.50,
+            currency = "BRL",
+            transactionDate = LocalDateTime.of(2024, 1, 15, 10, 0),
+            status = "PENDING",
+            originalSource = "GoogleDrive"
+    )
+}
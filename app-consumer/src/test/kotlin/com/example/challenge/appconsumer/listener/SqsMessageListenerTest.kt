@@ -5,8 +5,10 @@ import com.example.challenge.appconsumer.service.DataProcessorService
 import com.fasterxml.jackson.core.JsonProcessingException
 import com.fasterxml.jackson.databind.ObjectMapper
 import com.fasterxml.jackson.databind.SerializationFeature
+import com.fasterxml.jackson.dataformat.smile.SmileFactory
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule
 import com.fasterxml.jackson.module.kotlin.KotlinModule
+import io.awspring.cloud.sqs.listener.acknowledgement.Acknowledgement
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.DisplayName
 import org.junit.jupiter.api.Test
@@ -17,13 +19,15 @@ import org.mockito.Mockito.never
 import org.mockito.Mockito.verify
 import org.mockito.junit.jupiter.MockitoExtension
 import org.mockito.kotlin.any
-import org.mockito.kotlin.doNothing
 import org.mockito.kotlin.doThrow
 import org.mockito.kotlin.eq
 import org.mockito.kotlin.times
 import org.mockito.kotlin.whenever
+import java.time.Instant
 import java.time.LocalDateTime
+import java.util.Base64
 import java.util.UUID
+import java.util.concurrent.CompletableFuture
 
 @ExtendWith(MockitoExtension::class)
 class SqsMessageListenerTest {
@@ -31,6 +35,9 @@ class SqsMessageListenerTest {
     @Mock
     private lateinit var dataProcessorService: DataProcessorService
 
+    @Mock
+    private lateinit var acknowledgement: Acknowledgement
+
     private lateinit var objectMapper: ObjectMapper
 
     private lateinit var sqsMessageListener: SqsMessageListener
@@ -60,11 +67,59 @@ class SqsMessageListenerTest {
         )
         val messageBody = objectMapper.writeValueAsString(transactionEvent)
 
-        doNothing().whenever(dataProcessorService).processEvent(any())
+        whenever(dataProcessorService.processEvent(any())).thenReturn(CompletableFuture.completedFuture(null))
 
-        sqsMessageListener.receiveMessage(messageBody)
+        sqsMessageListener.receiveMessage(messageBody, emptyMap(), acknowledgement)
 
         verify(dataProcessorService, times(1)).processEvent(eq(transactionEvent))
+        verify(acknowledgement, times(1)).acknowledgeAsync()
+    }
+
+    @Test
+    @DisplayName("Deve aceitar o evento no formato publicado pelo app-producer")
+    fun shouldAcceptProducerEventFormat() {
+        val messageBody = """
+            {"transactionId":"tx_001","transactionType":"PIX","transactionAmount":150.50,
+             "transactionTimestamp":"2024-01-15T10:30:00Z","customerIdentifier":"cust_123",
+             "transactionMetadata":{"channel":"mobile"},"processingTimestamp":"2024-01-15T10:31:00Z",
+             "transactionCategory":"TRANSFER","sourceFileId":"file-1"}
+        """.trimIndent()
+
+        whenever(dataProcessorService.processEvent(any())).thenReturn(CompletableFuture.completedFuture(null))
+
+        sqsMessageListener.receiveMessage(messageBody, emptyMap(), acknowledgement)
+
+        verify(dataProcessorService, times(1)).processEvent(eq(TransactionEvent(
+            transactionId = "tx_001",
+            userId = "cust_123",
+            amount = 150.50,
+            currency = "BRL",
+            transactionDate = LocalDateTime.of(2024, 1, 15, 10, 30),
+            status = "PENDING",
+            sourceFileId = "file-1",
+            processingTimestamp = Instant.parse("2024-01-15T10:31:00Z")
+        )))
+    }
+
+    @Test
+    @DisplayName("Deve processar todos os eventos de uma mensagem agrupada no formato Smile")
+    fun shouldProcessPackedSmileMessage() {
+        val events = (1..3).map {
+            TransactionEvent(
+                transactionId = "tx-$it",
+                userId = "user123",
+                amount = 10.0 * it,
+                transactionDate = LocalDateTime.of(2024, 1, 15, 10, it)
+            )
+        }
+        val messageBody = Base64.getEncoder().encodeToString(objectMapper.copyWith(SmileFactory()).writeValueAsBytes(events))
+
+        whenever(dataProcessorService.processEvent(any())).thenReturn(CompletableFuture.completedFuture(null))
+
+        sqsMessageListener.receiveMessage(messageBody, mapOf(TransactionEventDecoder.CONTENT_ENCODING_ATTRIBUTE to "smile"), acknowledgement)
+
+        events.forEach { verify(dataProcessorService, times(1)).processEvent(eq(it)) }
+        verify(acknowledgement, times(1)).acknowledgeAsync()
     }
 
     @Test
@@ -73,13 +128,14 @@ class SqsMessageListenerTest {
         val invalidJsonMessage = "{ \"transactionId\": \"123\", \"userId\": \"user\", "
 
         val exception = assertThrows<Exception> { // O listener encapsula JsonProcessingException em Exception
-            sqsMessageListener.receiveMessage(invalidJsonMessage)
+            sqsMessageListener.receiveMessage(invalidJsonMessage, emptyMap(), acknowledgement)
         }
 
         assert(exception.cause is JsonProcessingException) { "Esperava-se que a causa fosse JsonProcessingException, mas foi ${exception.cause?.javaClass?.simpleName}" }
         assert(exception.message?.contains("Erro ao processar mensagem SQS") == true) { "Esperava-se que a mensagem contivesse 'Erro ao processar mensagem SQS'" }
 
         verify(dataProcessorService, never()).processEvent(any())
+        verify(acknowledgement, never()).acknowledgeAsync()
     }
 
     @Test
@@ -100,11 +156,51 @@ class SqsMessageListenerTest {
         doThrow(RuntimeException(expectedErrorMessage)).whenever(dataProcessorService).processEvent(any())
 
         val exception = assertThrows<RuntimeException> {
-            sqsMessageListener.receiveMessage(messageBody)
+            sqsMessageListener.receiveMessage(messageBody, emptyMap(), acknowledgement)
         }
 
         assert(exception.message == expectedErrorMessage)
 
         verify(dataProcessorService, times(1)).processEvent(eq(transactionEvent))
+        verify(acknowledgement, never()).acknowledgeAsync()
+    }
+
+    @Test
+    @DisplayName("Deve confirmar a mensagem somente após o envio do arquivo Parquet com o evento ao S3")
+    fun shouldAcknowledgeOnlyAfterParquetPartUpload() {
+        val transactionEvent = TransactionEvent(
+            transactionId = "tx_parquet",
+            userId = "user789",
+            amount = 50.0,
+            transactionDate = LocalDateTime.of(2024, 1, 15, 10, 0)
+        )
+        val partUploaded = CompletableFuture<Void>()
+        whenever(dataProcessorService.processEvent(any())).thenReturn(partUploaded)
+
+        sqsMessageListener.receiveMessage(objectMapper.writeValueAsString(transactionEvent), emptyMap(), acknowledgement)
+
+        verify(acknowledgement, never()).acknowledgeAsync()
+
+        partUploaded.complete(null)
+
+        verify(acknowledgement, times(1)).acknowledgeAsync()
+    }
+
+    @Test
+    @DisplayName("Não deve confirmar a mensagem quando o envio do arquivo Parquet falhar")
+    fun shouldNotAcknowledgeWhenParquetPartUploadFails() {
+        val transactionEvent = TransactionEvent(
+            transactionId = "tx_parquet",
+            userId = "user789",
+            amount = 50.0,
+            transactionDate = LocalDateTime.of(2024, 1, 15, 10, 0)
+        )
+        val partUploaded = CompletableFuture<Void>()
+        whenever(dataProcessorService.processEvent(any())).thenReturn(partUploaded)
+
+        sqsMessageListener.receiveMessage(objectMapper.writeValueAsString(transactionEvent), emptyMap(), acknowledgement)
+        partUploaded.completeExceptionally(RuntimeException("Falha no upload"))
+
+        verify(acknowledgement, never()).acknowledgeAsync()
     }
-}
\ No newline at end of file
+}
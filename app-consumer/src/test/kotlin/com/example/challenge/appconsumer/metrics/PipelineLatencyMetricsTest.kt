@@ -0,0 +1,86 @@
+package com.example.challenge.appconsumer.metrics
+
+import com.example.challenge.appconsumer.model.MessageTrace
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.DisplayName
+import org.junit.jupiter.api.Test
+import java.math.BigDecimal
+import java.time.Instant
+import java.util.concurrent.TimeUnit
+
+class PipelineLatencyMetricsTest {
+
+    private lateinit var registry: SimpleMeterRegistry
+
+    private lateinit var latencyMetrics: PipelineLatencyMetrics
+
+    @BeforeEach
+    fun setUp() {
+        registry = SimpleMeterRegistry()
+        latencyMetrics = PipelineLatencyMetrics(registry)
+    }
+
+    @Test
+    @DisplayName("Deve registrar a latência de ponta a ponta e o atraso de cada etapa")
+    fun shouldRecordEndToEndLatencyAndStageLag() {
+        val trace = MessageTrace(fileIngestedAt = 1_000, rowParsedAt = 1_050, publishedAt = 1_250, receivedAt = 2_250)
+
+        latencyMetrics.recordWritten(trace, writtenAt = 2_400)
+
+        assertEquals(1_400.0, registry.get("consumer.e2e.latency").timer().totalTime(TimeUnit.MILLISECONDS))
+        assertEquals(50.0, stageLag("parse"))
+        assertEquals(200.0, stageLag("publish"))
+        assertEquals(1_000.0, stageLag("queue"))
+        assertEquals(150.0, stageLag("write"))
+    }
+
+    @Test
+    @DisplayName("Deve registrar como zero o atraso negativo causado pelo desvio entre relógios")
+    fun shouldClampNegativeLagToZero() {
+        latencyMetrics.recordWritten(MessageTrace(publishedAt = 5_000, receivedAt = 4_900), writtenAt = 5_100)
+
+        assertEquals(0.0, stageLag("queue"))
+        assertEquals(1, registry.get("consumer.stage.lag").tag("stage", "queue").timer().count())
+        assertEquals(0, registry.get("consumer.e2e.latency").timer().count())
+    }
+
+    @Test
+    @DisplayName("Deve registrar o tempo até o primeiro evento gravado apenas uma vez, mesmo sem rastreamento")
+    fun shouldRecordTimeToFirstMessageOnce() {
+        latencyMetrics.recordWritten(null)
+        val firstMessage = registry.get("consumer.startup.first.message").timeGauge().value(TimeUnit.MILLISECONDS)
+        assertTrue(firstMessage > 0)
+
+        latencyMetrics.recordWritten(null, writtenAt = System.currentTimeMillis() + 60_000)
+
+        assertEquals(firstMessage, registry.get("consumer.startup.first.message").timeGauge().value(TimeUnit.MILLISECONDS))
+    }
+
+    @Test
+    @DisplayName("Deve ler o rastreamento dos atributos da mensagem SQS")
+    fun shouldReadTraceFromMessageHeaders() {
+        val headers = mapOf(
+                MessageTrace.TRACEPARENT_ATTRIBUTE to "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01",
+                MessageTrace.FILE_INGESTED_AT_ATTRIBUTE to BigDecimal("1705312800000"),
+                MessageTrace.ROW_PARSED_AT_ATTRIBUTE to "1705312800100",
+                "Sqs_Msa_SentTimestamp" to "1705312800300",
+                "Sqs_ReceivedAt" to Instant.ofEpochMilli(1705312801000)
+        )
+
+        val trace = MessageTrace.fromHeaders(headers)!!
+
+        assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", trace.traceId)
+        assertEquals(1705312800000, trace.fileIngestedAt)
+        assertEquals(1705312800100, trace.rowParsedAt)
+        assertEquals(1705312800300, trace.publishedAt)
+        assertEquals(1705312801000, trace.receivedAt)
+        assertNull(MessageTrace.fromHeaders(mapOf("id" to "1")))
+    }
+
+    private fun stageLag(stage: String): Double =
+            registry.get("consumer.stage.lag").tag("stage", stage).timer().totalTime(TimeUnit.MILLISECONDS)
+}
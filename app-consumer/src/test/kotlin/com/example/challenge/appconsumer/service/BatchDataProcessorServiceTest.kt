@@ -0,0 +1,112 @@
+package com.example.challenge.appconsumer.service
+
+import com.example.challenge.appconsumer.model.TransactionEvent
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.SerializationFeature
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule
+import com.fasterxml.jackson.module.kotlin.KotlinModule
+import com.fasterxml.jackson.module.kotlin.readValue
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.DisplayName
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.extension.ExtendWith
+import org.mockito.ArgumentMatchers.startsWith
+import org.mockito.Mock
+import org.mockito.Mockito.lenient
+import org.mockito.junit.jupiter.MockitoExtension
+import org.mockito.kotlin.any
+import org.mockito.kotlin.argumentCaptor
+import org.mockito.kotlin.doThrow
+import org.mockito.kotlin.eq
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+import java.time.LocalDateTime
+
+@ExtendWith(MockitoExtension::class)
+class BatchDataProcessorServiceTest {
+
+    @Mock
+    private lateinit var s3Service: S3Service
+
+    private lateinit var objectMapper: ObjectMapper
+
+    private val s3OutputBucketName = "test-processed-data-bucket"
+
+    private lateinit var batchDataProcessorService: BatchDataProcessorService
+
+    @BeforeEach
+    fun setUp() {
+        objectMapper = ObjectMapper().apply {
+            registerModule(KotlinModule.Builder().build())
+            registerModule(JavaTimeModule())
+            disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        }
+        val dataProcessorService = DataProcessorService(s3Service, objectMapper, s3OutputBucketName)
+        batchDataProcessorService = BatchDataProcessorService(dataProcessorService, s3Service, objectMapper, s3OutputBucketName, 4)
+    }
+
+    @AfterEach
+    fun tearDown() {
+        batchDataProcessorService.shutdown()
+    }
+
+    @Test
+    @DisplayName("Deve gravar um único objeto NDJSON por partição de data")
+    fun shouldWriteOneObjectPerDatePartition() {
+        val events = mapOf(
+                0 to event("tx-1", LocalDateTime.of(2024, 1, 15, 10, 0)),
+                1 to event("tx-2", LocalDateTime.of(2024, 1, 15, 18, 30)),
+                2 to event("tx-3", LocalDateTime.of(2024, 1, 16, 9, 0))
+        )
+
+        val writes = batchDataProcessorService.processEvents(events)
+
+        assertEquals(setOf(0, 1, 2), writtenKeys(writes))
+        val keys = argumentCaptor<String>()
+        val contents = argumentCaptor<ByteArray>()
+        verify(s3Service, times(2)).uploadProcessedData(eq(s3OutputBucketName), keys.capture(), contents.capture(), eq("application/x-ndjson"))
+
+        val linesByDay = keys.allValues.zip(contents.allValues).associate { (key, content) ->
+            key.substringAfter("processed-transactions/").substringBeforeLast("/") to String(content).trim().lines()
+        }
+        assertEquals(setOf("2024/01/15", "2024/01/16"), linesByDay.keys)
+        assertEquals(2, linesByDay.getValue("2024/01/15").size)
+
+        val processed = objectMapper.readValue<TransactionEvent>(linesByDay.getValue("2024/01/16").single())
+        assertEquals(events.getValue(2).copy(status = "PROCESSED", originalSource = "SQS-Consumer"), processed)
+        assertTrue(keys.allValues.all { it.endsWith(".ndjson") })
+    }
+
+    @Test
+    @DisplayName("Não deve retornar os eventos de uma partição cuja gravação falhou")
+    fun shouldExcludeEventsOfFailedPartition() {
+        // Leniente: as partições são gravadas em paralelo, e a gravação de 2024/01/15 pode ocorrer antes desta
+        lenient().doThrow(RuntimeException("Erro de upload para S3 simulado")).whenever(s3Service)
+                .uploadProcessedData(any(), startsWith("processed-transactions/2024/01/16/"), any<ByteArray>(), any())
+
+        val writes = batchDataProcessorService.processEvents(mapOf(
+                "a" to event("tx-1", LocalDateTime.of(2024, 1, 15, 10, 0)),
+                "b" to event("tx-2", LocalDateTime.of(2024, 1, 16, 10, 0))
+        ))
+
+        assertTrue(writes.all { it.completion.isDone })
+        assertEquals(setOf("a"), writtenKeys(writes))
+    }
+
+    private fun <K> writtenKeys(writes: List<BatchDataProcessorService.PartitionWrite<K>>): Set<K> =
+            writes.filterNot { it.completion.isCompletedExceptionally }.flatMap { it.keys }.toSet()
+
+    private fun event(transactionId: String, transactionDate: LocalDateTime) = TransactionEvent(
+            transactionId = transactionId,
+            userId = "user123",
+            amount = 150.75,
+            currency = "BRL",
+            transactionDate = transactionDate,
+            status = "PENDING",
+            originalSource = "SQS"
+    )
+}
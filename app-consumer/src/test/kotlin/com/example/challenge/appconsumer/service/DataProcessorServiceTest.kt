@@ -1,10 +1,14 @@
 package com.example.challenge.appconsumer.service
 
 import com.example.challenge.appconsumer.model.TransactionEvent
+import com.example.challenge.appconsumer.sink.ParquetPartitionSink
 import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.ObjectWriter
 import com.fasterxml.jackson.databind.SerializationFeature
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule
 import com.fasterxml.jackson.module.kotlin.KotlinModule
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertTrue
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.DisplayName
 import org.junit.jupiter.api.Test
@@ -13,6 +17,7 @@ import org.junit.jupiter.api.extension.ExtendWith
 import org.mockito.Mock
 import org.mockito.junit.jupiter.MockitoExtension
 import org.mockito.kotlin.any
+import org.mockito.kotlin.argThat
 import org.mockito.kotlin.doNothing
 import org.mockito.kotlin.doThrow
 import org.mockito.kotlin.eq
@@ -22,6 +27,7 @@ import org.mockito.kotlin.whenever
 import java.time.LocalDateTime
 import java.time.format.DateTimeFormatter
 import java.util.UUID
+import java.util.concurrent.CompletableFuture
 
 @ExtendWith(MockitoExtension::class)
 class DataProcessorServiceTest {
@@ -61,7 +67,7 @@ class DataProcessorServiceTest {
             originalSource = "SQS"
         )
 
-        doNothing().whenever(s3Service).uploadProcessedData(any(), any(), any())
+        doNothing().whenever(s3Service).uploadProcessedData(any(), any(), any<ByteArray>(), any())
 
         dataProcessorService.processEvent(inputEvent)
 
@@ -69,7 +75,7 @@ class DataProcessorServiceTest {
             status = "PROCESSED",
             originalSource = "SQS-Consumer"
         )
-        val expectedProcessedJson = objectMapper.writeValueAsString(expectedProcessedEvent)
+        val expectedProcessedJson = objectMapper.writeValueAsBytes(expectedProcessedEvent)
 
         // Gerando a chave S3 esperada
         val dateFormatter = DateTimeFormatter.ofPattern("yyyy/MM/dd")
@@ -78,7 +84,8 @@ class DataProcessorServiceTest {
         verify(s3Service, times(1)).uploadProcessedData(
             eq(s3OutputBucketName),
             eq(expectedS3Key),
-            eq(expectedProcessedJson)
+            argThat<ByteArray> { contentEquals(expectedProcessedJson) },
+            eq("application/json")
         )
     }
 
@@ -86,6 +93,8 @@ class DataProcessorServiceTest {
     @DisplayName("Deve lançar exceção se a conversão JSON falhar")
     fun shouldThrowExceptionIfJsonConversionFails() {
         val failingObjectMapper = org.mockito.kotlin.mock<ObjectMapper>()
+        val failingWriter = org.mockito.kotlin.mock<ObjectWriter>()
+        whenever(failingObjectMapper.writerFor(TransactionEvent::class.java)).thenReturn(failingWriter)
         val dataProcessorServiceWithFailingMapper = DataProcessorService(s3Service, failingObjectMapper, s3OutputBucketName)
 
         val inputEvent = TransactionEvent(
@@ -99,7 +108,7 @@ class DataProcessorServiceTest {
         )
 
         val expectedErrorMessage = "Erro de serialização JSON simulado"
-        whenever(failingObjectMapper.writeValueAsString(any())).thenThrow(RuntimeException(expectedErrorMessage))
+        whenever(failingWriter.writeValueAsBytes(any())).thenThrow(RuntimeException(expectedErrorMessage))
 
         val exception = assertThrows<RuntimeException> {
             dataProcessorServiceWithFailingMapper.processEvent(inputEvent)
@@ -107,7 +116,7 @@ class DataProcessorServiceTest {
 
         assert(exception.message == expectedErrorMessage)
 
-        verify(s3Service, times(0)).uploadProcessedData(any(), any(), any())
+        verify(s3Service, times(0)).uploadProcessedData(any(), any(), any<ByteArray>(), any())
     }
 
     @Test
@@ -124,7 +133,7 @@ class DataProcessorServiceTest {
         )
         val expectedErrorMessage = "Erro de upload para S3 simulado"
 
-        doThrow(RuntimeException(expectedErrorMessage)).whenever(s3Service).uploadProcessedData(any(), any(), any())
+        doThrow(RuntimeException(expectedErrorMessage)).whenever(s3Service).uploadProcessedData(any(), any(), any<ByteArray>(), any())
 
         val exception = assertThrows<RuntimeException> {
             dataProcessorService.processEvent(inputEvent)
@@ -136,14 +145,64 @@ class DataProcessorServiceTest {
             status = "PROCESSED",
             originalSource = "SQS-Consumer"
         )
-        val expectedProcessedJson = objectMapper.writeValueAsString(expectedProcessedEvent)
+        val expectedProcessedJson = objectMapper.writeValueAsBytes(expectedProcessedEvent)
         val dateFormatter = DateTimeFormatter.ofPattern("yyyy/MM/dd")
         val expectedS3Key = "processed-transactions/${inputEvent.transactionDate.format(dateFormatter)}/${inputEvent.transactionId}.json"
 
         verify(s3Service, times(1)).uploadProcessedData(
             eq(s3OutputBucketName),
             eq(expectedS3Key),
-            eq(expectedProcessedJson)
+            argThat<ByteArray> { contentEquals(expectedProcessedJson) },
+            eq("application/json")
         )
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deve descartar o evento de uma transação já processada sem gravar no S3")
+    fun shouldSkipAlreadyProcessedTransaction() {
+        val idempotencyService = org.mockito.kotlin.mock<TransactionIdempotencyService>()
+        val service = DataProcessorService(s3Service, objectMapper, s3OutputBucketName, idempotencyService = idempotencyService)
+        val inputEvent = TransactionEvent(
+            transactionId = UUID.randomUUID().toString(),
+            userId = "user123",
+            amount = 150.75,
+            currency = "USD",
+            transactionDate = LocalDateTime.now(),
+            status = "PENDING",
+            sourceFileId = "file-1"
+        )
+        whenever(idempotencyService.isProcessed(inputEvent)).thenReturn(true)
+
+        service.processEvent(inputEvent)
+
+        verify(s3Service, times(0)).uploadProcessedData(any(), any(), any<ByteArray>(), any())
+        verify(idempotencyService, times(0)).markProcessed(any())
+    }
+
+    @Test
+    @DisplayName("No formato Parquet, deve concluir o processamento somente após o envio do arquivo da partição ao S3")
+    fun shouldCompleteOnlyAfterParquetPartUpload() {
+        val parquetPartitionSink = org.mockito.kotlin.mock<ParquetPartitionSink>()
+        val idempotencyService = org.mockito.kotlin.mock<TransactionIdempotencyService>()
+        val service = DataProcessorService(s3Service, objectMapper, s3OutputBucketName, parquetPartitionSink, idempotencyService)
+        val inputEvent = TransactionEvent(
+            transactionId = "tx_parquet",
+            userId = "user123",
+            amount = 150.75,
+            transactionDate = LocalDateTime.of(2023, 10, 27, 10, 30, 0),
+            sourceFileId = "file-1"
+        )
+        val partUploaded = CompletableFuture<Void>()
+        whenever(parquetPartitionSink.append(eq("2023/10/27"), any())).thenReturn(partUploaded)
+
+        val written = service.processEvent(inputEvent)
+
+        assertFalse(written.isDone)
+        verify(idempotencyService, times(0)).markProcessed(any())
+
+        partUploaded.complete(null)
+
+        assertTrue(written.isDone)
+        verify(idempotencyService, times(1)).markProcessed(eq(inputEvent))
+    }
+}
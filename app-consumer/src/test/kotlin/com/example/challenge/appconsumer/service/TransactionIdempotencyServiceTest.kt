@@ -0,0 +1,95 @@
+package com.example.challenge.appconsumer.service
+
+import com.example.challenge.appconsumer.config.IdempotencyProperties
+import com.example.challenge.appconsumer.model.TransactionEvent
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.DisplayName
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.extension.ExtendWith
+import org.mockito.Mock
+import org.mockito.junit.jupiter.MockitoExtension
+import org.mockito.kotlin.any
+import org.mockito.kotlin.argumentCaptor
+import org.mockito.kotlin.never
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest
+import software.amazon.awssdk.services.dynamodb.model.PutItemResponse
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse
+import java.time.LocalDateTime
+
+@ExtendWith(MockitoExtension::class)
+class TransactionIdempotencyServiceTest {
+
+    @Mock
+    private lateinit var dynamoDbClient: DynamoDbClient
+
+    private lateinit var idempotencyService: TransactionIdempotencyService
+
+    @BeforeEach
+    fun setUp() {
+        idempotencyService = TransactionIdempotencyService(dynamoDbClient, IdempotencyProperties(enabled = true))
+    }
+
+    @Test
+    @DisplayName("Não deve consultar o DynamoDB por evento de um arquivo sem transações processadas")
+    fun shouldNotLookUpEventsOfNewFile() {
+        whenever(dynamoDbClient.query(any<QueryRequest>())).thenReturn(QueryResponse.builder().items(emptyList()).build())
+
+        for (i in 0 until 500) {
+            assertFalse(idempotencyService.isProcessed(event("tx-$i")))
+        }
+
+        verify(dynamoDbClient, times(1)).query(any<QueryRequest>())
+        verify(dynamoDbClient, never()).getItem(any<GetItemRequest>())
+    }
+
+    @Test
+    @DisplayName("Deve confirmar no DynamoDB as transações já processadas do arquivo")
+    fun shouldConfirmProcessedTransactions() {
+        whenever(dynamoDbClient.query(any<QueryRequest>())).thenReturn(QueryResponse.builder()
+                .items(listOf(mapOf("idempotencyKey" to AttributeValue.fromS("PROCESSED#tx-1"))))
+                .build())
+        whenever(dynamoDbClient.getItem(any<GetItemRequest>())).thenReturn(GetItemResponse.builder()
+                .item(mapOf("idempotencyKey" to AttributeValue.fromS("PROCESSED#tx-1")))
+                .build())
+
+        assertTrue(idempotencyService.isProcessed(event("tx-1")))
+        verify(dynamoDbClient, times(1)).getItem(any<GetItemRequest>())
+    }
+
+    @Test
+    @DisplayName("Deve registrar a transação com escrita condicional e detectar entregas duplicadas")
+    fun shouldRecordWithConditionalWrite() {
+        whenever(dynamoDbClient.putItem(any<PutItemRequest>()))
+                .thenReturn(PutItemResponse.builder().build())
+                .thenThrow(ConditionalCheckFailedException.builder().message("duplicada").build())
+
+        assertTrue(idempotencyService.markProcessed(event("tx-1")))
+        assertFalse(idempotencyService.markProcessed(event("tx-1")))
+
+        val requests = argumentCaptor<PutItemRequest>()
+        verify(dynamoDbClient, times(2)).putItem(requests.capture())
+        assertTrue(requests.firstValue.conditionExpression() == "attribute_not_exists(idempotencyKey)")
+        assertTrue(requests.firstValue.item().getValue("idempotencyKey").s() == "PROCESSED#tx-1")
+    }
+
+    private fun event(transactionId: String) = TransactionEvent(
+            transactionId = transactionId,
+            userId = "user-1",
+            amount = 10.0,
+            currency = "BRL",
+            transactionDate = LocalDateTime.of(2024, 1, 15, 10, 0),
+            status = "PENDING",
+            sourceFileId = "file-1"
+    )
+}
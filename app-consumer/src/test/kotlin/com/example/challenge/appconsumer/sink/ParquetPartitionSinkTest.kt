@@ -0,0 +1,123 @@
+package com.example.challenge.appconsumer.sink
+
+import com.example.challenge.appconsumer.concurrency.AdaptiveConcurrencyLimiter
+import com.example.challenge.appconsumer.config.AdaptiveConcurrencyProperties
+import com.example.challenge.appconsumer.config.ProcessedOutputProperties
+import com.example.challenge.appconsumer.model.TransactionEvent
+import com.example.challenge.appconsumer.service.S3Service
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.apache.parquet.column.Encoding
+import org.apache.parquet.hadoop.ParquetFileReader
+import org.apache.parquet.hadoop.metadata.ParquetMetadata
+import org.apache.parquet.io.LocalInputFile
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.DisplayName
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.extension.ExtendWith
+import org.mockito.Mock
+import org.mockito.junit.jupiter.MockitoExtension
+import org.mockito.kotlin.any
+import org.mockito.kotlin.eq
+import org.mockito.kotlin.whenever
+import org.springframework.util.unit.DataSize
+import software.amazon.awssdk.services.s3.model.S3Exception
+import java.nio.file.Path
+import java.time.Duration
+import java.time.LocalDateTime
+import java.util.concurrent.TimeUnit
+
+@ExtendWith(MockitoExtension::class)
+class ParquetPartitionSinkTest {
+
+    @Mock
+    private lateinit var s3Service: S3Service
+
+    private val s3OutputBucketName = "test-processed-data-bucket"
+
+    /** Metadados dos arquivos enviados, lidos antes da remoção do arquivo local. */
+    private val uploads = mutableMapOf<String, ParquetMetadata>()
+
+    @Test
+    @DisplayName("Deve gravar um arquivo Parquet por partição no encerramento, com dictionary encoding em currency e status")
+    fun shouldFinalizePartitionFilesOnClose() {
+        captureUploads()
+        val sink = ParquetPartitionSink(s3Service, properties(DataSize.ofMegabytes(128), Duration.ofHours(1)), s3OutputBucketName)
+
+        val first = sink.append("2024/01/15", (1..100).map { event("tx-$it", LocalDateTime.of(2024, 1, 15, 10, 0)) })
+        val second = sink.append("2024/01/16", listOf(event("tx-101", LocalDateTime.of(2024, 1, 16, 10, 0))))
+        assertFalse(first.isDone)
+
+        sink.close()
+
+        assertTrue(first.isDone && !first.isCompletedExceptionally)
+        assertTrue(second.isDone && !second.isCompletedExceptionally)
+        assertEquals(2, uploads.size)
+        val (key, metadata) = uploads.entries.single { it.key.startsWith("processed-transactions/2024/01/15/") }
+        assertTrue(key.endsWith(".parquet"))
+        assertEquals(100L, metadata.blocks.sumOf { it.rowCount })
+
+        val columns = metadata.blocks.first().columns.associateBy { it.path.toDotString() }
+        assertTrue(columns.getValue("currency").encodings.any { it.usesDictionary() })
+        assertTrue(columns.getValue("status").encodings.any { it.usesDictionary() })
+        assertFalse(columns.getValue("transactionId").encodings.any { it.usesDictionary() })
+        assertTrue(Encoding.PLAIN in columns.getValue("transactionId").encodings)
+    }
+
+    @Test
+    @DisplayName("Deve rotacionar o arquivo da partição por tempo")
+    fun shouldRollPartitionFileByTime() {
+        captureUploads()
+        val sink = ParquetPartitionSink(s3Service, properties(DataSize.ofMegabytes(128), Duration.ofMillis(200)), s3OutputBucketName)
+        try {
+            val completion = sink.append("2024/01/15", listOf(event("tx-1", LocalDateTime.of(2024, 1, 15, 10, 0))))
+
+            completion.get(10, TimeUnit.SECONDS)
+
+            assertEquals(1, uploads.size)
+        } finally {
+            sink.close()
+        }
+    }
+
+    @Test
+    @DisplayName("Deve informar ao limitador de concorrência o throttling do S3 no envio de um arquivo")
+    fun shouldReportUploadThrottlingToLimiter() {
+        val slowDown = S3Exception.builder().statusCode(503).message("SlowDown").build()
+        whenever(s3Service.uploadFile(eq(s3OutputBucketName), any(), any(), any())).thenThrow(slowDown)
+        val limiter = AdaptiveConcurrencyLimiter(AdaptiveConcurrencyProperties(enabled = true, initialLimit = 8, minLimit = 1,
+                maxLimit = 16, backoffRatio = 0.5), SimpleMeterRegistry())
+        val sink = ParquetPartitionSink(s3Service, properties(DataSize.ofMegabytes(128), Duration.ofHours(1)), s3OutputBucketName, limiter)
+
+        val completion = sink.append("2024/01/15", listOf(event("tx-1", LocalDateTime.of(2024, 1, 15, 10, 0))))
+        sink.close()
+
+        assertTrue(completion.isCompletedExceptionally)
+        assertEquals(4, limiter.limit)
+    }
+
+    private fun captureUploads() {
+        whenever(s3Service.uploadFile(eq(s3OutputBucketName), any(), any(), any())).thenAnswer { invocation ->
+            val path = invocation.getArgument<Path>(2)
+            ParquetFileReader.open(LocalInputFile(path)).use { reader ->
+                uploads[invocation.getArgument(1)] = reader.footer
+            }
+        }
+    }
+
+    private fun properties(maxFileSize: DataSize, rollInterval: Duration) = ProcessedOutputProperties(
+            format = ProcessedOutputProperties.OutputFormat.PARQUET,
+            parquet = ProcessedOutputProperties.Parquet(maxFileSize = maxFileSize, rollInterval = rollInterval)
+    )
+
+    private fun event(transactionId: String, transactionDate: LocalDateTime) = TransactionEvent(
+            transactionId = transactionId,
+            userId = "user123",
+            amount = 150.75,
+            currency = "BRL",
+            transactionDate = transactionDate,
+            status = "PROCESSED",
+            originalSource = "SQS-Consumer"
+    )
+}
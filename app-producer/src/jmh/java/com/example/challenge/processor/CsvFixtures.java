@@ -0,0 +1,71 @@
+package com.example.challenge.processor;
+
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Gera arquivos CSV de transações de tamanho configurável para os benchmarks, a partir das linhas de exemplo
+ * de {@code docs/example_valid.csv} e {@code docs/example_invalid.csv}. Cada linha gerada repete uma linha de exemplo
+ * com um transaction_id único. O diretório dos exemplos é definido pela propriedade de sistema {@code fixtures.dir}.
+ */
+final class CsvFixtures {
+
+    private static final Path FIXTURES_DIR = Path.of(System.getProperty("fixtures.dir", "../docs"));
+
+    private CsvFixtures() {
+    }
+
+    /**
+     * @param rows O número de linhas de dados.
+     * @param invalidPercent O percentual de linhas geradas a partir dos exemplos inválidos (0 a 100).
+     * @return O conteúdo do CSV, com a linha de cabeçalho dos exemplos.
+     */
+    static String generate(int rows, int invalidPercent) {
+        List<String> valid = readLines("example_valid.csv");
+        List<String> invalid = readLines("example_invalid.csv");
+
+        StringBuilder csv = new StringBuilder(valid.get(0)).append('\n');
+        for (int i = 0; i < rows; i++) {
+            List<String> templates = i % 100 < invalidPercent ? invalid : valid;
+            String template = templates.get(1 + i % (templates.size() - 1));
+            csv.append("tx_").append(i).append(template, template.indexOf(','), template.length()).append('\n');
+        }
+        return csv.toString();
+    }
+
+    /**
+     * @return Os registros do CSV gerado, já separados pelo commons-csv com o formato do processador.
+     */
+    static ParsedFixture parse(int rows, int invalidPercent) {
+        try (CSVParser parser = new CSVParser(new StringReader(generate(rows, invalidPercent)), TransactionFileProcessor.CSV_FORMAT)) {
+            return new ParsedFixture(parser.getHeaderNames(), parser.getRecords());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<String> readLines(String fileName) {
+        try {
+            List<String> lines = Files.readAllLines(FIXTURES_DIR.resolve(fileName), StandardCharsets.UTF_8).stream()
+                    .filter(line -> !line.isBlank())
+                    .toList();
+            if (lines.size() < 2) {
+                throw new IllegalStateException("O arquivo de exemplo " + fileName + " não possui linhas de dados.");
+            }
+            return lines;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao ler o arquivo de exemplo " + FIXTURES_DIR.resolve(fileName), e);
+        }
+    }
+
+    record ParsedFixture(List<String> headerNames, List<CSVRecord> records) {
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.challenge.processor;
+
+import com.example.challenge.config.AwsConfig;
+import com.example.challenge.config.SqsPublisherProperties;
+import com.example.challenge.metrics.ProducerMetrics;
+import com.example.challenge.metrics.RowDiagnostics;
+import com.example.challenge.model.SqsTransactionEvent;
+import com.example.challenge.model.Transaction;
+import com.example.challenge.publisher.TransactionEventEncoder;
+import com.example.challenge.rules.CompiledRules;
+import com.example.challenge.rules.ProcessingRulesDefinition;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.commons.csv.CSVRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Etapas do processamento de cada registro no producer, sobre arquivos gerados por {@link CsvFixtures}:
+ * validação pelas regras compiladas, transformação no evento SQS, serialização JSON do evento e o caminho
+ * completo de {@link TransactionFileProcessor#evaluateRecord} (decodificação, validação e transformação).
+ * A serialização é medida pela busca genérica do {@code ObjectMapper} ({@code serializeEvent}) e pelo
+ * {@link TransactionEventEncoder} sobre o ObjectMapper da aplicação, com writers já resolvidos e o Blackbird ({@code encodeEvent}).
+ * Cada operação processa todas as linhas do arquivo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RecordPipelineBenchmark {
+
+    private static final String RULES = """
+            {
+              "allowedTransactionTypes": ["PIX", "TED", "DOC"],
+              "amountRanges": {"*": {"min": 0.01}, "TED": {"min": 1.00, "max": 1000000.00}},
+              "categories": {"*": "TRANSFER", "PIX": "INSTANT"},
+              "requiredMetadata": {"*": ["channel"]}
+            }
+            """;
+
+    @Param({"10000"})
+    private int rows;
+
+    @Param({"10"})
+    private int invalidPercent;
+
+    private ObjectMapper objectMapper;
+    private TransactionEventEncoder encoder;
+    private CompiledRules rules;
+    private TransactionRecordDecoder decoder;
+    private TransactionFileProcessor processor;
+    private List<CSVRecord> csvRecords;
+    private List<Transaction> transactions;
+    private List<Transaction> validTransactions;
+    private List<SqsTransactionEvent> events;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Configuração do ObjectMapper da aplicação (AwsConfig) sem o Blackbird, como referência da serialização genérica
+        objectMapper = new ObjectMapper();
+        objectMapper.setPropertyNamingStrategy(PropertyNamingStrategies.LOWER_CAMEL_CASE);
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        encoder = TransactionEventEncoder.create(new AwsConfig().objectMapper(), SqsPublisherProperties.Encoding.JSON);
+
+        rules = CompiledRules.compile(objectMapper.readValue(RULES, ProcessingRulesDefinition.class), 1);
+        // evaluateRecord e transformToSqsEvent não usam os colaboradores de I/O do processador
+        processor = new TransactionFileProcessor(null, objectMapper, null, null, null, null, null, null, ProducerMetrics.noop(),
+                RowDiagnostics.defaults());
+
+        CsvFixtures.ParsedFixture fixture = CsvFixtures.parse(rows, invalidPercent);
+        csvRecords = fixture.records();
+        decoder = TransactionRecordDecoder.forHeader(fixture.headerNames(), objectMapper, RowDiagnostics.defaults(), "benchmark.csv");
+
+        transactions = new ArrayList<>(rows);
+        validTransactions = new ArrayList<>(rows);
+        events = new ArrayList<>(rows);
+        for (CSVRecord csvRecord : csvRecords) {
+            TransactionRecordDecoder.DecodeResult result = decoder.tryDecode(csvRecord);
+            if (!result.isDecoded()) {
+                continue;
+            }
+            Transaction transaction = result.transaction();
+            transactions.add(transaction);
+            if (rules.validate(transaction) == null) {
+                validTransactions.add(transaction);
+                events.add(processor.transformToSqsEvent(transaction, rules, "file_1"));
+            }
+        }
+    }
+
+    @Benchmark
+    public void validate(Blackhole blackhole) {
+        for (Transaction transaction : transactions) {
+            blackhole.consume(rules.validate(transaction));
+        }
+    }
+
+    @Benchmark
+    public void transformToSqsEvent(Blackhole blackhole) {
+        for (Transaction transaction : validTransactions) {
+            blackhole.consume(processor.transformToSqsEvent(transaction, rules, "file_1"));
+        }
+    }
+
+    @Benchmark
+    public void serializeEvent(Blackhole blackhole) throws JsonProcessingException {
+        for (SqsTransactionEvent event : events) {
+            blackhole.consume(objectMapper.writeValueAsString(event));
+        }
+    }
+
+    @Benchmark
+    public void encodeEvent(Blackhole blackhole) throws JsonProcessingException {
+        for (SqsTransactionEvent event : events) {
+            blackhole.consume(encoder.encode(List.of(event)));
+        }
+    }
+
+    @Benchmark
+    public void evaluateRecord(Blackhole blackhole) {
+        for (CSVRecord csvRecord : csvRecords) {
+            blackhole.consume(processor.evaluateRecord(decoder, rules, csvRecord, "file_1", "fixture.csv"));
+        }
+    }
+}
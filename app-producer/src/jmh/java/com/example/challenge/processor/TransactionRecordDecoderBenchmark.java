@@ -0,0 +1,84 @@
+package com.example.challenge.processor;
+
+import com.example.challenge.metrics.RowDiagnostics;
+import com.example.challenge.model.Transaction;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.apache.commons.csv.CSVRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o caminho genérico de parsing (busca por nome de coluna, {@code new BigDecimal}, {@code Instant.parse}
+ * e Jackson para os metadados) com o decodificador especializado ({@link TransactionRecordDecoder#tryDecode}), sobre registros válidos gerados por {@link CsvFixtures}
+ * e já separados pelo commons-csv. Também compara a leitura dos metadados JSON pela busca genérica do ObjectMapper
+ * ({@code readValue(json, HashMap.class)}) com um {@link ObjectReader} já resolvido, como no caminho genérico do decodificador.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TransactionRecordDecoderBenchmark {
+
+    @Param({"10000"})
+    private int rows;
+
+    private List<CSVRecord> csvRecords;
+    private TransactionRecordDecoder decoder;
+    private ObjectMapper objectMapper;
+    private ObjectReader metadataReader;
+    private List<String> metadataValues;
+
+    @Setup
+    public void setUp() {
+        CsvFixtures.ParsedFixture fixture = CsvFixtures.parse(rows, 0);
+        csvRecords = fixture.records();
+        objectMapper = new ObjectMapper();
+        decoder = TransactionRecordDecoder.forHeader(fixture.headerNames(), objectMapper, RowDiagnostics.defaults(), "benchmark.csv");
+        metadataReader = objectMapper.readerFor(HashMap.class);
+        metadataValues = csvRecords.stream()
+                .map(csvRecord -> csvRecord.get(TransactionRecordDecoder.METADATA))
+                .filter(metadata -> !metadata.isBlank())
+                .toList();
+    }
+
+    @Benchmark
+    public void genericParse(Blackhole blackhole) {
+        for (CSVRecord csvRecord : csvRecords) {
+            Transaction transaction = decoder.parseCsvRecord(csvRecord);
+            blackhole.consume(transaction);
+        }
+    }
+
+    @Benchmark
+    public void specializedDecode(Blackhole blackhole) {
+        for (CSVRecord csvRecord : csvRecords) {
+            blackhole.consume(decoder.tryDecode(csvRecord));
+        }
+    }
+
+    @Benchmark
+    public void readMetadataGeneric(Blackhole blackhole) throws JsonProcessingException {
+        for (String metadata : metadataValues) {
+            blackhole.consume(objectMapper.readValue(metadata, HashMap.class));
+        }
+    }
+
+    @Benchmark
+    public void readMetadataPrebuilt(Blackhole blackhole) throws JsonProcessingException {
+        for (String metadata : metadataValues) {
+            blackhole.consume(metadataReader.readValue(metadata));
+        }
+    }
+}
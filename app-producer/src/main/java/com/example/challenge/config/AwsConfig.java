@@ -4,13 +4,16 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.awscore.client.builder.AwsClientBuilder;
+import software.amazon.awssdk.core.client.builder.SdkAsyncClientBuilder;
+import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
-import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
 import software.amazon.awssdk.services.dynamodb.model.ListTablesResponse;
 import software.amazon.awssdk.services.dynamodb.model.ListTablesRequest;
 import software.amazon.awssdk.services.dynamodb.model.CreateTableRequest;
@@ -20,8 +23,10 @@ import software.amazon.awssdk.services.dynamodb.model.AttributeDefinition;
 import software.amazon.awssdk.services.dynamodb.model.ScalarAttributeType;
 import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughput;
 import software.amazon.awssdk.services.dynamodb.model.ResourceInUseException;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
 import software.amazon.awssdk.services.sqs.SqsClient;
 import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 import software.amazon.awssdk.services.secretsmanager.model.SecretsManagerException;
@@ -34,6 +39,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.services.ssm.SsmClient;
 
+/**
+ * Clientes AWS do producer. Os clientes síncronos usam o url-connection-client; os assíncronos (envios SQS e registros
+ * de idempotência no DynamoDB) compartilham o grupo de event loops e os pools de conexões por serviço do
+ * {@link AwsTransport}. Todos publicam as métricas do SDK.
+ * <p>
+ * Com o LocalStack, a tabela de arquivos processados é criada junto com o cliente DynamoDB, antes que qualquer
+ * repositório o use. O segredo do Google Drive é criado em paralelo pelo {@link StartupBootstrap}, e o
+ * {@link GoogleDriveConfig} aguarda essa tarefa antes de ler o segredo.
+ */
 @Configuration
 public class AwsConfig {
 
@@ -55,9 +69,10 @@ public class AwsConfig {
 
 
     /**
-     * Método genérico para configurar o builder do cliente AWS com endpoint do LocalStack
+     * Método genérico para configurar o builder do cliente AWS com endpoint do LocalStack e as métricas do SDK
      */
-    private <T extends AwsClientBuilder<?, ?>> T configureClientBuilder(T builder) {
+    private <T extends AwsClientBuilder<?, ?>> T configureClientBuilder(T builder, AwsTransport transport) {
+        builder.overrideConfiguration(transport.overrideConfiguration());
         if (localstackEnabled) {
             log.info("Configurando cliente AWS para LocalStack em: {}", localstackEndpoint);
             return (T) builder.endpointOverride(URI.create(localstackEndpoint))
@@ -68,15 +83,32 @@ public class AwsConfig {
         }
     }
 
+    /**
+     * Configura o builder de um cliente AWS assíncrono com o cliente HTTP do serviço no transporte compartilhado.
+     *
+     * @param service O nome do serviço em {@code app.aws.transport.max-connections}.
+     */
+    private <T extends AwsClientBuilder<?, ?> & SdkAsyncClientBuilder<?, ?>> T configureAsyncClientBuilder(T builder, AwsTransport transport,
+                                                                                                         String service) {
+        builder.httpClient(transport.asyncHttpClient(service));
+        return configureClientBuilder(builder, transport);
+    }
+
+    @Bean
+    public SqsClient sqsClient(AwsTransport transport) {
+        return configureClientBuilder(SqsClient.builder(), transport).build();
+    }
+
     @Bean
-    public SqsClient sqsClient() {
-        return configureClientBuilder(SqsClient.builder()).build();
+    public SqsAsyncClient sqsAsyncClient(AwsTransport transport) {
+        return configureAsyncClientBuilder(SqsAsyncClient.builder(), transport, "sqs").build();
     }
 
     @Bean
-    public DynamoDbClient dynamoDbClient() {
-        DynamoDbClient client = configureClientBuilder(DynamoDbClient.builder()).build();
+    public DynamoDbClient dynamoDbClient(AwsTransport transport) {
+        DynamoDbClient client = configureClientBuilder(DynamoDbClient.builder(), transport).build();
         if (localstackEnabled) {
+            // Síncrono: os repositórios leem a tabela assim que são usados, sem aguardar tarefas em segundo plano
             ensureDynamoDbTableExists(client, processedFilesTableName);
         }
         return client;
@@ -90,20 +122,32 @@ public class AwsConfig {
     }
 
     @Bean
-    public S3Client s3Client() {
-        return configureClientBuilder(S3Client.builder()).build();
+    public DynamoDbAsyncClient dynamoDbAsyncClient(AwsTransport transport) {
+        return configureAsyncClientBuilder(DynamoDbAsyncClient.builder(), transport, "dynamodb").build();
+    }
+
+    @Bean
+    public DynamoDbEnhancedAsyncClient dynamoDbEnhancedAsyncClient(DynamoDbAsyncClient dynamoDbAsyncClient) {
+        return DynamoDbEnhancedAsyncClient.builder()
+                .dynamoDbClient(dynamoDbAsyncClient)
+                .build();
+    }
+
+    @Bean
+    public S3Client s3Client(AwsTransport transport) {
+        return configureClientBuilder(S3Client.builder(), transport).build();
     }
 
     @Bean
-    public SsmClient ssmClient() {
-        return configureClientBuilder(SsmClient.builder()).build();
+    public SsmClient ssmClient(AwsTransport transport) {
+        return configureClientBuilder(SsmClient.builder(), transport).build();
     }
 
     @Bean
-    public SecretsManagerClient secretsManagerClient() {
-        SecretsManagerClient client = configureClientBuilder(SecretsManagerClient.builder()).build();
+    public SecretsManagerClient secretsManagerClient(AwsTransport transport, StartupBootstrap startupBootstrap) {
+        SecretsManagerClient client = configureClientBuilder(SecretsManagerClient.builder(), transport).build();
         if (localstackEnabled) {
-            ensureGoogleDriveSecretExists(client, googleDriveSecretName);
+            startupBootstrap.run("segredo do Google Drive no LocalStack", () -> ensureGoogleDriveSecretExists(client, googleDriveSecretName));
         }
         return client;
     }
@@ -113,6 +157,7 @@ public class AwsConfig {
         ObjectMapper mapper = new ObjectMapper();
         mapper.setPropertyNamingStrategy(PropertyNamingStrategies.LOWER_CAMEL_CASE);
         mapper.registerModule(new JavaTimeModule());
+        mapper.registerModule(new BlackbirdModule());
         mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
         return mapper;
     }
@@ -136,7 +181,7 @@ public class AwsConfig {
             }
         } catch (ResourceInUseException e) {
             log.info("Tabela DynamoDB '{}' já está sendo criada ou já existe no LocalStack. Ignorando.", tableName);
-        } catch (DynamoDbException e) {
+        } catch (SdkException e) {
             log.error("Erro ao verificar/criar tabela DynamoDB '{}' no LocalStack: {}", tableName, e.getMessage(), e);
         }
     }
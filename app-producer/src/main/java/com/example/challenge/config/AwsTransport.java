@@ -0,0 +1,83 @@
+package com.example.challenge.config;
+
+import com.example.challenge.metrics.AwsSdkMetricPublisher;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.SdkEventLoopGroup;
+import software.amazon.awssdk.metrics.MetricPublisher;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transporte HTTP compartilhado pelos clientes AWS do producer.
+ * <p>
+ * Os clientes assíncronos usam um único grupo de event loops Netty, sem uma thread bloqueada por chamada, e um pool
+ * de conexões por serviço, limitado por {@code app.aws.transport.max-connections}. Todos os clientes, síncronos e
+ * assíncronos, publicam a latência das chamadas e o uso dos pools pelo {@link AwsSdkMetricPublisher}.
+ * <p>
+ * Os clientes HTTP e o grupo de event loops pertencem a este componente, e não aos clientes AWS que os usam:
+ * são encerrados apenas no {@link #close()}, após os clientes AWS.
+ */
+@Component
+public class AwsTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(AwsTransport.class);
+
+    private final AwsTransportProperties properties;
+    private final MetricPublisher metricPublisher;
+    private final SdkEventLoopGroup eventLoopGroup;
+    private final List<SdkAsyncHttpClient> httpClients = new CopyOnWriteArrayList<>();
+
+    public AwsTransport(AwsTransportProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.metricPublisher = properties.isMetricsEnabled() ? new AwsSdkMetricPublisher(meterRegistry) : null;
+        this.eventLoopGroup = properties.getEventLoopThreads() > 0
+                ? SdkEventLoopGroup.builder().numberOfThreads(properties.getEventLoopThreads()).build()
+                : SdkEventLoopGroup.builder().build();
+    }
+
+    /**
+     * Cria o cliente HTTP assíncrono de um serviço: um pool de conexões próprio sobre o grupo de event loops compartilhado.
+     *
+     * @param service O nome do serviço em {@code app.aws.transport.max-connections} (por exemplo, {@code sqs}).
+     */
+    public SdkAsyncHttpClient asyncHttpClient(String service) {
+        int maxConnections = properties.maxConnectionsFor(service);
+        SdkAsyncHttpClient httpClient = NettyNioAsyncHttpClient.builder()
+                .eventLoopGroup(eventLoopGroup)
+                .maxConcurrency(maxConnections)
+                .maxPendingConnectionAcquires(properties.getMaxPendingConnectionAcquires())
+                .connectionTimeout(properties.getConnectionTimeout())
+                .connectionAcquisitionTimeout(properties.getConnectionAcquisitionTimeout())
+                .connectionMaxIdleTime(properties.getConnectionMaxIdleTime())
+                .build();
+        httpClients.add(httpClient);
+        log.info("Pool de conexões AWS do serviço '{}' criado com até {} conexões.", service, maxConnections);
+        return httpClient;
+    }
+
+    /**
+     * @return A configuração comum a todos os clientes AWS (publicação de métricas).
+     */
+    public ClientOverrideConfiguration overrideConfiguration() {
+        ClientOverrideConfiguration.Builder builder = ClientOverrideConfiguration.builder();
+        if (metricPublisher != null) {
+            builder.addMetricPublisher(metricPublisher);
+        }
+        return builder.build();
+    }
+
+    @PreDestroy
+    public void close() {
+        httpClients.forEach(SdkAsyncHttpClient::close);
+        eventLoopGroup.eventLoopGroup().shutdownGracefully(0, 5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.challenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Transporte HTTP compartilhado pelos clientes AWS assíncronos (SQS e DynamoDB):
+ * um único grupo de event loops Netty e um pool de conexões por serviço, limitado por {@code maxConnections}.
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "app.aws.transport")
+public class AwsTransportProperties {
+
+    /** Threads do grupo de event loops compartilhado. 0 usa o padrão do SDK (2 por processador). */
+    @Min(value = 0, message = "O número de threads de event loop não pode ser negativo.")
+    private int eventLoopThreads = 0;
+
+    @Min(value = 1, message = "O limite padrão de conexões por serviço AWS deve ser de ao menos 1.")
+    private int defaultMaxConnections = 50;
+
+    /**
+     * Limite de conexões simultâneas por serviço, pelo nome usado nas métricas
+     * ({@code sqs}, {@code dynamodb}).
+     */
+    @NotNull(message = "Os limites de conexões por serviço AWS não podem ser nulos.")
+    private Map<String, Integer> maxConnections = new HashMap<>(Map.of(
+            "sqs", 200,
+            "dynamodb", 50));
+
+    @Min(value = 1, message = "A fila de espera por conexões AWS deve ter ao menos 1 posição.")
+    private int maxPendingConnectionAcquires = 10_000;
+
+    @NotNull(message = "O tempo limite de conexão AWS não pode ser nulo.")
+    private Duration connectionTimeout = Duration.ofSeconds(2);
+
+    @NotNull(message = "O tempo limite de espera por uma conexão do pool AWS não pode ser nulo.")
+    private Duration connectionAcquisitionTimeout = Duration.ofSeconds(10);
+
+    @NotNull(message = "O tempo máximo de inatividade das conexões AWS não pode ser nulo.")
+    private Duration connectionMaxIdleTime = Duration.ofMinutes(1);
+
+    /** Publica a latência das chamadas e o uso dos pools de conexões de todos os clientes AWS no Micrometer. */
+    private boolean metricsEnabled = true;
+
+    /**
+     * @return O limite de conexões do serviço, ou {@link #defaultMaxConnections} se ele não estiver configurado.
+     */
+    public int maxConnectionsFor(String service) {
+        return maxConnections.getOrDefault(service, defaultMaxConnections);
+    }
+}
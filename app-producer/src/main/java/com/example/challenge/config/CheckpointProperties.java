@@ -0,0 +1,28 @@
+package com.example.challenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.Min;
+
+/**
+ * Checkpoints de linha do processamento de arquivos CSV, gravados no registro do arquivo na tabela
+ * de arquivos processados (status IN_PROGRESS), para que um novo processamento continue a partir do checkpoint.
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "app.processor.checkpoint")
+public class CheckpointProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Número de linhas entre dois checkpoints. Cada checkpoint aguarda a conclusão dos envios SQS em andamento,
+     * então intervalos pequenos reduzem a vazão da publicação assíncrona.
+     */
+    @Min(value = 1000, message = "O intervalo entre checkpoints deve ser de ao menos 1000 linhas.")
+    private long intervalRows = 100_000;
+}
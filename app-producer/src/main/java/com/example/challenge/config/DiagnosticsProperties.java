@@ -0,0 +1,32 @@
+package com.example.challenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.Duration;
+
+/**
+ * Amostragem dos diagnósticos por linha (registros rejeitados, metadados inválidos): em cada intervalo de resumo,
+ * as primeiras {@code firstOccurrences} ocorrências de cada categoria são registradas em log e, depois delas,
+ * uma a cada {@code sampleEvery}. As demais aparecem apenas no resumo periódico.
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "app.diagnostics")
+public class DiagnosticsProperties {
+
+    @Min(value = 0, message = "O número de ocorrências registradas integralmente não pode ser negativo.")
+    private long firstOccurrences = 10;
+
+    @Min(value = 1, message = "A amostragem dos diagnósticos deve registrar ao menos 1 a cada N ocorrências.")
+    private long sampleEvery = 1000;
+
+    @NotNull(message = "O intervalo do resumo de diagnósticos não pode ser nulo.")
+    private Duration summaryInterval = Duration.ofMinutes(1);
+}
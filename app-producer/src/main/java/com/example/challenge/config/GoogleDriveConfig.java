@@ -2,6 +2,7 @@ package com.example.challenge.config;
 
 import com.google.api.client.googleapis.auth.oauth2.GoogleCredential;
 import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
+import com.google.api.client.http.HttpRequestInitializer;
 import com.google.api.client.json.JsonFactory;
 import com.google.api.client.json.gson.GsonFactory;
 import com.google.api.services.drive.Drive;
@@ -11,7 +12,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 import software.amazon.awssdk.services.secretsmanager.model.GetSecretValueRequest;
 import software.amazon.awssdk.services.secretsmanager.model.GetSecretValueResponse;
@@ -22,6 +22,11 @@ import java.io.InputStream;
 import java.security.GeneralSecurityException;
 import java.util.Collections;
 
+/**
+ * Cliente do Google Drive. As credenciais da conta de serviço são buscadas no AWS Secrets Manager na primeira
+ * requisição ao Drive, e não na criação do bean, para que a inicialização não aguarde o Secrets Manager.
+ * Se a busca falhar, ela é repetida na requisição seguinte.
+ */
 @Configuration
 public class GoogleDriveConfig {
 
@@ -32,28 +37,52 @@ public class GoogleDriveConfig {
 
     private final SecretsManagerClient secretsManagerClient;
 
-    public GoogleDriveConfig(GoogleDriveProperties googleDriveProperties) {
+    private final StartupBootstrap startupBootstrap;
+
+    private volatile GoogleCredential credential;
+
+    /**
+     * @param secretsManagerClient O cliente compartilhado do {@link AwsConfig}, com o mesmo transporte, região,
+     *                             endpoint (LocalStack) e métricas dos demais clientes AWS.
+     */
+    public GoogleDriveConfig(GoogleDriveProperties googleDriveProperties, SecretsManagerClient secretsManagerClient,
+                             StartupBootstrap startupBootstrap) {
         this.googleDriveProperties = googleDriveProperties;
-        this.secretsManagerClient = SecretsManagerClient.builder()
-                .region(Region.US_EAST_1)
-                .build();
+        this.secretsManagerClient = secretsManagerClient;
+        this.startupBootstrap = startupBootstrap;
     }
 
     @Bean
     public Drive googleDriveService() throws GeneralSecurityException, IOException {
-        String secretJson = getGoogleDriveCredentialsFromSecretsManager();
-        log.info("Credenciais do Google Drive obtidas do AWS Secrets Manager.");
-
-        InputStream privateKeyStream = new ByteArrayInputStream(secretJson.getBytes());
-
-        GoogleCredential credential = GoogleCredential.fromStream(privateKeyStream)
-                .createScoped(Collections.singleton(DriveScopes.DRIVE));
-
-        return new Drive.Builder(GoogleNetHttpTransport.newTrustedTransport(), JSON_FACTORY, credential)
+        HttpRequestInitializer lazyCredential = request -> credential().initialize(request);
+        return new Drive.Builder(GoogleNetHttpTransport.newTrustedTransport(), JSON_FACTORY, lazyCredential)
                 .setApplicationName("AWS Transaction Processing Challenge")
                 .build();
     }
 
+    /**
+     * @return As credenciais do Google Drive, buscadas no Secrets Manager no primeiro uso.
+     */
+    private GoogleCredential credential() throws IOException {
+        GoogleCredential loaded = credential;
+        if (loaded != null) {
+            return loaded;
+        }
+        synchronized (this) {
+            if (credential == null) {
+                // Com o LocalStack, o segredo placeholder pode ainda estar sendo criado em segundo plano
+                startupBootstrap.awaitCompletion();
+                String secretJson = getGoogleDriveCredentialsFromSecretsManager();
+                log.info("Credenciais do Google Drive obtidas do AWS Secrets Manager.");
+
+                InputStream privateKeyStream = new ByteArrayInputStream(secretJson.getBytes());
+                credential = GoogleCredential.fromStream(privateKeyStream)
+                        .createScoped(Collections.singleton(DriveScopes.DRIVE));
+            }
+            return credential;
+        }
+    }
+
     private String getGoogleDriveCredentialsFromSecretsManager() {
         String secretName = googleDriveProperties.getCredentialsSecretName();
         log.info("Tentando buscar o segredo '{}' do AWS Secrets Manager.", secretName);
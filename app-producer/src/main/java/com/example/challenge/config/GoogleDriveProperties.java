@@ -5,7 +5,14 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.annotation.Validated;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
 
 @Data
 @Component
@@ -18,4 +25,59 @@ public class GoogleDriveProperties {
 
     @NotBlank(message = "O ID da pasta do Google Drive não pode estar em branco.")
     private String folderId;
-}
\ No newline at end of file
+
+    @Valid
+    private Download download = new Download();
+
+    @Valid
+    private Listing listing = new Listing();
+
+    @Data
+    public static class Download {
+
+        public enum Mode {
+            /** O conteúdo é mantido em memória até o threshold e, acima dele, transferido para um arquivo temporário. */
+            SPOOLED,
+            /** O conteúdo é lido diretamente da conexão HTTP com o Google Drive, sem cópia local. */
+            STREAMING
+        }
+
+        @NotNull(message = "O modo de download do Google Drive não pode ser nulo.")
+        private Mode mode = Mode.SPOOLED;
+
+        @NotNull(message = "O limite de download em memória não pode ser nulo.")
+        private DataSize spoolThreshold = DataSize.ofMegabytes(32);
+
+        /** Diretório dos arquivos temporários. Se vazio, usa o diretório temporário padrão da JVM. */
+        private String spoolDirectory;
+    }
+
+    @Data
+    public static class Listing {
+
+        public enum Mode {
+            /** A cada verificação, lista todos os arquivos CSV da pasta (todas as páginas). */
+            FULL,
+            /** Lista apenas os arquivos alterados desde a verificação anterior, pela Changes API do Google Drive. */
+            INCREMENTAL
+        }
+
+        @NotNull(message = "O modo de listagem do Google Drive não pode ser nulo.")
+        private Mode mode = Mode.FULL;
+
+        @Min(value = 1, message = "O tamanho da página de listagem deve ser de ao menos 1.")
+        @Max(value = 1000, message = "O Google Drive aceita no máximo 1000 itens por página.")
+        private int pageSize = 1000;
+
+        /** Parâmetro do SSM Parameter Store em que o token de página da Changes API é persistido entre execuções. */
+        @NotBlank(message = "O parâmetro do token de alterações do Google Drive não pode estar em branco.")
+        private String changeTokenParameterName = "/transaction-processor/google-drive/changes-page-token";
+
+        /**
+         * Intervalo entre listagens completas no modo incremental, que recuperam arquivos cujo processamento falhou
+         * (e que, por isso, não voltam a aparecer na Changes API). Se zero, a listagem completa só é feita sem token salvo.
+         */
+        @NotNull(message = "O intervalo de listagem completa do Google Drive não pode ser nulo.")
+        private Duration fullResyncInterval = Duration.ofHours(1);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.challenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Parâmetros do processamento paralelo de arquivos CSV (arquivo mapeado em memória e dividido em blocos).
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "app.processor.parallel")
+public class ParallelIngestionProperties {
+
+    private boolean enabled = false;
+
+    /** Número de threads do pool de parsing. Se 0, usa o número de processadores disponíveis. */
+    @Min(value = 0, message = "O paralelismo não pode ser negativo.")
+    private int parallelism = 0;
+
+    @NotNull(message = "O tamanho do bloco de parsing não pode ser nulo.")
+    private DataSize chunkSize = DataSize.ofMegabytes(8);
+
+    /** Diretório dos arquivos temporários. Se vazio, usa o diretório temporário padrão da JVM. */
+    private String spoolDirectory;
+}
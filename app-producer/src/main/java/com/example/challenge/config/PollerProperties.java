@@ -0,0 +1,25 @@
+package com.example.challenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.Min;
+
+/**
+ * Parâmetros do polling da pasta do Google Drive.
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "app.poller.google-drive")
+public class PollerProperties {
+
+    /** Número máximo de arquivos baixados e processados ao mesmo tempo. */
+    @Min(value = 1, message = "Deve ser possível processar ao menos 1 arquivo por vez.")
+    private int maxConcurrentFiles = 4;
+
+    /** Executa cada arquivo em uma virtual thread. Se false, usa um pool fixo de threads de plataforma. */
+    private boolean virtualThreads = true;
+}
@@ -0,0 +1,33 @@
+package com.example.challenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+
+/**
+ * Parâmetros do cache local das consultas à tabela de arquivos processados.
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "app.dynamodb.processed-files-cache")
+public class ProcessedFileCacheProperties {
+
+    @Min(value = 1, message = "O cache de arquivos processados deve comportar ao menos 1 entrada.")
+    private long maxSize = 10_000;
+
+    /** Validade de uma entrada de arquivo já processado. */
+    @NotNull(message = "A validade do cache de arquivos processados não pode ser nula.")
+    private Duration ttl = Duration.ofMinutes(30);
+
+    /**
+     * Validade de uma entrada de arquivo ainda não processado. Mais curta, pois outra instância pode processá-lo.
+     */
+    @NotNull(message = "A validade do cache de arquivos não processados não pode ser nula.")
+    private Duration negativeTtl = Duration.ofMinutes(1);
+}
@@ -0,0 +1,39 @@
+package com.example.challenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Parâmetros da gravação agregada dos registros rejeitados no S3 (partes NDJSON por arquivo de origem).
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "app.s3.rejected-records")
+public class RejectedRecordSinkProperties {
+
+    /** Compacta as partes com gzip ({@code .ndjson.gz}). */
+    private boolean gzip = true;
+
+    /** Tamanho máximo de uma parte, medido no NDJSON antes da compressão. Ao atingir o limite, uma nova parte é iniciada. */
+    @NotNull(message = "O tamanho máximo da parte de rejeitados não pode ser nulo.")
+    private DataSize maxPartSize = DataSize.ofMegabytes(128);
+
+    /**
+     * Tamanho de cada bloco enviado via multipart upload. Partes menores que este valor são enviadas em um único PutObject.
+     * O S3 exige ao menos 5 MB por bloco, exceto o último.
+     */
+    @NotNull(message = "O tamanho do bloco de multipart upload não pode ser nulo.")
+    private DataSize multipartChunkSize = DataSize.ofMegabytes(8);
+
+    @AssertTrue(message = "O bloco de multipart upload deve ter ao menos 5 MB.")
+    public boolean isMultipartChunkSizeValid() {
+        return multipartChunkSize == null || multipartChunkSize.toMegabytes() >= 5;
+    }
+}
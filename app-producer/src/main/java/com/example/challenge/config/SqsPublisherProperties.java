@@ -0,0 +1,77 @@
+package com.example.challenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+
+/**
+ * Parâmetros de publicação em lote dos eventos de transação na fila SQS.
+ * Os limites padrão correspondem aos máximos aceitos pelo SendMessageBatch.
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "app.sqs.publisher")
+public class SqsPublisherProperties {
+
+    public enum Mode {
+        /** Cada lote é enviado na thread do parser, que aguarda a resposta do SQS. */
+        SYNC,
+        /** Os lotes são enviados pelo SqsAsyncClient, com uma janela limitada de lotes em andamento. */
+        ASYNC
+    }
+
+    public enum Encoding {
+        /** Corpo JSON em camelCase (padrão). */
+        JSON,
+        /** Corpo no formato binário Smile, em Base64, identificado pelo atributo de mensagem {@code contentEncoding}. */
+        SMILE
+    }
+
+    @NotNull(message = "O modo de publicação SQS não pode ser nulo.")
+    private Mode mode = Mode.SYNC;
+
+    @Min(value = 1, message = "O lote SQS deve conter ao menos 1 mensagem.")
+    @Max(value = 10, message = "O SQS aceita no máximo 10 mensagens por lote.")
+    private int maxBatchSize = 10;
+
+    @Min(value = 1024, message = "O tamanho máximo do lote SQS deve ser de ao menos 1 KB.")
+    @Max(value = 262144, message = "O SQS aceita no máximo 256 KB por lote.")
+    private int maxBatchBytes = 262144;
+
+    @NotNull(message = "O tempo máximo de espera do lote SQS não pode ser nulo.")
+    private Duration linger = Duration.ofMillis(200);
+
+    @Min(value = 0, message = "O número de novas tentativas não pode ser negativo.")
+    private int maxRetries = 3;
+
+    @NotNull(message = "O intervalo entre novas tentativas não pode ser nulo.")
+    private Duration retryBackoff = Duration.ofMillis(100);
+
+    @Min(value = 1, message = "Deve haver ao menos 1 lote SQS em andamento.")
+    private int maxInFlightBatches = 16;
+
+    @NotNull(message = "O tempo limite de conclusão dos envios SQS não pode ser nulo.")
+    private Duration completionTimeout = Duration.ofMinutes(5);
+
+    @NotNull(message = "O formato de codificação das mensagens SQS não pode ser nulo.")
+    private Encoding encoding = Encoding.JSON;
+
+    /**
+     * Número máximo de eventos agrupados em uma mesma mensagem SQS. Com mais de 1, o corpo da mensagem é um array
+     * de eventos, o que reduz o número de mensagens e de requisições, mas uma falha no consumo de qualquer evento
+     * devolve todos os eventos da mensagem à fila.
+     */
+    @Min(value = 1, message = "Cada mensagem SQS deve conter ao menos 1 evento.")
+    @Max(value = 500, message = "Uma mensagem SQS pode agrupar no máximo 500 eventos.")
+    private int eventsPerMessage = 1;
+
+    /** Propaga o contexto de rastreamento e os instantes de cada etapa nos atributos das mensagens. */
+    private boolean tracing = true;
+}
@@ -0,0 +1,60 @@
+package com.example.challenge.config;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executa em paralelo, fora da thread de inicialização do Spring, as tarefas de inicialização que dependem da AWS
+ * (carga inicial das regras do Parameter Store, verificação do segredo do Google Drive no LocalStack), para que o contexto
+ * fique pronto sem aguardar as chamadas de rede. Cada tarefa usa uma virtual thread própria.
+ * <p>
+ * As falhas são registradas em log e não interrompem a inicialização; quem depende do resultado aguarda o future.
+ */
+@Component
+public class StartupBootstrap {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupBootstrap.class);
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("startup-", 0).factory());
+    private final List<CompletableFuture<Void>> tasks = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param name A descrição da tarefa, usada nos logs.
+     * @param task A tarefa.
+     * @return Um future concluído quando a tarefa terminar, com ou sem erro.
+     */
+    public CompletableFuture<Void> run(String name, Runnable task) {
+        CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                task.run();
+                log.info("Inicialização em segundo plano concluída: {} ({} ms).", name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } catch (Exception e) {
+                log.error("Erro na inicialização em segundo plano ({}): {}", name, e.getMessage(), e);
+            }
+        }, executor);
+        tasks.add(future);
+        return future;
+    }
+
+    /**
+     * Aguarda a conclusão das tarefas já iniciadas.
+     */
+    public void awaitCompletion() {
+        CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).join();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.challenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+
+/**
+ * Índice de idempotência por transação (transactionId + sourceFileId), usado para não republicar no SQS
+ * as transações já enviadas quando um arquivo é reprocessado.
+ * Os IDs já publicados de cada arquivo são carregados uma única vez, antes do processamento das linhas.
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "app.dynamodb.transaction-idempotency")
+public class TransactionIdempotencyProperties {
+
+    private boolean enabled = true;
+
+    @NotBlank(message = "O nome da tabela de idempotência de transações não pode ser vazio.")
+    private String tableName = "transaction-processor-transaction-idempotency-dev";
+
+    @NotNull(message = "A validade dos registros de idempotência não pode ser nula.")
+    private Duration recordTtl = Duration.ofDays(7);
+}
@@ -0,0 +1,54 @@
+package com.example.challenge.google;
+
+import com.example.challenge.config.GoogleDriveProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.ssm.SsmClient;
+import software.amazon.awssdk.services.ssm.model.GetParameterRequest;
+import software.amazon.awssdk.services.ssm.model.ParameterNotFoundException;
+import software.amazon.awssdk.services.ssm.model.ParameterType;
+import software.amazon.awssdk.services.ssm.model.PutParameterRequest;
+
+import java.util.Optional;
+
+/**
+ * Persiste no SSM Parameter Store o token de página da Changes API do Google Drive,
+ * para que a listagem incremental continue de onde parou após reinícios.
+ */
+@Component
+public class DriveChangeTokenStore {
+
+    private static final Logger log = LoggerFactory.getLogger(DriveChangeTokenStore.class);
+
+    private final SsmClient ssmClient;
+    private final String parameterName;
+
+    public DriveChangeTokenStore(SsmClient ssmClient, GoogleDriveProperties googleDriveProperties) {
+        this.ssmClient = ssmClient;
+        this.parameterName = googleDriveProperties.getListing().getChangeTokenParameterName();
+    }
+
+    /**
+     * @return O token salvo, ou vazio se ainda não houver token (primeira execução).
+     */
+    public Optional<String> load() {
+        try {
+            String token = ssmClient.getParameter(GetParameterRequest.builder().name(parameterName).build()).parameter().value();
+            return Optional.ofNullable(token).filter(value -> !value.isBlank());
+        } catch (ParameterNotFoundException e) {
+            log.info("Token de alterações do Google Drive não encontrado em '{}'. Será feita uma listagem completa.", parameterName);
+            return Optional.empty();
+        }
+    }
+
+    public void save(String token) {
+        ssmClient.putParameter(PutParameterRequest.builder()
+                .name(parameterName)
+                .value(token)
+                .type(ParameterType.STRING)
+                .overwrite(true)
+                .build());
+        log.debug("Token de alterações do Google Drive salvo em '{}': {}", parameterName, token);
+    }
+}
@@ -1,19 +1,28 @@
 package com.example.challenge.google;
 
 import com.google.api.services.drive.Drive;
+import com.google.api.services.drive.model.Change;
+import com.google.api.services.drive.model.ChangeList;
 import com.google.api.services.drive.model.File;
 import com.google.api.services.drive.model.FileList;
 import com.example.challenge.config.GoogleDriveProperties;
+import com.example.challenge.io.SpoolingOutputStream;
+import com.example.challenge.metrics.ProducerMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.exception.SdkException;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,41 +30,198 @@ public class GoogleDriveClient {
 
     private static final Logger log = LoggerFactory.getLogger(GoogleDriveClient.class);
 
+    private static final String CSV_MIME_TYPE = "text/csv";
+    private static final String FILE_FIELDS = "id, name, mimeType, modifiedTime";
+
     private final Drive googleDriveService;
     private final String targetFolderId;
+    private final GoogleDriveProperties.Download downloadProperties;
+    private final GoogleDriveProperties.Listing listingProperties;
+    private final DriveChangeTokenStore changeTokenStore;
+    private final ProducerMetrics metrics;
+
+    private String changeToken;
+    private Instant lastFullListing;
 
-    public GoogleDriveClient(Drive googleDriveService, GoogleDriveProperties googleDriveProperties) {
+    public GoogleDriveClient(Drive googleDriveService, GoogleDriveProperties googleDriveProperties, DriveChangeTokenStore changeTokenStore,
+                             ProducerMetrics metrics) {
         this.googleDriveService = googleDriveService;
         this.targetFolderId = googleDriveProperties.getFolderId();
-        log.info("GoogleDriveClient inicializado para pasta ID: {}", targetFolderId);
+        this.downloadProperties = googleDriveProperties.getDownload();
+        this.listingProperties = googleDriveProperties.getListing();
+        this.changeTokenStore = changeTokenStore;
+        this.metrics = metrics;
+        log.info("GoogleDriveClient inicializado para pasta ID: {} (download no modo {}, listagem no modo {})",
+                targetFolderId, downloadProperties.getMode(), listingProperties.getMode());
     }
 
+    /**
+     * Lista todos os arquivos CSV da pasta, percorrendo todas as páginas do resultado.
+     *
+     * @return Os arquivos CSV não excluídos da pasta.
+     * @throws IOException Se ocorrer um erro na chamada ao Google Drive.
+     */
     public List<File> listCsvFilesInTargetFolder() throws IOException {
-        String query = String.format("'%s' in parents and mimeType = 'text/csv' and trashed = false", targetFolderId);
+        String query = String.format("'%s' in parents and mimeType = '%s' and trashed = false", targetFolderId, CSV_MIME_TYPE);
 
-        FileList result = googleDriveService.files().list()
-                .setQ(query)
-                .setFields("nextPageToken, files(id, name, mimeType, modifiedTime)")
-                .execute();
-
-        List<File> files = result.getFiles();
+        long startedAt = System.nanoTime();
+        List<File> files = new ArrayList<>();
+        String pageToken = null;
+        int pages = 0;
+        do {
+            FileList result = googleDriveService.files().list()
+                    .setQ(query)
+                    .setPageSize(listingProperties.getPageSize())
+                    .setPageToken(pageToken)
+                    .setFields("nextPageToken, files(" + FILE_FIELDS + ")")
+                    .execute();
+            if (result.getFiles() != null) {
+                files.addAll(result.getFiles());
+            }
+            pageToken = result.getNextPageToken();
+            pages++;
+        } while (pageToken != null);
+        metrics.recordDriveList(false, System.nanoTime() - startedAt);
 
-        if (files == null || files.isEmpty()) {
+        if (files.isEmpty()) {
             log.info("Nenhum arquivo CSV encontrado na pasta {}", targetFolderId);
             return Collections.emptyList();
         }
 
-        log.info("Encontrados {} arquivos CSV na pasta {}: {}", files.size(), targetFolderId,
+        log.info("Encontrados {} arquivos CSV na pasta {} ({} páginas): {}", files.size(), targetFolderId, pages,
                 files.stream().map(File::getName).collect(Collectors.joining(", ")));
 
         return files;
     }
 
+    /**
+     * Lista os arquivos CSV a processar de acordo com {@code google.drive.listing.mode}.
+     * <p>
+     * No modo INCREMENTAL, retorna apenas os arquivos CSV da pasta criados ou alterados desde a chamada anterior,
+     * pela Changes API, e persiste o novo token de página. Sem token salvo, e a cada {@code full-resync-interval},
+     * é feita uma listagem completa, que também recupera arquivos cujo processamento falhou anteriormente.
+     *
+     * @return Os arquivos CSV candidatos a processamento.
+     * @throws IOException Se ocorrer um erro na chamada ao Google Drive.
+     */
+    public synchronized List<File> listNewCsvFiles() throws IOException {
+        if (listingProperties.getMode() == GoogleDriveProperties.Listing.Mode.FULL) {
+            return listCsvFilesInTargetFolder();
+        }
+
+        Instant now = Instant.now();
+        if (changeToken == null) {
+            changeToken = changeTokenStore.load().orElse(null);
+            if (changeToken != null) {
+                lastFullListing = now;
+            }
+        }
+
+        Duration fullResyncInterval = listingProperties.getFullResyncInterval();
+        boolean resyncDue = lastFullListing == null
+                || (!fullResyncInterval.isZero() && !now.isBefore(lastFullListing.plus(fullResyncInterval)));
+        if (changeToken == null || resyncDue) {
+            // O token é obtido antes da listagem, para que alterações feitas durante a listagem não se percam
+            String startPageToken = googleDriveService.changes().getStartPageToken().execute().getStartPageToken();
+            List<File> files = listCsvFilesInTargetFolder();
+            updateChangeToken(startPageToken);
+            lastFullListing = now;
+            return files;
+        }
+        return listChangedCsvFiles();
+    }
+
+    private List<File> listChangedCsvFiles() throws IOException {
+        long startedAt = System.nanoTime();
+        Map<String, File> changedFiles = new LinkedHashMap<>();
+        String pageToken = changeToken;
+        String newStartPageToken = null;
+        int changes = 0;
+        while (pageToken != null) {
+            ChangeList result = googleDriveService.changes().list(pageToken)
+                    .setPageSize(listingProperties.getPageSize())
+                    .setSpaces("drive")
+                    .setFields("nextPageToken, newStartPageToken, changes(fileId, removed, file(" + FILE_FIELDS + ", parents, trashed))")
+                    .execute();
+            if (result.getChanges() != null) {
+                for (Change change : result.getChanges()) {
+                    changes++;
+                    if (isCsvInTargetFolder(change)) {
+                        changedFiles.put(change.getFileId(), change.getFile());
+                    } else {
+                        // Uma alteração posterior (exclusão, lixeira, troca de pasta) invalida a anterior
+                        changedFiles.remove(change.getFileId());
+                    }
+                }
+            }
+            newStartPageToken = result.getNewStartPageToken();
+            pageToken = result.getNextPageToken();
+        }
+
+        metrics.recordDriveList(true, System.nanoTime() - startedAt);
+        if (newStartPageToken != null) {
+            updateChangeToken(newStartPageToken);
+        }
+        log.info("Listagem incremental da pasta {}: {} alterações no Google Drive, {} arquivos CSV novos ou alterados.",
+                targetFolderId, changes, changedFiles.size());
+        return new ArrayList<>(changedFiles.values());
+    }
+
+    private boolean isCsvInTargetFolder(Change change) {
+        File file = change.getFile();
+        return !Boolean.TRUE.equals(change.getRemoved())
+                && file != null
+                && CSV_MIME_TYPE.equals(file.getMimeType())
+                && !Boolean.TRUE.equals(file.getTrashed())
+                && file.getParents() != null
+                && file.getParents().contains(targetFolderId);
+    }
+
+    private void updateChangeToken(String token) {
+        changeToken = token;
+        try {
+            changeTokenStore.save(token);
+        } catch (SdkException e) {
+            // O token em memória continua válido; após um reinício, a listagem retoma do último token salvo
+            log.warn("Erro ao salvar o token de alterações do Google Drive: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Baixa o conteúdo de um arquivo sem manter mais que o threshold configurado em memória.
+     * No modo SPOOLED, arquivos maiores que o threshold são gravados em um arquivo temporário,
+     * apagado quando o InputStream devolvido é fechado. No modo STREAMING, o conteúdo é lido
+     * diretamente da conexão HTTP, que permanece aberta durante todo o processamento.
+     *
+     * @param fileId O ID do arquivo no Google Drive.
+     * @return Um InputStream com o conteúdo do arquivo, que deve ser fechado pelo chamador.
+     * @throws IOException Se ocorrer um erro no download.
+     */
     public InputStream downloadFileContent(String fileId) throws IOException {
         log.info("Baixando conteúdo do arquivo com ID: {}", fileId);
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        googleDriveService.files().get(fileId).executeMediaAndDownloadTo(outputStream);
-        return new ByteArrayInputStream(outputStream.toByteArray());
+        Drive.Files.Get request = googleDriveService.files().get(fileId);
+        long startedAt = System.nanoTime();
+        if (downloadProperties.getMode() == GoogleDriveProperties.Download.Mode.STREAMING) {
+            // No modo STREAMING, mede-se apenas a abertura da conexão: o corpo é lido durante o processamento
+            InputStream content = request.executeMediaAsInputStream();
+            metrics.recordDriveDownload(System.nanoTime() - startedAt, -1);
+            return content;
+        }
+
+        String spoolDirectory = downloadProperties.getSpoolDirectory();
+        SpoolingOutputStream outputStream = new SpoolingOutputStream(
+                downloadProperties.getSpoolThreshold().toBytes(),
+                spoolDirectory == null || spoolDirectory.isBlank() ? null : Path.of(spoolDirectory));
+        try {
+            request.executeMediaAndDownloadTo(outputStream);
+        } catch (IOException | RuntimeException e) {
+            outputStream.discard();
+            throw e;
+        }
+        metrics.recordDriveDownload(System.nanoTime() - startedAt, outputStream.size());
+        log.info("Download do arquivo com ID {} concluído: {} bytes {}.", fileId, outputStream.size(),
+                outputStream.isSpooledToDisk() ? "em arquivo temporário" : "em memória");
+        return outputStream.toInputStream();
     }
 
     /**
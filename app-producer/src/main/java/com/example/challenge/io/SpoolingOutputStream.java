@@ -0,0 +1,152 @@
+package com.example.challenge.io;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * OutputStream que mantém o conteúdo em memória até um limite e, ao ultrapassá-lo,
+ * transfere o que já foi escrito para um arquivo temporário em disco e continua a escrita nele.
+ * Assim o consumo de heap fica limitado ao threshold, qualquer que seja o tamanho do conteúdo.
+ * <p>
+ * Após a escrita, {@link #toInputStream()} devolve o conteúdo para leitura sem cópias adicionais.
+ * Se o conteúdo estiver em disco, o arquivo temporário é apagado ao fechar o InputStream devolvido.
+ */
+public class SpoolingOutputStream extends OutputStream {
+
+    private static final Logger log = LoggerFactory.getLogger(SpoolingOutputStream.class);
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+    private final long threshold;
+    private final Path spoolDirectory;
+
+    private ExposedByteArrayOutputStream memory;
+    private Path spoolFile;
+    private OutputStream fileOutput;
+    private long size;
+    private boolean closed;
+
+    /**
+     * @param threshold      O tamanho máximo, em bytes, mantido em memória.
+     * @param spoolDirectory O diretório dos arquivos temporários, ou null para o diretório temporário padrão.
+     */
+    public SpoolingOutputStream(long threshold, Path spoolDirectory) {
+        this.threshold = threshold;
+        this.spoolDirectory = spoolDirectory;
+        this.memory = new ExposedByteArrayOutputStream((int) Math.min(threshold, INITIAL_BUFFER_SIZE));
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("SpoolingOutputStream já foi fechado.");
+        }
+        if (fileOutput == null && size + len > threshold) {
+            switchToFile();
+        }
+        if (fileOutput != null) {
+            fileOutput.write(b, off, len);
+        } else {
+            memory.write(b, off, len);
+        }
+        size += len;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (fileOutput != null) {
+            fileOutput.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (fileOutput != null) {
+            fileOutput.close();
+        }
+    }
+
+    /**
+     * @return true se o conteúdo ultrapassou o threshold e foi transferido para disco.
+     */
+    public boolean isSpooledToDisk() {
+        return spoolFile != null;
+    }
+
+    /**
+     * @return O número de bytes escritos.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Fecha a escrita e devolve o conteúdo para leitura.
+     *
+     * @return Um InputStream sobre o buffer em memória ou sobre o arquivo temporário.
+     * @throws IOException Se ocorrer um erro ao abrir o arquivo temporário.
+     */
+    public InputStream toInputStream() throws IOException {
+        close();
+        if (spoolFile == null) {
+            return new ByteArrayInputStream(memory.buffer(), 0, memory.size());
+        }
+        return new TempFileInputStream(spoolFile);
+    }
+
+    /**
+     * Descarta o conteúdo escrito, apagando o arquivo temporário se houver.
+     * Usado quando a escrita falha e o conteúdo não será lido.
+     */
+    public void discard() {
+        try {
+            close();
+        } catch (IOException e) {
+            log.warn("Erro ao fechar arquivo temporário {}: {}", spoolFile, e.getMessage());
+        }
+        memory = null;
+        if (spoolFile != null) {
+            TempFileInputStream.deleteQuietly(spoolFile);
+        }
+    }
+
+    private void switchToFile() throws IOException {
+        spoolFile = spoolDirectory != null
+                ? Files.createTempFile(spoolDirectory, "spool-", ".tmp")
+                : Files.createTempFile("spool-", ".tmp");
+        log.debug("Conteúdo excedeu {} bytes em memória. Transferindo para arquivo temporário {}.", threshold, spoolFile);
+        fileOutput = Files.newOutputStream(spoolFile);
+        memory.writeTo(fileOutput);
+        memory = null;
+    }
+
+    /**
+     * ByteArrayOutputStream que expõe o buffer interno, evitando a cópia feita por toByteArray().
+     */
+    private static final class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
+
+        ExposedByteArrayOutputStream(int size) {
+            super(size);
+        }
+
+        byte[] buffer() {
+            return buf;
+        }
+    }
+}
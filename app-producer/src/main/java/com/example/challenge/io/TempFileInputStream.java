@@ -0,0 +1,56 @@
+package com.example.challenge.io;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * InputStream sobre um arquivo temporário, que é apagado quando o stream é fechado.
+ * Expõe o caminho do arquivo para leitores que preferem acessá-lo diretamente (ex.: mapeamento em memória).
+ */
+public class TempFileInputStream extends FilterInputStream {
+
+    private static final Logger log = LoggerFactory.getLogger(TempFileInputStream.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path path;
+    private boolean closed;
+
+    public TempFileInputStream(Path path) throws IOException {
+        super(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE));
+        this.path = path;
+    }
+
+    /**
+     * @return O caminho do arquivo temporário, válido até o fechamento deste stream.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            super.close();
+        } finally {
+            deleteQuietly(path);
+        }
+    }
+
+    static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Não foi possível apagar o arquivo temporário {}: {}", path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.challenge.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import software.amazon.awssdk.core.metrics.CoreMetric;
+import software.amazon.awssdk.http.HttpMetric;
+import software.amazon.awssdk.metrics.MetricCollection;
+import software.amazon.awssdk.metrics.MetricPublisher;
+import software.amazon.awssdk.metrics.SdkMetric;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publica as métricas do AWS SDK de todos os clientes do producer no Micrometer.
+ * <ul>
+ *   <li>{@code producer.aws.call}: latência das chamadas, incluindo as novas tentativas, por serviço, operação e resultado;</li>
+ *   <li>{@code producer.aws.http.acquire}: espera por uma conexão do pool do serviço;</li>
+ *   <li>{@code producer.aws.http.leased} / {@code producer.aws.http.pending} / {@code producer.aws.http.max}:
+ *       conexões em uso, requisições aguardando uma conexão e limite do pool, na última chamada de cada serviço.</li>
+ * </ul>
+ * O serviço é o ID do SDK em minúsculas e sem espaços ({@code sqs}, {@code s3}, {@code dynamodb}, {@code ssm},
+ * {@code secretsmanager}), o mesmo nome usado em {@code app.aws.transport.max-connections}.
+ */
+public class AwsSdkMetricPublisher implements MetricPublisher {
+
+    private static final String API_CALL_ATTEMPT = "ApiCallAttempt";
+    private static final String HTTP_CLIENT = "HttpClient";
+
+    private final MeterRegistry registry;
+    private final ConcurrentMap<String, Timer> callTimers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ConnectionPoolGauges> pools = new ConcurrentHashMap<>();
+
+    public AwsSdkMetricPublisher(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void publish(MetricCollection apiCall) {
+        String service = serviceName(first(apiCall, CoreMetric.SERVICE_ID, "unknown"));
+        String operation = first(apiCall, CoreMetric.OPERATION_NAME, "unknown");
+        boolean success = first(apiCall, CoreMetric.API_CALL_SUCCESSFUL, false);
+        Duration duration = first(apiCall, CoreMetric.API_CALL_DURATION, null);
+        if (duration != null) {
+            callTimer(service, operation, success).record(duration.toNanos(), TimeUnit.NANOSECONDS);
+        }
+
+        // As métricas do pool de conexões ficam na coleção HttpClient de cada tentativa; vale a da última tentativa
+        apiCall.childrenWithName(API_CALL_ATTEMPT)
+                .flatMap(attempt -> attempt.childrenWithName(HTTP_CLIENT))
+                .reduce((previous, last) -> last)
+                .ifPresent(httpClient -> pools.computeIfAbsent(service, ConnectionPoolGauges::new).update(httpClient));
+    }
+
+    @Override
+    public void close() {
+        // Os medidores pertencem ao MeterRegistry da aplicação
+    }
+
+    private Timer callTimer(String service, String operation, boolean success) {
+        String result = success ? "success" : "error";
+        return callTimers.computeIfAbsent(service + '/' + operation + '/' + result, key -> Timer.builder("producer.aws.call")
+                .description("Latência das chamadas aos serviços AWS, incluindo as novas tentativas")
+                .tag("service", service)
+                .tag("operation", operation)
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    static String serviceName(String serviceId) {
+        return serviceId.replace(" ", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static <T> T first(MetricCollection collection, SdkMetric<T> metric, T defaultValue) {
+        List<T> values = collection.metricValues(metric);
+        return values.isEmpty() ? defaultValue : values.get(0);
+    }
+
+    private final class ConnectionPoolGauges {
+
+        private final AtomicInteger leased = new AtomicInteger();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicInteger max = new AtomicInteger();
+        private final Timer acquire;
+
+        private ConnectionPoolGauges(String service) {
+            Gauge.builder("producer.aws.http.leased", leased, AtomicInteger::get)
+                    .description("Conexões do pool do serviço AWS em uso")
+                    .tag("service", service)
+                    .register(registry);
+            Gauge.builder("producer.aws.http.pending", pending, AtomicInteger::get)
+                    .description("Requisições aguardando uma conexão do pool do serviço AWS")
+                    .tag("service", service)
+                    .register(registry);
+            Gauge.builder("producer.aws.http.max", max, AtomicInteger::get)
+                    .description("Limite de conexões do pool do serviço AWS")
+                    .tag("service", service)
+                    .register(registry);
+            this.acquire = Timer.builder("producer.aws.http.acquire")
+                    .description("Espera por uma conexão do pool do serviço AWS")
+                    .tag("service", service)
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+
+        private void update(MetricCollection httpClient) {
+            leased.set(first(httpClient, HttpMetric.LEASED_CONCURRENCY, 0));
+            pending.set(first(httpClient, HttpMetric.PENDING_CONCURRENCY_ACQUIRES, 0));
+            max.set(first(httpClient, HttpMetric.MAX_CONCURRENCY, 0));
+            Duration acquireDuration = first(httpClient, HttpMetric.CONCURRENCY_ACQUIRE_DURATION, null);
+            if (acquireDuration != null) {
+                acquire.record(acquireDuration.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
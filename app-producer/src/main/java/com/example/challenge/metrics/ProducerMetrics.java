@@ -0,0 +1,168 @@
+package com.example.challenge.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Métricas do pipeline de ingestão do producer, expostas pelo endpoint {@code /actuator/prometheus}.
+ * <ul>
+ *   <li>{@code producer.drive.list} / {@code producer.drive.download}: latência das chamadas ao Google Drive;</li>
+ *   <li>{@code producer.csv.rows}: linhas processadas por resultado (a vazão é a taxa do contador);</li>
+ *   <li>{@code producer.validation.rejected}: registros rejeitados por motivo;</li>
+ *   <li>{@code producer.sqs.publish} / {@code producer.sqs.in.flight.batches}: latência dos lotes SendMessageBatch
+ *       e lotes em andamento;</li>
+ *   <li>{@code producer.s3.rejected.write}: latência das gravações de registros rejeitados no S3;</li>
+ *   <li>{@code producer.file.duration}: duração de ponta a ponta de cada arquivo (download, publicação e registro).</li>
+ *   <li>{@code producer.startup.first.message}: tempo do início da JVM até o primeiro lote publicado no SQS.</li>
+ * </ul>
+ * Os medidores fixos são criados uma única vez; apenas os de motivo de rejeição são criados sob demanda.
+ */
+@Component
+public class ProducerMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(ProducerMetrics.class);
+
+    private final MeterRegistry registry;
+
+    private final Timer driveListFull;
+    private final Timer driveListIncremental;
+    private final Timer driveDownload;
+    private final DistributionSummary driveDownloadBytes;
+    private final Counter rowsAccepted;
+    private final Counter rowsRejected;
+    private final Counter rowsAlreadyPublished;
+    private final Timer sqsPublishSuccess;
+    private final Timer sqsPublishError;
+    private final AtomicInteger sqsInFlightBatches = new AtomicInteger();
+    private final ConcurrentMap<String, Counter> rejectedByReason = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Timer> rejectedWrites = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Timer> fileDurations = new ConcurrentHashMap<>();
+    private final AtomicLong firstMessageMillis = new AtomicLong(-1);
+
+    public ProducerMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.driveListFull = latencyTimer("producer.drive.list", "Latência da listagem de arquivos do Google Drive").tag("mode", "full").register(registry);
+        this.driveListIncremental = latencyTimer("producer.drive.list", "Latência da listagem de arquivos do Google Drive").tag("mode", "incremental").register(registry);
+        this.driveDownload = latencyTimer("producer.drive.download", "Latência do download de arquivos do Google Drive").register(registry);
+        this.driveDownloadBytes = DistributionSummary.builder("producer.drive.download.bytes")
+                .description("Tamanho dos arquivos baixados do Google Drive")
+                .baseUnit("bytes")
+                .register(registry);
+        this.rowsAccepted = rowsCounter("accepted");
+        this.rowsRejected = rowsCounter("rejected");
+        this.rowsAlreadyPublished = rowsCounter("already_published");
+        this.sqsPublishSuccess = latencyTimer("producer.sqs.publish", "Latência das chamadas SendMessageBatch").tag("result", "success").register(registry);
+        this.sqsPublishError = latencyTimer("producer.sqs.publish", "Latência das chamadas SendMessageBatch").tag("result", "error").register(registry);
+        Gauge.builder("producer.sqs.in.flight.batches", sqsInFlightBatches, AtomicInteger::get)
+                .description("Lotes SendMessageBatch em andamento")
+                .register(registry);
+    }
+
+    /**
+     * @return Métricas sem registro, para uso fora do contexto Spring (testes e benchmarks).
+     */
+    public static ProducerMetrics noop() {
+        return new ProducerMetrics(new CompositeMeterRegistry());
+    }
+
+    public void recordDriveList(boolean incremental, long elapsedNanos) {
+        (incremental ? driveListIncremental : driveListFull).record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordDriveDownload(long elapsedNanos, long bytes) {
+        driveDownload.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (bytes >= 0) {
+            driveDownloadBytes.record(bytes);
+        }
+    }
+
+    public void rowAccepted() {
+        rowsAccepted.increment();
+    }
+
+    public void rowAlreadyPublished() {
+        rowsAlreadyPublished.increment();
+    }
+
+    public void rowRejected(String reason) {
+        rowsRejected.increment();
+        rejectedByReason.computeIfAbsent(reason, key -> Counter.builder("producer.validation.rejected")
+                .description("Registros rejeitados por motivo")
+                .tag("reason", key)
+                .register(registry)).increment();
+    }
+
+    /**
+     * Deve ser chamado imediatamente antes do envio de um lote; cada chamada deve ter um {@link #sqsBatchCompleted}.
+     */
+    public void sqsBatchStarted() {
+        sqsInFlightBatches.incrementAndGet();
+    }
+
+    public void sqsBatchCompleted(long elapsedNanos, boolean success) {
+        sqsInFlightBatches.decrementAndGet();
+        (success ? sqsPublishSuccess : sqsPublishError).record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param operation A operação no S3: put, upload_part, complete ou manifest.
+     */
+    public void recordRejectedWrite(String operation, long elapsedNanos) {
+        rejectedWrites.computeIfAbsent(operation, key -> latencyTimer("producer.s3.rejected.write", "Latência das gravações de registros rejeitados no S3")
+                .tag("operation", key)
+                .register(registry)).record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param result success ou failure.
+     */
+    public void recordFile(String result, long elapsedNanos) {
+        fileDurations.computeIfAbsent(result, key -> latencyTimer("producer.file.duration", "Duração do processamento de cada arquivo")
+                .tag("result", key)
+                .register(registry)).record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registra, uma única vez, o tempo desde o início da JVM até a primeira mensagem aceita pela fila. Deve ser chamado
+     * apenas quando a resposta do lote tiver ao menos uma entrada com sucesso: um lote em que todas as entradas falharam
+     * também é concluído sem erro.
+     */
+    public void firstMessagePublished() {
+        if (firstMessageMillis.get() >= 0) {
+            return;
+        }
+        long elapsed = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        if (firstMessageMillis.compareAndSet(-1, elapsed)) {
+            TimeGauge.builder("producer.startup.first.message", firstMessageMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                    .description("Tempo do início da JVM até o primeiro lote publicado no SQS")
+                    .register(registry);
+            log.info("Primeira mensagem publicada no SQS {} ms após o início da JVM.", elapsed);
+        }
+    }
+
+    private Counter rowsCounter(String outcome) {
+        return Counter.builder("producer.csv.rows")
+                .description("Linhas CSV processadas por resultado")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private static Timer.Builder latencyTimer(String name, String description) {
+        return Timer.builder(name).description(description).publishPercentileHistogram();
+    }
+}
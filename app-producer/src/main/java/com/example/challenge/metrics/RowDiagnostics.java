@@ -0,0 +1,130 @@
+package com.example.challenge.metrics;
+
+import com.example.challenge.config.DiagnosticsProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Canal de diagnósticos por linha do pipeline de ingestão (registros rejeitados, metadados inválidos), no lugar de um
+ * log por linha.
+ * <p>
+ * Cada ocorrência é contada na sua categoria, mas só é registrada em log se for uma das primeiras
+ * {@code app.diagnostics.first-occurrences} da categoria no intervalo atual ou, depois delas, uma a cada
+ * {@code app.diagnostics.sample-every}. Os campos do registro só são extraídos para as ocorrências registradas.
+ * Os logs são estruturados (pares chave-valor do SLF4J: {@code category}, {@code file}, {@code occurrence},
+ * {@code record}) e, no logback-spring.xml, vão para um appender assíncrono que descarta eventos em vez de bloquear.
+ * A cada {@code app.diagnostics.summary-interval} um resumo com o total de ocorrências por categoria é registrado
+ * e as contagens são reiniciadas.
+ * <p>
+ * Thread-safe: pode ser chamado pelas threads de parsing paralelo.
+ */
+@Component
+public class RowDiagnostics {
+
+    private static final Logger log = LoggerFactory.getLogger(RowDiagnostics.class);
+
+    private final long firstOccurrences;
+    private final long sampleEvery;
+    private final ConcurrentMap<String, AtomicLong> occurrences = new ConcurrentHashMap<>();
+    private volatile long windowStartedAt = System.nanoTime();
+
+    public RowDiagnostics(DiagnosticsProperties properties) {
+        this.firstOccurrences = properties.getFirstOccurrences();
+        this.sampleEvery = properties.getSampleEvery();
+    }
+
+    /**
+     * @return Diagnósticos com a amostragem padrão, para uso fora do contexto Spring (testes e benchmarks).
+     */
+    public static RowDiagnostics defaults() {
+        return new RowDiagnostics(new DiagnosticsProperties());
+    }
+
+    public void report(Level level, String category, String fileName, String detail, Supplier<Map<String, String>> record) {
+        report(level, category, fileName, detail, record, null);
+    }
+
+    /**
+     * Registra uma ocorrência da categoria, com log apenas se ela for amostrada.
+     *
+     * @param level O nível do log.
+     * @param category A categoria (por exemplo, o motivo da rejeição).
+     * @param fileName O nome do arquivo CSV.
+     * @param detail A descrição do problema.
+     * @param record Os campos do registro, extraídos apenas se a ocorrência for registrada.
+     * @param error A exceção associada, ou null.
+     */
+    public void report(Level level, String category, String fileName, String detail, Supplier<Map<String, String>> record,
+                       Throwable error) {
+        long occurrence = occurrences.computeIfAbsent(category, key -> new AtomicLong()).incrementAndGet();
+        if (!isSampled(occurrence) || !log.isEnabledForLevel(level)) {
+            return;
+        }
+        LoggingEventBuilder event = log.atLevel(level)
+                .addKeyValue("category", category)
+                .addKeyValue("file", fileName)
+                .addKeyValue("occurrence", occurrence)
+                .addKeyValue("record", record.get());
+        if (error != null) {
+            event = event.setCause(error);
+        }
+        event.log("{} no arquivo '{}': {}", category, fileName, detail);
+    }
+
+    /**
+     * Registra o resumo das ocorrências desde o último resumo e reinicia as contagens.
+     */
+    @Scheduled(initialDelayString = "${app.diagnostics.summary-interval:PT1M}",
+            fixedDelayString = "${app.diagnostics.summary-interval:PT1M}")
+    public void logSummary() {
+        long now = System.nanoTime();
+        long elapsedSeconds = TimeUnit.NANOSECONDS.toSeconds(now - windowStartedAt);
+        windowStartedAt = now;
+        Map<String, Long> counts = drain();
+        if (counts.isEmpty()) {
+            return;
+        }
+        long suppressed = 0;
+        for (long count : counts.values()) {
+            suppressed += count - loggedOf(count);
+        }
+        log.atInfo()
+                .addKeyValue("occurrences", counts)
+                .addKeyValue("suppressed", suppressed)
+                .log("Diagnósticos de linhas nos últimos {} s: {} ({} ocorrências sem log individual).", elapsedSeconds, counts, suppressed);
+    }
+
+    /**
+     * @return As ocorrências por categoria desde a chamada anterior, em ordem de categoria.
+     */
+    Map<String, Long> drain() {
+        Map<String, Long> counts = new TreeMap<>();
+        occurrences.forEach((category, counter) -> {
+            long count = counter.getAndSet(0);
+            if (count > 0) {
+                counts.put(category, count);
+            }
+        });
+        return counts;
+    }
+
+    boolean isSampled(long occurrence) {
+        return occurrence <= firstOccurrences || (occurrence - firstOccurrences) % sampleEvery == 0;
+    }
+
+    private long loggedOf(long count) {
+        return count <= firstOccurrences ? count : firstOccurrences + (count - firstOccurrences) / sampleEvery;
+    }
+}
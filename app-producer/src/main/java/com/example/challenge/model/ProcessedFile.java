@@ -16,10 +16,25 @@ import java.time.Instant;
 @DynamoDbBean
 public class ProcessedFile {
 
+    /** Arquivo com processamento interrompido; {@link #checkpointRow} indica a última linha concluída. */
+    public static final String STATUS_IN_PROGRESS = "IN_PROGRESS";
+    public static final String STATUS_SUCCESS = "SUCCESS";
+
     private String fileId;
     private String fileName;
     private Instant processedTimestamp;
     private String status;
+    /** Última linha de dados (a partir de 1, sem o cabeçalho) com publicação concluída. */
+    private Long checkpointRow;
+    /** Estado JSON dos registros rejeitados até {@link #checkpointRow} (prefixo da execução, partes concluídas e contagens). */
+    private String rejectedCheckpoint;
+
+    /**
+     * @return true se o processamento do arquivo foi concluído. Registros sem status são considerados concluídos.
+     */
+    public static boolean isCompleted(ProcessedFile processedFile) {
+        return processedFile != null && !STATUS_IN_PROGRESS.equals(processedFile.getStatus());
+    }
 
     @DynamoDbPartitionKey
     public String getFileId() {
@@ -0,0 +1,42 @@
+package com.example.challenge.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSortKey;
+
+import java.time.Instant;
+
+/**
+ * Registro de idempotência de uma transação. A chave de ordenação é prefixada pela etapa
+ * ({@code PUBLISHED#} no producer, {@code PROCESSED#} no consumer), para que as duas aplicações
+ * compartilhem a mesma tabela.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@DynamoDbBean
+public class TransactionIdempotencyRecord {
+
+    public static final String PUBLISHED_PREFIX = "PUBLISHED#";
+
+    private String sourceFileId;
+    private String idempotencyKey;
+    private Instant recordedAt;
+    /** Expiração do registro (TTL do DynamoDB), em segundos desde a época. */
+    private Long expiresAt;
+
+    @DynamoDbPartitionKey
+    public String getSourceFileId() {
+        return sourceFileId;
+    }
+
+    @DynamoDbSortKey
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+}
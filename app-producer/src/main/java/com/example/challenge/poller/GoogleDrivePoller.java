@@ -1,10 +1,14 @@
 package com.example.challenge.poller;
 
+import com.example.challenge.config.PollerProperties;
 import com.example.challenge.google.GoogleDriveClient;
+import com.example.challenge.metrics.ProducerMetrics;
 import com.example.challenge.model.ProcessedFile;
 import com.example.challenge.processor.TransactionFileProcessor;
 import com.example.challenge.repository.ProcessedFileRepository;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.google.api.services.drive.model.File;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -14,7 +18,20 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.time.Instant;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Verifica periodicamente a pasta do Google Drive e processa os arquivos CSV encontrados.
+ * Cada arquivo é processado por um worker próprio, com no máximo {@code app.poller.google-drive.max-concurrent-files}
+ * arquivos em andamento. A verificação não aguarda o processamento: arquivos ainda em andamento são ignorados
+ * pelas verificações seguintes.
+ */
 @Component
 public class GoogleDrivePoller {
 
@@ -23,54 +40,58 @@ public class GoogleDrivePoller {
     private final GoogleDriveClient googleDriveClient;
     private final TransactionFileProcessor transactionFileProcessor;
     private final ProcessedFileRepository processedFileRepository;
+    private final ProducerMetrics metrics;
+    private final ExecutorService fileWorkers;
+    private final Semaphore fileSlots;
+    private final Set<String> filesInProgress = ConcurrentHashMap.newKeySet();
 
     public GoogleDrivePoller(GoogleDriveClient googleDriveClient,
                              TransactionFileProcessor transactionFileProcessor,
-                             ProcessedFileRepository processedFileRepository) {
+                             ProcessedFileRepository processedFileRepository,
+                             PollerProperties pollerProperties,
+                             ProducerMetrics metrics) {
         this.googleDriveClient = googleDriveClient;
         this.transactionFileProcessor = transactionFileProcessor;
         this.processedFileRepository = processedFileRepository;
+        this.metrics = metrics;
+        this.fileSlots = new Semaphore(pollerProperties.getMaxConcurrentFiles());
+        this.fileWorkers = pollerProperties.isVirtualThreads()
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("drive-file-", 0).factory())
+                : Executors.newFixedThreadPool(pollerProperties.getMaxConcurrentFiles());
+        log.info("Processamento de arquivos do Google Drive configurado com até {} arquivos simultâneos ({}).",
+                pollerProperties.getMaxConcurrentFiles(), pollerProperties.isVirtualThreads() ? "virtual threads" : "threads de plataforma");
     }
 
     @Scheduled(cron = "${app.poller.google-drive.cron:0 */5 * * * *}")
     public void pollGoogleDriveForCsvFiles() {
         log.info("Iniciando verificação agendada da pasta do Google Drive por arquivos CSV...");
+        int submitted = 0;
         try {
-            List<File> csvFiles = googleDriveClient.listCsvFilesInTargetFolder();
+            List<File> csvFiles = googleDriveClient.listNewCsvFiles();
 
             if (csvFiles.isEmpty()) {
                 log.info("Nenhum novo arquivo CSV encontrado para processar.");
                 return;
             }
 
+            // Resolve de uma vez os arquivos já processados da listagem (cache local + BatchGetItem)
+            Set<String> processedIds = processedFileRepository.findProcessedIds(csvFiles.stream().map(File::getId).toList());
+
             for (File file : csvFiles) {
-                if (processedFileRepository.existsById(file.getId())) {
+                if (processedIds.contains(file.getId())) {
                     log.info("Arquivo {} (ID: {}) já foi processado. Pulando.", file.getName(), file.getId());
                     continue;
                 }
-
+                if (!filesInProgress.add(file.getId())) {
+                    log.info("Arquivo {} (ID: {}) já está em processamento. Pulando.", file.getName(), file.getId());
+                    continue;
+                }
                 try {
-                    log.info("Processando arquivo CSV: {} (ID: {})", file.getName(), file.getId());
-                    InputStream fileContent = googleDriveClient.downloadFileContent(file.getId());
-
-                    transactionFileProcessor.processCsvFile(file.getId(), file.getName(), fileContent);
-
-                    ProcessedFile processedFile = ProcessedFile.builder()
-                            .fileId(file.getId())
-                            .fileName(file.getName())
-                            .processedTimestamp(Instant.now())
-                            .status("SUCCESS")
-                            .build();
-                    processedFileRepository.save(processedFile);
-                    log.info("Arquivo {} (ID: {}) registrado como processado com sucesso.", file.getName(), file.getId());
-
-                    googleDriveClient.trashFile(file.getId());
-                    log.info("Arquivo {} (ID: {}) processado e movido para a lixeira.", file.getName(), file.getId());
-
-                } catch (IOException e) {
-                    log.error("Erro de IO ao processar o arquivo {} (ID: {}): {}. Não será marcado como processado.", file.getName(), file.getId(), e.getMessage());
-                } catch (Exception e) {
-                    log.error("Erro inesperado ao processar o arquivo {} (ID: {}): {}. Não será marcado como processado.", file.getName(), file.getId(), e.getMessage(), e);
+                    fileWorkers.execute(() -> processFileInSlot(file));
+                    submitted++;
+                } catch (RejectedExecutionException e) {
+                    filesInProgress.remove(file.getId());
+                    log.warn("Processamento do arquivo {} (ID: {}) não agendado: o poller está sendo encerrado.", file.getName(), file.getId());
                 }
             }
         } catch (IOException e) {
@@ -78,6 +99,82 @@ public class GoogleDrivePoller {
         } catch (Exception e) {
             log.error("Erro inesperado durante o polling do Google Drive: {}", e.getMessage(), e);
         }
-        log.info("Verificação agendada do Google Drive concluída.");
+        CacheStats cacheStats = processedFileRepository.getCacheStats();
+        log.info("Verificação agendada do Google Drive concluída. {} arquivos enviados para processamento, {} em andamento. " +
+                        "Cache de arquivos processados: {} acertos, {} falhas.",
+                submitted, filesInProgress.size(), cacheStats.hitCount(), cacheStats.missCount());
+    }
+
+    /**
+     * Aguarda uma vaga entre os arquivos simultâneos e processa o arquivo, liberando a marcação de "em andamento" ao final.
+     */
+    private void processFileInSlot(File file) {
+        try {
+            fileSlots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            filesInProgress.remove(file.getId());
+            log.warn("Processamento do arquivo {} (ID: {}) interrompido antes de iniciar.", file.getName(), file.getId());
+            return;
+        }
+        try {
+            processFile(file);
+        } finally {
+            fileSlots.release();
+            filesInProgress.remove(file.getId());
+        }
+    }
+
+    private void processFile(File file) {
+        long startedAt = System.nanoTime();
+        try {
+            if (processedFileRepository.existsById(file.getId())) {
+                log.info("Arquivo {} (ID: {}) já foi processado. Pulando.", file.getName(), file.getId());
+                return;
+            }
+
+            log.info("Processando arquivo CSV: {} (ID: {})", file.getName(), file.getId());
+            InputStream fileContent = googleDriveClient.downloadFileContent(file.getId());
+
+            // processCsvFile só retorna após a conclusão de todos os envios ao SQS (inclusive no modo assíncrono)
+            transactionFileProcessor.processCsvFile(file.getId(), file.getName(), fileContent);
+
+            ProcessedFile processedFile = ProcessedFile.builder()
+                    .fileId(file.getId())
+                    .fileName(file.getName())
+                    .processedTimestamp(Instant.now())
+                    .status(ProcessedFile.STATUS_SUCCESS)
+                    .build();
+            processedFileRepository.save(processedFile);
+            log.info("Arquivo {} (ID: {}) registrado como processado com sucesso.", file.getName(), file.getId());
+
+            googleDriveClient.trashFile(file.getId());
+            log.info("Arquivo {} (ID: {}) processado e movido para a lixeira.", file.getName(), file.getId());
+            metrics.recordFile("success", System.nanoTime() - startedAt);
+
+        } catch (IOException e) {
+            metrics.recordFile("failure", System.nanoTime() - startedAt);
+            log.error("Erro de IO ao processar o arquivo {} (ID: {}): {}. Não será marcado como processado.", file.getName(), file.getId(), e.getMessage());
+        } catch (Exception e) {
+            metrics.recordFile("failure", System.nanoTime() - startedAt);
+            log.error("Erro inesperado ao processar o arquivo {} (ID: {}): {}. Não será marcado como processado.", file.getName(), file.getId(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Aguarda os arquivos em andamento antes de encerrar, para que não fiquem parcialmente publicados sem registro.
+     */
+    @PreDestroy
+    public void shutdown() {
+        fileWorkers.shutdown();
+        try {
+            if (!fileWorkers.awaitTermination(5, TimeUnit.MINUTES)) {
+                log.warn("Encerrando com {} arquivos ainda em processamento.", filesInProgress.size());
+                fileWorkers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fileWorkers.shutdownNow();
+        }
     }
-}
\ No newline at end of file
+}
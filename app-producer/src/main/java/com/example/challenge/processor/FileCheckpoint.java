@@ -0,0 +1,161 @@
+package com.example.challenge.processor;
+
+import com.example.challenge.model.ProcessedFile;
+import com.example.challenge.publisher.TransactionEventPublisher;
+import com.example.challenge.repository.ProcessedFileRepository;
+import com.example.challenge.sink.RejectedRecordCheckpoint;
+import com.example.challenge.sink.RejectedRecordSink;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+
+/**
+ * Controla o checkpoint de linha do processamento de um arquivo.
+ * <p>
+ * As linhas de dados são numeradas a partir de 1, na ordem do arquivo. Em um novo processamento, as linhas até o
+ * checkpoint anterior são ignoradas. A cada {@code intervalRows} linhas concluídas, os envios SQS em andamento
+ * são aguardados e a linha atual é gravada como checkpoint (status IN_PROGRESS), de modo que o checkpoint
+ * nunca ultrapassa a última linha com publicação concluída. Se algum evento tiver esgotado as tentativas de envio,
+ * o checkpoint não avança e o processamento é interrompido ({@link #verifyPublished}): o arquivo permanece IN_PROGRESS
+ * e o próximo processamento retoma a partir do último checkpoint, republicando os eventos que falharam.
+ * <p>
+ * O checkpoint também grava o estado dos registros rejeitados, após concluir a parte em andamento no S3
+ * ({@link RejectedRecordSink#checkpoint()}). Um checkpoint sem esse estado, ou com estado ilegível, não é retomado:
+ * o arquivo é processado desde o início, sem republicar eventos graças ao índice de idempotência, para que os
+ * registros rejeitados antes do checkpoint não sejam perdidos.
+ * <p>
+ * Deve ser usado apenas pela thread que processa o arquivo.
+ */
+final class FileCheckpoint {
+
+    private static final Logger log = LoggerFactory.getLogger(FileCheckpoint.class);
+
+    private final ProcessedFileRepository processedFileRepository;
+    private final ObjectMapper objectMapper;
+    private final String sourceFileId;
+    private final String fileName;
+    private final long resumeAfterRow;
+    private final RejectedRecordCheckpoint rejectedCheckpoint;
+    private final long intervalRows;
+
+    private long row;
+    private long lastCheckpointRow;
+
+    FileCheckpoint(ProcessedFileRepository processedFileRepository, ObjectMapper objectMapper, String sourceFileId, String fileName,
+                   long resumeAfterRow, RejectedRecordCheckpoint rejectedCheckpoint, long intervalRows) {
+        this.processedFileRepository = processedFileRepository;
+        this.objectMapper = objectMapper;
+        this.sourceFileId = sourceFileId;
+        this.fileName = fileName;
+        this.resumeAfterRow = resumeAfterRow;
+        this.rejectedCheckpoint = rejectedCheckpoint;
+        this.intervalRows = intervalRows;
+        this.lastCheckpointRow = resumeAfterRow;
+    }
+
+    /**
+     * Cria o checkpoint do arquivo, retomando a partir do checkpoint gravado por um processamento interrompido.
+     *
+     * @param intervalRows Linhas entre dois checkpoints, ou 0 para não gravar checkpoints nem retomar.
+     */
+    static FileCheckpoint load(ProcessedFileRepository processedFileRepository, ObjectMapper objectMapper,
+                               String sourceFileId, String fileName, long intervalRows) {
+        if (intervalRows <= 0) {
+            return new FileCheckpoint(processedFileRepository, objectMapper, sourceFileId, fileName, 0, null, 0);
+        }
+        ProcessedFile saved = processedFileRepository.findCheckpoint(sourceFileId).orElse(null);
+        if (saved == null || saved.getCheckpointRow() == null || saved.getCheckpointRow() <= 0) {
+            return new FileCheckpoint(processedFileRepository, objectMapper, sourceFileId, fileName, 0, null, intervalRows);
+        }
+        RejectedRecordCheckpoint rejectedCheckpoint = readRejectedCheckpoint(objectMapper, saved.getRejectedCheckpoint());
+        if (rejectedCheckpoint == null) {
+            log.warn("Checkpoint da linha {} do arquivo '{}' (ID: {}) sem o estado dos registros rejeitados. Processando desde o início.",
+                    saved.getCheckpointRow(), fileName, sourceFileId);
+            return new FileCheckpoint(processedFileRepository, objectMapper, sourceFileId, fileName, 0, null, intervalRows);
+        }
+        log.info("Retomando o processamento do arquivo '{}' (ID: {}) após a linha {}.", fileName, sourceFileId, saved.getCheckpointRow());
+        return new FileCheckpoint(processedFileRepository, objectMapper, sourceFileId, fileName, saved.getCheckpointRow(),
+                rejectedCheckpoint, intervalRows);
+    }
+
+    private static RejectedRecordCheckpoint readRejectedCheckpoint(ObjectMapper objectMapper, String json) {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, RejectedRecordCheckpoint.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Estado dos registros rejeitados ilegível no checkpoint: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Avança para a próxima linha do arquivo.
+     *
+     * @return true se a linha já foi concluída em um processamento anterior e deve ser ignorada.
+     */
+    boolean nextRowAlreadyDone() {
+        return ++row <= resumeAfterRow;
+    }
+
+    /**
+     * Marca a linha atual como concluída, gravando um checkpoint se o intervalo tiver sido atingido.
+     *
+     * @param publisher O publicador do arquivo, cujos envios são aguardados antes do checkpoint.
+     * @param rejectedSink O destino dos registros rejeitados do arquivo, cuja parte em andamento é concluída antes do checkpoint.
+     * @throws IllegalStateException Se algum evento do arquivo não tiver sido publicado no SQS.
+     */
+    void rowCompleted(TransactionEventPublisher publisher, RejectedRecordSink rejectedSink) {
+        if (intervalRows <= 0 || row - lastCheckpointRow < intervalRows) {
+            return;
+        }
+        publisher.awaitCompletion();
+        verifyPublished(publisher);
+        try {
+            processedFileRepository.save(ProcessedFile.builder()
+                    .fileId(sourceFileId)
+                    .fileName(fileName)
+                    .processedTimestamp(Instant.now())
+                    .status(ProcessedFile.STATUS_IN_PROGRESS)
+                    .checkpointRow(row)
+                    .rejectedCheckpoint(objectMapper.writeValueAsString(rejectedSink.checkpoint()))
+                    .build());
+        } catch (JsonProcessingException | RuntimeException e) {
+            // Sem o checkpoint, um novo processamento apenas retoma de um ponto anterior
+            log.warn("Erro ao gravar o checkpoint da linha {} do arquivo '{}' (ID: {}): {}", row, fileName, sourceFileId, e.getMessage());
+        }
+        lastCheckpointRow = row;
+    }
+
+    /**
+     * Verifica, após a conclusão dos envios, que nenhum evento do arquivo esgotou as tentativas de publicação.
+     * Sem essa verificação, um checkpoint posterior ou o registro do arquivo como processado tornariam esses eventos
+     * irrecuperáveis.
+     *
+     * @param publisher O publicador do arquivo, sem envios em andamento.
+     * @throws IllegalStateException Se algum evento do arquivo não tiver sido publicado no SQS.
+     */
+    void verifyPublished(TransactionEventPublisher publisher) {
+        long failedMessages = publisher.getStats().getFailedMessages();
+        if (failedMessages > 0) {
+            throw new IllegalStateException(String.format(
+                    "%d eventos do arquivo '%s' (ID: %s) não foram publicados no SQS. O arquivo será retomado após a linha %d.",
+                    failedMessages, fileName, sourceFileId, lastCheckpointRow));
+        }
+    }
+
+    long getResumeAfterRow() {
+        return resumeAfterRow;
+    }
+
+    /**
+     * @return O estado dos registros rejeitados até o checkpoint retomado, ou null em uma nova execução.
+     */
+    RejectedRecordCheckpoint getRejectedCheckpoint() {
+        return rejectedCheckpoint;
+    }
+}
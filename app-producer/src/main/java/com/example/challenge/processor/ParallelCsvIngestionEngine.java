@@ -0,0 +1,316 @@
+package com.example.challenge.processor;
+
+import com.example.challenge.config.ParallelIngestionProperties;
+import com.example.challenge.io.TempFileInputStream;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Processa arquivos CSV grandes em paralelo.
+ * O arquivo é gravado em disco local (se ainda não estiver), mapeado em memória e dividido em blocos
+ * nos limites de registro, respeitando campos entre aspas que contêm quebras de linha.
+ * Cada bloco é lido, validado e transformado em um ForkJoinPool; os resultados são entregues
+ * na thread chamadora, na ordem original dos registros, para publicação e descarte.
+ * <p>
+ * O número de blocos em processamento é limitado para que a memória não cresça com o tamanho do arquivo.
+ * O ForkJoinPool só é criado quando o processamento paralelo está ativado.
+ */
+@Component
+public class ParallelCsvIngestionEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(ParallelCsvIngestionEngine.class);
+
+    private static final byte QUOTE = '"';
+    private static final byte COMMA = ',';
+    private static final byte LINE_FEED = '\n';
+
+    private static final int FIELD_START = 0;
+    private static final int UNQUOTED = 1;
+    private static final int QUOTED = 2;
+    private static final int QUOTE_IN_QUOTED = 3;
+    private static final long SCAN_WINDOW_SIZE = 256L * 1024 * 1024;
+
+    private final boolean enabled;
+    private final long chunkSize;
+    private final Path spoolDirectory;
+    private final ForkJoinPool pool;  // null quando desativado
+
+    public ParallelCsvIngestionEngine(ParallelIngestionProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.chunkSize = Math.min(properties.getChunkSize().toBytes(), Integer.MAX_VALUE);
+        String directory = properties.getSpoolDirectory();
+        this.spoolDirectory = directory == null || directory.isBlank() ? null : Path.of(directory);
+        int parallelism = properties.getParallelism() > 0 ? properties.getParallelism() : Runtime.getRuntime().availableProcessors();
+        this.pool = enabled ? new ForkJoinPool(parallelism) : null;
+        if (enabled) {
+            log.info("Processamento paralelo de CSV ativado: {} threads, blocos de {} bytes.", parallelism, chunkSize);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Processa o conteúdo CSV em blocos paralelos.
+     *
+     * @param fileName    O nome do arquivo, usado nos logs.
+     * @param inputStream O conteúdo do arquivo. Se for um arquivo temporário local, é mapeado diretamente.
+     * @param evaluatorFactory Cria, a partir dos nomes das colunas do cabeçalho, o avaliador de registros
+     *                         (parsing, validação e transformação). O avaliador é chamado em paralelo.
+     * @param handler     Recebe os resultados na ordem original dos registros, na thread chamadora.
+     * @throws IOException Se ocorrer um erro ao gravar, mapear ou ler o arquivo.
+     */
+    public void process(String fileName, InputStream inputStream,
+                        Function<List<String>, Function<CSVRecord, RecordOutcome>> evaluatorFactory,
+                        Consumer<RecordOutcome> handler) throws IOException {
+        if (pool == null) {
+            throw new IllegalStateException("O processamento paralelo de CSV está desativado (app.processor.parallel.enabled=false).");
+        }
+        Path file;
+        boolean ownsFile;
+        if (inputStream instanceof TempFileInputStream tempFileInputStream) {
+            file = tempFileInputStream.getPath();
+            ownsFile = false;
+        } else {
+            file = spoolDirectory != null
+                    ? Files.createTempFile(spoolDirectory, "ingest-", ".csv")
+                    : Files.createTempFile("ingest-", ".csv");
+            ownsFile = true;
+            Files.copy(inputStream, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long headerEnd = findHeaderEnd(channel, size);
+            if (headerEnd == 0) {
+                log.info("Arquivo '{}' vazio. Nada a processar.", fileName);
+                return;
+            }
+            String[] header = parseHeader(channel, headerEnd);
+            List<long[]> chunks = split(channel, headerEnd, size);
+            log.info("Arquivo '{}' ({} bytes) dividido em {} blocos para processamento paralelo.", fileName, size, chunks.size());
+
+            CSVFormat chunkFormat = CSVFormat.DEFAULT.builder()
+                    .setHeader(header)
+                    .setSkipHeaderRecord(false)
+                    .setTrim(true)
+                    .build();
+            Function<CSVRecord, RecordOutcome> evaluator = evaluatorFactory.apply(List.of(header));
+
+            int window = pool.getParallelism() * 2;
+            Deque<Future<List<RecordOutcome>>> pending = new ArrayDeque<>(window);
+            int next = 0;
+            try {
+                while (next < chunks.size() || !pending.isEmpty()) {
+                    while (next < chunks.size() && pending.size() < window) {
+                        long[] chunk = chunks.get(next++);
+                        pending.add(pool.submit(() -> parseChunk(channel, chunk[0], chunk[1], chunkFormat, evaluator)));
+                    }
+                    for (RecordOutcome outcome : await(pending.poll())) {
+                        handler.accept(outcome);
+                    }
+                }
+            } finally {
+                pending.forEach(future -> future.cancel(true));
+            }
+        } finally {
+            if (ownsFile) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    private List<RecordOutcome> parseChunk(FileChannel channel, long start, long end, CSVFormat format,
+                                           Function<CSVRecord, RecordOutcome> evaluator) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        List<RecordOutcome> outcomes = new ArrayList<>();
+        try (Reader reader = new InputStreamReader(new ByteBufferInputStream(buffer), StandardCharsets.UTF_8);
+             CSVParser parser = new CSVParser(reader, format)) {
+            for (CSVRecord csvRecord : parser) {
+                outcomes.add(evaluator.apply(csvRecord));
+            }
+        }
+        return outcomes;
+    }
+
+    private static List<RecordOutcome> await(Future<List<RecordOutcome>> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Processamento paralelo interrompido.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof UncheckedIOException uncheckedIOException) {
+                throw uncheckedIOException.getCause();
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * @return A posição logo após o fim do registro de cabeçalho.
+     */
+    private long findHeaderEnd(FileChannel channel, long size) throws IOException {
+        long[] boundary = new long[1];
+        scan(channel, 0, size, 1, position -> {
+            boundary[0] = position;
+            return false;
+        });
+        return boundary[0] > 0 ? boundary[0] : size;
+    }
+
+    private static String[] parseHeader(FileChannel channel, long headerEnd) throws IOException {
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, headerEnd);
+        String headerLine = StandardCharsets.UTF_8.decode(buffer).toString();
+        try (CSVParser parser = CSVFormat.DEFAULT.builder().setTrim(true).build().parse(new StringReader(headerLine))) {
+            List<CSVRecord> records = parser.getRecords();
+            if (records.isEmpty()) {
+                throw new IOException("Cabeçalho CSV não encontrado.");
+            }
+            return records.get(0).values();
+        }
+    }
+
+    /**
+     * Divide o corpo do arquivo em blocos de aproximadamente {@code chunkSize} bytes.
+     * Cada bloco termina logo após uma quebra de linha que esteja fora de aspas.
+     *
+     * @return Pares [início, fim) de cada bloco.
+     */
+    private List<long[]> split(FileChannel channel, long bodyStart, long size) throws IOException {
+        List<long[]> chunks = new ArrayList<>();
+        long[] chunkStart = {bodyStart};
+        scan(channel, bodyStart, size, chunkSize, position -> {
+            chunks.add(new long[]{chunkStart[0], position});
+            chunkStart[0] = position;
+            return true;
+        });
+        if (chunkStart[0] < size) {
+            chunks.add(new long[]{chunkStart[0], size});
+        }
+        return chunks;
+    }
+
+    /**
+     * Percorre os bytes de [from, to) e notifica cada posição imediatamente após o fim de um registro,
+     * isto é, após uma quebra de linha fora de um campo entre aspas.
+     * Segue as regras do CSVFormat.DEFAULT: aspas só abrem um campo quando são seu primeiro caractere
+     * e aspas duplicadas ("") dentro do campo representam uma aspa literal.
+     * Para reduzir o custo, o listener só é notificado quando a distância desde a última notificação
+     * é de ao menos {@code minDistance} bytes.
+     */
+    private void scan(FileChannel channel, long from, long to, long minDistance, BoundaryListener listener) throws IOException {
+        int state = FIELD_START;
+        long lastBoundary = from;
+        for (long windowStart = from; windowStart < to; windowStart += SCAN_WINDOW_SIZE) {
+            int windowSize = (int) Math.min(SCAN_WINDOW_SIZE, to - windowStart);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowSize);
+            for (int i = 0; i < windowSize; i++) {
+                byte b = window.get(i);
+                switch (state) {
+                    case QUOTED -> {
+                        if (b == QUOTE) {
+                            state = QUOTE_IN_QUOTED;
+                        }
+                    }
+                    case QUOTE_IN_QUOTED -> state = b == QUOTE ? QUOTED : b == COMMA || b == LINE_FEED ? FIELD_START : UNQUOTED;
+                    case FIELD_START -> state = b == QUOTE ? QUOTED : b == COMMA || b == LINE_FEED ? FIELD_START : UNQUOTED;
+                    default -> state = b == COMMA || b == LINE_FEED ? FIELD_START : UNQUOTED;
+                }
+                if (b == LINE_FEED && state == FIELD_START) {
+                    long position = windowStart + i + 1;
+                    if (position - lastBoundary >= minDistance) {
+                        if (!listener.onBoundary(position)) {
+                            return;
+                        }
+                        lastBoundary = position;
+                    }
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface BoundaryListener {
+        /**
+         * @return false para interromper a varredura.
+         */
+        boolean onBoundary(long position);
+    }
+
+    /**
+     * InputStream sobre um ByteBuffer, para decodificar um bloco mapeado sem copiá-lo para o heap.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.challenge.processor;
+
+import com.example.challenge.model.SqsTransactionEvent;
+import org.apache.commons.csv.CSVRecord;
+
+import java.util.Map;
+
+/**
+ * Resultado da avaliação de um registro CSV: o evento SQS pronto para publicação
+ * ou o motivo pelo qual o registro foi rejeitado.
+ * <p>
+ * Um registro rejeitado leva os seus campos por nome de coluna ({@code fields}), extraídos uma única vez
+ * para o log e para o destino de rejeitados.
+ */
+record RecordOutcome(CSVRecord record, SqsTransactionEvent event, RejectionReason rejectionCode, String rejectionReason,
+                     Map<String, String> fields) {
+
+    static RecordOutcome accepted(CSVRecord record, SqsTransactionEvent event) {
+        return new RecordOutcome(record, event, null, null, null);
+    }
+
+    /**
+     * @param rejectionCode O motivo da rejeição.
+     * @param rejectionReason O rótulo gravado com o registro (em geral {@link RejectionReason#label()}).
+     * @param fields Os campos do registro ({@link CSVRecord#toMap()}).
+     */
+    static RecordOutcome rejected(CSVRecord record, RejectionReason rejectionCode, String rejectionReason, Map<String, String> fields) {
+        return new RecordOutcome(record, null, rejectionCode, rejectionReason, fields);
+    }
+
+    boolean isAccepted() {
+        return event != null;
+    }
+}
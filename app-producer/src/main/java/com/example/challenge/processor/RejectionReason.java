@@ -0,0 +1,38 @@
+package com.example.challenge.processor;
+
+/**
+ * Motivo da rejeição de um registro CSV.
+ * <p>
+ * O rótulo de cada motivo é o texto gravado no campo {@code _rejectionReason} dos registros rejeitados, no manifesto
+ * e na tag {@code reason} da métrica {@code producer.validation.rejected}, e não deve ser alterado.
+ */
+public enum RejectionReason {
+
+    /** A transação violou uma das regras de processamento. */
+    VALIDATION_FAILED("Validation Failed"),
+    /** O timestamp não é um instante ISO-8601 válido. */
+    TIMESTAMP_FORMAT_ERROR("Timestamp Format Error"),
+    /** O valor não é um número decimal válido. */
+    AMOUNT_FORMAT_ERROR("Amount Format Error"),
+    /** Falta uma coluna obrigatória no cabeçalho ou um campo no registro. */
+    MISSING_FIELD("Missing Header/Field"),
+    /** Erro não previsto; o rótulo é seguido do nome simples da exceção (ver {@link #labelFor(Throwable)}). */
+    UNEXPECTED_ERROR("Unexpected Error");
+
+    private final String label;
+
+    RejectionReason(String label) {
+        this.label = label;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    /**
+     * @return O rótulo de um erro não previsto, como {@code "Unexpected Error: NullPointerException"}.
+     */
+    static String labelFor(Throwable error) {
+        return UNEXPECTED_ERROR.label + ": " + error.getClass().getSimpleName();
+    }
+}
@@ -1,166 +1,158 @@
 package com.example.challenge.processor;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.example.challenge.config.CheckpointProperties;
+import com.example.challenge.metrics.ProducerMetrics;
+import com.example.challenge.metrics.RowDiagnostics;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.example.challenge.model.Transaction;
 import com.example.challenge.model.SqsTransactionEvent;
+import com.example.challenge.publisher.PublishStats;
+import com.example.challenge.publisher.TransactionEventPublisher;
+import com.example.challenge.publisher.TransactionEventPublisherFactory;
+import com.example.challenge.publisher.TraceContext;
+import com.example.challenge.repository.ProcessedFileRepository;
+import com.example.challenge.repository.TransactionIdempotencyIndex;
+import com.example.challenge.repository.TransactionIdempotencyRepository;
+import com.example.challenge.rules.CompiledRules;
+import com.example.challenge.rules.ProcessingRulesEngine;
+import com.example.challenge.sink.RejectedRecordManifest;
+import com.example.challenge.sink.RejectedRecordSink;
+import com.example.challenge.sink.RejectedRecordSinkFactory;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import org.slf4j.event.Level;
 import org.springframework.stereotype.Service;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
-import software.amazon.awssdk.services.sqs.SqsClient;
-import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
-import software.amazon.awssdk.services.sqs.model.SqsException;
-import software.amazon.awssdk.services.ssm.SsmClient;
-import software.amazon.awssdk.services.ssm.model.GetParameterRequest;
-import software.amazon.awssdk.services.ssm.model.SsmException;
 
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
-import java.math.BigDecimal;
 import java.time.Instant;
-import java.time.format.DateTimeParseException;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.Map;
-import java.util.UUID;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 public class TransactionFileProcessor {
 
     private static final Logger log = LoggerFactory.getLogger(TransactionFileProcessor.class);
 
-    private final SqsClient sqsClient;
-    private final ObjectMapper objectMapper;
-    private final S3Client s3Client;
-    private final SsmClient ssmClient;
-
-    @Value("${app.sqs.queue-url}")
-    private String sqsQueueUrl;
-
-    @Value("${app.s3.rejected-transactions-bucket-name}")
-    private String rejectedTransactionsBucketName;
-
-    @Value("${app.ssm.processing-rules-parameter-name: /my-app/processing-rules}")
-    private String processingRulesParameterName;
+    static final CSVFormat CSV_FORMAT = CSVFormat.DEFAULT.builder()
+            .setHeader()
+            .setSkipHeaderRecord(true)
+            .setTrim(true)
+            .build();
 
-    private final AtomicBoolean enableBetaFeatures = new AtomicBoolean(false);
-
-    public TransactionFileProcessor(SqsClient sqsClient, ObjectMapper objectMapper, S3Client s3Client, SsmClient ssmClient) {
-        this.sqsClient = sqsClient;
+    private final TransactionEventPublisherFactory publisherFactory;
+    private final ObjectMapper objectMapper;
+    private final ProcessingRulesEngine processingRulesEngine;
+    private final ParallelCsvIngestionEngine parallelIngestionEngine;
+    private final RejectedRecordSinkFactory rejectedRecordSinkFactory;
+    private final TransactionIdempotencyRepository idempotencyRepository;
+    private final ProcessedFileRepository processedFileRepository;
+    private final CheckpointProperties checkpointProperties;
+    private final ProducerMetrics metrics;
+    private final RowDiagnostics diagnostics;
+
+    public TransactionFileProcessor(TransactionEventPublisherFactory publisherFactory, ObjectMapper objectMapper, ProcessingRulesEngine processingRulesEngine,
+                                    ParallelCsvIngestionEngine parallelIngestionEngine, RejectedRecordSinkFactory rejectedRecordSinkFactory,
+                                    TransactionIdempotencyRepository idempotencyRepository, ProcessedFileRepository processedFileRepository,
+                                    CheckpointProperties checkpointProperties, ProducerMetrics metrics, RowDiagnostics diagnostics) {
+        this.publisherFactory = publisherFactory;
         this.objectMapper = objectMapper;
-        this.s3Client = s3Client;
-        this.ssmClient = ssmClient;
-        loadProcessingRules();
-    }
-
-    /**
-     * Carrega as regras de processamento do AWS Parameter Store.
-     * Pode ser chamado periodicamente ou na inicialização do serviço.
-     * Neste exemplo, carregamos uma flag simples 'enableBetaFeatures'.
-     */
-    private void loadProcessingRules() {
-        try {
-            GetParameterRequest parameterRequest = GetParameterRequest.builder()
-                    .name(processingRulesParameterName)
-                    .withDecryption(true)
-                    .build();
-
-            String rulesJson = ssmClient.getParameter(parameterRequest).parameter().value();
-
-            Map<String, Object> rulesMap = objectMapper.readValue(rulesJson, Map.class);
-            if (rulesMap.containsKey("enableBetaFeatures")) {
-                enableBetaFeatures.set((Boolean) rulesMap.get("enableBetaFeatures"));
-                log.info("Regras de processamento carregadas do Parameter Store. enableBetaFeatures: {}", enableBetaFeatures.get());
-            } else {
-                log.warn("Parâmetro '{}' não contém 'enableBetaFeatures'. Usando valor padrão: {}", processingRulesParameterName, enableBetaFeatures.get());
-            }
-        } catch (SsmException e) {
-            log.error("Erro ao carregar regras de processamento do Parameter Store '{}': {}", processingRulesParameterName, e.awsErrorDetails().errorMessage(), e);
-            // Em um ambiente de produção, você pode querer implementar retry ou usar um valor de fallback.
-        } catch (JsonProcessingException e) {
-            log.error("Erro ao parsear JSON das regras de processamento do Parameter Store '{}': {}", processingRulesParameterName, e.getMessage(), e);
-        } catch (Exception e) {
-            log.error("Erro inesperado ao carregar regras de processamento do Parameter Store: {}", e.getMessage(), e);
-        }
+        this.processingRulesEngine = processingRulesEngine;
+        this.parallelIngestionEngine = parallelIngestionEngine;
+        this.rejectedRecordSinkFactory = rejectedRecordSinkFactory;
+        this.idempotencyRepository = idempotencyRepository;
+        this.processedFileRepository = processedFileRepository;
+        this.checkpointProperties = checkpointProperties;
+        this.metrics = metrics;
+        this.diagnostics = diagnostics;
     }
 
     /**
      * Processa um arquivo CSV de transações.
      * Lê o CSV, valida cada registro, transforma para o formato do evento SQS
-     * e envia para a fila. Dados inválidos são descartados para S3.
+     * e envia para a fila em lotes. Dados inválidos são agregados em partes NDJSON no S3.
+     * Transações já publicadas em um processamento anterior do mesmo arquivo não são reenviadas, e um processamento
+     * interrompido é retomado a partir do último checkpoint de linha gravado (ver {@link FileCheckpoint}).
+     * Só retorna após a conclusão de todos os envios ao SQS, inclusive no modo assíncrono,
+     * para que o arquivo só seja marcado como processado quando todos os eventos tiverem sido enviados.
      *
      * @param sourceFileId O ID do arquivo do Google Drive que originou este processamento.
      * @param fileName O nome do arquivo CSV.
      * @param inputStream O InputStream contendo o conteúdo do arquivo CSV.
      * @throws IOException Se ocorrer um erro durante a leitura do CSV.
+     * @throws IllegalStateException Se os envios ao SQS não forem concluídos dentro do tempo limite ou se algum evento
+     *                               esgotar as tentativas de envio; o arquivo não deve ser marcado como processado.
      */
     public void processCsvFile(String sourceFileId, String fileName, InputStream inputStream) throws IOException {
-        log.info("Iniciando o processamento do arquivo CSV '{}' (ID: {}) no app-producer.", fileName, sourceFileId);
+        TraceContext traceContext = TraceContext.startFile(Instant.now());
+        log.info("Iniciando o processamento do arquivo CSV '{}' (ID: {}, trace: {}) no app-producer.", fileName, sourceFileId, traceContext.traceId());
 
-        int processedCount = 0;
-        int rejectedCount = 0;
+        ProcessingCounters counters = new ProcessingCounters();
+        // O mesmo conjunto de regras é usado do início ao fim do arquivo, mesmo que seja recarregado no meio
+        CompiledRules rules = processingRulesEngine.current();
 
-        if (enableBetaFeatures.get()) {
+        if (rules.isEnableBetaFeatures()) {
             log.debug("Funcionalidades beta ativadas para este processamento.");
             // Adicione lógica específica de beta aqui, se aplicável
         }
 
-        try (Reader reader = new InputStreamReader(inputStream)) {
-            CSVParser csvParser = new CSVParser(reader, CSVFormat.DEFAULT.builder()
-                    .setHeader()
-                    .setSkipHeaderRecord(true)
-                    .setTrim(true)
-                    .build());
-
-            for (CSVRecord csvRecord : csvParser) {
-                try {
-                    Transaction transaction = parseCsvRecord(csvRecord);
-
-                    if (isValidTransaction(transaction)) {
-                        SqsTransactionEvent event = transformToSqsEvent(transaction, sourceFileId);
-                        sendToSqs(event);
-                        processedCount++;
-                    } else {
-                        log.warn("Transação inválida e rejeitada do arquivo {}. Registro: {}", fileName, csvRecord.toMap());
-                        discardRejectedTransaction(csvRecord, sourceFileId, fileName, "Validation Failed");
-                        rejectedCount++;
+        TransactionIdempotencyIndex idempotencyIndex = idempotencyRepository.loadIndex(sourceFileId);
+        FileCheckpoint checkpoint = FileCheckpoint.load(processedFileRepository, objectMapper, sourceFileId, fileName,
+                checkpointProperties.isEnabled() ? checkpointProperties.getIntervalRows() : 0);
+
+        try (TransactionEventPublisher publisher = publisherFactory.create(idempotencyIndex::recordPublished, traceContext);
+             RejectedRecordSink rejectedSink = rejectedRecordSinkFactory.create(sourceFileId, fileName, checkpoint.getRejectedCheckpoint())) {
+            if (parallelIngestionEngine.isEnabled()) {
+                parallelIngestionEngine.process(fileName, inputStream,
+                        headerNames -> {
+                            TransactionRecordDecoder decoder = TransactionRecordDecoder.forHeader(headerNames, objectMapper, diagnostics, fileName);
+                            return csvRecord -> evaluateRecord(decoder, rules, csvRecord, sourceFileId, fileName);
+                        },
+                        outcome -> {
+                            // As linhas já concluídas ainda passam pelo parsing paralelo, mas não são publicadas novamente
+                            if (!checkpoint.nextRowAlreadyDone()) {
+                                handleOutcome(outcome, publisher, rejectedSink, idempotencyIndex, counters);
+                                checkpoint.rowCompleted(publisher, rejectedSink);
+                            }
+                        });
+            } else {
+                Reader reader = new InputStreamReader(inputStream);
+                CSVParser csvParser = new CSVParser(reader, CSV_FORMAT);
+                TransactionRecordDecoder decoder = TransactionRecordDecoder.forHeader(csvParser.getHeaderNames(), objectMapper, diagnostics, fileName);
+                for (CSVRecord csvRecord : csvParser) {
+                    if (checkpoint.nextRowAlreadyDone()) {
+                        continue;
                     }
-                } catch (DateTimeParseException e) {
-                    log.error("Erro de formato de data/hora para registro no arquivo '{}' (ID: {}): {}. Registro: {}",
-                            fileName, sourceFileId, e.getMessage(), csvRecord.toMap());
-                    discardRejectedTransaction(csvRecord, sourceFileId, fileName, "Timestamp Format Error");
-                    rejectedCount++;
-                } catch (NumberFormatException e) {
-                    log.error("Erro de formato numérico para registro no arquivo '{}' (ID: {}): {}. Registro: {}",
-                            fileName, sourceFileId, e.getMessage(), csvRecord.toMap());
-                    discardRejectedTransaction(csvRecord, sourceFileId, fileName, "Amount Format Error");
-                    rejectedCount++;
-                } catch (IllegalArgumentException e) {
-                    log.error("Erro nos cabeçalhos CSV ou campo ausente no arquivo '{}' (ID: {}): {}. Registro: {}",
-                            fileName, sourceFileId, e.getMessage(), csvRecord.toMap());
-                    discardRejectedTransaction(csvRecord, sourceFileId, fileName, "Missing Header/Field");
-                    rejectedCount++;
-                } catch (Exception e) {
-                    log.error("Erro inesperado ao processar registro CSV do arquivo '{}' (ID: {}): {}. Registro: {}",
-                            fileName, sourceFileId, e.getMessage(), csvRecord.toMap(), e);
-                    discardRejectedTransaction(csvRecord, sourceFileId, fileName, "Unexpected Error: " + e.getClass().getSimpleName());
-                    rejectedCount++;
+                    handleOutcome(evaluateRecord(decoder, rules, csvRecord, sourceFileId, fileName), publisher, rejectedSink, idempotencyIndex, counters);
+                    checkpoint.rowCompleted(publisher, rejectedSink);
                 }
             }
 
-            log.info("Processamento do arquivo '{}' (ID: {}) concluído. Processadas: {}, Rejeitadas: {}",
-                    fileName, sourceFileId, processedCount, rejectedCount);
+            publisher.awaitCompletion();
+            idempotencyIndex.awaitRecorded();
+            PublishStats publishStats = publisher.getStats();
+            log.info("Processamento do arquivo '{}' (ID: {}) concluído. Retomado após a linha: {}, Processadas: {}, Rejeitadas: {} {}, " +
+                            "Já publicadas: {}, Publicadas: {}, Falhas de publicação: {}, Lotes SQS: {}, Preenchimento médio dos lotes: {}%, Vazão: {} msg/s",
+                    fileName, sourceFileId, checkpoint.getResumeAfterRow(), counters.processed, counters.totalRejected(),
+                    counters.rejectedByReason(), counters.alreadyPublished,
+                    publishStats.getPublishedMessages(), publishStats.getFailedMessages(), publishStats.getBatches(),
+                    String.format("%.1f", publishStats.getBatchFillRatio() * 100),
+                    String.format("%.1f", publishStats.getThroughputPerSecond()));
+            checkpoint.verifyPublished(publisher);
+
+            RejectedRecordManifest rejectedManifest = rejectedSink.finish();
+            if (rejectedManifest.getTotalRecords() > 0) {
+                log.info("Registros rejeitados do arquivo '{}' (ID: {}): {} em {} partes, falhas de gravação: {}, manifesto: s3://{}/{}, por motivo: {}",
+                        fileName, sourceFileId, rejectedManifest.getTotalRecords(), rejectedManifest.getParts().size(),
+                        rejectedManifest.getFailedRecords(), rejectedManifest.getBucket(), rejectedManifest.getManifestKey(),
+                        rejectedManifest.getCountsByReason());
+            }
         } catch (IOException e) {
             log.error("Erro de IO ao ler o arquivo CSV '{}' (ID: {}): {}", fileName, sourceFileId, e.getMessage(), e);
             throw e;
@@ -176,68 +168,80 @@ public class TransactionFileProcessor {
     }
 
     /**
-     * Faz o parsing de um CSVRecord para um objeto Transaction.
-     * Mapeia os cabeçalhos do CSV (snake_case) para os campos do modelo Java.
+     * Faz o parsing, a validação e a transformação de um registro CSV, sem efeitos colaterais além de diagnósticos.
+     * Os erros de formato esperados são classificados sem exceções ({@link TransactionRecordDecoder#tryDecode}).
+     * Os campos de um registro rejeitado são extraídos uma única vez, para o diagnóstico e para o destino de rejeitados,
+     * e cada rejeição é contada em {@link RowDiagnostics}, que só registra em log uma amostra por motivo.
+     * Pode ser chamado em paralelo por várias threads.
      *
-     * @param record O CSVRecord a ser parseado.
-     * @return Um objeto Transaction preenchido.
+     * @param decoder O decodificador criado para os cabeçalhos do arquivo.
+     * @param rules As regras de processamento em uso para o arquivo.
+     * @param csvRecord O registro CSV a ser avaliado.
+     * @param sourceFileId O ID do arquivo de origem.
+     * @param fileName O nome do arquivo CSV.
+     * @return O evento SQS do registro, ou o motivo da rejeição.
      */
-    private Transaction parseCsvRecord(CSVRecord record) {
-        String metadataJson = record.get("metadata");
-        Map<String, String> metadataMap = Collections.emptyMap();
-        if (metadataJson != null && !metadataJson.trim().isEmpty()) {
-            try {
-                metadataMap = objectMapper.readValue(metadataJson, HashMap.class);
-            } catch (JsonProcessingException e) {
-                log.warn("Falha ao parsear metadata JSON para o registro: {}. Metadata raw: {}", record.toMap(), metadataJson, e);
+    RecordOutcome evaluateRecord(TransactionRecordDecoder decoder, CompiledRules rules, CSVRecord csvRecord, String sourceFileId, String fileName) {
+        try {
+            TransactionRecordDecoder.DecodeResult decoded = decoder.tryDecode(csvRecord);
+            if (!decoded.isDecoded()) {
+                RejectionReason reason = decoded.rejectionReason();
+                Map<String, String> fields = csvRecord.toMap();
+                diagnostics.report(Level.ERROR, reason.label(), fileName, decoded.detail(), () -> fields);
+                return RecordOutcome.rejected(csvRecord, reason, reason.label(), fields);
             }
-        }
+            Transaction transaction = decoded.transaction();
 
-        return Transaction.builder()
-                .transactionId(record.get("transaction_id"))
-                .transactionType(record.get("transaction_type"))
-                .amount(new BigDecimal(record.get("amount"))).
-                timestamp(Instant.parse(record.get("timestamp")))
-                .customerId(record.get("customer_id"))
-                .metadata(metadataMap)
-                .build();
+            String violation = rules.validate(transaction);
+            if (violation == null) {
+                return RecordOutcome.accepted(csvRecord, transformToSqsEvent(transaction, rules, sourceFileId));
+            }
+            Map<String, String> fields = csvRecord.toMap();
+            diagnostics.report(Level.WARN, RejectionReason.VALIDATION_FAILED.label(), fileName, violation, () -> fields);
+            return RecordOutcome.rejected(csvRecord, RejectionReason.VALIDATION_FAILED, RejectionReason.VALIDATION_FAILED.label(), fields);
+        } catch (Exception e) {
+            Map<String, String> fields = csvRecord.toMap();
+            diagnostics.report(Level.ERROR, RejectionReason.UNEXPECTED_ERROR.label(), fileName, String.valueOf(e.getMessage()),
+                    () -> fields, e);
+            return RecordOutcome.rejected(csvRecord, RejectionReason.UNEXPECTED_ERROR, RejectionReason.labelFor(e), fields);
+        }
     }
 
     /**
-     * Valida uma transação de acordo com os requisitos funcionais:
-     * - Ignorar transações com valores negativos.
-     * - Ignorar transações com campos obrigatórios faltando.
-     *
-     * @param transaction A transação a ser validada.
-     * @return true se a transação for válida, false caso contrário.
+     * Publica o evento de um registro aceito ou envia um registro rejeitado ao destino de rejeitados do arquivo.
+     * Eventos já publicados em um processamento anterior do arquivo são ignorados.
+     * Executado sempre na thread que processa o arquivo, na ordem dos registros.
      */
-    private boolean isValidTransaction(Transaction transaction) {
-        if (transaction.getTransactionId() == null || transaction.getTransactionId().isBlank() ||
-                transaction.getTransactionType() == null || transaction.getTransactionType().isBlank() ||
-                transaction.getAmount() == null ||
-                transaction.getTimestamp() == null ||
-                transaction.getCustomerId() == null || transaction.getCustomerId().isBlank()) {
-            log.warn("Validação falhou: Campos obrigatórios faltando para a transação: {}", transaction);
-            return false;
-        }
-
-        if (transaction.getAmount().compareTo(BigDecimal.ZERO) < 0) {
-            log.warn("Validação falhou: Valor da transação negativo: {}", transaction.getAmount());
-            return false;
+    private void handleOutcome(RecordOutcome outcome, TransactionEventPublisher publisher, RejectedRecordSink rejectedSink,
+                               TransactionIdempotencyIndex idempotencyIndex, ProcessingCounters counters) {
+        if (outcome.isAccepted()) {
+            if (idempotencyIndex.isPublished(outcome.event().getTransactionId())) {
+                counters.alreadyPublished++;
+                metrics.rowAlreadyPublished();
+                return;
+            }
+            publisher.publish(outcome.event());
+            counters.processed++;
+            metrics.rowAccepted();
+        } else {
+            rejectedSink.write(outcome.fields(), outcome.rejectionReason());
+            counters.rejected[outcome.rejectionCode().ordinal()]++;
+            metrics.rowRejected(outcome.rejectionReason());
         }
-        return true;
     }
 
     /**
      * Transforma um objeto Transaction no formato SqsTransactionEvent (camelCase) e o enriquece.
      *
+     * A categoria é definida pelas regras de processamento.
+     *
      * @param transaction A transação original.
+     * @param rules As regras de processamento em uso para o arquivo.
      * @param sourceFileId O ID do arquivo de origem.
      * @return Um objeto SqsTransactionEvent enriquecido.
      */
-    private SqsTransactionEvent transformToSqsEvent(Transaction transaction, String sourceFileId) {
-        String transactionCategory;
-        transactionCategory = (transaction.getAmount().compareTo(BigDecimal.ZERO) >= 0) ? "CREDIT" : "DEBIT";
+    SqsTransactionEvent transformToSqsEvent(Transaction transaction, CompiledRules rules, String sourceFileId) {
+        String transactionCategory = rules.categorize(transaction);
 
         return SqsTransactionEvent.builder()
                 .transactionId(transaction.getTransactionId())
@@ -252,72 +256,28 @@ public class TransactionFileProcessor {
                 .build();
     }
 
-    /**
-     * Envia o evento de transação para a fila SQS.
-     * O evento é serializado para JSON em camelCase.
-     *
-     * @param event O evento SqsTransactionEvent a ser enviado.
-     */
-    private void sendToSqs(SqsTransactionEvent event) {
-        try {
-            String messageBody = objectMapper.writeValueAsString(event); // Requisito: Eventos na fila SQS devem estar em formato JSON com camelCase
-            SendMessageRequest sendMessageRequest = SendMessageRequest.builder()
-                    .queueUrl(sqsQueueUrl)
-                    .messageBody(messageBody)
-                    .build();
-            sqsClient.sendMessage(sendMessageRequest);
-            log.debug("Evento SQS para a transação {} enviado com sucesso para a fila.", event.getTransactionId());
-        } catch (JsonProcessingException e) {
-            log.error("Erro ao serializar evento de transação para JSON: {}", event.getTransactionId(), e);
-        } catch (SqsException e) {
-            log.error("Erro ao enviar mensagem para a fila SQS para a transação {}: {}", event.getTransactionId(), e.awsErrorDetails().errorMessage(), e);
-        } catch (Exception e) {
-            log.error("Erro inesperado ao enviar mensagem para a fila SQS para a transação {}: {}", event.getTransactionId(), e.getMessage(), e);
-        }
-    }
+    private static final class ProcessingCounters {
+        private int processed;
+        /** Registros rejeitados, indexados por {@link RejectionReason#ordinal()}. */
+        private final int[] rejected = new int[RejectionReason.values().length];
+        private int alreadyPublished;
 
-    /**
-     * Descarrega uma transação rejeitada para um bucket S3 específico.
-     *
-     * @param rejectedRecord O registro CSV rejeitado.
-     * @param sourceFileId O ID do arquivo original do Google Drive.
-     * @param originalFileName O nome do arquivo original.
-     * @param reason O motivo da rejeição.
-     */
-    private void discardRejectedTransaction(CSVRecord rejectedRecord, String sourceFileId, String originalFileName, String reason) {
-        if (rejectedTransactionsBucketName == null || rejectedTransactionsBucketName.isBlank()) {
-            log.error("Bucket para transações rejeitadas não configurado. Não é possível descartar o registro: {}", rejectedRecord.toMap());
-            return;
+        private int totalRejected() {
+            int total = 0;
+            for (int count : rejected) {
+                total += count;
+            }
+            return total;
         }
 
-        try {
-            String objectKey = String.format("rejected/%s/%s_%s.json",
-                    sourceFileId,
-                    originalFileName.replace(".csv", ""),
-                    UUID.randomUUID());
-
-            Map<String, String> rejectedData = new HashMap<>(rejectedRecord.toMap());
-            rejectedData.put("_rejectionReason", reason);
-            rejectedData.put("_sourceFileId", sourceFileId);
-            rejectedData.put("_originalFileName", originalFileName);
-            rejectedData.put("_rejectionTimestamp", Instant.now().toString());
-
-            String content = objectMapper.writeValueAsString(rejectedData);
-
-            PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                    .bucket(rejectedTransactionsBucketName)
-                    .key(objectKey)
-                    .contentType("application/json")
-                    .build();
-
-            s3Client.putObject(putObjectRequest, RequestBody.fromString(content));
-
-            log.info("Registro rejeitado salvo no S3: s3://{}/{}", rejectedTransactionsBucketName, objectKey);
-
-        } catch (JsonProcessingException e) {
-            log.error("Erro ao serializar registro rejeitado para JSON. Não foi possível salvar no S3. Registro: {}", rejectedRecord.toMap(), e);
-        } catch (Exception e) {
-            log.error("Erro ao salvar registro rejeitado no S3 para o bucket {}. Registro: {}", rejectedTransactionsBucketName, rejectedRecord.toMap(), e);
+        private Map<RejectionReason, Integer> rejectedByReason() {
+            Map<RejectionReason, Integer> byReason = new EnumMap<>(RejectionReason.class);
+            for (RejectionReason reason : RejectionReason.values()) {
+                if (rejected[reason.ordinal()] > 0) {
+                    byReason.put(reason, rejected[reason.ordinal()]);
+                }
+            }
+            return byReason;
         }
     }
-}
\ No newline at end of file
+}
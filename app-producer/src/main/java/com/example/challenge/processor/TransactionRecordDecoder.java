@@ -0,0 +1,520 @@
+package com.example.challenge.processor;
+
+import com.example.challenge.metrics.RowDiagnostics;
+import com.example.challenge.model.Transaction;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.apache.commons.csv.CSVRecord;
+import org.slf4j.event.Level;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decodificador de registros CSV especializado no esquema fixo de transações
+ * ({@code transaction_id,transaction_type,amount,timestamp,customer_id,metadata}).
+ * <p>
+ * Os índices das colunas são resolvidos uma única vez por arquivo, evitando a busca por nome
+ * no mapa de cabeçalhos a cada campo. Valores e timestamps ISO-8601 no formato usual
+ * ({@code yyyy-MM-ddTHH:mm:ss[.fffffffff]Z}) e metadados JSON planos com valores string
+ * são interpretados diretamente a partir dos caracteres do campo. Qualquer entrada fora
+ * desses formatos passa pelo parser do JDK, de modo que a transação e o motivo da rejeição
+ * correspondem sempre ao resultado, ou à exceção, do caminho genérico ({@link #parseCsvRecord}).
+ * <p>
+ * É imutável e pode ser usado por várias threads.
+ */
+public final class TransactionRecordDecoder {
+
+    static final String TRANSACTION_ID = "transaction_id";
+    static final String TRANSACTION_TYPE = "transaction_type";
+    static final String AMOUNT = "amount";
+    static final String TIMESTAMP = "timestamp";
+    static final String CUSTOMER_ID = "customer_id";
+    static final String METADATA = "metadata";
+    /** Categoria de {@link RowDiagnostics} dos metadados JSON inválidos, que não rejeitam o registro. */
+    static final String INVALID_METADATA = "Invalid Metadata";
+
+    private static final int MAX_FAST_AMOUNT_DIGITS = 18;
+    private static final int[] DAYS_IN_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    private final ObjectReader metadataReader;
+    private final RowDiagnostics diagnostics;
+    private final String fileName;
+    private final int transactionIdIndex;
+    private final int transactionTypeIndex;
+    private final int amountIndex;
+    private final int timestampIndex;
+    private final int customerIdIndex;
+    private final int metadataIndex;
+
+    private TransactionRecordDecoder(ObjectMapper objectMapper, RowDiagnostics diagnostics, String fileName, Map<String, Integer> indexes) {
+        // Leitor já resolvido para o mapa de metadados, com o mesmo resultado de readValue(json, HashMap.class)
+        this.metadataReader = objectMapper.readerFor(HashMap.class);
+        this.diagnostics = diagnostics;
+        this.fileName = fileName;
+        this.transactionIdIndex = indexes.getOrDefault(TRANSACTION_ID, -1);
+        this.transactionTypeIndex = indexes.getOrDefault(TRANSACTION_TYPE, -1);
+        this.amountIndex = indexes.getOrDefault(AMOUNT, -1);
+        this.timestampIndex = indexes.getOrDefault(TIMESTAMP, -1);
+        this.customerIdIndex = indexes.getOrDefault(CUSTOMER_ID, -1);
+        this.metadataIndex = indexes.getOrDefault(METADATA, -1);
+    }
+
+    /**
+     * Cria um decodificador para os cabeçalhos de um arquivo.
+     * Em caso de nomes repetidos, vale a última coluna, como no mapa de cabeçalhos do commons-csv.
+     *
+     * @param headerNames Os nomes das colunas, na ordem do arquivo.
+     * @param objectMapper O ObjectMapper usado no caminho genérico dos metadados.
+     * @param diagnostics O canal que conta os metadados JSON inválidos, com log apenas de uma amostra.
+     * @param fileName O nome do arquivo CSV, para os diagnósticos.
+     */
+    public static TransactionRecordDecoder forHeader(List<String> headerNames, ObjectMapper objectMapper,
+                                                     RowDiagnostics diagnostics, String fileName) {
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < headerNames.size(); i++) {
+            indexes.put(headerNames.get(i), i);
+        }
+        return new TransactionRecordDecoder(objectMapper, diagnostics, fileName, indexes);
+    }
+
+    /**
+     * Decodifica um registro sem lançar exceções para os erros de formato esperados em arquivos com linhas inválidas.
+     * A classificação é a mesma das exceções do caminho genérico: os campos são verificados na ordem
+     * do caminho genérico, e apenas valores fora dos formatos rápidos que ainda podem ser válidos (por exemplo,
+     * {@code 1e3} ou um timestamp com offset) passam pelo parser do JDK.
+     *
+     * @param record O CSVRecord a ser decodificado.
+     * @return A transação, ou o motivo da rejeição com uma descrição para o log.
+     */
+    public DecodeResult tryDecode(CSVRecord record) {
+        String metadataJson = field(record, metadataIndex);
+        if (metadataJson == null) {
+            return DecodeResult.missing(METADATA);
+        }
+        String transactionId = field(record, transactionIdIndex);
+        if (transactionId == null) {
+            return DecodeResult.missing(TRANSACTION_ID);
+        }
+        String transactionType = field(record, transactionTypeIndex);
+        if (transactionType == null) {
+            return DecodeResult.missing(TRANSACTION_TYPE);
+        }
+        String amount = field(record, amountIndex);
+        if (amount == null) {
+            return DecodeResult.missing(AMOUNT);
+        }
+        BigDecimal parsedAmount = toAmount(amount);
+        if (parsedAmount == null) {
+            return DecodeResult.rejected(RejectionReason.AMOUNT_FORMAT_ERROR, "Valor inválido: '" + amount + "'");
+        }
+        String timestamp = field(record, timestampIndex);
+        if (timestamp == null) {
+            return DecodeResult.missing(TIMESTAMP);
+        }
+        Instant parsedTimestamp = toInstant(timestamp);
+        if (parsedTimestamp == null) {
+            return DecodeResult.rejected(RejectionReason.TIMESTAMP_FORMAT_ERROR, "Timestamp inválido: '" + timestamp + "'");
+        }
+        String customerId = field(record, customerIdIndex);
+        if (customerId == null) {
+            return DecodeResult.missing(CUSTOMER_ID);
+        }
+
+        return DecodeResult.decoded(Transaction.builder()
+                .transactionId(transactionId)
+                .transactionType(transactionType)
+                .amount(parsedAmount)
+                .timestamp(parsedTimestamp)
+                .customerId(customerId)
+                .metadata(decodeMetadata(record, metadataJson))
+                .build());
+    }
+
+    /**
+     * Faz o parsing de um CSVRecord para um objeto Transaction pelo caminho genérico,
+     * buscando cada campo pelo nome do cabeçalho (snake_case).
+     *
+     * @param record O CSVRecord a ser parseado.
+     * @return Um objeto Transaction preenchido.
+     */
+    public Transaction parseCsvRecord(CSVRecord record) {
+        String metadataJson = record.get(METADATA);
+        Map<String, String> metadataMap = Collections.emptyMap();
+        if (metadataJson != null && !metadataJson.trim().isEmpty()) {
+            metadataMap = readMetadata(record, metadataJson);
+        }
+
+        return Transaction.builder()
+                .transactionId(record.get(TRANSACTION_ID))
+                .transactionType(record.get(TRANSACTION_TYPE))
+                .amount(new BigDecimal(record.get(AMOUNT)))
+                .timestamp(Instant.parse(record.get(TIMESTAMP)))
+                .customerId(record.get(CUSTOMER_ID))
+                .metadata(metadataMap)
+                .build();
+    }
+
+    private Map<String, String> decodeMetadata(CSVRecord record, String metadataJson) {
+        if (metadataJson == null || isBlank(metadataJson)) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> metadataMap = parseFlatJsonObject(metadataJson);
+        return metadataMap != null ? metadataMap : readMetadata(record, metadataJson);
+    }
+
+    private Map<String, String> readMetadata(CSVRecord record, String metadataJson) {
+        try {
+            return metadataReader.readValue(metadataJson);
+        } catch (JsonProcessingException e) {
+            // Os campos do registro, com o metadata original, só são extraídos se a ocorrência for registrada em log
+            diagnostics.report(Level.WARN, INVALID_METADATA, fileName, e.getOriginalMessage(), record::toMap);
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * @return O campo da coluna, ou null se a coluna não existir no cabeçalho ou no registro.
+     */
+    private static String field(CSVRecord record, int index) {
+        return index >= 0 && index < record.size() ? record.get(index) : null;
+    }
+
+    /**
+     * @return O valor, como {@code new BigDecimal(value)}, ou null se ele for inválido.
+     */
+    private static BigDecimal toAmount(String value) {
+        BigDecimal amount = parseAmount(value);
+        if (amount != null || !isDecimalSyntax(value)) {
+            return amount;
+        }
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            // Sintaxe válida, mas fora dos limites de BigDecimal (por exemplo, um expoente muito grande)
+            return null;
+        }
+    }
+
+    /**
+     * @return O instante, como {@link Instant#parse}, ou null se ele for inválido.
+     */
+    private static Instant toInstant(String value) {
+        Instant instant = parseInstant(value);
+        if (instant != null || !mayBeIsoInstant(value)) {
+            return instant;
+        }
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Verifica a gramática aceita por {@code new BigDecimal(String)}: {@code [+-]dígitos[.dígitos][(e|E)[+-]dígitos]},
+     * com ao menos um dígito antes do expoente. Como no JDK, os dígitos podem ser de qualquer sistema Unicode.
+     */
+    static boolean isDecimalSyntax(CharSequence value) {
+        int length = value.length();
+        int i = 0;
+        if (i < length && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+            i++;
+        }
+        int digits = 0;
+        boolean seenPoint = false;
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (Character.isDigit(c)) {
+                digits++;
+            } else if (c == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                break;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        if (i == length) {
+            return true;
+        }
+        if (value.charAt(i) != 'e' && value.charAt(i) != 'E') {
+            return false;
+        }
+        i++;
+        if (i < length && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+            i++;
+        }
+        if (i == length) {
+            return false;
+        }
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (!Character.isDigit(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Filtro barato para valores que {@link Instant#parse} certamente recusa: um instante ISO-8601 começa por
+     * dígito ou sinal do ano, tem a data separada da hora por {@code T} e termina em {@code Z} ou nos dígitos do offset.
+     */
+    static boolean mayBeIsoInstant(CharSequence value) {
+        int length = value.length();
+        if (length < 17) {
+            return false;
+        }
+        char first = value.charAt(0);
+        char last = value.charAt(length - 1);
+        if (!(first >= '0' && first <= '9' || first == '+' || first == '-')
+                || !(last == 'Z' || last == 'z' || last >= '0' && last <= '9')) {
+            return false;
+        }
+        for (int i = 1; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == 'T' || c == 't') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Interpreta um decimal simples ({@code [+-]dígitos[.dígitos]}) com até 18 dígitos sem criar Strings intermediárias.
+     *
+     * @return O valor, com a mesma escala de {@code new BigDecimal(value)}, ou null se o formato não for suportado.
+     */
+    static BigDecimal parseAmount(CharSequence value) {
+        int length = value.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+')) {
+            negative = value.charAt(0) == '-';
+            i = 1;
+        }
+        long unscaled = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean seenPoint = false;
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digits > MAX_FAST_AMOUNT_DIGITS) {
+                    return null;
+                }
+                unscaled = unscaled * 10 + (c - '0');
+                if (seenPoint) {
+                    scale++;
+                }
+            } else if (c == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                return null;
+            }
+        }
+        if (digits == 0) {
+            return null;
+        }
+        return BigDecimal.valueOf(negative ? -unscaled : unscaled, scale);
+    }
+
+    /**
+     * Interpreta um instante UTC no formato {@code yyyy-MM-ddTHH:mm:ss[.f{1,9}]Z} sem usar DateTimeFormatter.
+     *
+     * @return O instante, ou null se o formato não for suportado ou a data for inválida
+     * (casos em que {@link Instant#parse} decide o resultado).
+     */
+    static Instant parseInstant(CharSequence value) {
+        int length = value.length();
+        if (length < 20 || value.charAt(4) != '-' || value.charAt(7) != '-' || value.charAt(10) != 'T'
+                || value.charAt(13) != ':' || value.charAt(16) != ':' || value.charAt(length - 1) != 'Z') {
+            return null;
+        }
+        int year = digits(value, 0, 4);
+        int month = digits(value, 5, 2);
+        int day = digits(value, 8, 2);
+        int hour = digits(value, 11, 2);
+        int minute = digits(value, 14, 2);
+        int second = digits(value, 17, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || hour < 0 || hour > 23
+                || minute < 0 || minute > 59 || second < 0 || second > 59 || day > lengthOfMonth(year, month)) {
+            return null;
+        }
+
+        int nanos = 0;
+        if (length > 20) {
+            int fractionDigits = length - 21;
+            if (value.charAt(19) != '.' || fractionDigits < 1 || fractionDigits > 9) {
+                return null;
+            }
+            nanos = digits(value, 20, fractionDigits);
+            if (nanos < 0) {
+                return null;
+            }
+            for (int i = fractionDigits; i < 9; i++) {
+                nanos *= 10;
+            }
+        }
+
+        long epochSecond = epochDay(year, month, day) * 86_400L + hour * 3_600L + minute * 60L + second;
+        return Instant.ofEpochSecond(epochSecond, nanos);
+    }
+
+    /**
+     * Interpreta um objeto JSON plano cujos valores são todos strings sem sequências de escape,
+     * como {@code {"channel":"mobile"}}.
+     *
+     * @return O mapa (HashMap, como no caminho genérico), ou null se o conteúdo exigir o parser completo.
+     */
+    static Map<String, String> parseFlatJsonObject(String json) {
+        int length = json.length();
+        int i = skipWhitespace(json, 0);
+        if (i >= length || json.charAt(i) != '{') {
+            return null;
+        }
+        Map<String, String> map = new HashMap<>();
+        i = skipWhitespace(json, i + 1);
+        if (i < length && json.charAt(i) == '}') {
+            return skipWhitespace(json, i + 1) == length ? map : null;
+        }
+        while (true) {
+            int keyEnd = endOfSimpleString(json, i);
+            if (keyEnd < 0) {
+                return null;
+            }
+            String key = json.substring(i + 1, keyEnd);
+            i = skipWhitespace(json, keyEnd + 1);
+            if (i >= length || json.charAt(i) != ':') {
+                return null;
+            }
+            i = skipWhitespace(json, i + 1);
+            int valueEnd = endOfSimpleString(json, i);
+            if (valueEnd < 0) {
+                return null;
+            }
+            map.put(key, json.substring(i + 1, valueEnd));
+            i = skipWhitespace(json, valueEnd + 1);
+            if (i >= length) {
+                return null;
+            }
+            char c = json.charAt(i);
+            if (c == '}') {
+                return skipWhitespace(json, i + 1) == length ? map : null;
+            }
+            if (c != ',') {
+                return null;
+            }
+            i = skipWhitespace(json, i + 1);
+        }
+    }
+
+    /**
+     * @return A posição da aspa que fecha a string iniciada em {@code start}, ou -1 se não houver
+     * string simples (sem escapes nem caracteres de controle) nessa posição.
+     */
+    private static int endOfSimpleString(String json, int start) {
+        if (start >= json.length() || json.charAt(start) != '"') {
+            return -1;
+        }
+        for (int i = start + 1; i < json.length(); i++) {
+            char c = json.charAt(i);
+            if (c == '"') {
+                return i;
+            }
+            if (c == '\\' || c < 0x20) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static int skipWhitespace(String json, int start) {
+        int i = start;
+        while (i < json.length()) {
+            char c = json.charAt(i);
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isBlank(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return O número formado por {@code count} dígitos a partir de {@code start}, ou -1 se houver não-dígitos.
+     */
+    private static int digits(CharSequence value, int start, int count) {
+        int result = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        if (month == 2 && (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0))) {
+            return 29;
+        }
+        return DAYS_IN_MONTH[month - 1];
+    }
+
+    /**
+     * Dias desde 1970-01-01 para uma data do calendário gregoriano proléptico (algoritmo days_from_civil).
+     */
+    private static long epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = y / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - 719_468L;
+    }
+
+    /**
+     * Resultado de {@link #tryDecode}: a transação decodificada ou o motivo da rejeição.
+     *
+     * @param transaction A transação, ou null se o registro foi rejeitado.
+     * @param rejectionReason O motivo da rejeição, ou null se o registro foi decodificado.
+     * @param detail A descrição do erro para o log, ou null se o registro foi decodificado.
+     */
+    public record DecodeResult(Transaction transaction, RejectionReason rejectionReason, String detail) {
+
+        static DecodeResult decoded(Transaction transaction) {
+            return new DecodeResult(transaction, null, null);
+        }
+
+        static DecodeResult rejected(RejectionReason rejectionReason, String detail) {
+            return new DecodeResult(null, rejectionReason, detail);
+        }
+
+        static DecodeResult missing(String column) {
+            return rejected(RejectionReason.MISSING_FIELD, "Coluna ausente no cabeçalho ou no registro: " + column);
+        }
+
+        public boolean isDecoded() {
+            return transaction != null;
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.example.challenge.publisher;
+
+import com.example.challenge.config.SqsPublisherProperties;
+import com.example.challenge.metrics.ProducerMetrics;
+import com.example.challenge.model.SqsTransactionEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResultEntry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Base dos publicadores SQS em lote (SendMessageBatch).
+ * Um lote é despachado quando atinge o número máximo de mensagens, quando a próxima mensagem
+ * ultrapassaria o limite de bytes do lote, quando a mensagem mais antiga do lote espera
+ * mais que o tempo de linger ou quando {@link #flush()} é chamado ao fim do arquivo.
+ * Apenas as entradas que falharam em uma resposta parcial são reenviadas. As transações aceitas em cada
+ * resposta são informadas ao {@link PublishedTransactionsListener}. Com um {@link TraceContext} ativo, cada mensagem
+ * leva os atributos de rastreamento, cujo tamanho é contabilizado no limite de bytes do lote.
+ * <p>
+ * O corpo das mensagens é gerado pelo {@link TransactionEventEncoder}. Com {@code eventsPerMessage} maior que 1, os eventos
+ * são agrupados em mensagens de até esse número de eventos antes de entrarem no lote; um grupo cujo corpo excede o limite
+ * de bytes é dividido ao meio. As estatísticas de mensagens publicadas, com falha e reenviadas contam eventos (transações),
+ * e as de lotes contam mensagens SQS.
+ * <p>
+ * O acúmulo dos lotes não é thread-safe: {@link #publish} deve ser chamado por uma única thread.
+ * As estatísticas podem ser atualizadas pelas threads de conclusão dos envios assíncronos.
+ */
+public abstract class AbstractSqsBatchPublisher implements TransactionEventPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(AbstractSqsBatchPublisher.class);
+
+    private final TransactionEventEncoder encoder;
+    private final String queueUrl;
+    private final int maxBatchSize;
+    private final int maxBatchBytes;
+    private final long lingerNanos;
+    protected final int maxRetries;
+    protected final Duration retryBackoff;
+    private final PublishedTransactionsListener publishedListener;
+    protected final ProducerMetrics metrics;
+    private final TraceContext traceContext;
+    private final int attributeBytes;
+    private final int eventsPerMessage;
+
+    private final List<SqsTransactionEvent> pendingEvents;
+    private final List<PendingMessage> buffer;
+    private int bufferedBytes;
+    private long oldestBufferedAt;
+
+    private final long startedAt = System.nanoTime();
+    private final AtomicLong publishedMessages = new AtomicLong();
+    private final AtomicLong failedMessages = new AtomicLong();
+    private final AtomicLong retriedMessages = new AtomicLong();
+    private long batches;
+    private long batchedEntries;
+
+    protected AbstractSqsBatchPublisher(TransactionEventEncoder encoder, String queueUrl, SqsPublisherProperties properties,
+                                        PublishedTransactionsListener publishedListener, ProducerMetrics metrics,
+                                        TraceContext traceContext) {
+        this.encoder = encoder;
+        this.queueUrl = queueUrl;
+        this.maxBatchSize = properties.getMaxBatchSize();
+        this.maxBatchBytes = properties.getMaxBatchBytes();
+        this.lingerNanos = properties.getLinger().toNanos();
+        this.maxRetries = properties.getMaxRetries();
+        this.retryBackoff = properties.getRetryBackoff();
+        this.buffer = new ArrayList<>(maxBatchSize);
+        this.publishedListener = publishedListener;
+        this.metrics = metrics;
+        this.traceContext = traceContext;
+        this.attributeBytes = (traceContext.isEnabled() ? TraceContext.MAX_ATTRIBUTES_BYTES : 0) + encoder.attributeBytes();
+        this.eventsPerMessage = properties.getEventsPerMessage();
+        this.pendingEvents = new ArrayList<>(eventsPerMessage);
+    }
+
+    /**
+     * Envia um lote completo, incluindo as novas tentativas das entradas que falharem.
+     *
+     * @param batch As mensagens do lote, na ordem em que foram publicadas.
+     */
+    protected abstract void dispatch(List<PendingMessage> batch);
+
+    @Override
+    public void publish(SqsTransactionEvent event) {
+        if (buffer.isEmpty() && pendingEvents.isEmpty()) {
+            oldestBufferedAt = System.nanoTime();
+        }
+        if (eventsPerMessage == 1) {
+            enqueue(List.of(event));
+        } else {
+            pendingEvents.add(event);
+            if (pendingEvents.size() >= eventsPerMessage) {
+                enqueuePendingEvents();
+            }
+        }
+
+        if (System.nanoTime() - oldestBufferedAt >= lingerNanos) {
+            flush();
+        }
+    }
+
+    @Override
+    public void flush() {
+        enqueuePendingEvents();
+        if (buffer.isEmpty()) {
+            return;
+        }
+        List<PendingMessage> batch = new ArrayList<>(buffer);
+        buffer.clear();
+        bufferedBytes = 0;
+        oldestBufferedAt = System.nanoTime();
+
+        batches++;
+        batchedEntries += batch.size();
+        dispatch(batch);
+    }
+
+    private void enqueuePendingEvents() {
+        if (!pendingEvents.isEmpty()) {
+            List<SqsTransactionEvent> events = List.copyOf(pendingEvents);
+            pendingEvents.clear();
+            enqueue(events);
+        }
+    }
+
+    /**
+     * Codifica os eventos de uma mensagem e a adiciona ao lote, despachando o lote quando ele fica cheio.
+     */
+    private void enqueue(List<SqsTransactionEvent> events) {
+        String messageBody;
+        try {
+            messageBody = encoder.encode(events); // Requisito: Eventos na fila SQS devem estar em formato JSON com camelCase
+        } catch (JsonProcessingException e) {
+            log.error("Erro ao serializar eventos de transação para JSON: {}", transactionIds(events), e);
+            failedMessages.addAndGet(events.size());
+            return;
+        }
+
+        int messageBytes = utf8Length(messageBody) + attributeBytes;
+        if (messageBytes > maxBatchBytes) {
+            if (events.size() > 1) {
+                enqueue(events.subList(0, events.size() / 2));
+                enqueue(events.subList(events.size() / 2, events.size()));
+                return;
+            }
+            log.error("Evento da transação {} possui {} bytes e excede o limite de {} bytes do SQS. Não será enviado.",
+                    events.get(0).getTransactionId(), messageBytes, maxBatchBytes);
+            failedMessages.incrementAndGet();
+            return;
+        }
+
+        if (!buffer.isEmpty() && bufferedBytes + messageBytes > maxBatchBytes) {
+            flush();
+        }
+        buffer.add(new PendingMessage(transactionIds(events), messageBody, events.get(0).getProcessingTimestamp()));
+        bufferedBytes += messageBytes;
+
+        if (buffer.size() >= maxBatchSize) {
+            flush();
+        }
+    }
+
+    @Override
+    public PublishStats getStats() {
+        return PublishStats.builder()
+                .publishedMessages(publishedMessages.get())
+                .failedMessages(failedMessages.get())
+                .retriedMessages(retriedMessages.get())
+                .batches(batches)
+                .batchedEntries(batchedEntries)
+                .maxBatchSize(maxBatchSize)
+                .elapsed(Duration.ofNanos(System.nanoTime() - startedAt))
+                .build();
+    }
+
+    protected SendMessageBatchRequest buildRequest(List<PendingMessage> batch) {
+        List<SendMessageBatchRequestEntry> entries = new ArrayList<>(batch.size());
+        long publishedAt = System.currentTimeMillis();
+        Map<String, MessageAttributeValue> encodingAttributes = encoder.messageAttributes();
+        for (int i = 0; i < batch.size(); i++) {
+            PendingMessage message = batch.get(i);
+            SendMessageBatchRequestEntry.Builder entry = SendMessageBatchRequestEntry.builder()
+                    .id(Integer.toString(i))
+                    .messageBody(message.body());
+            if (traceContext.isEnabled()) {
+                Map<String, MessageAttributeValue> attributes = traceContext.messageAttributes(message.parsedAt(), publishedAt);
+                attributes.putAll(encodingAttributes);
+                entry.messageAttributes(attributes);
+            } else if (!encodingAttributes.isEmpty()) {
+                entry.messageAttributes(new HashMap<>(encodingAttributes));
+            }
+            entries.add(entry.build());
+        }
+        return SendMessageBatchRequest.builder()
+                .queueUrl(queueUrl)
+                .entries(entries)
+                .build();
+    }
+
+    /**
+     * Contabiliza a resposta de um lote e devolve as mensagens que devem ser reenviadas.
+     * Falhas atribuídas ao remetente (senderFault) não são reenviadas, pois falhariam novamente.
+     * Os IDs das entradas correspondem às posições das mensagens no lote (ver {@link #buildRequest}).
+     */
+    protected List<PendingMessage> handleResponse(List<PendingMessage> batch, SendMessageBatchResponse response) {
+        for (SendMessageBatchResultEntry entry : response.successful()) {
+            publishedMessages.addAndGet(batch.get(Integer.parseInt(entry.id())).transactionIds().size());
+        }
+        if (!response.successful().isEmpty()) {
+            metrics.firstMessagePublished();
+        }
+        notifyPublished(batch, response);
+        if (response.failed().isEmpty()) {
+            log.debug("Lote de {} mensagens enviado com sucesso para a fila SQS.", batch.size());
+            return List.of();
+        }
+
+        List<PendingMessage> retryable = new ArrayList<>(response.failed().size());
+        for (BatchResultErrorEntry error : response.failed()) {
+            PendingMessage message = batch.get(Integer.parseInt(error.id()));
+            if (Boolean.TRUE.equals(error.senderFault())) {
+                log.error("Mensagem da transação {} rejeitada pela fila SQS ({}): {}. Não será reenviada.",
+                        message.describe(), error.code(), error.message());
+                failedMessages.addAndGet(message.transactionIds().size());
+            } else {
+                log.warn("Falha temporária ao enviar a transação {} para a fila SQS ({}): {}.",
+                        message.describe(), error.code(), error.message());
+                retryable.add(message);
+            }
+        }
+        return retryable;
+    }
+
+    private void notifyPublished(List<PendingMessage> batch, SendMessageBatchResponse response) {
+        if (publishedListener == PublishedTransactionsListener.NONE || response.successful().isEmpty()) {
+            return;
+        }
+        List<String> transactionIds = new ArrayList<>(response.successful().size());
+        for (SendMessageBatchResultEntry entry : response.successful()) {
+            transactionIds.addAll(batch.get(Integer.parseInt(entry.id())).transactionIds());
+        }
+        try {
+            publishedListener.onPublished(transactionIds);
+        } catch (RuntimeException e) {
+            // A publicação já foi concluída; uma falha no registro não deve provocar o reenvio do lote
+            log.warn("Erro ao registrar {} transações publicadas: {}", transactionIds.size(), e.getMessage());
+        }
+    }
+
+    protected void recordRetry(List<PendingMessage> messages) {
+        retriedMessages.addAndGet(eventCount(messages));
+    }
+
+    protected void recordFailure(List<PendingMessage> messages, int attempts) {
+        log.error("Falha ao enviar {} mensagens para a fila SQS após {} tentativas. Transações: {}",
+                messages.size(), attempts, messages.stream().flatMap(message -> message.transactionIds().stream()).toList());
+        failedMessages.addAndGet(eventCount(messages));
+    }
+
+    private static long eventCount(List<PendingMessage> messages) {
+        long count = 0;
+        for (PendingMessage message : messages) {
+            count += message.transactionIds().size();
+        }
+        return count;
+    }
+
+    private static List<String> transactionIds(List<SqsTransactionEvent> events) {
+        if (events.size() == 1) {
+            return List.of(events.get(0).getTransactionId());
+        }
+        List<String> transactionIds = new ArrayList<>(events.size());
+        for (SqsTransactionEvent event : events) {
+            transactionIds.add(event.getTransactionId());
+        }
+        return transactionIds;
+    }
+
+    protected Duration backoffFor(int attempt) {
+        return retryBackoff.multipliedBy(1L << Math.min(attempt, 10));
+    }
+
+    /**
+     * Calcula o tamanho em bytes da string codificada em UTF-8 sem alocar o array de bytes.
+     */
+    static int utf8Length(CharSequence value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Uma mensagem do lote.
+     *
+     * @param transactionIds As transações dos eventos da mensagem.
+     * @param body O corpo codificado.
+     * @param parsedAt O instante de parsing do primeiro (mais antigo) evento da mensagem.
+     */
+    protected record PendingMessage(List<String> transactionIds, String body, Instant parsedAt) {
+
+        String describe() {
+            return transactionIds.size() == 1 ? transactionIds.get(0) : transactionIds.toString();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.challenge.publisher;
+
+import com.example.challenge.config.SqsPublisherProperties;
+import com.example.challenge.metrics.ProducerMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publicador SQS em lote assíncrono, baseado no {@link SqsAsyncClient}.
+ * Mantém até {@code maxInFlightBatches} lotes em andamento ao mesmo tempo: quando a janela está cheia,
+ * {@link #publish} bloqueia a thread do parser até que algum lote seja concluído (backpressure).
+ * Um lote só libera sua vaga na janela após a conclusão de todas as suas novas tentativas.
+ * <p>
+ * Deve ser criada uma instância por arquivo processado. {@link #publish} deve ser chamado por uma única thread.
+ */
+public class AsyncSqsBatchPublisher extends AbstractSqsBatchPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncSqsBatchPublisher.class);
+
+    private final SqsAsyncClient sqsAsyncClient;
+    private final int maxInFlightBatches;
+    private final Semaphore inFlightBatches;
+    private final Duration completionTimeout;
+
+    /**
+     * @param encoder O codificador do corpo das mensagens, compartilhado entre os publicadores.
+     */
+    public AsyncSqsBatchPublisher(SqsAsyncClient sqsAsyncClient, TransactionEventEncoder encoder, String queueUrl, SqsPublisherProperties properties,
+                                  PublishedTransactionsListener publishedListener, ProducerMetrics metrics, TraceContext traceContext) {
+        super(encoder, queueUrl, properties, publishedListener, metrics, traceContext);
+        this.sqsAsyncClient = sqsAsyncClient;
+        this.maxInFlightBatches = properties.getMaxInFlightBatches();
+        this.inFlightBatches = new Semaphore(maxInFlightBatches);
+        this.completionTimeout = properties.getCompletionTimeout();
+    }
+
+    @Override
+    protected void dispatch(List<PendingMessage> batch) {
+        try {
+            inFlightBatches.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Publicação SQS interrompida enquanto aguardava vaga na janela de envios.");
+            recordFailure(batch, 0);
+            return;
+        }
+        sendAsync(batch, 0).whenComplete((ignored, error) -> inFlightBatches.release());
+    }
+
+    /**
+     * Aguarda a conclusão de todos os lotes em andamento, adquirindo todas as vagas da janela.
+     */
+    @Override
+    public void awaitCompletion() {
+        flush();
+        try {
+            if (!inFlightBatches.tryAcquire(maxInFlightBatches, completionTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException(String.format(
+                        "Tempo limite de %s esgotado aguardando a conclusão de %d lotes SQS em andamento.",
+                        completionTimeout, maxInFlightBatches - inFlightBatches.availablePermits()));
+            }
+            inFlightBatches.release(maxInFlightBatches);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido enquanto aguardava a conclusão dos envios SQS.", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            awaitCompletion();
+        } catch (IllegalStateException e) {
+            log.error("Erro ao finalizar publicador SQS assíncrono: {}", e.getMessage());
+        }
+    }
+
+    private CompletableFuture<Void> sendAsync(List<PendingMessage> batch, int attempt) {
+        CompletableFuture<List<PendingMessage>> responseFuture;
+        long startedAt = System.nanoTime();
+        metrics.sqsBatchStarted();
+        try {
+            responseFuture = sqsAsyncClient.sendMessageBatch(buildRequest(batch))
+                    .whenComplete((response, error) -> metrics.sqsBatchCompleted(System.nanoTime() - startedAt, error == null))
+                    .thenApply(response -> handleResponse(batch, response));
+        } catch (RuntimeException e) {
+            metrics.sqsBatchCompleted(System.nanoTime() - startedAt, false);
+            responseFuture = CompletableFuture.failedFuture(e);
+        }
+
+        return responseFuture
+                .exceptionally(error -> {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    log.warn("Erro ao enviar lote de {} mensagens para a fila SQS: {}", batch.size(), cause.getMessage());
+                    return batch;
+                })
+                .thenCompose(retryable -> {
+                    if (retryable.isEmpty()) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    if (attempt >= maxRetries) {
+                        recordFailure(retryable, attempt + 1);
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    recordRetry(retryable);
+                    Executor delayed = CompletableFuture.delayedExecutor(backoffFor(attempt).toMillis(), TimeUnit.MILLISECONDS);
+                    return CompletableFuture.runAsync(() -> { }, delayed)
+                            .thenCompose(ignored -> sendAsync(retryable, attempt + 1));
+                });
+    }
+}
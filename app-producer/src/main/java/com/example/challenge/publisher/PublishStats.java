@@ -0,0 +1,36 @@
+package com.example.challenge.publisher;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Estatísticas de publicação SQS acumuladas durante o processamento de um arquivo.
+ */
+@Data
+@Builder
+public class PublishStats {
+    private long publishedMessages;
+    private long failedMessages;
+    private long retriedMessages;
+    private long batches;
+    private long batchedEntries;
+    private int maxBatchSize;
+    private Duration elapsed;
+
+    /**
+     * @return A fração média de ocupação dos lotes enviados (0.0 a 1.0).
+     */
+    public double getBatchFillRatio() {
+        return batches == 0 ? 0.0 : (double) batchedEntries / (batches * (double) maxBatchSize);
+    }
+
+    /**
+     * @return A vazão de mensagens publicadas com sucesso, em mensagens por segundo.
+     */
+    public double getThroughputPerSecond() {
+        long nanos = elapsed == null ? 0 : elapsed.toNanos();
+        return nanos == 0 ? 0.0 : publishedMessages * 1_000_000_000.0 / nanos;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.challenge.publisher;
+
+import java.util.List;
+
+/**
+ * Recebe os IDs das transações aceitas pelo SQS a cada resposta de lote.
+ * Pode ser chamado pelas threads de conclusão dos envios assíncronos.
+ */
+@FunctionalInterface
+public interface PublishedTransactionsListener {
+
+    PublishedTransactionsListener NONE = transactionIds -> { };
+
+    void onPublished(List<String> transactionIds);
+}
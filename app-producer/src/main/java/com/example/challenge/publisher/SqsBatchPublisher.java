@@ -0,0 +1,89 @@
+package com.example.challenge.publisher;
+
+import com.example.challenge.config.SqsPublisherProperties;
+import com.example.challenge.metrics.ProducerMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+
+import java.util.List;
+
+/**
+ * Publicador SQS em lote síncrono: cada lote é enviado na própria thread do chamador,
+ * que fica bloqueada até a conclusão do envio e das novas tentativas.
+ * <p>
+ * Deve ser criada uma instância por arquivo processado. Não é thread-safe.
+ */
+public class SqsBatchPublisher extends AbstractSqsBatchPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(SqsBatchPublisher.class);
+
+    private final SqsClient sqsClient;
+
+    /**
+     * @param encoder O codificador do corpo das mensagens, compartilhado entre os publicadores.
+     */
+    public SqsBatchPublisher(SqsClient sqsClient, TransactionEventEncoder encoder, String queueUrl, SqsPublisherProperties properties,
+                             PublishedTransactionsListener publishedListener, ProducerMetrics metrics, TraceContext traceContext) {
+        super(encoder, queueUrl, properties, publishedListener, metrics, traceContext);
+        this.sqsClient = sqsClient;
+    }
+
+    @Override
+    protected void dispatch(List<PendingMessage> batch) {
+        List<PendingMessage> pending = batch;
+        for (int attempt = 0; ; attempt++) {
+            pending = trySendBatch(pending);
+            if (pending.isEmpty()) {
+                return;
+            }
+            if (attempt >= maxRetries) {
+                recordFailure(pending, attempt + 1);
+                return;
+            }
+            recordRetry(pending);
+            if (!sleepBeforeRetry(attempt)) {
+                recordFailure(pending, attempt + 1);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void awaitCompletion() {
+        flush();
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+
+    private List<PendingMessage> trySendBatch(List<PendingMessage> batch) {
+        SendMessageBatchResponse response;
+        long startedAt = System.nanoTime();
+        metrics.sqsBatchStarted();
+        try {
+            response = sqsClient.sendMessageBatch(buildRequest(batch));
+            metrics.sqsBatchCompleted(System.nanoTime() - startedAt, true);
+        } catch (SdkException e) {
+            metrics.sqsBatchCompleted(System.nanoTime() - startedAt, false);
+            log.warn("Erro ao enviar lote de {} mensagens para a fila SQS: {}", batch.size(), e.getMessage());
+            return batch;
+        }
+        return handleResponse(batch, response);
+    }
+
+    private boolean sleepBeforeRetry(int attempt) {
+        try {
+            Thread.sleep(backoffFor(attempt));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Reenvio de mensagens SQS interrompido.");
+            return false;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.challenge.publisher;
+
+import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Contexto de rastreamento de ponta a ponta de um arquivo, propagado em cada mensagem SQS como atributos de mensagem:
+ * <ul>
+ *   <li>{@code traceparent}: no formato W3C Trace Context, com o trace ID do arquivo e um span ID próprio da linha;</li>
+ *   <li>{@code stageFileIngestedAt}, {@code stageRowParsedAt} e {@code stagePublishedAt}: os instantes, em milissegundos
+ *       desde a época, da ingestão do arquivo, do parsing da linha e do envio do lote ao SQS.</li>
+ * </ul>
+ * O app-consumer completa as etapas de recebimento e de gravação no S3 e registra a latência de cada etapa.
+ * Os atributos não fazem parte do corpo JSON, que permanece inalterado.
+ *
+ * @param traceId O trace ID do arquivo (32 dígitos hexadecimais).
+ * @param fileIngestedAtMillis O instante de início da ingestão do arquivo.
+ */
+public record TraceContext(String traceId, long fileIngestedAtMillis) {
+
+    public static final String TRACEPARENT_ATTRIBUTE = "traceparent";
+    public static final String FILE_INGESTED_AT_ATTRIBUTE = "stageFileIngestedAt";
+    public static final String ROW_PARSED_AT_ATTRIBUTE = "stageRowParsedAt";
+    public static final String PUBLISHED_AT_ATTRIBUTE = "stagePublishedAt";
+
+    /** Sem rastreamento: as mensagens são enviadas sem atributos. */
+    public static final TraceContext NONE = new TraceContext(null, 0);
+
+    private static final String STRING_TYPE = "String";
+    private static final String NUMBER_TYPE = "Number";
+    private static final HexFormat HEX = HexFormat.of();
+
+    /**
+     * Limite superior do tamanho dos atributos de uma mensagem, que o SQS soma ao tamanho do corpo.
+     * Cada atributo conta o nome, o tipo e o valor.
+     */
+    static final int MAX_ATTRIBUTES_BYTES = attributeBytes(TRACEPARENT_ATTRIBUTE, STRING_TYPE, 55)
+            + attributeBytes(FILE_INGESTED_AT_ATTRIBUTE, NUMBER_TYPE, 19)
+            + attributeBytes(ROW_PARSED_AT_ATTRIBUTE, NUMBER_TYPE, 19)
+            + attributeBytes(PUBLISHED_AT_ATTRIBUTE, NUMBER_TYPE, 19);
+
+    /**
+     * @param ingestedAt O instante de início da ingestão do arquivo.
+     * @return Um novo contexto, com um trace ID aleatório.
+     */
+    public static TraceContext startFile(Instant ingestedAt) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new TraceContext(HEX.toHexDigits(random.nextLong()) + HEX.toHexDigits(random.nextLong()), ingestedAt.toEpochMilli());
+    }
+
+    public boolean isEnabled() {
+        return traceId != null;
+    }
+
+    /**
+     * @param rowParsedAt O instante do parsing da linha, ou {@code null} se desconhecido.
+     * @param publishedAtMillis O instante de envio do lote.
+     * @return Os atributos da mensagem de uma linha.
+     */
+    Map<String, MessageAttributeValue> messageAttributes(Instant rowParsedAt, long publishedAtMillis) {
+        Map<String, MessageAttributeValue> attributes = new HashMap<>(8);
+        attributes.put(TRACEPARENT_ATTRIBUTE, stringAttribute("00-" + traceId + "-" + HEX.toHexDigits(ThreadLocalRandom.current().nextLong()) + "-01"));
+        attributes.put(FILE_INGESTED_AT_ATTRIBUTE, numberAttribute(fileIngestedAtMillis));
+        if (rowParsedAt != null) {
+            attributes.put(ROW_PARSED_AT_ATTRIBUTE, numberAttribute(rowParsedAt.toEpochMilli()));
+        }
+        attributes.put(PUBLISHED_AT_ATTRIBUTE, numberAttribute(publishedAtMillis));
+        return attributes;
+    }
+
+    private static MessageAttributeValue stringAttribute(String value) {
+        return MessageAttributeValue.builder().dataType(STRING_TYPE).stringValue(value).build();
+    }
+
+    private static MessageAttributeValue numberAttribute(long value) {
+        return MessageAttributeValue.builder().dataType(NUMBER_TYPE).stringValue(Long.toString(value)).build();
+    }
+
+    private static int attributeBytes(String name, String dataType, int maxValueLength) {
+        return name.length() + dataType.length() + maxValueLength;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.challenge.publisher;
+
+import com.example.challenge.config.SqsPublisherProperties;
+import com.example.challenge.model.SqsTransactionEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Codifica o corpo das mensagens SQS de eventos de transação no formato configurado em {@code app.sqs.publisher.encoding}:
+ * <ul>
+ *   <li>{@code JSON} (padrão): um objeto JSON em camelCase por evento, ou um array JSON quando os eventos são agrupados;</li>
+ *   <li>{@code SMILE}: o mesmo conteúdo no formato binário Smile do Jackson, com os nomes de campo e os valores repetidos
+ *       referenciados em vez de repetidos, codificado em Base64 (o corpo de uma mensagem SQS deve ser texto).
+ *       A mensagem leva o atributo {@code contentEncoding=smile}, usado pelo app-consumer para detectar o formato.</li>
+ * </ul>
+ * O ganho do Smile está principalmente nas mensagens com vários eventos agrupados ({@code app.sqs.publisher.events-per-message}),
+ * em que os nomes dos campos são escritos uma única vez; para um evento isolado, o Base64 consome boa parte da redução.
+ * <p>
+ * Os writers são resolvidos uma única vez para o tipo do evento e da lista de eventos, sem a busca do serializador pela
+ * classe do valor a cada chamada. Thread-safe: os writers do Jackson são imutáveis.
+ */
+public final class TransactionEventEncoder {
+
+    public static final String CONTENT_ENCODING_ATTRIBUTE = "contentEncoding";
+    public static final String SMILE_CONTENT_ENCODING = "smile";
+
+    private static final String STRING_TYPE = "String";
+    private static final Map<String, MessageAttributeValue> SMILE_ATTRIBUTES = Map.of(CONTENT_ENCODING_ATTRIBUTE,
+            MessageAttributeValue.builder().dataType(STRING_TYPE).stringValue(SMILE_CONTENT_ENCODING).build());
+
+    private static final TypeReference<List<SqsTransactionEvent>> EVENT_LIST_TYPE = new TypeReference<>() {
+    };
+
+    private final SqsPublisherProperties.Encoding encoding;
+    private final ObjectWriter eventWriter;
+    private final ObjectWriter eventListWriter;
+
+    private TransactionEventEncoder(SqsPublisherProperties.Encoding encoding, ObjectMapper mapper) {
+        this.encoding = encoding;
+        this.eventWriter = mapper.writerFor(SqsTransactionEvent.class);
+        this.eventListWriter = mapper.writerFor(EVENT_LIST_TYPE);
+    }
+
+    /**
+     * @param objectMapper O ObjectMapper da aplicação, cujos módulos e configurações também são usados no formato Smile.
+     * @param encoding O formato do corpo das mensagens.
+     */
+    public static TransactionEventEncoder create(ObjectMapper objectMapper, SqsPublisherProperties.Encoding encoding) {
+        return switch (encoding) {
+            case JSON -> new TransactionEventEncoder(encoding, objectMapper);
+            case SMILE -> {
+                SmileFactory smileFactory = SmileFactory.builder()
+                        .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                        .build();
+                yield new TransactionEventEncoder(encoding, objectMapper.copyWith(smileFactory));
+            }
+        };
+    }
+
+    /**
+     * @param events Os eventos de uma mensagem: um evento é codificado como objeto, mais de um como array.
+     * @return O corpo da mensagem.
+     */
+    public String encode(List<SqsTransactionEvent> events) throws JsonProcessingException {
+        boolean single = events.size() == 1;
+        ObjectWriter writer = single ? eventWriter : eventListWriter;
+        Object value = single ? events.get(0) : events;
+        return switch (encoding) {
+            case JSON -> writer.writeValueAsString(value);
+            case SMILE -> Base64.getEncoder().encodeToString(writer.writeValueAsBytes(value));
+        };
+    }
+
+    /**
+     * @return Os atributos que identificam o formato do corpo; vazio no formato JSON.
+     */
+    public Map<String, MessageAttributeValue> messageAttributes() {
+        return encoding == SqsPublisherProperties.Encoding.SMILE ? SMILE_ATTRIBUTES : Map.of();
+    }
+
+    /**
+     * @return O tamanho dos atributos de {@link #messageAttributes()}, que o SQS soma ao tamanho do corpo.
+     */
+    public int attributeBytes() {
+        return encoding == SqsPublisherProperties.Encoding.SMILE
+                ? CONTENT_ENCODING_ATTRIBUTE.length() + STRING_TYPE.length() + SMILE_CONTENT_ENCODING.length()
+                : 0;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.challenge.publisher;
+
+import com.example.challenge.model.SqsTransactionEvent;
+
+/**
+ * Publicador dos eventos de transação de um arquivo na fila SQS.
+ * Uma instância é criada por arquivo processado, via {@link TransactionEventPublisherFactory}.
+ */
+public interface TransactionEventPublisher extends AutoCloseable {
+
+    /**
+     * Adiciona o evento ao lote corrente, enviando o lote se algum critério de envio for atingido.
+     * Pode bloquear o chamador enquanto a janela de envios em andamento estiver cheia.
+     *
+     * @param event O evento SqsTransactionEvent a ser publicado.
+     */
+    void publish(SqsTransactionEvent event);
+
+    /**
+     * Envia imediatamente o lote corrente, se houver mensagens pendentes.
+     */
+    void flush();
+
+    /**
+     * Envia o lote corrente e aguarda a conclusão de todos os envios em andamento.
+     *
+     * @throws IllegalStateException Se os envios não forem concluídos dentro do tempo limite configurado.
+     */
+    void awaitCompletion();
+
+    /**
+     * @return Um retrato das estatísticas de publicação acumuladas até o momento.
+     */
+    PublishStats getStats();
+
+    @Override
+    void close();
+}
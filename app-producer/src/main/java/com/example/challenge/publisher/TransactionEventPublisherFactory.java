@@ -0,0 +1,59 @@
+package com.example.challenge.publisher;
+
+import com.example.challenge.config.SqsPublisherProperties;
+import com.example.challenge.metrics.ProducerMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.SqsClient;
+
+/**
+ * Cria o publicador SQS de cada arquivo de acordo com o modo configurado em {@code app.sqs.publisher.mode}.
+ */
+@Component
+public class TransactionEventPublisherFactory {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionEventPublisherFactory.class);
+
+    private final SqsClient sqsClient;
+    private final SqsAsyncClient sqsAsyncClient;
+    private final TransactionEventEncoder encoder;
+    private final SqsPublisherProperties properties;
+    private final String sqsQueueUrl;
+    private final ProducerMetrics metrics;
+
+    public TransactionEventPublisherFactory(SqsClient sqsClient,
+                                            SqsAsyncClient sqsAsyncClient,
+                                            ObjectMapper objectMapper,
+                                            SqsPublisherProperties properties,
+                                            @Value("${app.sqs.queue-url}") String sqsQueueUrl,
+                                            ProducerMetrics metrics) {
+        this.sqsClient = sqsClient;
+        this.sqsAsyncClient = sqsAsyncClient;
+        this.encoder = TransactionEventEncoder.create(objectMapper, properties.getEncoding());
+        this.properties = properties;
+        this.sqsQueueUrl = sqsQueueUrl;
+        this.metrics = metrics;
+        log.info("Publicação SQS configurada no modo {} (lotes em andamento: {}, formato: {}, eventos por mensagem: {}).",
+                properties.getMode(), properties.getMaxInFlightBatches(), properties.getEncoding(), properties.getEventsPerMessage());
+    }
+
+    /**
+     * @param publishedListener Recebe os IDs das transações aceitas pelo SQS.
+     * @param traceContext O contexto de rastreamento do arquivo, propagado nos atributos de cada mensagem
+     *                     quando {@code app.sqs.publisher.tracing} está ativo.
+     * @return Um novo publicador, que deve ser usado para um único arquivo e fechado ao final.
+     */
+    public TransactionEventPublisher create(PublishedTransactionsListener publishedListener, TraceContext traceContext) {
+        if (!properties.isTracing()) {
+            traceContext = TraceContext.NONE;
+        }
+        return switch (properties.getMode()) {
+            case ASYNC -> new AsyncSqsBatchPublisher(sqsAsyncClient, encoder, sqsQueueUrl, properties, publishedListener, metrics, traceContext);
+            case SYNC -> new SqsBatchPublisher(sqsClient, encoder, sqsQueueUrl, properties, publishedListener, metrics, traceContext);
+        };
+    }
+}
@@ -1,6 +1,11 @@
 package com.example.challenge.repository;
 
+import com.example.challenge.config.ProcessedFileCacheProperties;
 import com.example.challenge.model.ProcessedFile;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -9,43 +14,172 @@ import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
 import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.ReadBatch;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Acesso à tabela DynamoDB de arquivos processados, com um cache local limitado por tamanho e validade.
+ * O cache guarda tanto arquivos processados quanto não processados (com validade menor), e é atualizado
+ * em cada {@link #save}. Arquivos com status IN_PROGRESS (checkpoint de um processamento interrompido)
+ * são considerados não processados.
+ */
 @Repository
 public class ProcessedFileRepository {
 
     private static final Logger log = LoggerFactory.getLogger(ProcessedFileRepository.class);
 
+    /** Máximo de chaves por requisição BatchGetItem. */
+    static final int MAX_BATCH_GET_KEYS = 100;
+
+    private final DynamoDbEnhancedClient dynamoDbEnhancedClient;
     private final DynamoDbTable<ProcessedFile> processedFileTable;
+    private final Cache<String, Boolean> processedCache;
 
     public ProcessedFileRepository(DynamoDbEnhancedClient dynamoDbEnhancedClient,
-                                   @Value("${app.dynamodb.processed-files-table-name}") String tableName) {
+                                   @Value("${app.dynamodb.processed-files-table-name}") String tableName,
+                                   ProcessedFileCacheProperties cacheProperties) {
+        this.dynamoDbEnhancedClient = dynamoDbEnhancedClient;
         this.processedFileTable = dynamoDbEnhancedClient.table(tableName, TableSchema.fromBean(ProcessedFile.class));
-        log.info("ProcessedFileRepository inicializado para a tabela DynamoDB: {}", tableName);
+        this.processedCache = Caffeine.newBuilder()
+                .maximumSize(cacheProperties.getMaxSize())
+                .expireAfter(new ProcessedStatusExpiry(cacheProperties.getTtl(), cacheProperties.getNegativeTtl()))
+                .recordStats()
+                .build();
+        log.info("ProcessedFileRepository inicializado para a tabela DynamoDB: {} (cache local de até {} entradas)",
+                tableName, cacheProperties.getMaxSize());
     }
 
     /**
-     * Salva um registro de arquivo processado no DynamoDB.
+     * Salva um registro de arquivo processado no DynamoDB e no cache local.
      *
      * @param processedFile O objeto ProcessedFile a ser salvo.
      */
     public void save(ProcessedFile processedFile) {
-        log.info("Salvando registro de arquivo processado no DynamoDB: {}", processedFile.getFileId());
+        log.info("Salvando registro de arquivo processado no DynamoDB: {} (status: {})", processedFile.getFileId(), processedFile.getStatus());
         processedFileTable.putItem(processedFile);
+        processedCache.put(processedFile.getFileId(), ProcessedFile.isCompleted(processedFile));
+    }
+
+    /**
+     * Busca o checkpoint de um processamento interrompido, sem passar pelo cache.
+     *
+     * @param fileId O ID do arquivo do Google Drive.
+     * @return O registro IN_PROGRESS do arquivo, se houver.
+     */
+    public Optional<ProcessedFile> findCheckpoint(String fileId) {
+        ProcessedFile processedFile = processedFileTable.getItem(Key.builder().partitionValue(fileId).build());
+        if (processedFile == null || ProcessedFile.isCompleted(processedFile)) {
+            return Optional.empty();
+        }
+        return Optional.of(processedFile);
     }
 
     /**
-     * Verifica se um arquivo com o dado fileId já foi processado.
+     * Verifica se um arquivo com o dado fileId já foi processado, consultando o cache antes do DynamoDB.
      *
      * @param fileId O ID do arquivo do Google Drive.
      * @return true se o arquivo já foi processado, false caso contrário.
      */
     public boolean existsById(String fileId) {
-        Key key = Key.builder().partitionValue(fileId).build();
-        ProcessedFile item = processedFileTable.getItem(key);
-        boolean exists = item != null;
+        Boolean cached = processedCache.getIfPresent(fileId);
+        boolean exists;
+        if (cached != null) {
+            exists = cached;
+        } else {
+            Key key = Key.builder().partitionValue(fileId).build();
+            exists = ProcessedFile.isCompleted(processedFileTable.getItem(key));
+            processedCache.put(fileId, exists);
+        }
         if (exists) {
             log.info("Arquivo com ID '{}' já encontrado como processado.", fileId);
         }
         return exists;
     }
-}
\ No newline at end of file
+
+    /**
+     * Resolve de uma vez quais arquivos de uma listagem já foram processados. Os IDs ausentes do cache são
+     * consultados com BatchGetItem, em lotes de até 100 chaves.
+     *
+     * @param fileIds Os IDs dos arquivos do Google Drive.
+     * @return Os IDs dos arquivos já processados.
+     */
+    public Set<String> findProcessedIds(Collection<String> fileIds) {
+        Set<String> distinctIds = new LinkedHashSet<>(fileIds);
+        Map<String, Boolean> cached = processedCache.getAllPresent(distinctIds);
+
+        Set<String> processed = cached.entrySet().stream()
+                .filter(Map.Entry::getValue)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toCollection(HashSet::new));
+
+        List<String> missing = distinctIds.stream().filter(fileId -> !cached.containsKey(fileId)).toList();
+        for (int start = 0; start < missing.size(); start += MAX_BATCH_GET_KEYS) {
+            List<String> chunk = missing.subList(start, Math.min(start + MAX_BATCH_GET_KEYS, missing.size()));
+            Set<String> found = batchGetProcessedIds(chunk);
+            for (String fileId : chunk) {
+                boolean exists = found.contains(fileId);
+                processedCache.put(fileId, exists);
+                if (exists) {
+                    processed.add(fileId);
+                }
+            }
+        }
+        log.debug("Consulta de {} arquivos processados: {} no cache, {} no DynamoDB.", distinctIds.size(), cached.size(), missing.size());
+        return processed;
+    }
+
+    /**
+     * @return Estatísticas acumuladas do cache local (acertos, falhas, remoções).
+     */
+    public CacheStats getCacheStats() {
+        return processedCache.stats();
+    }
+
+    private Set<String> batchGetProcessedIds(List<String> fileIds) {
+        ReadBatch.Builder<ProcessedFile> readBatch = ReadBatch.builder(ProcessedFile.class).mappedTableResource(processedFileTable);
+        for (String fileId : fileIds) {
+            readBatch.addGetItem(Key.builder().partitionValue(fileId).build());
+        }
+        Set<String> found = new HashSet<>();
+        // O iterável de resultados reenvia automaticamente as chaves não processadas (UnprocessedKeys)
+        dynamoDbEnhancedClient.batchGetItem(request -> request.readBatches(readBatch.build()))
+                .resultsForTable(processedFileTable)
+                .forEach(item -> {
+                    if (ProcessedFile.isCompleted(item)) {
+                        found.add(item.getFileId());
+                    }
+                });
+        return found;
+    }
+
+    /**
+     * Validade por entrada: arquivos não processados expiram antes, para que um arquivo recém-processado
+     * por outra instância seja percebido rapidamente.
+     */
+    private record ProcessedStatusExpiry(Duration ttl, Duration negativeTtl) implements Expiry<String, Boolean> {
+
+        @Override
+        public long expireAfterCreate(String fileId, Boolean processed, long currentTime) {
+            return (processed ? ttl : negativeTtl).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String fileId, Boolean processed, long currentTime, long currentDuration) {
+            return expireAfterCreate(fileId, processed, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String fileId, Boolean processed, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
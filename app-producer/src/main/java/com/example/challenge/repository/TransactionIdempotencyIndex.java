@@ -0,0 +1,76 @@
+package com.example.challenge.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice de idempotência das transações publicadas de um arquivo.
+ * Os IDs publicados em processamentos anteriores, carregados por uma única consulta, ficam em memória:
+ * as verificações por linha não acessam o DynamoDB.
+ * <p>
+ * Thread-safe: {@link #recordPublished} é chamado pelas threads de conclusão dos envios SQS e grava na tabela
+ * de forma assíncrona; {@link #awaitRecorded} aguarda as gravações em andamento ao final do arquivo.
+ */
+public final class TransactionIdempotencyIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionIdempotencyIndex.class);
+
+    private final TransactionIdempotencyRepository repository;
+    private final String sourceFileId;
+    private final Set<String> previouslyPublished;
+    private final Set<CompletableFuture<Void>> pendingWrites = ConcurrentHashMap.newKeySet();
+
+    TransactionIdempotencyIndex(TransactionIdempotencyRepository repository, String sourceFileId, Set<String> previouslyPublished) {
+        this.repository = repository;
+        this.sourceFileId = sourceFileId;
+        this.previouslyPublished = previouslyPublished;
+    }
+
+    /**
+     * @return Um índice inativo, que considera todas as transações como não publicadas e não registra nada.
+     */
+    static TransactionIdempotencyIndex disabled() {
+        return new TransactionIdempotencyIndex(null, null, Set.of());
+    }
+
+    /**
+     * @param transactionId O ID da transação.
+     * @return true se a transação já foi publicada no SQS em um processamento anterior do arquivo.
+     */
+    public boolean isPublished(String transactionId) {
+        return previouslyPublished.contains(transactionId);
+    }
+
+    /**
+     * Registra as transações aceitas pelo SQS, sem aguardar a gravação na tabela. O registro vale para os próximos
+     * processamentos do arquivo; transações repetidas dentro do mesmo arquivo são descartadas pelo consumer.
+     * Uma falha de gravação é apenas registrada em log: as transações voltarão a ser publicadas em um reprocessamento do arquivo.
+     *
+     * @param transactionIds Os IDs das transações publicadas.
+     */
+    public void recordPublished(List<String> transactionIds) {
+        if (repository == null || transactionIds.isEmpty()) {
+            return;
+        }
+        CompletableFuture<Void> write = repository.recordPublished(sourceFileId, transactionIds)
+                .exceptionally(error -> {
+                    log.warn("Erro ao registrar {} transações do arquivo {} no índice de idempotência: {}",
+                            transactionIds.size(), sourceFileId, error.getMessage());
+                    return null;
+                });
+        pendingWrites.add(write);
+        write.whenComplete((ignored, error) -> pendingWrites.remove(write));
+    }
+
+    /**
+     * Aguarda as gravações em andamento na tabela. Os tempos limite do cliente DynamoDB garantem a conclusão.
+     */
+    public void awaitRecorded() {
+        CompletableFuture.allOf(pendingWrites.toArray(CompletableFuture[]::new)).join();
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.challenge.repository;
+
+import com.example.challenge.config.TransactionIdempotencyProperties;
+import com.example.challenge.model.TransactionIdempotencyRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.WriteBatch;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Acesso à tabela DynamoDB de idempotência de transações (chave: sourceFileId + etapa#transactionId).
+ * <p>
+ * As consultas, feitas pela thread que processa o arquivo, usam o cliente síncrono. Os registros de transações
+ * publicadas, feitos pelas threads de conclusão dos envios SQS, usam o cliente assíncrono, sem bloqueá-las.
+ */
+@Repository
+public class TransactionIdempotencyRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionIdempotencyRepository.class);
+
+    /** Máximo de itens por requisição BatchWriteItem. */
+    static final int MAX_BATCH_WRITE_ITEMS = 25;
+    private static final int MAX_BATCH_WRITE_ATTEMPTS = 3;
+
+    private final DynamoDbEnhancedAsyncClient dynamoDbEnhancedAsyncClient;
+    private final DynamoDbTable<TransactionIdempotencyRecord> idempotencyTable;
+    private final DynamoDbAsyncTable<TransactionIdempotencyRecord> asyncIdempotencyTable;
+    private final TransactionIdempotencyProperties properties;
+
+    public TransactionIdempotencyRepository(DynamoDbEnhancedClient dynamoDbEnhancedClient, DynamoDbEnhancedAsyncClient dynamoDbEnhancedAsyncClient,
+                                            TransactionIdempotencyProperties properties) {
+        TableSchema<TransactionIdempotencyRecord> schema = TableSchema.fromBean(TransactionIdempotencyRecord.class);
+        this.dynamoDbEnhancedAsyncClient = dynamoDbEnhancedAsyncClient;
+        this.idempotencyTable = dynamoDbEnhancedClient.table(properties.getTableName(), schema);
+        this.asyncIdempotencyTable = dynamoDbEnhancedAsyncClient.table(properties.getTableName(), schema);
+        this.properties = properties;
+        log.info("Índice de idempotência de transações {} (tabela DynamoDB: {}).",
+                properties.isEnabled() ? "ativado" : "desativado", properties.getTableName());
+    }
+
+    /**
+     * Carrega os IDs das transações já publicadas de um arquivo, com uma única consulta paginada.
+     * Nenhuma verificação posterior acessa o DynamoDB: para um arquivo nunca processado o índice fica vazio.
+     *
+     * @param sourceFileId O ID do arquivo do Google Drive.
+     * @return O índice de idempotência do arquivo, ou um índice inativo se o recurso estiver desativado.
+     */
+    public TransactionIdempotencyIndex loadIndex(String sourceFileId) {
+        if (!properties.isEnabled()) {
+            return TransactionIdempotencyIndex.disabled();
+        }
+
+        Set<String> publishedIds = new HashSet<>();
+        Key prefix = Key.builder().partitionValue(sourceFileId).sortValue(TransactionIdempotencyRecord.PUBLISHED_PREFIX).build();
+        idempotencyTable.query(request -> request
+                        .queryConditional(QueryConditional.sortBeginsWith(prefix))
+                        .attributesToProject("idempotencyKey"))
+                .items()
+                .forEach(item -> publishedIds.add(item.getIdempotencyKey().substring(TransactionIdempotencyRecord.PUBLISHED_PREFIX.length())));
+
+        if (!publishedIds.isEmpty()) {
+            log.info("Arquivo {} já possui {} transações publicadas registradas no índice de idempotência.", sourceFileId, publishedIds.size());
+        }
+        return new TransactionIdempotencyIndex(this, sourceFileId, publishedIds);
+    }
+
+    /**
+     * Registra as transações publicadas com BatchWriteItem assíncronos, em lotes de até 25 itens.
+     * As gravações são idempotentes: registrar novamente uma transação apenas renova sua validade.
+     * Itens não processados pelo DynamoDB são reenviados algumas vezes; se ainda assim falharem,
+     * as transações apenas voltarão a ser publicadas em um reprocessamento do arquivo.
+     *
+     * @return Concluído quando todos os lotes tiverem sido gravados ou desistidos; falha com o erro do DynamoDB.
+     */
+    CompletableFuture<Void> recordPublished(String sourceFileId, List<String> transactionIds) {
+        Instant now = Instant.now();
+        long expiresAt = now.plus(properties.getRecordTtl()).getEpochSecond();
+        List<CompletableFuture<Void>> writes = new ArrayList<>();
+        for (int start = 0; start < transactionIds.size(); start += MAX_BATCH_WRITE_ITEMS) {
+            List<TransactionIdempotencyRecord> pending = new ArrayList<>(MAX_BATCH_WRITE_ITEMS);
+            for (String transactionId : transactionIds.subList(start, Math.min(start + MAX_BATCH_WRITE_ITEMS, transactionIds.size()))) {
+                pending.add(TransactionIdempotencyRecord.builder()
+                        .sourceFileId(sourceFileId)
+                        .idempotencyKey(TransactionIdempotencyRecord.PUBLISHED_PREFIX + transactionId)
+                        .recordedAt(now)
+                        .expiresAt(expiresAt)
+                        .build());
+            }
+            writes.add(writeBatch(sourceFileId, pending, 1));
+        }
+        return writes.size() == 1 ? writes.get(0) : CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new));
+    }
+
+    private CompletableFuture<Void> writeBatch(String sourceFileId, List<TransactionIdempotencyRecord> pending, int attempt) {
+        if (pending.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (attempt > MAX_BATCH_WRITE_ATTEMPTS) {
+            log.warn("{} transações do arquivo {} não foram registradas no índice de idempotência após {} tentativas.",
+                    pending.size(), sourceFileId, MAX_BATCH_WRITE_ATTEMPTS);
+            return CompletableFuture.completedFuture(null);
+        }
+        WriteBatch.Builder<TransactionIdempotencyRecord> writeBatch = WriteBatch.builder(TransactionIdempotencyRecord.class)
+                .mappedTableResource(asyncIdempotencyTable);
+        pending.forEach(writeBatch::addPutItem);
+        return dynamoDbEnhancedAsyncClient.batchWriteItem(request -> request.writeBatches(writeBatch.build()))
+                .thenCompose(result -> writeBatch(sourceFileId, result.unprocessedPutItemsForTable(asyncIdempotencyTable), attempt + 1));
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.challenge.rules;
+
+import com.example.challenge.model.Transaction;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Regras de processamento compiladas a partir de um {@link ProcessingRulesDefinition}.
+ * A compilação resolve, uma única vez por versão, a sequência de verificações e a categoria de cada tipo
+ * de transação; a avaliação de um registro é apenas uma busca por tipo seguida das verificações do tipo.
+ * Imutável e thread-safe.
+ */
+public final class CompiledRules {
+
+    private static final BigDecimal DEFAULT_MIN_AMOUNT = BigDecimal.ZERO;
+
+    private final long version;
+    private final boolean enableBetaFeatures;
+    private final Map<String, TypeRules> rulesByType;
+    /** Regras dos tipos sem configuração própria, ou null se apenas os tipos listados são aceitos. */
+    private final TypeRules defaultRules;
+
+    private CompiledRules(long version, boolean enableBetaFeatures, Map<String, TypeRules> rulesByType, TypeRules defaultRules) {
+        this.version = version;
+        this.enableBetaFeatures = enableBetaFeatures;
+        this.rulesByType = rulesByType;
+        this.defaultRules = defaultRules;
+    }
+
+    /**
+     * @return As regras usadas enquanto nenhum conjunto foi carregado: campos obrigatórios e valores não negativos.
+     */
+    public static CompiledRules defaults() {
+        return compile(new ProcessingRulesDefinition(), 0);
+    }
+
+    /**
+     * Compila um conjunto de regras.
+     *
+     * @param definition O conjunto de regras.
+     * @param version A versão do parâmetro que originou o conjunto.
+     * @return As regras compiladas.
+     */
+    public static CompiledRules compile(ProcessingRulesDefinition definition, long version) {
+        ProcessingRulesDefinition.AmountRange defaultRange = definition.getAmountRanges().get(ProcessingRulesDefinition.ANY_TYPE);
+        List<String> defaultMetadata = definition.getRequiredMetadata().getOrDefault(ProcessingRulesDefinition.ANY_TYPE, List.of());
+
+        Set<String> configuredTypes = new LinkedHashSet<>(definition.getAllowedTransactionTypes());
+        if (configuredTypes.isEmpty()) {
+            configuredTypes.addAll(definition.getAmountRanges().keySet());
+            configuredTypes.addAll(definition.getCategories().keySet());
+            configuredTypes.addAll(definition.getRequiredMetadata().keySet());
+            configuredTypes.remove(ProcessingRulesDefinition.ANY_TYPE);
+        }
+
+        Map<String, TypeRules> rulesByType = new HashMap<>();
+        for (String type : configuredTypes) {
+            rulesByType.put(type, compileType(
+                    definition.getAmountRanges().get(type), defaultRange,
+                    definition.getRequiredMetadata().getOrDefault(type, List.of()), defaultMetadata,
+                    definition.getCategories().getOrDefault(type, definition.getCategories().get(ProcessingRulesDefinition.ANY_TYPE))));
+        }
+        TypeRules defaultRules = definition.getAllowedTransactionTypes().isEmpty()
+                ? compileType(null, defaultRange, List.of(), defaultMetadata, definition.getCategories().get(ProcessingRulesDefinition.ANY_TYPE))
+                : null;
+
+        return new CompiledRules(version, definition.isEnableBetaFeatures(), Map.copyOf(rulesByType), defaultRules);
+    }
+
+    /**
+     * Valida uma transação.
+     *
+     * @param transaction A transação lida do CSV.
+     * @return null se a transação for válida, ou a descrição da regra violada.
+     */
+    public String validate(Transaction transaction) {
+        if (transaction.getTransactionId() == null || transaction.getTransactionId().isBlank() ||
+                transaction.getTransactionType() == null || transaction.getTransactionType().isBlank() ||
+                transaction.getAmount() == null ||
+                transaction.getTimestamp() == null ||
+                transaction.getCustomerId() == null || transaction.getCustomerId().isBlank()) {
+            return "Campos obrigatórios faltando";
+        }
+        TypeRules rules = rulesFor(transaction.getTransactionType());
+        if (rules == null) {
+            return "Tipo de transação não permitido: " + transaction.getTransactionType();
+        }
+        for (Check check : rules.checks()) {
+            String violation = check.violation(transaction);
+            if (violation != null) {
+                return violation;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param transaction Uma transação válida (ver {@link #validate}).
+     * @return A categoria da transação.
+     */
+    public String categorize(Transaction transaction) {
+        TypeRules rules = rulesFor(transaction.getTransactionType());
+        if (rules != null && rules.category() != null) {
+            return rules.category();
+        }
+        return transaction.getAmount().compareTo(BigDecimal.ZERO) >= 0 ? "CREDIT" : "DEBIT";
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isEnableBetaFeatures() {
+        return enableBetaFeatures;
+    }
+
+    private TypeRules rulesFor(String transactionType) {
+        TypeRules rules = rulesByType.get(transactionType);
+        return rules != null ? rules : defaultRules;
+    }
+
+    private static TypeRules compileType(ProcessingRulesDefinition.AmountRange range, ProcessingRulesDefinition.AmountRange defaultRange,
+                                         List<String> metadata, List<String> defaultMetadata, String category) {
+        BigDecimal min = firstNonNull(range != null ? range.getMin() : null, defaultRange != null ? defaultRange.getMin() : null, DEFAULT_MIN_AMOUNT);
+        BigDecimal max = firstNonNull(range != null ? range.getMax() : null, defaultRange != null ? defaultRange.getMax() : null, null);
+
+        List<Check> checks = new ArrayList<>();
+        checks.add(transaction -> transaction.getAmount().compareTo(min) < 0
+                ? "Valor da transação abaixo do mínimo de " + min.toPlainString() + ": " + transaction.getAmount().toPlainString()
+                : null);
+        if (max != null) {
+            checks.add(transaction -> transaction.getAmount().compareTo(max) > 0
+                    ? "Valor da transação acima do máximo de " + max.toPlainString() + ": " + transaction.getAmount().toPlainString()
+                    : null);
+        }
+
+        Set<String> requiredKeys = new LinkedHashSet<>(defaultMetadata);
+        requiredKeys.addAll(metadata);
+        if (!requiredKeys.isEmpty()) {
+            String[] keys = requiredKeys.toArray(String[]::new);
+            checks.add(transaction -> {
+                Map<String, String> transactionMetadata = transaction.getMetadata();
+                for (String key : keys) {
+                    String value = transactionMetadata != null ? transactionMetadata.get(key) : null;
+                    if (value == null || value.isBlank()) {
+                        return "Metadado obrigatório ausente: " + key;
+                    }
+                }
+                return null;
+            });
+        }
+        return new TypeRules(checks.toArray(Check[]::new), category);
+    }
+
+    private static BigDecimal firstNonNull(BigDecimal first, BigDecimal second, BigDecimal fallback) {
+        return first != null ? first : second != null ? second : fallback;
+    }
+
+    @FunctionalInterface
+    private interface Check {
+        /** @return null se a transação satisfaz a regra, ou a descrição da violação. */
+        String violation(Transaction transaction);
+    }
+
+    private record TypeRules(Check[] checks, String category) {
+    }
+}
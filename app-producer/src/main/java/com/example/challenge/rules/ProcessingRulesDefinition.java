@@ -0,0 +1,51 @@
+package com.example.challenge.rules;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Conjunto de regras de processamento, como armazenado em JSON no Parameter Store.
+ * Nos mapas por tipo de transação, a chave {@code "*"} define o padrão aplicado a todos os tipos.
+ * <pre>
+ * {
+ *   "enableBetaFeatures": false,
+ *   "allowedTransactionTypes": ["PIX", "TED"],
+ *   "amountRanges": { "*": { "min": 0 }, "PIX": { "max": 5000 } },
+ *   "categories": { "PIX": "TRANSFER" },
+ *   "requiredMetadata": { "PIX": ["pix_key"] }
+ * }
+ * </pre>
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ProcessingRulesDefinition {
+
+    public static final String ANY_TYPE = "*";
+
+    private boolean enableBetaFeatures;
+
+    /** Tipos de transação aceitos. Se vazio, todos os tipos são aceitos. */
+    private Set<String> allowedTransactionTypes = Set.of();
+
+    /** Faixas de valor por tipo. Sem faixa padrão, valores negativos são rejeitados. */
+    private Map<String, AmountRange> amountRanges = Map.of();
+
+    /** Categoria por tipo. Sem categoria, é usada a categoria pelo sinal do valor (CREDIT ou DEBIT). */
+    private Map<String, String> categories = Map.of();
+
+    /** Chaves de metadados obrigatórias por tipo. As chaves padrão se somam às do tipo. */
+    private Map<String, List<String>> requiredMetadata = Map.of();
+
+    @Data
+    public static class AmountRange {
+        /** Valor mínimo (inclusive). Se nulo, herda o mínimo padrão. */
+        private BigDecimal min;
+        /** Valor máximo (inclusive). Se nulo, herda o máximo padrão. */
+        private BigDecimal max;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.challenge.rules;
+
+import com.example.challenge.config.StartupBootstrap;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.ssm.SsmClient;
+import software.amazon.awssdk.services.ssm.model.GetParameterRequest;
+import software.amazon.awssdk.services.ssm.model.Parameter;
+import software.amazon.awssdk.services.ssm.model.SsmException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Mantém as regras de processamento carregadas do AWS Parameter Store.
+ * As regras são carregadas na inicialização e recarregadas periodicamente em segundo plano: um novo conjunto só é
+ * interpretado e compilado quando a versão do parâmetro muda, e substitui o anterior de forma atômica.
+ * Em caso de erro, as regras em uso são mantidas.
+ * <p>
+ * No contexto Spring, a carga inicial é feita pelo {@link StartupBootstrap}, sem bloquear a inicialização;
+ * {@link #current()} aguarda a sua conclusão, para que o primeiro arquivo não seja processado com as regras padrão.
+ */
+@Component
+public class ProcessingRulesEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(ProcessingRulesEngine.class);
+
+    private final SsmClient ssmClient;
+    private final ObjectMapper objectMapper;
+    private final String processingRulesParameterName;
+    private final AtomicReference<CompiledRules> currentRules = new AtomicReference<>(CompiledRules.defaults());
+    private final CompletableFuture<Void> initialLoad;
+
+    /**
+     * Carrega as regras na thread que cria o componente (testes e execuções fora do contexto Spring).
+     */
+    public ProcessingRulesEngine(SsmClient ssmClient, ObjectMapper objectMapper, String processingRulesParameterName) {
+        this.ssmClient = ssmClient;
+        this.objectMapper = objectMapper;
+        this.processingRulesParameterName = processingRulesParameterName;
+        refresh();
+        this.initialLoad = CompletableFuture.completedFuture(null);
+    }
+
+    @Autowired
+    public ProcessingRulesEngine(SsmClient ssmClient, ObjectMapper objectMapper,
+                                 @Value("${app.ssm.processing-rules-parameter-name:/my-app/processing-rules}") String processingRulesParameterName,
+                                 StartupBootstrap startupBootstrap) {
+        this.ssmClient = ssmClient;
+        this.objectMapper = objectMapper;
+        this.processingRulesParameterName = processingRulesParameterName;
+        this.initialLoad = startupBootstrap.run("regras de processamento do Parameter Store", this::refresh);
+    }
+
+    /**
+     * @return As regras em uso. Um arquivo deve usar o mesmo retrato do início ao fim do processamento.
+     * Aguarda a carga inicial, se ela ainda estiver em andamento.
+     */
+    public CompiledRules current() {
+        if (!initialLoad.isDone()) {
+            initialLoad.join();
+        }
+        return currentRules.get();
+    }
+
+    /**
+     * Recarrega as regras do Parameter Store, se a versão do parâmetro tiver mudado.
+     */
+    @Scheduled(initialDelayString = "${app.ssm.processing-rules-refresh-interval:PT1M}",
+            fixedDelayString = "${app.ssm.processing-rules-refresh-interval:PT1M}")
+    public void refresh() {
+        try {
+            Parameter parameter = ssmClient.getParameter(GetParameterRequest.builder()
+                    .name(processingRulesParameterName)
+                    .withDecryption(true)
+                    .build()).parameter();
+
+            long version = parameter.version() != null ? parameter.version() : 0;
+            if (version != 0 && version == currentRules.get().getVersion()) {
+                log.debug("Regras de processamento '{}' sem alteração (versão {}).", processingRulesParameterName, version);
+                return;
+            }
+
+            ProcessingRulesDefinition definition = objectMapper.readValue(parameter.value(), ProcessingRulesDefinition.class);
+            CompiledRules compiled = CompiledRules.compile(definition, version);
+            CompiledRules previous = currentRules.getAndSet(compiled);
+            log.info("Regras de processamento carregadas do Parameter Store '{}' (versão {}, anterior: {}). enableBetaFeatures: {}",
+                    processingRulesParameterName, version, previous.getVersion(), compiled.isEnableBetaFeatures());
+        } catch (SsmException e) {
+            log.error("Erro ao carregar regras de processamento do Parameter Store '{}': {}. Mantendo as regras da versão {}.",
+                    processingRulesParameterName, e.awsErrorDetails() != null ? e.awsErrorDetails().errorMessage() : e.getMessage(),
+                    currentRules.get().getVersion());
+        } catch (JsonProcessingException e) {
+            log.error("Erro ao parsear JSON das regras de processamento do Parameter Store '{}': {}. Mantendo as regras da versão {}.",
+                    processingRulesParameterName, e.getMessage(), currentRules.get().getVersion());
+        } catch (Exception e) {
+            log.error("Erro inesperado ao carregar regras de processamento do Parameter Store: {}", e.getMessage(), e);
+        }
+    }
+}
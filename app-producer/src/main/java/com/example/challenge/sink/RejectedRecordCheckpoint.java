@@ -0,0 +1,27 @@
+package com.example.challenge.sink;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estado dos registros rejeitados de um arquivo no momento de um checkpoint de linha: o prefixo da execução, as
+ * partes já concluídas no S3 e as contagens. Gravado junto com o checkpoint, permite que um processamento retomado
+ * continue no mesmo prefixo e inclua no manifesto os registros rejeitados antes do checkpoint.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RejectedRecordCheckpoint {
+    private String keyPrefix;
+    private int nextPartIndex;
+    private List<RejectedRecordManifest.Part> parts;
+    private Map<String, Long> countsByReason;
+    private long totalRecords;
+    private long failedRecords;
+}
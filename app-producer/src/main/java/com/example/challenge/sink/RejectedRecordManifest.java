@@ -0,0 +1,39 @@
+package com.example.challenge.sink;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.Singular;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Manifesto dos registros rejeitados de um arquivo: as partes gravadas no S3 e a contagem por motivo de rejeição.
+ */
+@Data
+@Builder
+public class RejectedRecordManifest {
+    private String sourceFileId;
+    private String originalFileName;
+    private String bucket;
+    private String manifestKey;
+    @Singular
+    private List<Part> parts;
+    private Map<String, Long> countsByReason;
+    private long totalRecords;
+    /** Registros que não puderam ser gravados no S3 (parte com falha ou bucket não configurado). */
+    private long failedRecords;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Part {
+        private String key;
+        private long records;
+        private long bytes;
+        private boolean multipart;
+    }
+}
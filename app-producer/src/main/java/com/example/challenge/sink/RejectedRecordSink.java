@@ -0,0 +1,367 @@
+package com.example.challenge.sink;
+
+import com.example.challenge.config.RejectedRecordSinkProperties;
+import com.example.challenge.metrics.ProducerMetrics;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.csv.CSVRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Agrega os registros rejeitados de um arquivo em partes NDJSON no S3, em vez de um objeto por registro.
+ * <p>
+ * Cada linha contém os campos originais do registro e os campos {@code _rejectionReason}, {@code _sourceFileId},
+ * {@code _originalFileName} e {@code _rejectionTimestamp}. As partes são gravadas em
+ * {@code rejected/{sourceFileId}/{nome}_{execução}/part-NNNNN.ndjson[.gz]} e limitadas por tamanho. Uma parte que
+ * ultrapassa o bloco de multipart é enviada em blocos à medida que é escrita, de modo que a memória usada fica
+ * limitada a um bloco. Ao final, um {@code manifest.json} com as partes e a contagem por motivo é gravado no mesmo prefixo.
+ * <p>
+ * A cada checkpoint de linha do arquivo, {@link #checkpoint()} conclui a parte em andamento e devolve o estado a ser
+ * gravado com o checkpoint. Um processamento retomado é criado a partir desse estado e continua no mesmo prefixo,
+ * de modo que o manifesto final inclui os registros rejeitados antes do checkpoint.
+ * <p>
+ * Falhas de gravação no S3 são registradas em log e contabilizadas no manifesto, sem interromper o processamento
+ * do arquivo. Deve ser criada uma instância por arquivo processado. Não é thread-safe.
+ */
+public class RejectedRecordSink implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(RejectedRecordSink.class);
+
+    private static final String CONTENT_TYPE = "application/x-ndjson";
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final S3Client s3Client;
+    private final ObjectMapper objectMapper;
+    private final String bucket;
+    private final String sourceFileId;
+    private final String originalFileName;
+    private final String keyPrefix;
+    private final boolean gzip;
+    private final long maxPartBytes;
+    private final long multipartChunkBytes;
+    private final ProducerMetrics metrics;
+
+    private final Map<String, Long> countsByReason = new TreeMap<>();
+    private final List<RejectedRecordManifest.Part> parts = new ArrayList<>();
+    private long totalRecords;
+    private long failedRecords;
+    private int nextPartIndex;
+    private PartWriter currentPart;
+    private RejectedRecordManifest manifest;
+
+    /**
+     * @param resumeFrom O estado gravado no último checkpoint de um processamento interrompido, ou null para uma nova execução.
+     */
+    public RejectedRecordSink(S3Client s3Client, ObjectMapper objectMapper, String bucket,
+                              String sourceFileId, String originalFileName, RejectedRecordSinkProperties properties,
+                              ProducerMetrics metrics, RejectedRecordCheckpoint resumeFrom) {
+        this.s3Client = s3Client;
+        this.objectMapper = objectMapper;
+        this.bucket = bucket;
+        this.sourceFileId = sourceFileId;
+        this.originalFileName = originalFileName;
+        this.gzip = properties.isGzip();
+        this.maxPartBytes = properties.getMaxPartSize().toBytes();
+        this.multipartChunkBytes = properties.getMultipartChunkSize().toBytes();
+        this.metrics = metrics;
+        if (resumeFrom != null) {
+            this.keyPrefix = resumeFrom.getKeyPrefix();
+            this.nextPartIndex = resumeFrom.getNextPartIndex();
+            this.parts.addAll(resumeFrom.getParts());
+            this.countsByReason.putAll(resumeFrom.getCountsByReason());
+            this.totalRecords = resumeFrom.getTotalRecords();
+            this.failedRecords = resumeFrom.getFailedRecords();
+        } else {
+            this.keyPrefix = String.format("rejected/%s/%s_%s/", sourceFileId, originalFileName.replace(".csv", ""), UUID.randomUUID());
+        }
+    }
+
+    /**
+     * Acrescenta um registro rejeitado à parte atual, enviando blocos ou concluindo a parte quando os limites são atingidos.
+     *
+     * @param rejectedRecord O registro CSV rejeitado.
+     * @param reason O motivo da rejeição.
+     */
+    public void write(CSVRecord rejectedRecord, String reason) {
+        write(rejectedRecord.toMap(), reason);
+    }
+
+    /**
+     * Acrescenta um registro rejeitado à parte atual, a partir dos campos já extraídos do registro CSV.
+     *
+     * @param fields Os campos do registro rejeitado, por nome de coluna ({@link CSVRecord#toMap()}). Não são modificados.
+     * @param reason O motivo da rejeição.
+     */
+    public void write(Map<String, String> fields, String reason) {
+        if (manifest != null) {
+            throw new IllegalStateException("Gravação de registros rejeitados já finalizada para o arquivo " + originalFileName);
+        }
+        totalRecords++;
+        countsByReason.merge(reason, 1L, Long::sum);
+
+        if (!isBucketConfigured()) {
+            log.error("Bucket para transações rejeitadas não configurado. Não é possível descartar o registro: {}", fields);
+            failedRecords++;
+            return;
+        }
+
+        Map<String, String> rejectedData = new HashMap<>(fields);
+        rejectedData.put("_rejectionReason", reason);
+        rejectedData.put("_sourceFileId", sourceFileId);
+        rejectedData.put("_originalFileName", originalFileName);
+        rejectedData.put("_rejectionTimestamp", Instant.now().toString());
+
+        byte[] line;
+        try {
+            line = objectMapper.writeValueAsBytes(rejectedData);
+        } catch (JsonProcessingException e) {
+            log.error("Erro ao serializar registro rejeitado para JSON. Não foi possível salvar no S3. Registro: {}", fields, e);
+            failedRecords++;
+            return;
+        }
+
+        try {
+            if (currentPart == null) {
+                currentPart = new PartWriter(nextPartIndex++);
+            }
+            currentPart.write(line);
+            if (currentPart.uncompressedBytes >= maxPartBytes) {
+                completeCurrentPart();
+            }
+        } catch (IOException | SdkException e) {
+            failCurrentPart(e);
+        }
+    }
+
+    /**
+     * Conclui a parte em andamento, para que nenhum registro rejeitado até aqui dependa de um upload ainda aberto.
+     *
+     * @return O estado a ser gravado com o checkpoint de linha e usado para retomar o processamento.
+     */
+    public RejectedRecordCheckpoint checkpoint() {
+        if (manifest != null) {
+            throw new IllegalStateException("Gravação de registros rejeitados já finalizada para o arquivo " + originalFileName);
+        }
+        completeCurrentPartQuietly();
+        return RejectedRecordCheckpoint.builder()
+                .keyPrefix(keyPrefix)
+                .nextPartIndex(nextPartIndex)
+                .parts(List.copyOf(parts))
+                .countsByReason(new TreeMap<>(countsByReason))
+                .totalRecords(totalRecords)
+                .failedRecords(failedRecords)
+                .build();
+    }
+
+    /**
+     * Conclui a parte em andamento e grava o manifesto. Chamadas seguintes retornam o mesmo manifesto.
+     *
+     * @return O manifesto dos registros rejeitados do arquivo.
+     */
+    public RejectedRecordManifest finish() {
+        if (manifest != null) {
+            return manifest;
+        }
+        completeCurrentPartQuietly();
+
+        RejectedRecordManifest.RejectedRecordManifestBuilder builder = RejectedRecordManifest.builder()
+                .sourceFileId(sourceFileId)
+                .originalFileName(originalFileName)
+                .bucket(bucket)
+                .parts(parts)
+                .countsByReason(countsByReason)
+                .totalRecords(totalRecords)
+                .failedRecords(failedRecords);
+        if (!parts.isEmpty()) {
+            String manifestKey = keyPrefix + "manifest.json";
+            try {
+                RequestBody manifestBody = RequestBody.fromBytes(objectMapper.writeValueAsBytes(builder.manifestKey(manifestKey).build()));
+                long startedAt = System.nanoTime();
+                s3Client.putObject(PutObjectRequest.builder()
+                                .bucket(bucket)
+                                .key(manifestKey)
+                                .contentType("application/json")
+                                .build(),
+                        manifestBody);
+                metrics.recordRejectedWrite("manifest", System.nanoTime() - startedAt);
+            } catch (JsonProcessingException | SdkException e) {
+                log.error("Erro ao gravar manifesto de registros rejeitados s3://{}/{}: {}", bucket, manifestKey, e.getMessage(), e);
+                builder.manifestKey(null);
+            }
+        }
+        manifest = builder.build();
+        return manifest;
+    }
+
+    @Override
+    public void close() {
+        finish();
+    }
+
+    private boolean isBucketConfigured() {
+        return bucket != null && !bucket.isBlank();
+    }
+
+    private void completeCurrentPart() throws IOException {
+        RejectedRecordManifest.Part part = currentPart.complete();
+        parts.add(part);
+        currentPart = null;
+        log.info("Parte de registros rejeitados salva no S3: s3://{}/{} ({} registros, {} bytes)", bucket, part.getKey(), part.getRecords(), part.getBytes());
+    }
+
+    private void completeCurrentPartQuietly() {
+        if (currentPart == null) {
+            return;
+        }
+        try {
+            completeCurrentPart();
+        } catch (IOException | SdkException e) {
+            failCurrentPart(e);
+        }
+    }
+
+    private void failCurrentPart(Exception e) {
+        log.error("Erro ao salvar parte de registros rejeitados no S3 s3://{}/{}. {} registros perdidos: {}",
+                bucket, currentPart.key, currentPart.records, e.getMessage(), e);
+        failedRecords += currentPart.records;
+        currentPart.abort();
+        currentPart = null;
+    }
+
+    /**
+     * Uma parte NDJSON em construção. Mantém em memória apenas o bloco ainda não enviado.
+     */
+    private final class PartWriter {
+
+        private final String key;
+        private final ChunkBuffer buffer = new ChunkBuffer();
+        private final OutputStream out;
+        private final List<CompletedPart> completedParts = new ArrayList<>();
+        private long records;
+        private long uncompressedBytes;
+        private long uploadedBytes;
+        private String uploadId;
+
+        PartWriter(int index) throws IOException {
+            this.key = String.format("%spart-%05d.ndjson%s", keyPrefix, index, gzip ? ".gz" : "");
+            this.out = gzip ? new GZIPOutputStream(buffer, GZIP_BUFFER_SIZE) : buffer;
+        }
+
+        void write(byte[] line) throws IOException {
+            records++;
+            out.write(line);
+            out.write('\n');
+            uncompressedBytes += line.length + 1;
+            if (buffer.size() >= multipartChunkBytes) {
+                uploadChunk();
+            }
+        }
+
+        RejectedRecordManifest.Part complete() throws IOException {
+            out.close();
+            boolean multipart = uploadId != null;
+            if (multipart) {
+                if (buffer.size() > 0) {
+                    uploadChunk();
+                }
+                long startedAt = System.nanoTime();
+                s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                        .build());
+                metrics.recordRejectedWrite("complete", System.nanoTime() - startedAt);
+            } else {
+                PutObjectRequest.Builder request = PutObjectRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .contentType(CONTENT_TYPE);
+                if (gzip) {
+                    request.contentEncoding("gzip");
+                }
+                long startedAt = System.nanoTime();
+                s3Client.putObject(request.build(), buffer.toRequestBody());
+                metrics.recordRejectedWrite("put", System.nanoTime() - startedAt);
+                uploadedBytes = buffer.size();
+            }
+            return RejectedRecordManifest.Part.builder()
+                    .key(key)
+                    .records(records)
+                    .bytes(uploadedBytes)
+                    .multipart(multipart)
+                    .build();
+        }
+
+        void abort() {
+            if (uploadId == null) {
+                return;
+            }
+            try {
+                s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder().bucket(bucket).key(key).uploadId(uploadId).build());
+            } catch (SdkException e) {
+                log.warn("Erro ao abortar multipart upload {} de s3://{}/{}: {}", uploadId, bucket, key, e.getMessage());
+            }
+        }
+
+        private void uploadChunk() {
+            if (uploadId == null) {
+                CreateMultipartUploadRequest.Builder request = CreateMultipartUploadRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .contentType(CONTENT_TYPE);
+                if (gzip) {
+                    request.contentEncoding("gzip");
+                }
+                uploadId = s3Client.createMultipartUpload(request.build()).uploadId();
+            }
+            int partNumber = completedParts.size() + 1;
+            long startedAt = System.nanoTime();
+            String eTag = s3Client.uploadPart(UploadPartRequest.builder()
+                            .bucket(bucket)
+                            .key(key)
+                            .uploadId(uploadId)
+                            .partNumber(partNumber)
+                            .build(),
+                    buffer.toRequestBody()).eTag();
+            metrics.recordRejectedWrite("upload_part", System.nanoTime() - startedAt);
+            completedParts.add(CompletedPart.builder().partNumber(partNumber).eTag(eTag).build());
+            uploadedBytes += buffer.size();
+            buffer.reset();
+        }
+    }
+
+    /**
+     * ByteArrayOutputStream que expõe o próprio array como corpo da requisição, sem cópia.
+     */
+    private static final class ChunkBuffer extends ByteArrayOutputStream {
+
+        RequestBody toRequestBody() {
+            return RequestBody.fromInputStream(new ByteArrayInputStream(buf, 0, count), count);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.challenge.sink;
+
+import com.example.challenge.config.RejectedRecordSinkProperties;
+import com.example.challenge.metrics.ProducerMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.s3.S3Client;
+
+/**
+ * Cria o destino dos registros rejeitados de cada arquivo processado.
+ */
+@Component
+public class RejectedRecordSinkFactory {
+
+    private final S3Client s3Client;
+    private final ObjectMapper objectMapper;
+    private final RejectedRecordSinkProperties properties;
+    private final String rejectedTransactionsBucketName;
+    private final ProducerMetrics metrics;
+
+    public RejectedRecordSinkFactory(S3Client s3Client,
+                                     ObjectMapper objectMapper,
+                                     RejectedRecordSinkProperties properties,
+                                     @Value("${app.s3.rejected-transactions-bucket-name}") String rejectedTransactionsBucketName,
+                                     ProducerMetrics metrics) {
+        this.s3Client = s3Client;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.rejectedTransactionsBucketName = rejectedTransactionsBucketName;
+        this.metrics = metrics;
+    }
+
+    /**
+     * @param resumeFrom O estado gravado no último checkpoint de um processamento interrompido, ou null para uma nova execução.
+     * @return Um novo destino, que deve ser usado para um único arquivo e fechado ao final.
+     */
+    public RejectedRecordSink create(String sourceFileId, String originalFileName, RejectedRecordCheckpoint resumeFrom) {
+        return new RejectedRecordSink(s3Client, objectMapper, rejectedTransactionsBucketName, sourceFileId, originalFileName,
+                properties, metrics, resumeFrom);
+    }
+}
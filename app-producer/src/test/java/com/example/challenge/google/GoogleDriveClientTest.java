@@ -0,0 +1,126 @@
+package com.example.challenge.google;
+
+import com.example.challenge.config.GoogleDriveProperties;
+import com.example.challenge.metrics.ProducerMetrics;
+import com.google.api.services.drive.Drive;
+import com.google.api.services.drive.model.Change;
+import com.google.api.services.drive.model.ChangeList;
+import com.google.api.services.drive.model.File;
+import com.google.api.services.drive.model.FileList;
+import com.google.api.services.drive.model.StartPageToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class GoogleDriveClientTest {
+
+    private static final String FOLDER_ID = "folder-1";
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private Drive drive;
+
+    @Mock
+    private DriveChangeTokenStore changeTokenStore;
+
+    private GoogleDriveProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new GoogleDriveProperties();
+        properties.setFolderId(FOLDER_ID);
+    }
+
+    @Test
+    @DisplayName("Deve percorrer todas as páginas da listagem da pasta")
+    void shouldFollowAllListingPages() throws IOException {
+        Drive.Files.List request = drive.files().list();
+        when(request.setQ(any())).thenReturn(request);
+        when(request.setPageSize(any())).thenReturn(request);
+        when(request.setPageToken(any())).thenReturn(request);
+        when(request.setFields(any())).thenReturn(request);
+        when(request.execute()).thenReturn(
+                new FileList().setFiles(List.of(csv("a"), csv("b"))).setNextPageToken("page-2"),
+                new FileList().setFiles(List.of(csv("c"))));
+
+        GoogleDriveClient client = new GoogleDriveClient(drive, properties, changeTokenStore, ProducerMetrics.noop());
+
+        assertEquals(List.of("a", "b", "c"), client.listCsvFilesInTargetFolder().stream().map(File::getId).toList());
+        verify(request).setPageToken("page-2");
+    }
+
+    @Test
+    @DisplayName("Deve retornar apenas os CSVs novos da pasta desde o token salvo e persistir o novo token")
+    void shouldListOnlyChangedCsvFilesInIncrementalMode() throws IOException {
+        properties.getListing().setMode(GoogleDriveProperties.Listing.Mode.INCREMENTAL);
+        when(changeTokenStore.load()).thenReturn(Optional.of("token-1"));
+
+        Drive.Changes.List firstPage = stubChanges("token-1");
+        when(firstPage.execute()).thenReturn(new ChangeList().setNextPageToken("token-2").setChanges(List.of(
+                change(csv("new")),
+                change(csv("other-folder").setParents(List.of("folder-2"))),
+                change(csv("not-csv").setMimeType("text/plain")),
+                change(csv("trashed-later")))));
+        Drive.Changes.List secondPage = stubChanges("token-2");
+        when(secondPage.execute()).thenReturn(new ChangeList().setNewStartPageToken("token-3").setChanges(List.of(
+                change(csv("trashed-later").setTrashed(true)))));
+
+        GoogleDriveClient client = new GoogleDriveClient(drive, properties, changeTokenStore, ProducerMetrics.noop());
+
+        assertEquals(List.of("new"), client.listNewCsvFiles().stream().map(File::getId).toList());
+        verify(changeTokenStore).save("token-3");
+        verify(drive.files(), never()).list();
+    }
+
+    @Test
+    @DisplayName("Deve fazer a listagem completa e salvar o token inicial quando não houver token salvo")
+    void shouldBootstrapWithFullListingWhenNoTokenIsSaved() throws IOException {
+        properties.getListing().setMode(GoogleDriveProperties.Listing.Mode.INCREMENTAL);
+        when(changeTokenStore.load()).thenReturn(Optional.empty());
+        when(drive.changes().getStartPageToken().execute()).thenReturn(new StartPageToken().setStartPageToken("start-1"));
+        Drive.Files.List request = drive.files().list();
+        when(request.setQ(any())).thenReturn(request);
+        when(request.setPageSize(any())).thenReturn(request);
+        when(request.setPageToken(any())).thenReturn(request);
+        when(request.setFields(any())).thenReturn(request);
+        when(request.execute()).thenReturn(new FileList().setFiles(List.of(csv("a"))));
+
+        GoogleDriveClient client = new GoogleDriveClient(drive, properties, changeTokenStore, ProducerMetrics.noop());
+
+        assertEquals(List.of("a"), client.listNewCsvFiles().stream().map(File::getId).toList());
+        verify(changeTokenStore).save("start-1");
+    }
+
+    private Drive.Changes.List stubChanges(String pageToken) throws IOException {
+        Drive.Changes.List request = drive.changes().list(pageToken);
+        when(request.setPageSize(any())).thenReturn(request);
+        when(request.setSpaces(any())).thenReturn(request);
+        when(request.setFields(any())).thenReturn(request);
+        return request;
+    }
+
+    private static File csv(String id) {
+        return new File().setId(id).setName(id + ".csv").setMimeType("text/csv").setParents(List.of(FOLDER_ID));
+    }
+
+    private static Change change(File file) {
+        return new Change().setFileId(file.getId()).setFile(file).setRemoved(false);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.challenge.io;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpoolingOutputStreamTest {
+
+    @TempDir
+    Path spoolDirectory;
+
+    @Test
+    @DisplayName("Deve manter em memória o conteúdo abaixo do threshold")
+    void shouldKeepSmallContentInMemory() throws Exception {
+        byte[] content = "transaction_id,amount\ntx_001,10.00\n".getBytes();
+
+        SpoolingOutputStream outputStream = new SpoolingOutputStream(1024, spoolDirectory);
+        outputStream.write(content);
+
+        try (InputStream inputStream = outputStream.toInputStream()) {
+            assertFalse(outputStream.isSpooledToDisk());
+            assertArrayEquals(content, inputStream.readAllBytes());
+        }
+        try (var files = Files.list(spoolDirectory)) {
+            assertTrue(files.findAny().isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve transferir para disco o conteúdo acima do threshold e apagar o arquivo ao fechar")
+    void shouldSpoolLargeContentToDiskAndDeleteOnClose() throws Exception {
+        byte[] chunk = new byte[300];
+        Arrays.fill(chunk, (byte) 'x');
+
+        SpoolingOutputStream outputStream = new SpoolingOutputStream(1024, spoolDirectory);
+        for (int i = 0; i < 10; i++) {
+            outputStream.write(chunk);
+        }
+
+        Path spoolFile;
+        try (InputStream inputStream = outputStream.toInputStream()) {
+            assertTrue(outputStream.isSpooledToDisk());
+            TempFileInputStream fileInputStream = assertInstanceOf(TempFileInputStream.class, inputStream);
+            spoolFile = fileInputStream.getPath();
+            assertTrue(Files.exists(spoolFile));
+            assertEquals(3000, inputStream.readAllBytes().length);
+        }
+        assertFalse(Files.exists(spoolFile));
+    }
+}
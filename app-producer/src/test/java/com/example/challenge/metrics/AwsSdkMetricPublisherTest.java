@@ -0,0 +1,71 @@
+package com.example.challenge.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.metrics.CoreMetric;
+import software.amazon.awssdk.http.HttpMetric;
+import software.amazon.awssdk.metrics.MetricCollector;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AwsSdkMetricPublisherTest {
+
+    private SimpleMeterRegistry registry;
+    private AwsSdkMetricPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        publisher = new AwsSdkMetricPublisher(registry);
+    }
+
+    @Test
+    @DisplayName("Deve registrar a latência da chamada e o uso do pool de conexões da última tentativa")
+    void shouldRecordCallLatencyAndConnectionPoolUsage() {
+        MetricCollector apiCall = MetricCollector.create("ApiCall");
+        apiCall.reportMetric(CoreMetric.SERVICE_ID, "Secrets Manager");
+        apiCall.reportMetric(CoreMetric.OPERATION_NAME, "GetSecretValue");
+        apiCall.reportMetric(CoreMetric.API_CALL_SUCCESSFUL, true);
+        apiCall.reportMetric(CoreMetric.API_CALL_DURATION, Duration.ofMillis(120));
+        httpClient(apiCall, 3, 0, Duration.ofMillis(1));
+        httpClient(apiCall, 7, 2, Duration.ofMillis(5));
+
+        publisher.publish(apiCall.collect());
+
+        assertEquals(120.0, registry.get("producer.aws.call")
+                .tag("service", "secretsmanager").tag("operation", "GetSecretValue").tag("result", "success")
+                .timer().totalTime(TimeUnit.MILLISECONDS), 0.001);
+        assertEquals(7.0, registry.get("producer.aws.http.leased").tag("service", "secretsmanager").gauge().value());
+        assertEquals(2.0, registry.get("producer.aws.http.pending").tag("service", "secretsmanager").gauge().value());
+        assertEquals(10.0, registry.get("producer.aws.http.max").tag("service", "secretsmanager").gauge().value());
+        assertEquals(5.0, registry.get("producer.aws.http.acquire").tag("service", "secretsmanager")
+                .timer().totalTime(TimeUnit.MILLISECONDS), 0.001);
+    }
+
+    @Test
+    @DisplayName("Deve registrar as chamadas com falha separadamente")
+    void shouldRecordFailedCallsSeparately() {
+        MetricCollector apiCall = MetricCollector.create("ApiCall");
+        apiCall.reportMetric(CoreMetric.SERVICE_ID, "SQS");
+        apiCall.reportMetric(CoreMetric.OPERATION_NAME, "SendMessageBatch");
+        apiCall.reportMetric(CoreMetric.API_CALL_SUCCESSFUL, false);
+        apiCall.reportMetric(CoreMetric.API_CALL_DURATION, Duration.ofMillis(30));
+
+        publisher.publish(apiCall.collect());
+
+        assertEquals(1, registry.get("producer.aws.call").tag("service", "sqs").tag("result", "error").timer().count());
+    }
+
+    private static void httpClient(MetricCollector apiCall, int leased, int pending, Duration acquireDuration) {
+        MetricCollector httpClient = apiCall.createChild("ApiCallAttempt").createChild("HttpClient");
+        httpClient.reportMetric(HttpMetric.MAX_CONCURRENCY, 10);
+        httpClient.reportMetric(HttpMetric.LEASED_CONCURRENCY, leased);
+        httpClient.reportMetric(HttpMetric.PENDING_CONCURRENCY_ACQUIRES, pending);
+        httpClient.reportMetric(HttpMetric.CONCURRENCY_ACQUIRE_DURATION, acquireDuration);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.challenge.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProducerMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private ProducerMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new ProducerMetrics(registry);
+    }
+
+    @Test
+    @DisplayName("Deve contar as linhas por resultado e as rejeições por motivo")
+    void shouldCountRowsByOutcomeAndRejectionsByReason() {
+        metrics.rowAccepted();
+        metrics.rowAccepted();
+        metrics.rowAlreadyPublished();
+        metrics.rowRejected("Validation Failed");
+        metrics.rowRejected("Validation Failed");
+        metrics.rowRejected("Amount Format Error");
+
+        assertEquals(2.0, registry.get("producer.csv.rows").tag("outcome", "accepted").counter().count());
+        assertEquals(1.0, registry.get("producer.csv.rows").tag("outcome", "already_published").counter().count());
+        assertEquals(3.0, registry.get("producer.csv.rows").tag("outcome", "rejected").counter().count());
+        assertEquals(2.0, registry.get("producer.validation.rejected").tag("reason", "Validation Failed").counter().count());
+        assertEquals(1.0, registry.get("producer.validation.rejected").tag("reason", "Amount Format Error").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve manter o número de lotes SQS em andamento")
+    void shouldTrackInFlightBatches() {
+        metrics.sqsBatchStarted();
+        metrics.sqsBatchStarted();
+        assertEquals(2.0, registry.get("producer.sqs.in.flight.batches").gauge().value());
+
+        metrics.sqsBatchCompleted(TimeUnit.MILLISECONDS.toNanos(15), true);
+        assertEquals(1.0, registry.get("producer.sqs.in.flight.batches").gauge().value());
+        assertEquals(15.0, registry.get("producer.sqs.publish").tag("result", "success").timer().totalTime(TimeUnit.MILLISECONDS), 0.001);
+    }
+
+    @Test
+    @DisplayName("Deve registrar as latências do Google Drive, do S3 e dos arquivos")
+    void shouldRecordDriveS3AndFileLatencies() {
+        metrics.recordDriveList(true, TimeUnit.MILLISECONDS.toNanos(40));
+        metrics.recordDriveDownload(TimeUnit.MILLISECONDS.toNanos(250), 1024);
+        metrics.recordRejectedWrite("upload_part", TimeUnit.MILLISECONDS.toNanos(30));
+        metrics.recordFile("success", TimeUnit.SECONDS.toNanos(2));
+
+        assertEquals(1, registry.get("producer.drive.list").tag("mode", "incremental").timer().count());
+        assertEquals(0, registry.get("producer.drive.list").tag("mode", "full").timer().count());
+        assertEquals(1024.0, registry.get("producer.drive.download.bytes").summary().totalAmount());
+        assertEquals(1, registry.get("producer.s3.rejected.write").tag("operation", "upload_part").timer().count());
+        assertEquals(2.0, registry.get("producer.file.duration").tag("result", "success").timer().totalTime(TimeUnit.SECONDS), 0.001);
+    }
+
+    @Test
+    @DisplayName("Deve registrar o tempo até a primeira mensagem apenas uma vez e não ao concluir lotes")
+    void shouldRecordTimeToFirstMessageOnce() {
+        metrics.sqsBatchStarted();
+        metrics.sqsBatchCompleted(TimeUnit.MILLISECONDS.toNanos(5), true);
+        assertNull(registry.find("producer.startup.first.message").timeGauge());
+
+        metrics.firstMessagePublished();
+        double firstMessage = registry.get("producer.startup.first.message").timeGauge().value(TimeUnit.MILLISECONDS);
+        assertTrue(firstMessage > 0);
+
+        metrics.firstMessagePublished();
+        assertEquals(firstMessage, registry.get("producer.startup.first.message").timeGauge().value(TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.challenge.metrics;
+
+import com.example.challenge.config.DiagnosticsProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.event.Level;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RowDiagnosticsTest {
+
+    private RowDiagnostics diagnostics;
+
+    @BeforeEach
+    void setUp() {
+        DiagnosticsProperties properties = new DiagnosticsProperties();
+        properties.setFirstOccurrences(3);
+        properties.setSampleEvery(5);
+        diagnostics = new RowDiagnostics(properties);
+    }
+
+    @Test
+    @DisplayName("Deve registrar as primeiras ocorrências e depois uma a cada N")
+    void shouldSampleFirstOccurrencesAndThenOneEveryN() {
+        assertTrue(diagnostics.isSampled(1));
+        assertTrue(diagnostics.isSampled(3));
+        assertFalse(diagnostics.isSampled(4));
+        assertFalse(diagnostics.isSampled(7));
+        assertTrue(diagnostics.isSampled(8));
+        assertTrue(diagnostics.isSampled(13));
+    }
+
+    @Test
+    @DisplayName("Deve extrair os campos do registro apenas para as ocorrências registradas")
+    void shouldExtractRecordOnlyForSampledOccurrences() {
+        AtomicInteger extracted = new AtomicInteger();
+        for (int i = 0; i < 20; i++) {
+            diagnostics.report(Level.WARN, "Validation Failed", "file.csv", "valor negativo",
+                    () -> {
+                        extracted.incrementAndGet();
+                        return Map.of("transaction_id", "tx");
+                    });
+        }
+
+        // 1, 2, 3, 8, 13 e 18
+        assertEquals(6, extracted.get());
+    }
+
+    @Test
+    @DisplayName("Deve contar as ocorrências por categoria e reiniciar as contagens a cada resumo")
+    void shouldCountByCategoryAndResetOnDrain() {
+        for (int i = 0; i < 4; i++) {
+            diagnostics.report(Level.WARN, "Validation Failed", "file.csv", "valor negativo", Map::of);
+        }
+        diagnostics.report(Level.ERROR, "Amount Format Error", "file.csv", "Valor inválido: 'abc'", Map::of);
+
+        assertEquals(Map.of("Amount Format Error", 1L, "Validation Failed", 4L), diagnostics.drain());
+        assertEquals(Map.of(), diagnostics.drain());
+
+        diagnostics.report(Level.WARN, "Validation Failed", "file.csv", "valor negativo", Map::of);
+        assertEquals(Map.of("Validation Failed", 1L), diagnostics.drain());
+    }
+}
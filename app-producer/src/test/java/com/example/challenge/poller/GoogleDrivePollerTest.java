@@ -0,0 +1,88 @@
+package com.example.challenge.poller;
+
+import com.example.challenge.config.PollerProperties;
+import com.example.challenge.google.GoogleDriveClient;
+import com.example.challenge.metrics.ProducerMetrics;
+import com.example.challenge.processor.TransactionFileProcessor;
+import com.example.challenge.repository.ProcessedFileRepository;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.google.api.services.drive.model.File;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GoogleDrivePollerTest {
+
+    @Mock
+    private GoogleDriveClient googleDriveClient;
+
+    @Mock
+    private TransactionFileProcessor transactionFileProcessor;
+
+    @Mock
+    private ProcessedFileRepository processedFileRepository;
+
+    private GoogleDrivePoller poller;
+
+    @BeforeEach
+    void setUp() {
+        PollerProperties properties = new PollerProperties();
+        properties.setMaxConcurrentFiles(2);
+        lenient().when(processedFileRepository.getCacheStats()).thenReturn(CacheStats.empty());
+        poller = new GoogleDrivePoller(googleDriveClient, transactionFileProcessor, processedFileRepository, properties, ProducerMetrics.noop());
+    }
+
+    @AfterEach
+    void tearDown() {
+        poller.shutdown();
+    }
+
+    @Test
+    @DisplayName("Deve processar arquivos em paralelo sem reprocessar arquivos em andamento em verificações sobrepostas")
+    void shouldProcessFilesConcurrentlyWithoutDuplicates() throws Exception {
+        File first = new File().setId("file-1").setName("a.csv");
+        File second = new File().setId("file-2").setName("b.csv");
+        when(googleDriveClient.listNewCsvFiles()).thenReturn(List.of(first, second));
+        when(googleDriveClient.downloadFileContent(anyString())).thenAnswer(invocation -> new ByteArrayInputStream(new byte[0]));
+
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            bothStarted.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return null;
+        }).when(transactionFileProcessor).processCsvFile(anyString(), anyString(), any());
+
+        poller.pollGoogleDriveForCsvFiles();
+        assertTrue(bothStarted.await(10, TimeUnit.SECONDS), "Os dois arquivos deveriam estar em processamento ao mesmo tempo");
+
+        poller.pollGoogleDriveForCsvFiles();
+        release.countDown();
+
+        verify(googleDriveClient, timeout(10_000)).trashFile("file-1");
+        verify(googleDriveClient, timeout(10_000)).trashFile("file-2");
+        verify(googleDriveClient, times(1)).downloadFileContent(eq("file-1"));
+        verify(googleDriveClient, times(1)).downloadFileContent(eq("file-2"));
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.challenge.processor;
+
+import com.example.challenge.model.ProcessedFile;
+import com.example.challenge.publisher.PublishStats;
+import com.example.challenge.publisher.TransactionEventPublisher;
+import com.example.challenge.repository.ProcessedFileRepository;
+import com.example.challenge.sink.RejectedRecordCheckpoint;
+import com.example.challenge.sink.RejectedRecordManifest;
+import com.example.challenge.sink.RejectedRecordSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FileCheckpointTest {
+
+    @Mock
+    private ProcessedFileRepository processedFileRepository;
+
+    @Mock
+    private TransactionEventPublisher publisher;
+
+    @Mock
+    private RejectedRecordSink rejectedSink;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Deve gravar checkpoints em lote, somente após a conclusão dos envios em andamento")
+    void shouldWriteCheckpointsInBatches() {
+        when(processedFileRepository.findCheckpoint("file-1")).thenReturn(Optional.empty());
+        when(publisher.getStats()).thenReturn(PublishStats.builder().build());
+        when(rejectedSink.checkpoint()).thenReturn(new RejectedRecordCheckpoint());
+        FileCheckpoint checkpoint = FileCheckpoint.load(processedFileRepository, objectMapper, "file-1", "a.csv", 1000);
+
+        for (int i = 0; i < 2500; i++) {
+            assertFalse(checkpoint.nextRowAlreadyDone());
+            checkpoint.rowCompleted(publisher, rejectedSink);
+        }
+
+        InOrder order = inOrder(publisher, rejectedSink, processedFileRepository);
+        order.verify(publisher).awaitCompletion();
+        order.verify(rejectedSink).checkpoint();
+        order.verify(processedFileRepository).save(any());
+
+        ArgumentCaptor<ProcessedFile> saved = ArgumentCaptor.forClass(ProcessedFile.class);
+        verify(processedFileRepository, times(2)).save(saved.capture());
+        assertEquals(1000L, saved.getAllValues().get(0).getCheckpointRow());
+        assertEquals(2000L, saved.getAllValues().get(1).getCheckpointRow());
+        assertEquals(ProcessedFile.STATUS_IN_PROGRESS, saved.getValue().getStatus());
+    }
+
+    @Test
+    @DisplayName("Não deve avançar o checkpoint quando algum evento esgotar as tentativas de envio")
+    void shouldNotAdvancePastFailedMessages() {
+        when(processedFileRepository.findCheckpoint("file-1")).thenReturn(Optional.empty());
+        when(rejectedSink.checkpoint()).thenReturn(new RejectedRecordCheckpoint());
+        when(publisher.getStats()).thenReturn(PublishStats.builder().build(), PublishStats.builder().failedMessages(3).build());
+        FileCheckpoint checkpoint = FileCheckpoint.load(processedFileRepository, objectMapper, "file-1", "a.csv", 1000);
+
+        for (int i = 0; i < 1999; i++) {
+            checkpoint.nextRowAlreadyDone();
+            checkpoint.rowCompleted(publisher, rejectedSink);
+        }
+        checkpoint.nextRowAlreadyDone();
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> checkpoint.rowCompleted(publisher, rejectedSink));
+
+        assertTrue(error.getMessage().contains("após a linha 1000"));
+        ArgumentCaptor<ProcessedFile> saved = ArgumentCaptor.forClass(ProcessedFile.class);
+        verify(processedFileRepository, times(1)).save(saved.capture());
+        assertEquals(1000L, saved.getValue().getCheckpointRow());
+    }
+
+    @Test
+    @DisplayName("Deve ignorar as linhas concluídas antes do checkpoint de um processamento interrompido")
+    void shouldResumeAfterCheckpoint() {
+        when(processedFileRepository.findCheckpoint("file-1")).thenReturn(Optional.of(ProcessedFile.builder()
+                .fileId("file-1")
+                .status(ProcessedFile.STATUS_IN_PROGRESS)
+                .checkpointRow(2000L)
+                .rejectedCheckpoint("{\"keyPrefix\":\"rejected/file-1/a_run/\",\"nextPartIndex\":0,\"parts\":[],\"countsByReason\":{}}")
+                .build()));
+        FileCheckpoint checkpoint = FileCheckpoint.load(processedFileRepository, objectMapper, "file-1", "a.csv", 1000);
+
+        int skipped = 0;
+        for (int i = 0; i < 2500; i++) {
+            if (checkpoint.nextRowAlreadyDone()) {
+                skipped++;
+            } else {
+                checkpoint.rowCompleted(publisher, rejectedSink);
+            }
+        }
+
+        assertEquals(2000, skipped);
+        assertEquals(2000L, checkpoint.getResumeAfterRow());
+        verify(processedFileRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Não deve consultar nem gravar checkpoints quando desativado")
+    void shouldIgnoreCheckpointsWhenDisabled() {
+        FileCheckpoint checkpoint = FileCheckpoint.load(processedFileRepository, objectMapper, "file-1", "a.csv", 0);
+
+        for (int i = 0; i < 5000; i++) {
+            assertFalse(checkpoint.nextRowAlreadyDone());
+            checkpoint.rowCompleted(publisher, rejectedSink);
+        }
+
+        verify(processedFileRepository, never()).findCheckpoint(any());
+        verify(publisher, never()).awaitCompletion();
+        verify(rejectedSink, never()).checkpoint();
+        assertEquals(0L, checkpoint.getResumeAfterRow());
+    }
+
+    @Test
+    @DisplayName("Deve gravar com o checkpoint as partes de rejeitados concluídas e restaurá-las ao retomar")
+    void shouldResumeRejectedRecordsBeforeCheckpoint() {
+        when(processedFileRepository.findCheckpoint("file-1")).thenReturn(Optional.empty());
+        RejectedRecordCheckpoint rejected = RejectedRecordCheckpoint.builder()
+                .keyPrefix("rejected/file-1/a_run/")
+                .nextPartIndex(1)
+                .parts(List.of(RejectedRecordManifest.Part.builder().key("rejected/file-1/a_run/part-00000.ndjson.gz").records(3).bytes(120).build()))
+                .countsByReason(Map.of("Validation Failed", 3L))
+                .totalRecords(3)
+                .build();
+        when(rejectedSink.checkpoint()).thenReturn(rejected);
+        when(publisher.getStats()).thenReturn(PublishStats.builder().build());
+        FileCheckpoint interrupted = FileCheckpoint.load(processedFileRepository, objectMapper, "file-1", "a.csv", 1000);
+        for (int i = 0; i < 1500; i++) {
+            interrupted.nextRowAlreadyDone();
+            interrupted.rowCompleted(publisher, rejectedSink);
+        }
+        ArgumentCaptor<ProcessedFile> saved = ArgumentCaptor.forClass(ProcessedFile.class);
+        verify(processedFileRepository).save(saved.capture());
+
+        when(processedFileRepository.findCheckpoint("file-1")).thenReturn(Optional.of(saved.getValue()));
+        FileCheckpoint resumed = FileCheckpoint.load(processedFileRepository, objectMapper, "file-1", "a.csv", 1000);
+
+        assertEquals(1000L, resumed.getResumeAfterRow());
+        assertEquals(rejected, resumed.getRejectedCheckpoint());
+    }
+
+    @Test
+    @DisplayName("Deve processar desde o início um checkpoint sem o estado dos registros rejeitados")
+    void shouldRestartWhenRejectedStateIsMissing() {
+        when(processedFileRepository.findCheckpoint("file-1")).thenReturn(Optional.of(ProcessedFile.builder()
+                .fileId("file-1")
+                .status(ProcessedFile.STATUS_IN_PROGRESS)
+                .checkpointRow(2000L)
+                .build()));
+        FileCheckpoint checkpoint = FileCheckpoint.load(processedFileRepository, objectMapper, "file-1", "a.csv", 1000);
+
+        assertFalse(checkpoint.nextRowAlreadyDone());
+        assertEquals(0L, checkpoint.getResumeAfterRow());
+        assertNull(checkpoint.getRejectedCheckpoint());
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.challenge.processor;
+
+import com.example.challenge.config.ParallelIngestionProperties;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParallelCsvIngestionEngineTest {
+
+    private ParallelCsvIngestionEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        ParallelIngestionProperties properties = new ParallelIngestionProperties();
+        properties.setEnabled(true);
+        properties.setParallelism(4);
+        properties.setChunkSize(DataSize.ofBytes(256));
+        engine = new ParallelCsvIngestionEngine(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    @DisplayName("Deve produzir os mesmos registros, na mesma ordem, que o parser sequencial")
+    void shouldMatchSequentialParsing() throws IOException {
+        StringBuilder csv = new StringBuilder("transaction_id,transaction_type,amount,timestamp,customer_id,metadata\n");
+        for (int i = 0; i < 500; i++) {
+            String metadata = switch (i % 4) {
+                case 0 -> "\"{\"\"channel\"\":\"\"mobile\"\"}\"";
+                case 1 -> "\"{\"\"note\"\":\"\"linha 1\nlinha 2, com vírgula\"\"}\"";
+                case 2 -> "{}";
+                default -> "";
+            };
+            csv.append("tx_").append(i).append(",PIX,").append(i % 7 == 0 ? "-1.00" : "10.50")
+                    .append(",2024-01-15T10:30:00Z,cust_").append(i).append(',').append(metadata)
+                    .append(i % 5 == 0 ? "\r\n" : "\n");
+        }
+        byte[] content = csv.toString().getBytes(StandardCharsets.UTF_8);
+
+        List<List<String>> expected = new ArrayList<>();
+        try (CSVParser parser = new CSVParser(new StringReader(csv.toString()), TransactionFileProcessor.CSV_FORMAT)) {
+            for (CSVRecord csvRecord : parser) {
+                expected.add(List.of(csvRecord.get("transaction_id"), csvRecord.get("amount"), csvRecord.get("metadata")));
+            }
+        }
+
+        List<List<String>> actual = new ArrayList<>();
+        engine.process("test.csv", new ByteArrayInputStream(content),
+                header -> csvRecord -> RecordOutcome.rejected(csvRecord, RejectionReason.VALIDATION_FAILED, csvRecord.get("transaction_id"), Map.of()),
+                outcome -> actual.add(List.of(outcome.rejectionReason(), outcome.record().get("amount"), outcome.record().get("metadata"))));
+
+        assertEquals(500, expected.size());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    @DisplayName("Deve processar arquivo contendo apenas o cabeçalho sem registros")
+    void shouldHandleHeaderOnlyFile() throws IOException {
+        byte[] content = "transaction_id,transaction_type,amount,timestamp,customer_id,metadata\n".getBytes(StandardCharsets.UTF_8);
+
+        List<RecordOutcome> outcomes = new ArrayList<>();
+        engine.process("empty.csv", new ByteArrayInputStream(content),
+                header -> csvRecord -> RecordOutcome.rejected(csvRecord, RejectionReason.UNEXPECTED_ERROR, "unexpected", Map.of()), outcomes::add);
+
+        assertEquals(0, outcomes.size());
+    }
+
+    @Test
+    @DisplayName("Não deve criar o pool de threads quando o processamento paralelo estiver desativado")
+    void shouldNotCreatePoolWhenDisabled() {
+        ParallelCsvIngestionEngine disabled = new ParallelCsvIngestionEngine(new ParallelIngestionProperties());
+
+        assertThrows(IllegalStateException.class, () -> disabled.process("test.csv", new ByteArrayInputStream(new byte[0]),
+                header -> csvRecord -> null, outcome -> { }));
+        disabled.shutdown();
+    }
+}
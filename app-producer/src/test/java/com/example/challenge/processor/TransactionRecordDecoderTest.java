@@ -0,0 +1,160 @@
+package com.example.challenge.processor;
+
+import com.example.challenge.metrics.RowDiagnostics;
+import com.example.challenge.model.Transaction;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.event.Level;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class TransactionRecordDecoderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final RowDiagnostics diagnostics = RowDiagnostics.defaults();
+
+    @Test
+    @DisplayName("Deve produzir a mesma transação, ou o motivo correspondente à exceção, do caminho genérico")
+    void shouldMatchGenericParsing() throws IOException {
+        String csv = """
+                customer_id,metadata,transaction_id,transaction_type,amount,timestamp
+                cust_1,"{""channel"":""mobile""}",tx_1,PIX,150.50,2024-01-15T10:30:00Z
+                cust_2,{},tx_2,TED,-75.25,2024-02-29T23:59:59.123Z
+                cust_3,"{ ""a"" : ""1"", ""b"":""x\\""y"" }",tx_3,DOC,+0010,2024-01-15T10:30:00.000000001Z
+                cust_4,"{""n"":1}",tx_4,PIX,1e3,2024-01-15T10:30:00+01:00
+                cust_5,invalid,tx_5,PIX,12345678901234567890.12,2023-02-29T10:30:00Z
+                cust_6,,tx_6,PIX,abc,2024-01-15T10:30:00Z
+                cust_7,   ,tx_7,PIX,.5,2024-13-15T10:30:00Z
+                cust_8,"{""channel"":""web""}",tx_8,PIX,-,2024-01-15T24:00:00Z
+                cust_9,"{""channel"":""web""}",tx_9
+                """;
+
+        try (CSVParser parser = new CSVParser(new StringReader(csv), TransactionFileProcessor.CSV_FORMAT)) {
+            TransactionRecordDecoder decoder = TransactionRecordDecoder.forHeader(parser.getHeaderNames(), objectMapper, diagnostics, "test.csv");
+            List<CSVRecord> records = parser.getRecords();
+            assertEquals(9, records.size());
+            for (CSVRecord csvRecord : records) {
+                assertEquals(outcomeOf(() -> decoder.parseCsvRecord(csvRecord)), outcomeOf(decoder.tryDecode(csvRecord)),
+                        "Registro " + csvRecord.getRecordNumber());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve classificar os registros sem exceções com os mesmos motivos do caminho genérico")
+    void shouldClassifyRejectionsLikeGenericParsing() throws IOException {
+        String csv = """
+                customer_id,metadata,transaction_id,transaction_type,amount,timestamp
+                cust_1,"{""channel"":""mobile""}",tx_1,PIX,150.50,2024-01-15T10:30:00Z
+                cust_2,{},tx_2,TED,1e3,2024-01-15T10:30:00+01:00
+                cust_3,,tx_3,PIX,abc,2024-01-15T10:30:00Z
+                cust_4,,tx_4,PIX,1e,2024-01-15T10:30:00Z
+                cust_5,,tx_5,PIX,1e999999999999,2024-01-15T10:30:00Z
+                cust_6,,tx_6,PIX,10.00,15/01/2024
+                cust_7,,tx_7,PIX,10.00,2024-13-15T10:30:00Z
+                cust_8,,tx_8,PIX,10.00,
+                cust_9,"{""channel"":""web""}",tx_9
+                cust_10,,tx_10,PIX,abc
+                """;
+
+        try (CSVParser parser = new CSVParser(new StringReader(csv), TransactionFileProcessor.CSV_FORMAT)) {
+            TransactionRecordDecoder decoder = TransactionRecordDecoder.forHeader(parser.getHeaderNames(), objectMapper, diagnostics, "test.csv");
+            for (CSVRecord csvRecord : parser.getRecords()) {
+                assertEquals(outcomeOf(() -> decoder.parseCsvRecord(csvRecord)), outcomeOf(decoder.tryDecode(csvRecord)),
+                        "Registro " + csvRecord.getRecordNumber());
+            }
+        }
+
+        try (CSVParser parser = new CSVParser(new StringReader("transaction_id,amount\ntx_1,10.00\n"), TransactionFileProcessor.CSV_FORMAT)) {
+            TransactionRecordDecoder decoder = TransactionRecordDecoder.forHeader(parser.getHeaderNames(), objectMapper, diagnostics, "test.csv");
+            assertEquals(RejectionReason.MISSING_FIELD, decoder.tryDecode(parser.getRecords().get(0)).rejectionReason());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve interpretar valores e timestamps com a mesma escala e precisão do JDK")
+    void shouldParseAmountsAndTimestampsLikeJdk() {
+        for (String amount : List.of("0", "150.50", "-75.25", "+1.000", "999999999999999999", "0.000000001")) {
+            assertEquals(new BigDecimal(amount), TransactionRecordDecoder.parseAmount(amount), amount);
+        }
+        assertNull(TransactionRecordDecoder.parseAmount("1e3"));
+        assertNull(TransactionRecordDecoder.parseAmount("1.2.3"));
+        for (String amount : List.of("1e3", ".5", "1.", "-2.5E-3", "+7e+2")) {
+            assertTrue(TransactionRecordDecoder.isDecimalSyntax(amount), amount);
+        }
+        for (String amount : List.of("", "-", ".", "e3", "1e", "1e+", "1.2.3", "1,5", "R$ 10")) {
+            assertFalse(TransactionRecordDecoder.isDecimalSyntax(amount), amount);
+        }
+
+        for (String timestamp : List.of("1970-01-01T00:00:00Z", "2024-02-29T23:59:59.5Z", "1969-12-31T23:59:59.999999999Z",
+                "2000-03-01T00:00:00Z", "2100-02-28T12:00:00.123456Z", "0001-01-01T00:00:00Z")) {
+            assertEquals(Instant.parse(timestamp), TransactionRecordDecoder.parseInstant(timestamp), timestamp);
+        }
+        assertNull(TransactionRecordDecoder.parseInstant("2023-02-29T10:30:00Z"));
+        assertNull(TransactionRecordDecoder.parseInstant("2024-01-15T10:30:00.Z"));
+        assertTrue(TransactionRecordDecoder.mayBeIsoInstant("2024-01-15T10:30:00+01:00"));
+        assertFalse(TransactionRecordDecoder.mayBeIsoInstant("15/01/2024 10:30:00"));
+        assertFalse(TransactionRecordDecoder.mayBeIsoInstant("invalid-timestamp"));
+    }
+
+    @Test
+    @DisplayName("Deve reportar metadados JSON inválidos ao canal de diagnósticos, sem extrair os campos do registro")
+    void shouldReportInvalidMetadataToDiagnostics() throws IOException {
+        RowDiagnostics reported = mock(RowDiagnostics.class);
+        String csv = """
+                transaction_id,transaction_type,amount,timestamp,customer_id,metadata
+                tx_1,PIX,10.00,2024-01-15T10:30:00Z,cust_1,invalid
+                """;
+
+        try (CSVParser parser = new CSVParser(new StringReader(csv), TransactionFileProcessor.CSV_FORMAT)) {
+            TransactionRecordDecoder decoder = TransactionRecordDecoder.forHeader(parser.getHeaderNames(), objectMapper, reported, "test.csv");
+            CSVRecord csvRecord = parser.getRecords().get(0);
+            assertEquals(Map.of(), decoder.tryDecode(csvRecord).transaction().getMetadata());
+            assertEquals(Map.of(), decoder.parseCsvRecord(csvRecord).getMetadata());
+        }
+
+        verify(reported, times(2)).report(eq(Level.WARN), eq(TransactionRecordDecoder.INVALID_METADATA), eq("test.csv"), anyString(), any());
+    }
+
+    private static Object outcomeOf(Supplier<Transaction> decode) {
+        try {
+            return decode.get();
+        } catch (RuntimeException e) {
+            return e.getClass();
+        }
+    }
+
+    private static Object outcomeOf(TransactionRecordDecoder.DecodeResult result) {
+        if (result.isDecoded()) {
+            return result.transaction();
+        }
+        return switch (result.rejectionReason()) {
+            case AMOUNT_FORMAT_ERROR -> NumberFormatException.class;
+            case TIMESTAMP_FORMAT_ERROR -> DateTimeParseException.class;
+            case MISSING_FIELD -> IllegalArgumentException.class;
+            default -> result.rejectionReason();
+        };
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.challenge.publisher;
+
+import com.example.challenge.config.SqsPublisherProperties;
+import com.example.challenge.metrics.ProducerMetrics;
+import com.example.challenge.model.SqsTransactionEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResultEntry;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncSqsBatchPublisherTest {
+
+    private static final String QUEUE_URL = "https://sqs.us-east-1.amazonaws.com/000000000000/test-queue";
+
+    @Mock
+    private SqsAsyncClient sqsAsyncClient;
+
+    private ObjectMapper objectMapper;
+
+    private SqsPublisherProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        properties = new SqsPublisherProperties();
+        properties.setMode(SqsPublisherProperties.Mode.ASYNC);
+        properties.setLinger(Duration.ofMinutes(1));
+        properties.setRetryBackoff(Duration.ZERO);
+        properties.setMaxInFlightBatches(2);
+        properties.setCompletionTimeout(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Deve limitar os lotes em andamento e aguardar todos os envios na conclusão")
+    void shouldBoundInFlightBatchesAndAwaitAllFutures() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxObserved = new AtomicInteger();
+        Executor delayed = CompletableFuture.delayedExecutor(20, TimeUnit.MILLISECONDS);
+        when(sqsAsyncClient.sendMessageBatch(any(SendMessageBatchRequest.class))).thenAnswer(invocation -> {
+            maxObserved.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            SendMessageBatchRequest request = invocation.getArgument(0);
+            return CompletableFuture.supplyAsync(() -> {
+                inFlight.decrementAndGet();
+                return succeedAll(request);
+            }, delayed);
+        });
+
+        AsyncSqsBatchPublisher publisher = new AsyncSqsBatchPublisher(sqsAsyncClient, encoder(), QUEUE_URL, properties,
+                PublishedTransactionsListener.NONE, ProducerMetrics.noop(), TraceContext.NONE);
+        for (int i = 0; i < 95; i++) {
+            publisher.publish(event("tx_" + i));
+        }
+        publisher.awaitCompletion();
+
+        PublishStats stats = publisher.getStats();
+        assertEquals(95, stats.getPublishedMessages());
+        assertEquals(10, stats.getBatches());
+        assertTrue(maxObserved.get() <= 2, "Mais lotes em andamento do que o permitido: " + maxObserved.get());
+    }
+
+    @Test
+    @DisplayName("Deve reenviar de forma assíncrona apenas as entradas que falharam")
+    void shouldRetryOnlyFailedEntriesAsynchronously() {
+        when(sqsAsyncClient.sendMessageBatch(any(SendMessageBatchRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(SendMessageBatchResponse.builder()
+                        .successful(SendMessageBatchResultEntry.builder().id("0").messageId("m0").build())
+                        .failed(BatchResultErrorEntry.builder().id("1").senderFault(false).code("ServiceUnavailable").build())
+                        .build()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(succeedAll(invocation.getArgument(0))));
+
+        AsyncSqsBatchPublisher publisher = new AsyncSqsBatchPublisher(sqsAsyncClient, encoder(), QUEUE_URL, properties,
+                PublishedTransactionsListener.NONE, ProducerMetrics.noop(), TraceContext.NONE);
+        publisher.publish(event("tx_0"));
+        publisher.publish(event("tx_1"));
+        publisher.awaitCompletion();
+
+        PublishStats stats = publisher.getStats();
+        assertEquals(2, stats.getPublishedMessages());
+        assertEquals(1, stats.getRetriedMessages());
+        assertEquals(0, stats.getFailedMessages());
+    }
+
+    @Test
+    @DisplayName("Deve falhar a conclusão quando os envios excedem o tempo limite")
+    void shouldFailCompletionWhenFuturesDoNotComplete() {
+        when(sqsAsyncClient.sendMessageBatch(any(SendMessageBatchRequest.class))).thenReturn(new CompletableFuture<>());
+        properties.setCompletionTimeout(Duration.ofMillis(50));
+
+        AsyncSqsBatchPublisher publisher = new AsyncSqsBatchPublisher(sqsAsyncClient, encoder(), QUEUE_URL, properties,
+                PublishedTransactionsListener.NONE, ProducerMetrics.noop(), TraceContext.NONE);
+        publisher.publish(event("tx_0"));
+
+        assertThrows(IllegalStateException.class, publisher::awaitCompletion);
+    }
+
+    private TransactionEventEncoder encoder() {
+        return TransactionEventEncoder.create(objectMapper, properties.getEncoding());
+    }
+
+    private static SendMessageBatchResponse succeedAll(SendMessageBatchRequest request) {
+        return SendMessageBatchResponse.builder()
+                .successful(request.entries().stream()
+                        .map(SendMessageBatchRequestEntry::id)
+                        .map(id -> SendMessageBatchResultEntry.builder().id(id).messageId("m" + id).build())
+                        .toList())
+                .build();
+    }
+
+    private static SqsTransactionEvent event(String transactionId) {
+        return SqsTransactionEvent.builder()
+                .transactionId(transactionId)
+                .transactionType("PIX")
+                .transactionAmount(new BigDecimal("150.50"))
+                .transactionTimestamp(Instant.parse("2024-01-15T10:30:00Z"))
+                .customerIdentifier("cust_123")
+                .transactionMetadata(Map.of("channel", "mobile"))
+                .processingTimestamp(Instant.now())
+                .transactionCategory("CREDIT")
+                .sourceFileId("file_1")
+                .build();
+    }
+}
@@ -0,0 +1,298 @@
+package com.example.challenge.publisher;
+
+import com.example.challenge.config.SqsPublisherProperties;
+import com.example.challenge.metrics.ProducerMetrics;
+import com.example.challenge.model.SqsTransactionEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResultEntry;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SqsBatchPublisherTest {
+
+    private static final String QUEUE_URL = "https://sqs.us-east-1.amazonaws.com/000000000000/test-queue";
+
+    @Mock
+    private SqsClient sqsClient;
+
+    private ObjectMapper objectMapper;
+
+    private SqsPublisherProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        properties = new SqsPublisherProperties();
+        properties.setLinger(Duration.ofMinutes(1));
+        properties.setRetryBackoff(Duration.ZERO);
+    }
+
+    @Test
+    @DisplayName("Deve agrupar até 10 eventos por lote e enviar o restante no flush")
+    void shouldPackTenEntriesPerBatchAndFlushRemainder() {
+        when(sqsClient.sendMessageBatch(any(SendMessageBatchRequest.class))).thenAnswer(invocation -> succeedAll(invocation.getArgument(0)));
+
+        SqsBatchPublisher publisher = new SqsBatchPublisher(sqsClient, encoder(), QUEUE_URL, properties,
+                PublishedTransactionsListener.NONE, ProducerMetrics.noop(), TraceContext.NONE);
+        for (int i = 0; i < 25; i++) {
+            publisher.publish(event("tx_" + i));
+        }
+        publisher.flush();
+
+        ArgumentCaptor<SendMessageBatchRequest> captor = ArgumentCaptor.forClass(SendMessageBatchRequest.class);
+        verify(sqsClient, times(3)).sendMessageBatch(captor.capture());
+        assertEquals(List.of(10, 10, 5), captor.getAllValues().stream().map(request -> request.entries().size()).toList());
+
+        PublishStats stats = publisher.getStats();
+        assertEquals(25, stats.getPublishedMessages());
+        assertEquals(3, stats.getBatches());
+        assertEquals(25.0 / 30.0, stats.getBatchFillRatio(), 0.0001);
+    }
+
+    @Test
+    @DisplayName("Deve respeitar o limite de bytes do lote")
+    void shouldRespectBatchByteLimit() {
+        when(sqsClient.sendMessageBatch(any(SendMessageBatchRequest.class))).thenAnswer(invocation -> succeedAll(invocation.getArgument(0)));
+        properties.setMaxBatchBytes(2048);
+
+        SqsBatchPublisher publisher = new SqsBatchPublisher(sqsClient, encoder(), QUEUE_URL, properties,
+                PublishedTransactionsListener.NONE, ProducerMetrics.noop(), TraceContext.NONE);
+        for (int i = 0; i < 10; i++) {
+            publisher.publish(event("tx_" + i));
+        }
+        publisher.flush();
+
+        ArgumentCaptor<SendMessageBatchRequest> captor = ArgumentCaptor.forClass(SendMessageBatchRequest.class);
+        verify(sqsClient, atLeast(2)).sendMessageBatch(captor.capture());
+        for (SendMessageBatchRequest request : captor.getAllValues()) {
+            int bytes = request.entries().stream().mapToInt(entry -> SqsBatchPublisher.utf8Length(entry.messageBody())).sum();
+            assertTrue(bytes <= 2048, "Lote com " + bytes + " bytes excede o limite configurado");
+        }
+        assertEquals(10, publisher.getStats().getPublishedMessages());
+    }
+
+    @Test
+    @DisplayName("Deve reenviar apenas as entradas que falharam com erro temporário")
+    void shouldRetryOnlyFailedEntries() {
+        when(sqsClient.sendMessageBatch(any(SendMessageBatchRequest.class)))
+                .thenReturn(SendMessageBatchResponse.builder()
+                        .successful(SendMessageBatchResultEntry.builder().id("0").messageId("m0").build())
+                        .failed(BatchResultErrorEntry.builder().id("1").senderFault(false).code("ServiceUnavailable").build(),
+                                BatchResultErrorEntry.builder().id("2").senderFault(true).code("InvalidMessageContents").build())
+                        .build())
+                .thenAnswer(invocation -> succeedAll(invocation.getArgument(0)));
+
+        SqsBatchPublisher publisher = new SqsBatchPublisher(sqsClient, encoder(), QUEUE_URL, properties,
+                PublishedTransactionsListener.NONE, ProducerMetrics.noop(), TraceContext.NONE);
+        publisher.publish(event("tx_0"));
+        publisher.publish(event("tx_1"));
+        publisher.publish(event("tx_2"));
+        publisher.flush();
+
+        ArgumentCaptor<SendMessageBatchRequest> captor = ArgumentCaptor.forClass(SendMessageBatchRequest.class);
+        verify(sqsClient, times(2)).sendMessageBatch(captor.capture());
+        SendMessageBatchRequest retry = captor.getAllValues().get(1);
+        assertEquals(1, retry.entries().size());
+        assertTrue(retry.entries().get(0).messageBody().contains("tx_1"));
+
+        PublishStats stats = publisher.getStats();
+        assertEquals(2, stats.getPublishedMessages());
+        assertEquals(1, stats.getFailedMessages());
+        assertEquals(1, stats.getRetriedMessages());
+    }
+
+    @Test
+    @DisplayName("Deve registrar a latência de cada chamada SendMessageBatch por resultado")
+    void shouldRecordPublishLatencyByResult() {
+        when(sqsClient.sendMessageBatch(any(SendMessageBatchRequest.class)))
+                .thenThrow(SdkClientException.create("timeout"))
+                .thenAnswer(invocation -> succeedAll(invocation.getArgument(0)));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        SqsBatchPublisher publisher = new SqsBatchPublisher(sqsClient, encoder(), QUEUE_URL, properties,
+                PublishedTransactionsListener.NONE, new ProducerMetrics(registry), TraceContext.NONE);
+        publisher.publish(event("tx_0"));
+        publisher.flush();
+
+        assertEquals(1, registry.get("producer.sqs.publish").tag("result", "error").timer().count());
+        assertEquals(1, registry.get("producer.sqs.publish").tag("result", "success").timer().count());
+        assertEquals(0.0, registry.get("producer.sqs.in.flight.batches").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Não deve registrar a primeira mensagem quando todas as entradas do lote falharem")
+    void shouldRecordFirstMessageOnlyAfterSuccessfulEntry() {
+        when(sqsClient.sendMessageBatch(any(SendMessageBatchRequest.class)))
+                .thenReturn(SendMessageBatchResponse.builder()
+                        .failed(BatchResultErrorEntry.builder().id("0").senderFault(true).code("InvalidMessageContents").build())
+                        .build())
+                .thenAnswer(invocation -> succeedAll(invocation.getArgument(0)));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        SqsBatchPublisher publisher = new SqsBatchPublisher(sqsClient, encoder(), QUEUE_URL, properties,
+                PublishedTransactionsListener.NONE, new ProducerMetrics(registry), TraceContext.NONE);
+        publisher.publish(event("tx_0"));
+        publisher.flush();
+
+        assertEquals(1, registry.get("producer.sqs.publish").tag("result", "success").timer().count());
+        assertNull(registry.find("producer.startup.first.message").timeGauge());
+
+        publisher.publish(event("tx_1"));
+        publisher.flush();
+
+        assertNotNull(registry.find("producer.startup.first.message").timeGauge());
+    }
+
+    @Test
+    @DisplayName("Deve propagar o traceparent e os instantes das etapas nos atributos das mensagens")
+    void shouldPropagateTraceAttributes() {
+        when(sqsClient.sendMessageBatch(any(SendMessageBatchRequest.class))).thenAnswer(invocation -> succeedAll(invocation.getArgument(0)));
+        TraceContext traceContext = TraceContext.startFile(Instant.parse("2024-01-15T10:00:00Z"));
+
+        SqsBatchPublisher publisher = new SqsBatchPublisher(sqsClient, encoder(), QUEUE_URL, properties,
+                PublishedTransactionsListener.NONE, ProducerMetrics.noop(), traceContext);
+        publisher.publish(event("tx_0"));
+        publisher.publish(event("tx_1"));
+        publisher.flush();
+
+        ArgumentCaptor<SendMessageBatchRequest> captor = ArgumentCaptor.forClass(SendMessageBatchRequest.class);
+        verify(sqsClient).sendMessageBatch(captor.capture());
+        List<SendMessageBatchRequestEntry> entries = captor.getValue().entries();
+        Map<String, MessageAttributeValue> attributes = entries.get(0).messageAttributes();
+        String traceparent = attributes.get(TraceContext.TRACEPARENT_ATTRIBUTE).stringValue();
+        assertTrue(traceparent.matches("00-" + traceContext.traceId() + "-[0-9a-f]{16}-01"));
+        assertNotEquals(traceparent, entries.get(1).messageAttributes().get(TraceContext.TRACEPARENT_ATTRIBUTE).stringValue());
+        assertEquals("1705312800000", attributes.get(TraceContext.FILE_INGESTED_AT_ATTRIBUTE).stringValue());
+        assertEquals("Number", attributes.get(TraceContext.PUBLISHED_AT_ATTRIBUTE).dataType());
+        assertTrue(attributes.containsKey(TraceContext.ROW_PARSED_AT_ATTRIBUTE));
+        assertTrue(attributes.values().stream().mapToInt(value -> value.dataType().length() + value.stringValue().length()).sum()
+                + attributes.keySet().stream().mapToInt(String::length).sum() <= TraceContext.MAX_ATTRIBUTES_BYTES);
+    }
+
+    @Test
+    @DisplayName("Deve agrupar vários eventos em cada mensagem como um array JSON")
+    void shouldPackSeveralEventsPerMessage() throws Exception {
+        when(sqsClient.sendMessageBatch(any(SendMessageBatchRequest.class))).thenAnswer(invocation -> succeedAll(invocation.getArgument(0)));
+        properties.setEventsPerMessage(10);
+        List<String> published = new ArrayList<>();
+
+        SqsBatchPublisher publisher = new SqsBatchPublisher(sqsClient, encoder(), QUEUE_URL, properties,
+                published::addAll, ProducerMetrics.noop(), TraceContext.NONE);
+        for (int i = 0; i < 25; i++) {
+            publisher.publish(event("tx_" + i));
+        }
+        publisher.flush();
+
+        ArgumentCaptor<SendMessageBatchRequest> captor = ArgumentCaptor.forClass(SendMessageBatchRequest.class);
+        verify(sqsClient).sendMessageBatch(captor.capture());
+        List<SendMessageBatchRequestEntry> entries = captor.getValue().entries();
+        assertEquals(3, entries.size());
+        JsonNode first = objectMapper.readTree(entries.get(0).messageBody());
+        assertTrue(first.isArray());
+        assertEquals(10, first.size());
+        assertEquals("tx_0", first.get(0).get("transactionId").asText());
+        assertEquals(5, objectMapper.readTree(entries.get(2).messageBody()).size());
+
+        PublishStats stats = publisher.getStats();
+        assertEquals(25, stats.getPublishedMessages());
+        assertEquals(3, stats.getBatchedEntries());
+        assertEquals(25, published.size());
+    }
+
+    @Test
+    @DisplayName("Deve codificar as mensagens em Smile com o atributo contentEncoding")
+    void shouldEncodeMessagesAsSmile() throws Exception {
+        when(sqsClient.sendMessageBatch(any(SendMessageBatchRequest.class))).thenAnswer(invocation -> succeedAll(invocation.getArgument(0)));
+        properties.setEncoding(SqsPublisherProperties.Encoding.SMILE);
+        properties.setEventsPerMessage(10);
+
+        SqsBatchPublisher publisher = new SqsBatchPublisher(sqsClient, encoder(), QUEUE_URL, properties,
+                PublishedTransactionsListener.NONE, ProducerMetrics.noop(), TraceContext.NONE);
+        List<SqsTransactionEvent> events = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            events.add(event("tx_" + i));
+            publisher.publish(events.get(i));
+        }
+        publisher.flush();
+
+        ArgumentCaptor<SendMessageBatchRequest> captor = ArgumentCaptor.forClass(SendMessageBatchRequest.class);
+        verify(sqsClient).sendMessageBatch(captor.capture());
+        SendMessageBatchRequestEntry entry = captor.getValue().entries().get(0);
+        assertEquals(TransactionEventEncoder.SMILE_CONTENT_ENCODING,
+                entry.messageAttributes().get(TransactionEventEncoder.CONTENT_ENCODING_ATTRIBUTE).stringValue());
+
+        JsonNode decoded = new ObjectMapper(new SmileFactory()).readTree(Base64.getDecoder().decode(entry.messageBody()));
+        assertEquals(10, decoded.size());
+        assertEquals("tx_9", decoded.get(9).get("transactionId").asText());
+        assertEquals("mobile", decoded.get(9).get("transactionMetadata").get("channel").asText());
+        assertTrue(entry.messageBody().length() < objectMapper.writeValueAsString(events).length(),
+                "O corpo Smile em Base64 deveria ser menor que o array JSON equivalente");
+    }
+
+    private TransactionEventEncoder encoder() {
+        return TransactionEventEncoder.create(objectMapper, properties.getEncoding());
+    }
+
+    private static SendMessageBatchResponse succeedAll(SendMessageBatchRequest request) {
+        return SendMessageBatchResponse.builder()
+                .successful(request.entries().stream()
+                        .map(SendMessageBatchRequestEntry::id)
+                        .map(id -> SendMessageBatchResultEntry.builder().id(id).messageId("m" + id).build())
+                        .toList())
+                .build();
+    }
+
+    private static SqsTransactionEvent event(String transactionId) {
+        return SqsTransactionEvent.builder()
+                .transactionId(transactionId)
+                .transactionType("PIX")
+                .transactionAmount(new BigDecimal("150.50"))
+                .transactionTimestamp(Instant.parse("2024-01-15T10:30:00Z"))
+                .customerIdentifier("cust_123")
+                .transactionMetadata(Map.of("channel", "mobile"))
+                .processingTimestamp(Instant.now())
+                .transactionCategory("CREDIT")
+                .sourceFileId("file_1")
+                .build();
+    }
+}
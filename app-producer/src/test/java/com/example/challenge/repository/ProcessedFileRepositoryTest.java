@@ -0,0 +1,134 @@
+package com.example.challenge.repository;
+
+import com.example.challenge.config.ProcessedFileCacheProperties;
+import com.example.challenge.model.ProcessedFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchGetResultPageIterable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ProcessedFileRepositoryTest {
+
+    private static final String TABLE_NAME = "processed-files";
+
+    @Mock
+    private DynamoDbEnhancedClient enhancedClient;
+
+    @Mock
+    private DynamoDbTable<ProcessedFile> table;
+
+    private ProcessedFileRepository repository;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(enhancedClient.table(anyString(), any(TableSchema.class))).thenReturn(table);
+        when(table.tableName()).thenReturn(TABLE_NAME);
+        when(table.tableSchema()).thenReturn(TableSchema.fromBean(ProcessedFile.class));
+        repository = new ProcessedFileRepository(enhancedClient, TABLE_NAME, new ProcessedFileCacheProperties());
+    }
+
+    @Test
+    @DisplayName("Deve consultar o DynamoDB apenas na primeira verificação de um mesmo arquivo")
+    void shouldCacheExistsByIdLookups() {
+        when(table.getItem(any(Key.class))).thenReturn(processed("file-1"));
+
+        assertTrue(repository.existsById("file-1"));
+        assertTrue(repository.existsById("file-1"));
+
+        verify(table, times(1)).getItem(any(Key.class));
+        assertEquals(1, repository.getCacheStats().hitCount());
+        assertEquals(1, repository.getCacheStats().missCount());
+    }
+
+    @Test
+    @DisplayName("Deve atualizar o cache ao salvar, sem nova consulta ao DynamoDB")
+    void shouldWriteThroughOnSave() {
+        when(table.getItem(any(Key.class))).thenReturn(null);
+        assertFalse(repository.existsById("file-1"));
+
+        repository.save(processed("file-1"));
+
+        assertTrue(repository.existsById("file-1"));
+        verify(table).putItem(any(ProcessedFile.class));
+        verify(table, times(1)).getItem(any(Key.class));
+    }
+
+    @Test
+    @DisplayName("Deve resolver a listagem com BatchGetItem em lotes de até 100 chaves e reaproveitar o cache")
+    @SuppressWarnings("unchecked")
+    void shouldResolveListingWithBatchGet() {
+        List<String> fileIds = IntStream.range(0, 150).mapToObj(i -> "file-" + i).toList();
+        List<Integer> requestedBatches = new ArrayList<>();
+        when(enhancedClient.batchGetItem(any(Consumer.class))).thenAnswer(invocation -> {
+            requestedBatches.add(requestedBatches.size());
+            BatchGetResultPageIterable results = mock(BatchGetResultPageIterable.class);
+            // Apenas os IDs pares existem na tabela; o lote é identificado pela ordem da chamada
+            int offset = (requestedBatches.size() - 1) * ProcessedFileRepository.MAX_BATCH_GET_KEYS;
+            List<ProcessedFile> found = fileIds.subList(offset, Math.min(offset + ProcessedFileRepository.MAX_BATCH_GET_KEYS, fileIds.size()))
+                    .stream()
+                    .filter(id -> Integer.parseInt(id.substring("file-".length())) % 2 == 0)
+                    .map(ProcessedFileRepositoryTest::processed)
+                    .toList();
+            when(results.resultsForTable(table)).thenReturn(found::iterator);
+            return results;
+        });
+
+        Set<String> processed = repository.findProcessedIds(fileIds);
+
+        assertEquals(75, processed.size());
+        assertTrue(processed.contains("file-0"));
+        assertFalse(processed.contains("file-1"));
+        assertEquals(2, requestedBatches.size());
+
+        assertEquals(processed, repository.findProcessedIds(fileIds));
+        assertFalse(repository.existsById("file-149"));
+        verify(enhancedClient, times(2)).batchGetItem(any(Consumer.class));
+        verify(table, never()).getItem(any(Key.class));
+    }
+
+    @Test
+    @DisplayName("Deve considerar não processado um arquivo com checkpoint de processamento interrompido")
+    void shouldTreatInProgressFileAsNotProcessed() {
+        ProcessedFile inProgress = ProcessedFile.builder().fileId("file-1").status(ProcessedFile.STATUS_IN_PROGRESS).checkpointRow(500L).build();
+        when(table.getItem(any(Key.class))).thenReturn(inProgress);
+
+        assertFalse(repository.existsById("file-1"));
+        assertEquals(500L, repository.findCheckpoint("file-1").orElseThrow().getCheckpointRow());
+
+        repository.save(processed("file-1"));
+        assertTrue(repository.existsById("file-1"));
+    }
+
+    private static ProcessedFile processed(String fileId) {
+        return ProcessedFile.builder().fileId(fileId).status("SUCCESS").build();
+    }
+}
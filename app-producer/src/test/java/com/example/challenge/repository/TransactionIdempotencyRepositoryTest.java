@@ -0,0 +1,162 @@
+package com.example.challenge.repository;
+
+import com.example.challenge.config.TransactionIdempotencyProperties;
+import com.example.challenge.model.TransactionIdempotencyRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteResult;
+import software.amazon.awssdk.enhanced.dynamodb.model.PageIterable;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class TransactionIdempotencyRepositoryTest {
+
+    @Mock
+    private DynamoDbEnhancedClient enhancedClient;
+
+    @Mock
+    private DynamoDbTable<TransactionIdempotencyRecord> table;
+
+    @Mock
+    private DynamoDbEnhancedAsyncClient enhancedAsyncClient;
+
+    @Mock
+    private DynamoDbAsyncTable<TransactionIdempotencyRecord> asyncTable;
+
+    private TransactionIdempotencyProperties properties;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        properties = new TransactionIdempotencyProperties();
+        when(enhancedClient.table(anyString(), any(TableSchema.class))).thenReturn(table);
+        when(table.tableName()).thenReturn(properties.getTableName());
+        when(table.tableSchema()).thenReturn(TableSchema.fromBean(TransactionIdempotencyRecord.class));
+        when(enhancedAsyncClient.table(anyString(), any(TableSchema.class))).thenReturn(asyncTable);
+        when(asyncTable.tableName()).thenReturn(properties.getTableName());
+        when(asyncTable.tableSchema()).thenReturn(TableSchema.fromBean(TransactionIdempotencyRecord.class));
+    }
+
+    @Test
+    @DisplayName("Não deve acessar o DynamoDB por transação em um arquivo nunca processado")
+    void shouldNotLookUpTransactionsOfNewFile() {
+        stubQuery();
+        TransactionIdempotencyIndex index = repository().loadIndex("file-1");
+
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(index.isPublished("tx-" + i));
+        }
+
+        verify(table, times(1)).query(any(Consumer.class));
+        verify(table, never()).getItem(any(Consumer.class));
+    }
+
+    @Test
+    @DisplayName("Deve reconhecer as transações já publicadas de um arquivo reprocessado sem consultas por transação")
+    @SuppressWarnings("unchecked")
+    void shouldRecognizePublishedTransactions() {
+        stubQuery(record("file-1", "tx-1"), record("file-1", "tx-2"));
+        TransactionIdempotencyIndex index = repository().loadIndex("file-1");
+
+        assertTrue(index.isPublished("tx-1"));
+        assertTrue(index.isPublished("tx-2"));
+        assertFalse(index.isPublished("tx-3"));
+
+        verify(table, times(1)).query(any(Consumer.class));
+        verify(table, never()).getItem(any(Consumer.class));
+    }
+
+    @Test
+    @DisplayName("Deve registrar as transações publicadas com BatchWriteItem assíncrono e aguardar as gravações")
+    @SuppressWarnings("unchecked")
+    void shouldRecordPublishedTransactions() {
+        stubQuery();
+        BatchWriteResult result = mock(BatchWriteResult.class);
+        when(result.unprocessedPutItemsForTable(asyncTable)).thenReturn(List.of());
+        CompletableFuture<BatchWriteResult> write = new CompletableFuture<>();
+        when(enhancedAsyncClient.batchWriteItem(any(Consumer.class))).thenReturn(write);
+        TransactionIdempotencyIndex index = repository().loadIndex("file-1");
+
+        index.recordPublished(List.of("tx-1", "tx-2"));
+
+        verify(enhancedAsyncClient, times(1)).batchWriteItem(any(Consumer.class));
+        verify(enhancedClient, never()).batchWriteItem(any(Consumer.class));
+
+        CompletableFuture<Void> awaited = CompletableFuture.runAsync(index::awaitRecorded);
+        assertFalse(awaited.isDone());
+        write.complete(result);
+        awaited.join();
+    }
+
+    @Test
+    @DisplayName("Não deve propagar a falha de gravação no índice para a thread de conclusão dos envios SQS")
+    @SuppressWarnings("unchecked")
+    void shouldNotPropagateRecordFailures() {
+        stubQuery();
+        when(enhancedAsyncClient.batchWriteItem(any(Consumer.class))).thenReturn(CompletableFuture.failedFuture(
+                ProvisionedThroughputExceededException.builder().message("throttled").build()));
+        TransactionIdempotencyIndex index = repository().loadIndex("file-1");
+
+        index.recordPublished(List.of("tx-1"));
+        index.awaitRecorded();
+
+        verify(enhancedAsyncClient, times(1)).batchWriteItem(any(Consumer.class));
+    }
+
+    @Test
+    @DisplayName("Não deve consultar nem gravar na tabela quando o índice estiver desativado")
+    void shouldSkipTableWhenDisabled() {
+        properties.setEnabled(false);
+        TransactionIdempotencyIndex index = repository().loadIndex("file-1");
+
+        index.recordPublished(List.of("tx-1"));
+
+        assertFalse(index.isPublished("tx-1"));
+        verify(table, never()).query(any(Consumer.class));
+        verify(enhancedAsyncClient, never()).batchWriteItem(any(Consumer.class));
+    }
+
+    private TransactionIdempotencyRepository repository() {
+        return new TransactionIdempotencyRepository(enhancedClient, enhancedAsyncClient, properties);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubQuery(TransactionIdempotencyRecord... records) {
+        PageIterable<TransactionIdempotencyRecord> pages = mock(PageIterable.class);
+        when(pages.items()).thenReturn(() -> List.of(records).iterator());
+        when(table.query(any(Consumer.class))).thenReturn(pages);
+    }
+
+    private static TransactionIdempotencyRecord record(String sourceFileId, String transactionId) {
+        return TransactionIdempotencyRecord.builder()
+                .sourceFileId(sourceFileId)
+                .idempotencyKey(TransactionIdempotencyRecord.PUBLISHED_PREFIX + transactionId)
+                .build();
+    }
+}
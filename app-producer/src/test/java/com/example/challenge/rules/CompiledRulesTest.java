@@ -0,0 +1,68 @@
+package com.example.challenge.rules;
+
+import com.example.challenge.model.Transaction;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompiledRulesTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Deve manter as regras originais sem conjunto carregado: campos obrigatórios e valores não negativos")
+    void shouldApplyDefaultRules() {
+        CompiledRules rules = CompiledRules.defaults();
+
+        assertNull(rules.validate(transaction("PIX", "10.00", Map.of())));
+        assertNotNull(rules.validate(transaction("PIX", "-1.00", Map.of())));
+        assertNotNull(rules.validate(transaction(null, "10.00", Map.of())));
+        assertEquals("CREDIT", rules.categorize(transaction("PIX", "10.00", Map.of())));
+    }
+
+    @Test
+    @DisplayName("Deve aplicar tipos permitidos, faixas de valor, categorias e metadados obrigatórios por tipo")
+    void shouldApplyCompiledRuleSet() throws Exception {
+        CompiledRules rules = CompiledRules.compile(objectMapper.readValue("""
+                {
+                  "enableBetaFeatures": true,
+                  "allowedTransactionTypes": ["PIX", "TED"],
+                  "amountRanges": { "*": { "min": 1 }, "PIX": { "max": 5000 } },
+                  "categories": { "*": "TRANSFER", "TED": "WIRE" },
+                  "requiredMetadata": { "PIX": ["pix_key"] },
+                  "unknownField": 1
+                }
+                """, ProcessingRulesDefinition.class), 7);
+
+        assertEquals(7, rules.getVersion());
+        assertTrue(rules.isEnableBetaFeatures());
+        assertNull(rules.validate(transaction("PIX", "100", Map.of("pix_key", "abc"))));
+        assertTrue(rules.validate(transaction("DOC", "100", Map.of())).contains("não permitido"));
+        assertTrue(rules.validate(transaction("PIX", "5000.01", Map.of("pix_key", "abc"))).contains("máximo"));
+        assertTrue(rules.validate(transaction("TED", "0.50", Map.of())).contains("mínimo"));
+        assertTrue(rules.validate(transaction("PIX", "100", Map.of())).contains("pix_key"));
+        assertNull(rules.validate(transaction("TED", "99999", Map.of())));
+        assertEquals("TRANSFER", rules.categorize(transaction("PIX", "100", Map.of())));
+        assertEquals("WIRE", rules.categorize(transaction("TED", "100", Map.of())));
+    }
+
+    private static Transaction transaction(String type, String amount, Map<String, String> metadata) {
+        return Transaction.builder()
+                .transactionId("tx-1")
+                .transactionType(type)
+                .amount(new BigDecimal(amount))
+                .timestamp(Instant.parse("2024-01-15T10:00:00Z"))
+                .customerId("customer-1")
+                .metadata(metadata)
+                .build();
+    }
+}
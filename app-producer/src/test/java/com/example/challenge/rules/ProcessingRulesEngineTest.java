@@ -0,0 +1,69 @@
+package com.example.challenge.rules;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.ssm.SsmClient;
+import software.amazon.awssdk.services.ssm.model.GetParameterRequest;
+import software.amazon.awssdk.services.ssm.model.GetParameterResponse;
+import software.amazon.awssdk.services.ssm.model.Parameter;
+import software.amazon.awssdk.services.ssm.model.SsmException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProcessingRulesEngineTest {
+
+    private static final String PARAMETER_NAME = "/test/processing-rules";
+
+    @Mock
+    private SsmClient ssmClient;
+
+    @Test
+    @DisplayName("Deve recompilar as regras apenas quando a versão do parâmetro muda")
+    void shouldRecompileOnlyOnNewVersion() {
+        when(ssmClient.getParameter(any(GetParameterRequest.class))).thenReturn(
+                response(1, "{\"enableBetaFeatures\": false}"),
+                response(1, "{\"enableBetaFeatures\": false}"),
+                response(2, "{\"enableBetaFeatures\": true}"));
+
+        ProcessingRulesEngine engine = new ProcessingRulesEngine(ssmClient, new ObjectMapper(), PARAMETER_NAME);
+        CompiledRules first = engine.current();
+        engine.refresh();
+        assertSame(first, engine.current());
+
+        engine.refresh();
+        assertEquals(2, engine.current().getVersion());
+        assertTrue(engine.current().isEnableBetaFeatures());
+    }
+
+    @Test
+    @DisplayName("Deve manter as regras em uso quando a recarga falhar")
+    void shouldKeepCurrentRulesOnFailure() {
+        when(ssmClient.getParameter(any(GetParameterRequest.class)))
+                .thenReturn(response(3, "{\"allowedTransactionTypes\": [\"PIX\"]}"))
+                .thenReturn(response(4, "{ json inválido"))
+                .thenThrow(SsmException.builder().message("indisponível").build());
+
+        ProcessingRulesEngine engine = new ProcessingRulesEngine(ssmClient, new ObjectMapper(), PARAMETER_NAME);
+        engine.refresh();
+        engine.refresh();
+
+        assertEquals(3, engine.current().getVersion());
+        assertFalse(engine.current().isEnableBetaFeatures());
+    }
+
+    private static GetParameterResponse response(long version, String value) {
+        return GetParameterResponse.builder()
+                .parameter(Parameter.builder().name(PARAMETER_NAME).version(version).value(value).build())
+                .build();
+    }
+}
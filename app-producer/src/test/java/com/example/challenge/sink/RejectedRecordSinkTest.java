@@ -0,0 +1,224 @@
+package com.example.challenge.sink;
+
+import com.example.challenge.config.RejectedRecordSinkProperties;
+import com.example.challenge.metrics.ProducerMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RejectedRecordSinkTest {
+
+    private static final String BUCKET = "rejected-bucket";
+
+    @Mock
+    private S3Client s3Client;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private RejectedRecordSinkProperties properties;
+
+    /** Conteúdo enviado por chave, lido no momento da chamada (o buffer do sink é reaproveitado em seguida). */
+    private final Map<String, ByteArrayOutputStream> uploads = new LinkedHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        properties = new RejectedRecordSinkProperties();
+    }
+
+    @Test
+    @DisplayName("Deve agregar registros em partes gzip limitadas por tamanho e gravar o manifesto com contagem por motivo")
+    void shouldRollGzipPartsAndWriteManifest() throws IOException {
+        properties.setMaxPartSize(DataSize.ofBytes(2048));
+        when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class))).thenAnswer(invocation -> {
+            capture(invocation.<PutObjectRequest>getArgument(0).key(), invocation.getArgument(1));
+            return PutObjectResponse.builder().build();
+        });
+
+        RejectedRecordManifest manifest;
+        try (RejectedRecordSink sink = new RejectedRecordSink(s3Client, objectMapper, BUCKET, "file-1", "transactions.csv", properties, ProducerMetrics.noop(), null)) {
+            for (CSVRecord csvRecord : records(100)) {
+                sink.write(csvRecord, csvRecord.getRecordNumber() % 4 == 0 ? "Amount Format Error" : "Validation Failed");
+            }
+            manifest = sink.finish();
+        }
+
+        assertEquals(100, manifest.getTotalRecords());
+        assertEquals(0, manifest.getFailedRecords());
+        assertEquals(Map.of("Amount Format Error", 25L, "Validation Failed", 75L), manifest.getCountsByReason());
+        assertTrue(manifest.getParts().size() > 1);
+        assertNotNull(manifest.getManifestKey());
+        assertTrue(uploads.containsKey(manifest.getManifestKey()));
+
+        List<String> lines = new ArrayList<>();
+        for (RejectedRecordManifest.Part part : manifest.getParts()) {
+            assertTrue(part.getKey().startsWith("rejected/file-1/transactions_"));
+            assertTrue(part.getKey().endsWith(".ndjson.gz"));
+            String content = gunzip(uploads.get(part.getKey()).toByteArray());
+            List<String> partLines = Arrays.asList(content.split("\n"));
+            assertEquals(part.getRecords(), partLines.size());
+            lines.addAll(partLines);
+        }
+        assertEquals(100, lines.size());
+        Map<?, ?> first = objectMapper.readValue(lines.get(0), Map.class);
+        assertEquals("tx_1", first.get("transaction_id"));
+        assertEquals("Validation Failed", first.get("_rejectionReason"));
+        assertEquals("file-1", first.get("_sourceFileId"));
+        assertEquals("transactions.csv", first.get("_originalFileName"));
+    }
+
+    @Test
+    @DisplayName("Deve enviar partes grandes via multipart upload em blocos")
+    void shouldUploadLargePartsWithMultipart() throws IOException {
+        properties.setGzip(false);
+        properties.setMultipartChunkSize(DataSize.ofBytes(1024));
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class))).thenAnswer(invocation -> {
+            UploadPartRequest request = invocation.getArgument(0);
+            capture(request.key(), invocation.getArgument(1));
+            return UploadPartResponse.builder().eTag("etag-" + request.partNumber()).build();
+        });
+
+        RejectedRecordSink sink = new RejectedRecordSink(s3Client, objectMapper, BUCKET, "file-2", "big.csv", properties, ProducerMetrics.noop(), null);
+        for (CSVRecord csvRecord : records(50)) {
+            sink.write(csvRecord, "Validation Failed");
+        }
+        RejectedRecordManifest manifest = sink.finish();
+
+        assertEquals(1, manifest.getParts().size());
+        RejectedRecordManifest.Part part = manifest.getParts().get(0);
+        assertTrue(part.isMultipart());
+        assertEquals(50, part.getRecords());
+        String content = uploads.get(part.getKey()).toString(StandardCharsets.UTF_8);
+        assertEquals(50, content.split("\n").length);
+        assertEquals(content.length(), part.getBytes());
+        verify(s3Client).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+
+    @Test
+    @DisplayName("Deve abortar o multipart upload e contabilizar os registros da parte com falha")
+    void shouldAbortMultipartUploadOnFailure() throws IOException {
+        properties.setGzip(false);
+        properties.setMultipartChunkSize(DataSize.ofBytes(512));
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-2").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenThrow(SdkClientException.create("S3 indisponível"));
+
+        RejectedRecordSink sink = new RejectedRecordSink(s3Client, objectMapper, BUCKET, "file-3", "bad.csv", properties, ProducerMetrics.noop(), null);
+        for (CSVRecord csvRecord : records(20)) {
+            sink.write(csvRecord, "Validation Failed");
+        }
+        RejectedRecordManifest manifest = sink.finish();
+
+        assertEquals(20, manifest.getTotalRecords());
+        assertEquals(20, manifest.getFailedRecords());
+        assertTrue(manifest.getParts().isEmpty());
+        verify(s3Client, atLeastOnce()).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(s3Client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+
+    @Test
+    @DisplayName("Deve continuar no mesmo prefixo e manter no manifesto as partes concluídas antes do checkpoint")
+    void shouldResumeFromCheckpoint() throws IOException {
+        properties.setGzip(false);
+        when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class))).thenAnswer(invocation -> {
+            capture(invocation.<PutObjectRequest>getArgument(0).key(), invocation.getArgument(1));
+            return PutObjectResponse.builder().build();
+        });
+        List<CSVRecord> records = records(15);
+
+        RejectedRecordSink interrupted = new RejectedRecordSink(s3Client, objectMapper, BUCKET, "file-4", "resume.csv",
+                properties, ProducerMetrics.noop(), null);
+        for (CSVRecord csvRecord : records.subList(0, 10)) {
+            interrupted.write(csvRecord, "Validation Failed");
+        }
+        String saved = objectMapper.writeValueAsString(interrupted.checkpoint());
+        assertEquals(1, uploads.size());
+
+        RejectedRecordCheckpoint state = objectMapper.readValue(saved, RejectedRecordCheckpoint.class);
+        RejectedRecordSink resumed = new RejectedRecordSink(s3Client, objectMapper, BUCKET, "file-4", "resume.csv",
+                properties, ProducerMetrics.noop(), state);
+        for (CSVRecord csvRecord : records.subList(10, 15)) {
+            resumed.write(csvRecord, "Amount Format Error");
+        }
+        RejectedRecordManifest manifest = resumed.finish();
+
+        assertEquals(15, manifest.getTotalRecords());
+        assertEquals(Map.of("Amount Format Error", 5L, "Validation Failed", 10L), manifest.getCountsByReason());
+        assertEquals(2, manifest.getParts().size());
+        assertEquals(state.getKeyPrefix() + "part-00000.ndjson", manifest.getParts().get(0).getKey());
+        assertEquals(state.getKeyPrefix() + "part-00001.ndjson", manifest.getParts().get(1).getKey());
+        assertEquals(state.getKeyPrefix() + "manifest.json", manifest.getManifestKey());
+        assertEquals(10, uploads.get(manifest.getParts().get(0).getKey()).toString(StandardCharsets.UTF_8).split("\n").length);
+        assertEquals(5, uploads.get(manifest.getParts().get(1).getKey()).toString(StandardCharsets.UTF_8).split("\n").length);
+    }
+
+    private void capture(String key, RequestBody body) {
+        try (InputStream content = body.contentStreamProvider().newStream()) {
+            content.transferTo(uploads.computeIfAbsent(key, k -> new ByteArrayOutputStream()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<CSVRecord> records(int count) throws IOException {
+        StringBuilder csv = new StringBuilder("transaction_id,transaction_type,amount,timestamp,customer_id,metadata\n");
+        for (int i = 1; i <= count; i++) {
+            csv.append("tx_").append(i).append(",PIX,-10.00,2024-01-15T10:30:00Z,cust_").append(i).append(",{}\n");
+        }
+        try (CSVParser parser = new CSVParser(new StringReader(csv.toString()),
+                CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build())) {
+            return parser.getRecords();
+        }
+    }
+
+    private static String gunzip(byte[] content) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -223,6 +223,33 @@ resource "aws_sqs_queue" "transaction_events" {
   }
 }
 
+# --- DynamoDB: índice de idempotência por transação (compartilhado entre app-producer e app-consumer) ---
+resource "aws_dynamodb_table" "transaction_idempotency" {
+  name         = "${var.project_name}-transaction-idempotency-dev"
+  billing_mode = "PAY_PER_REQUEST"
+  hash_key     = "sourceFileId"
+  range_key    = "idempotencyKey" # PUBLISHED#<transactionId> (producer) ou PROCESSED#<transactionId> (consumer)
+
+  attribute {
+    name = "sourceFileId"
+    type = "S"
+  }
+
+  attribute {
+    name = "idempotencyKey"
+    type = "S"
+  }
+
+  ttl {
+    attribute_name = "expiresAt"
+    enabled        = true
+  }
+
+  tags = {
+    Name = "${var.project_name}-transaction-idempotency"
+  }
+}
+
 # --- CloudWatch Log Groups (poupanca - CSV Ingestion 2.pdf, Requisito Não Funcional 4) ---
 resource "aws_cloudwatch_log_group" "app_producer_logs" {
   name              = "/ecs/${var.project_name}-app-producer"
@@ -325,6 +352,7 @@ resource "aws_iam_policy" "app_producer_policy" {
         Effect = "Allow",
         Action = [
           "s3:PutObject",
+          "s3:AbortMultipartUpload", # Partes NDJSON de registros rejeitados enviadas via multipart upload
           "s3:DeleteObject" # Se o producer move o arquivo do input para unprocessed ou o apaga após processar
         ],
         Resource = [
@@ -349,6 +377,18 @@ resource "aws_iam_policy" "app_producer_policy" {
         Effect   = "Allow",
         Action   = ["ssm:GetParameter"],
         Resource = "arn:aws:ssm:${var.aws_region}:${data.aws_caller_identity.current.account_id}:parameter/${var.project_name}/*"
+      },
+      # Índice de idempotência por transação (carga por arquivo, confirmação e registro em lote)
+      {
+        Effect   = "Allow",
+        Action   = ["dynamodb:Query", "dynamodb:GetItem", "dynamodb:BatchWriteItem"],
+        Resource = aws_dynamodb_table.transaction_idempotency.arn
+      },
+      # Token de página da Changes API do Google Drive (listagem incremental)
+      {
+        Effect   = "Allow",
+        Action   = ["ssm:PutParameter"],
+        Resource = "arn:aws:ssm:${var.aws_region}:${data.aws_caller_identity.current.account_id}:parameter/${var.project_name}/google-drive/*"
       }
     ]
   })
@@ -426,6 +466,12 @@ resource "aws_iam_policy" "app_consumer_policy" {
           "${aws_s3_bucket.unprocessed.arn}/*"
         ]
       },
+      # Índice de idempotência por transação (carga por arquivo, confirmação e escrita condicional)
+      {
+        Effect   = "Allow",
+        Action   = ["dynamodb:Query", "dynamodb:GetItem", "dynamodb:PutItem"],
+        Resource = aws_dynamodb_table.transaction_idempotency.arn
+      },
       # SSM Parameter Store (if needed for other configs)
       {
         Effect   = "Allow",
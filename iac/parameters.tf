@@ -8,9 +8,13 @@ resource "aws_ssm_parameter" "processing_rules" {
   # Exemplo: /transaction-challenge/config/processing-rules ou /my-app/processing-rules
   name        = "/${var.project_name}/config/processing-rules"
   type        = "String"
+  # Formato do conjunto de regras: ver ProcessingRulesDefinition (app-producer). Recarregado a cada nova versão.
   value       = jsonencode({
-    enableBetaFeatures = false,
-    minAmount          = 1.00,
+    enableBetaFeatures      = false,
+    allowedTransactionTypes = [],
+    amountRanges            = { "*" = { min = 1.00 } },
+    categories              = {},
+    requiredMetadata        = {},
   })
   description = "Regras de processamento para o serviço app-producer."
   tier        = "Standard"
@@ -0,0 +1,108 @@
+package com.example.challenge.loadtest;
+
+import com.example.challenge.appconsumer.listener.SqsMessageListener;
+import com.example.challenge.loadtest.fake.InMemorySqsQueue;
+import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Consumidores do app-consumer que recebem as mensagens da {@link InMemorySqsQueue} e as entregam ao {@link SqsMessageListener},
+ * com os atributos de mensagem e os cabeçalhos de tempo do SQS que o Spring Cloud AWS fornece ao listener.
+ * Uma mensagem cujo processamento falha volta à fila, até o número máximo de entregas; a partir daí é descartada, como na DLQ.
+ */
+final class ConsumerWorkers implements AutoCloseable {
+
+    private static final Duration POLL_WAIT = Duration.ofMillis(100);
+
+    private final InMemorySqsQueue queue;
+    private final SqsMessageListener listener;
+    private final int maxReceiveCount;
+    private final List<Thread> threads = new ArrayList<>();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong redelivered = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private volatile boolean running = true;
+
+    ConsumerWorkers(InMemorySqsQueue queue, SqsMessageListener listener, int maxReceiveCount) {
+        this.queue = queue;
+        this.listener = listener;
+        this.maxReceiveCount = maxReceiveCount;
+    }
+
+    void start(int consumers) {
+        for (int i = 0; i < consumers; i++) {
+            Thread thread = Thread.ofPlatform().name("sqs-consumer-", i).daemon().start(this::consume);
+            threads.add(thread);
+        }
+    }
+
+    private void consume() {
+        while (running) {
+            InMemorySqsQueue.QueuedMessage message;
+            try {
+                message = queue.poll(POLL_WAIT);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (message == null) {
+                continue;
+            }
+            try {
+                listener.processMessage(message.body(), headers(message)).join();
+                processed.incrementAndGet();
+            } catch (RuntimeException e) {
+                if (message.receiveCount() + 1 >= maxReceiveCount) {
+                    deadLettered.incrementAndGet();
+                } else {
+                    redelivered.incrementAndGet();
+                    queue.redeliver(message);
+                }
+            }
+        }
+    }
+
+    private static Map<String, Object> headers(InMemorySqsQueue.QueuedMessage message) {
+        Map<String, Object> headers = new HashMap<>(message.attributes().size() + 2);
+        for (Map.Entry<String, MessageAttributeValue> attribute : message.attributes().entrySet()) {
+            headers.put(attribute.getKey(), attribute.getValue().stringValue());
+        }
+        headers.put("Sqs_Msa_SentTimestamp", message.sentAtMillis());
+        headers.put("Sqs_ReceivedAt", Instant.now());
+        return headers;
+    }
+
+    /**
+     * @return O número de mensagens concluídas: processadas com sucesso ou descartadas após o máximo de entregas.
+     */
+    long completed() {
+        return processed.get() + deadLettered.get();
+    }
+
+    long processed() {
+        return processed.get();
+    }
+
+    long redelivered() {
+        return redelivered.get();
+    }
+
+    long deadLettered() {
+        return deadLettered.get();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+}
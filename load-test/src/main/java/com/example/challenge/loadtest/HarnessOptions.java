@@ -0,0 +1,118 @@
+package com.example.challenge.loadtest;
+
+import com.example.challenge.config.SqsPublisherProperties;
+import com.example.challenge.loadtest.fake.FaultProfile;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parâmetros de uma execução do teste de carga, lidos dos argumentos no formato {@code --nome=valor}.
+ * As durações aceitam o mesmo formato das propriedades Spring ({@code 5ms}, {@code 2m}, {@code PT1S}).
+ *
+ * @param files O número de arquivos CSV sintéticos na pasta do Google Drive ({@code --files}).
+ * @param rowsPerFile O número de linhas de cada arquivo ({@code --rows}).
+ * @param invalidPercent O percentual de linhas inválidas ({@code --invalid-percent}).
+ * @param consumers O número de consumidores SQS simultâneos ({@code --consumers}).
+ * @param publisherMode O modo de publicação SQS do app-producer ({@code --publisher-mode}).
+ * @param encoding O formato do corpo das mensagens SQS ({@code --encoding}: JSON ou SMILE).
+ * @param eventsPerMessage O número máximo de eventos agrupados em cada mensagem SQS ({@code --events-per-message}).
+ * @param parallelIngestion Ativa o parsing paralelo de cada arquivo ({@code --parallel-ingestion}).
+ * @param maxConcurrentFiles O número de arquivos processados ao mesmo tempo ({@code --max-concurrent-files}).
+ * @param maxReceiveCount O número de entregas de uma mensagem antes de ela ser descartada, como na DLQ ({@code --max-receive-count}).
+ * @param pollInterval O intervalo entre as verificações da pasta do Google Drive ({@code --poll-interval}).
+ * @param timeout O tempo máximo da execução ({@code --timeout}).
+ * @param drive A latência e a taxa de erro do Google Drive ({@code --drive-latency}, {@code --drive-error-rate}).
+ * @param sqs A latência do SendMessageBatch e a taxa de erro por mensagem ({@code --sqs-latency}, {@code --sqs-error-rate}).
+ * @param s3 A latência e a taxa de erro do S3 ({@code --s3-latency}, {@code --s3-error-rate}).
+ * @param dynamoDb A latência e a taxa de erro do DynamoDB ({@code --dynamodb-latency}, {@code --dynamodb-error-rate}).
+ */
+public record HarnessOptions(int files,
+                             int rowsPerFile,
+                             int invalidPercent,
+                             int consumers,
+                             SqsPublisherProperties.Mode publisherMode,
+                             SqsPublisherProperties.Encoding encoding,
+                             int eventsPerMessage,
+                             boolean parallelIngestion,
+                             int maxConcurrentFiles,
+                             int maxReceiveCount,
+                             Duration pollInterval,
+                             Duration timeout,
+                             FaultProfile drive,
+                             FaultProfile sqs,
+                             FaultProfile s3,
+                             FaultProfile dynamoDb) {
+
+    private static final Set<String> SERVICES = Set.of("drive", "sqs", "s3", "dynamodb");
+
+    public HarnessOptions {
+        if (files < 1 || rowsPerFile < 1 || consumers < 1 || eventsPerMessage < 1 || maxConcurrentFiles < 1 || maxReceiveCount < 1) {
+            throw new IllegalArgumentException("O número de arquivos, linhas, consumidores, eventos por mensagem, arquivos simultâneos e entregas deve ser de ao menos 1.");
+        }
+        if (invalidPercent < 0 || invalidPercent > 100) {
+            throw new IllegalArgumentException("O percentual de linhas inválidas deve estar entre 0 e 100.");
+        }
+    }
+
+    /**
+     * @param args Os argumentos da linha de comando, no formato {@code --nome=valor}.
+     * @return Os parâmetros, com os valores padrão para os argumentos ausentes.
+     * @throws IllegalArgumentException Se houver um argumento desconhecido ou inválido.
+     */
+    public static HarnessOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Argumento inválido '" + arg + "': use o formato --nome=valor.");
+            }
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        values.keySet().stream()
+                .filter(name -> !isKnown(name))
+                .findFirst()
+                .ifPresent(name -> {
+                    throw new IllegalArgumentException("Argumento desconhecido: --" + name);
+                });
+
+        return new HarnessOptions(
+                Integer.parseInt(values.getOrDefault("files", "4")),
+                Integer.parseInt(values.getOrDefault("rows", "100000")),
+                Integer.parseInt(values.getOrDefault("invalid-percent", "5")),
+                Integer.parseInt(values.getOrDefault("consumers", "8")),
+                SqsPublisherProperties.Mode.valueOf(values.getOrDefault("publisher-mode", "ASYNC").toUpperCase()),
+                SqsPublisherProperties.Encoding.valueOf(values.getOrDefault("encoding", "JSON").toUpperCase()),
+                Integer.parseInt(values.getOrDefault("events-per-message", "1")),
+                Boolean.parseBoolean(values.getOrDefault("parallel-ingestion", "false")),
+                Integer.parseInt(values.getOrDefault("max-concurrent-files", "4")),
+                Integer.parseInt(values.getOrDefault("max-receive-count", "5")),
+                DurationStyle.detectAndParse(values.getOrDefault("poll-interval", "1s")),
+                DurationStyle.detectAndParse(values.getOrDefault("timeout", "10m")),
+                faults(values, "drive"),
+                faults(values, "sqs"),
+                faults(values, "s3"),
+                faults(values, "dynamodb"));
+    }
+
+    private static FaultProfile faults(Map<String, String> values, String service) {
+        return new FaultProfile(
+                DurationStyle.detectAndParse(values.getOrDefault(service + "-latency", "0ms")),
+                Double.parseDouble(values.getOrDefault(service + "-error-rate", "0")));
+    }
+
+    private static boolean isKnown(String name) {
+        if (Set.of("files", "rows", "invalid-percent", "consumers", "publisher-mode", "encoding",
+                "events-per-message", "parallel-ingestion",
+                "max-concurrent-files", "max-receive-count", "poll-interval", "timeout").contains(name)) {
+            return true;
+        }
+        int separator = name.indexOf('-');
+        return separator > 0 && SERVICES.contains(name.substring(0, separator))
+                && Set.of("latency", "error-rate").contains(name.substring(separator + 1));
+    }
+}
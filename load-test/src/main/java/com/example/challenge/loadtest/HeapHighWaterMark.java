@@ -0,0 +1,54 @@
+package com.example.challenge.loadtest;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Amostra periodicamente o heap em uso e mantém o maior valor observado. O coletor de lixo é acionado antes
+ * do início, para que o valor reflita o pico da execução, e não o lixo da preparação.
+ */
+final class HeapHighWaterMark implements AutoCloseable {
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final AtomicLong maxUsedBytes = new AtomicLong();
+    private final Duration interval;
+    private volatile boolean running = true;
+    private Thread sampler;
+
+    HeapHighWaterMark(Duration interval) {
+        this.interval = interval;
+    }
+
+    void start() {
+        System.gc();
+        sampler = Thread.ofPlatform().name("heap-sampler").daemon().start(() -> {
+            while (running) {
+                maxUsedBytes.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                try {
+                    Thread.sleep(interval);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+    }
+
+    long maxUsedBytes() {
+        return maxUsedBytes.get();
+    }
+
+    long maxHeapBytes() {
+        return memory.getHeapMemoryUsage().getMax();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        if (sampler != null) {
+            sampler.interrupt();
+            sampler.join();
+        }
+    }
+}
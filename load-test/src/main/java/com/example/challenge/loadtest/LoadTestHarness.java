@@ -0,0 +1,267 @@
+package com.example.challenge.loadtest;
+
+import com.example.challenge.appconsumer.config.IdempotencyProperties;
+import com.example.challenge.appconsumer.listener.SqsMessageListener;
+import com.example.challenge.appconsumer.metrics.MessageDiagnostics;
+import com.example.challenge.appconsumer.metrics.PipelineLatencyMetrics;
+import com.example.challenge.appconsumer.service.DataProcessorService;
+import com.example.challenge.appconsumer.service.S3Service;
+import com.example.challenge.appconsumer.service.TransactionIdempotencyService;
+import com.example.challenge.config.CheckpointProperties;
+import com.example.challenge.config.GoogleDriveProperties;
+import com.example.challenge.config.ParallelIngestionProperties;
+import com.example.challenge.config.PollerProperties;
+import com.example.challenge.config.ProcessedFileCacheProperties;
+import com.example.challenge.config.RejectedRecordSinkProperties;
+import com.example.challenge.config.SqsPublisherProperties;
+import com.example.challenge.config.TransactionIdempotencyProperties;
+import com.example.challenge.google.DriveChangeTokenStore;
+import com.example.challenge.google.GoogleDriveClient;
+import com.example.challenge.loadtest.fake.FakeDrive;
+import com.example.challenge.loadtest.fake.FakeDynamoDbAsyncClient;
+import com.example.challenge.loadtest.fake.FakeDynamoDbClient;
+import com.example.challenge.loadtest.fake.FakeS3Client;
+import com.example.challenge.loadtest.fake.FakeSqsAsyncClient;
+import com.example.challenge.loadtest.fake.FakeSqsClient;
+import com.example.challenge.loadtest.fake.FakeSsmClient;
+import com.example.challenge.loadtest.fake.InMemorySqsQueue;
+import com.example.challenge.metrics.ProducerMetrics;
+import com.example.challenge.metrics.RowDiagnostics;
+import com.example.challenge.poller.GoogleDrivePoller;
+import com.example.challenge.processor.ParallelCsvIngestionEngine;
+import com.example.challenge.processor.TransactionFileProcessor;
+import com.example.challenge.publisher.TransactionEventPublisherFactory;
+import com.example.challenge.repository.ProcessedFileRepository;
+import com.example.challenge.repository.TransactionIdempotencyRepository;
+import com.example.challenge.rules.ProcessingRulesEngine;
+import com.example.challenge.sink.RejectedRecordSinkFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.services.ssm.model.PutParameterRequest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Teste de carga de ponta a ponta do pipeline, sem AWS nem LocalStack: arquivos CSV sintéticos de N linhas passam por
+ * {@link GoogleDrivePoller} → {@link TransactionFileProcessor} → SQS → {@link SqsMessageListener} → {@link DataProcessorService},
+ * com as classes reais dos dois serviços e o Google Drive, o SQS, o S3, o DynamoDB e o SSM simulados em memória
+ * (ver o pacote {@code fake}), cada um com latência e taxa de erro configuráveis.
+ * <p>
+ * Ao final, informa a vazão sustentada (eventos gravados no S3 por segundo), os percentis p50/p99 da latência
+ * de ponta a ponta e de cada etapa (medidos pelo {@link PipelineLatencyMetrics} do app-consumer) e o maior heap em uso.
+ * Os dois serviços compartilham a JVM: o heap medido é o da soma dos dois, um limite superior para cada task.
+ * <p>
+ * Uso: {@code ./gradlew :load-test:run --args="--files=4 --rows=100000 --sqs-latency=10ms --s3-error-rate=0.01"}
+ * (ver {@link HarnessOptions}).
+ */
+public final class LoadTestHarness {
+
+    static final String DRIVE_FOLDER_ID = "load-test-folder";
+    static final String QUEUE_URL = "https://sqs.us-east-1.amazonaws.com/000000000000/transaction-events-load-test";
+    static final String PROCESSED_FILES_TABLE = "processed-files-load-test";
+    static final String IDEMPOTENCY_TABLE = "transaction-idempotency-load-test";
+    static final String REJECTED_BUCKET = "rejected-data-load-test";
+    static final String OUTPUT_BUCKET = "processed-data-load-test";
+    static final String PROCESSING_RULES_PARAMETER = "/load-test/processing-rules";
+
+    private static final Duration WAIT_STEP = Duration.ofMillis(10);
+
+    private final HarnessOptions options;
+
+    public LoadTestHarness(HarnessOptions options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestReport report = new LoadTestHarness(HarnessOptions.parse(args)).run();
+        System.out.print(report.format());
+        System.exit(report.complete() ? 0 : 1);
+    }
+
+    /**
+     * Gera os arquivos, executa o pipeline até o consumo da última mensagem (ou até o tempo limite) e mede o resultado.
+     */
+    public LoadTestReport run() throws IOException, InterruptedException {
+        Path workDirectory = Files.createTempDirectory("transaction-load-test-");
+        try {
+            return run(workDirectory);
+        } finally {
+            try (Stream<Path> files = Files.walk(workDirectory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private LoadTestReport run(Path workDirectory) throws InterruptedException {
+        FakeDrive drive = new FakeDrive(options.drive());
+        SyntheticCsvFiles generator = new SyntheticCsvFiles();
+        for (int i = 0; i < options.files(); i++) {
+            Path file = generator.write(workDirectory.resolve("transactions-" + i + ".csv"), "tx_" + i + "_",
+                    options.rowsPerFile(), options.invalidPercent());
+            drive.addCsvFile("load-test-file-" + i, file.getFileName().toString(), file);
+        }
+
+        SimpleMeterRegistry registry = meterRegistry();
+        InMemorySqsQueue queue = new InMemorySqsQueue(options.sqs());
+        FakeS3Client s3 = new FakeS3Client(options.s3());
+        FakeDynamoDbClient dynamoDb = new FakeDynamoDbClient(options.dynamoDb());
+        dynamoDb.createTable(PROCESSED_FILES_TABLE, "fileId", null);
+        dynamoDb.createTable(IDEMPOTENCY_TABLE, "sourceFileId", "idempotencyKey");
+
+        ParallelIngestionProperties parallelProperties = new ParallelIngestionProperties();
+        parallelProperties.setEnabled(options.parallelIngestion());
+        ParallelCsvIngestionEngine parallelIngestionEngine = new ParallelCsvIngestionEngine(parallelProperties);
+        GoogleDrivePoller poller = producer(drive, queue, s3, dynamoDb, parallelIngestionEngine, registry);
+        ConsumerWorkers consumers = new ConsumerWorkers(queue, consumer(s3, dynamoDb, registry), options.maxReceiveCount());
+        HeapHighWaterMark heap = new HeapHighWaterMark(WAIT_STEP);
+
+        long deadline = System.nanoTime() + options.timeout().toNanos();
+        heap.start();
+        long startedAt = System.nanoTime();
+        consumers.start(options.consumers());
+
+        while (drive.pendingFiles() > 0 && System.nanoTime() < deadline) {
+            poller.pollGoogleDriveForCsvFiles();
+            long nextPoll = System.nanoTime() + options.pollInterval().toNanos();
+            while (drive.pendingFiles() > 0 && System.nanoTime() < Math.min(nextPoll, deadline)) {
+                Thread.sleep(WAIT_STEP);
+            }
+        }
+        Duration producerDuration = Duration.ofNanos(System.nanoTime() - startedAt);
+        boolean producerComplete = drive.pendingFiles() == 0;
+
+        while (consumers.completed() < queue.sentCount() && System.nanoTime() < deadline) {
+            Thread.sleep(WAIT_STEP);
+        }
+        Duration totalDuration = Duration.ofNanos(System.nanoTime() - startedAt);
+        boolean complete = producerComplete && consumers.completed() >= queue.sentCount();
+
+        consumers.close();
+        poller.shutdown();
+        parallelIngestionEngine.shutdown();
+        heap.close();
+
+        Map<String, LoadTestReport.Percentiles> stageLatency = new LinkedHashMap<>();
+        for (PipelineLatencyMetrics.Stage stage : PipelineLatencyMetrics.Stage.values()) {
+            stageLatency.put(stage.getTag(), percentiles(registry.find("consumer.stage.lag").tag("stage", stage.getTag()).timer()));
+        }
+        long rowsAccepted = rowCount(registry, "accepted") + rowCount(registry, "already_published");
+        long rowsRejected = rowCount(registry, "rejected");
+        return new LoadTestReport(options, complete, rowsAccepted + rowsRejected, rowsAccepted, rowsRejected,
+                s3.countObjects(OUTPUT_BUCKET, "processed-transactions/"), producerDuration, totalDuration,
+                percentiles(registry.find("consumer.e2e.latency").timer()), stageLatency,
+                heap.maxUsedBytes(), heap.maxHeapBytes(), consumers.redelivered(), consumers.deadLettered(), queue.failedEntryCount(),
+                queue.sendRequestCount(), queue.sentCount(), queue.sentBytes());
+    }
+
+    /**
+     * Monta o app-producer como no contexto Spring, com as propriedades padrão e os clientes simulados.
+     */
+    private GoogleDrivePoller producer(FakeDrive drive, InMemorySqsQueue queue, FakeS3Client s3, FakeDynamoDbClient dynamoDb,
+                                       ParallelCsvIngestionEngine parallelIngestionEngine, SimpleMeterRegistry registry) {
+        ObjectMapper objectMapper = new com.example.challenge.config.AwsConfig().objectMapper();
+        ProducerMetrics metrics = new ProducerMetrics(registry);
+        FakeSsmClient ssm = new FakeSsmClient();
+        ssm.putParameter(PutParameterRequest.builder().name(PROCESSING_RULES_PARAMETER).value("{}").build());
+
+        DynamoDbEnhancedClient enhancedClient = DynamoDbEnhancedClient.builder().dynamoDbClient(dynamoDb).build();
+        DynamoDbEnhancedAsyncClient enhancedAsyncClient = DynamoDbEnhancedAsyncClient.builder()
+                .dynamoDbClient(new FakeDynamoDbAsyncClient(dynamoDb))
+                .build();
+        ProcessedFileRepository processedFileRepository = new ProcessedFileRepository(enhancedClient, PROCESSED_FILES_TABLE,
+                new ProcessedFileCacheProperties());
+        TransactionIdempotencyProperties idempotencyProperties = new TransactionIdempotencyProperties();
+        idempotencyProperties.setTableName(IDEMPOTENCY_TABLE);
+
+        SqsPublisherProperties publisherProperties = new SqsPublisherProperties();
+        publisherProperties.setMode(options.publisherMode());
+        publisherProperties.setEncoding(options.encoding());
+        publisherProperties.setEventsPerMessage(options.eventsPerMessage());
+        TransactionEventPublisherFactory publisherFactory = new TransactionEventPublisherFactory(new FakeSqsClient(queue),
+                new FakeSqsAsyncClient(queue), objectMapper, publisherProperties, QUEUE_URL, metrics);
+
+        TransactionFileProcessor processor = new TransactionFileProcessor(publisherFactory, objectMapper,
+                new ProcessingRulesEngine(ssm, objectMapper, PROCESSING_RULES_PARAMETER), parallelIngestionEngine,
+                new RejectedRecordSinkFactory(s3, objectMapper, new RejectedRecordSinkProperties(), REJECTED_BUCKET, metrics),
+                new TransactionIdempotencyRepository(enhancedClient, enhancedAsyncClient, idempotencyProperties), processedFileRepository,
+                new CheckpointProperties(), metrics, RowDiagnostics.defaults());
+
+        GoogleDriveProperties driveProperties = new GoogleDriveProperties();
+        driveProperties.setFolderId(DRIVE_FOLDER_ID);
+        GoogleDriveClient driveClient = new GoogleDriveClient(drive.drive(), driveProperties,
+                new DriveChangeTokenStore(ssm, driveProperties), metrics);
+
+        PollerProperties pollerProperties = new PollerProperties();
+        pollerProperties.setMaxConcurrentFiles(options.maxConcurrentFiles());
+        return new GoogleDrivePoller(driveClient, processor, processedFileRepository, pollerProperties, metrics);
+    }
+
+    /**
+     * Monta o app-consumer no modo de gravação de um objeto JSON por evento, com o índice de idempotência ativo.
+     */
+    private SqsMessageListener consumer(FakeS3Client s3, FakeDynamoDbClient dynamoDb, SimpleMeterRegistry registry) {
+        ObjectMapper objectMapper = new com.example.challenge.appconsumer.config.AwsConfig("us-east-1").objectMapper();
+        IdempotencyProperties idempotencyProperties = new IdempotencyProperties(true, IDEMPOTENCY_TABLE,
+                Math.max(1000, options.rowsPerFile()), 0.01, 1_000, Duration.ofDays(7));
+        DataProcessorService dataProcessorService = new DataProcessorService(new S3Service(s3), objectMapper, OUTPUT_BUCKET, null,
+                new TransactionIdempotencyService(dynamoDb, idempotencyProperties), new PipelineLatencyMetrics(registry));
+        return new SqsMessageListener(objectMapper, dataProcessorService,
+                new MessageDiagnostics(new com.example.challenge.appconsumer.config.DiagnosticsProperties()), null);
+    }
+
+    /**
+     * Registro de métricas com os percentis 0.5 e 0.99 calculados sobre toda a execução, e não apenas sobre a janela recente.
+     */
+    private static SimpleMeterRegistry meterRegistry() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder()
+                        .percentiles(0.5, 0.99)
+                        .expiry(Duration.ofDays(1))
+                        .bufferLength(1)
+                        .build()
+                        .merge(config);
+            }
+        });
+        return registry;
+    }
+
+    private static LoadTestReport.Percentiles percentiles(Timer timer) {
+        if (timer == null || timer.count() == 0) {
+            return new LoadTestReport.Percentiles(0, 0);
+        }
+        double p50 = 0;
+        double p99 = 0;
+        for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+            if (value.percentile() == 0.5) {
+                p50 = value.value(TimeUnit.MILLISECONDS);
+            } else if (value.percentile() == 0.99) {
+                p99 = value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return new LoadTestReport.Percentiles(p50, p99);
+    }
+
+    private static long rowCount(SimpleMeterRegistry registry, String outcome) {
+        Counter counter = registry.find("producer.csv.rows").tag("outcome", outcome).counter();
+        return counter == null ? 0 : (long) counter.count();
+    }
+}
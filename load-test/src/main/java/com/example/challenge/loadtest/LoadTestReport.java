@@ -0,0 +1,98 @@
+package com.example.challenge.loadtest;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Resultado de uma execução do teste de carga.
+ *
+ * @param options Os parâmetros da execução.
+ * @param complete true se todos os arquivos foram processados e todas as mensagens consumidas dentro do tempo limite.
+ * @param rowsRead As linhas CSV lidas pelo app-producer (aceitas e rejeitadas).
+ * @param rowsAccepted As linhas válidas publicadas no SQS.
+ * @param rowsRejected As linhas rejeitadas na validação.
+ * @param eventsWritten Os eventos gravados no S3 pelo app-consumer.
+ * @param producerDuration O tempo até o último arquivo ser movido para a lixeira.
+ * @param totalDuration O tempo até a última mensagem ser consumida.
+ * @param endToEndLatency Os percentis (0.5 e 0.99) da latência de ponta a ponta, da ingestão do arquivo à gravação no S3.
+ * @param stageLatency Os percentis de cada etapa do pipeline (parse, publish, queue, write).
+ * @param heapHighWaterBytes O maior heap em uso observado durante a execução.
+ * @param maxHeapBytes O tamanho máximo do heap da JVM.
+ * @param redeliveries As reentregas de mensagens cujo processamento falhou.
+ * @param deadLettered As mensagens descartadas após o número máximo de entregas.
+ * @param sqsFailedEntries As mensagens recusadas pela falha simulada do SQS (e reenviadas pelo publicador).
+ * @param sqsRequests As chamadas SendMessageBatch recebidas pelo SQS.
+ * @param sqsMessages As mensagens aceitas pelo SQS.
+ * @param sqsBytes O tamanho das mensagens aceitas pelo SQS (corpo e atributos).
+ */
+public record LoadTestReport(HarnessOptions options,
+                             boolean complete,
+                             long rowsRead,
+                             long rowsAccepted,
+                             long rowsRejected,
+                             long eventsWritten,
+                             Duration producerDuration,
+                             Duration totalDuration,
+                             Percentiles endToEndLatency,
+                             Map<String, Percentiles> stageLatency,
+                             long heapHighWaterBytes,
+                             long maxHeapBytes,
+                             long redeliveries,
+                             long deadLettered,
+                             long sqsFailedEntries,
+                             long sqsRequests,
+                             long sqsMessages,
+                             long sqsBytes) {
+
+    /**
+     * Os percentis 0.5 e 0.99 de uma latência, em milissegundos.
+     */
+    public record Percentiles(double p50, double p99) {
+    }
+
+    /**
+     * @return A vazão sustentada do pipeline completo: eventos gravados no S3 por segundo.
+     */
+    public double rowsPerSecond() {
+        return perSecond(eventsWritten, totalDuration);
+    }
+
+    /**
+     * @return A vazão do app-producer: linhas CSV lidas por segundo.
+     */
+    public double producerRowsPerSecond() {
+        return perSecond(rowsRead, producerDuration);
+    }
+
+    public String format() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("=== Teste de carga: %d arquivos x %d linhas (%d%% inválidas), publicação %s, %d consumidores ===%n",
+                options.files(), options.rowsPerFile(), options.invalidPercent(), options.publisherMode(), options.consumers()));
+        if (!complete) {
+            report.append(String.format("ATENÇÃO: execução interrompida pelo tempo limite de %s; os resultados são parciais.%n", options.timeout()));
+        }
+        report.append(String.format("Linhas lidas: %d (aceitas: %d, rejeitadas: %d); eventos gravados no S3: %d%n",
+                rowsRead, rowsAccepted, rowsRejected, eventsWritten));
+        report.append(String.format("Vazão sustentada: %.0f linhas/s em %.1f s (app-producer: %.0f linhas/s em %.1f s)%n",
+                rowsPerSecond(), seconds(totalDuration), producerRowsPerSecond(), seconds(producerDuration)));
+        report.append(String.format("SQS (%s, até %d eventos por mensagem): %d requisições SendMessageBatch, %d mensagens, %.1f MB (%.0f bytes por evento)%n",
+                options.encoding(), options.eventsPerMessage(), sqsRequests, sqsMessages, sqsBytes / 1048576.0,
+                rowsAccepted == 0 ? 0.0 : (double) sqsBytes / rowsAccepted));
+        report.append(String.format("Latência de ponta a ponta: p50 %.0f ms, p99 %.0f ms%n", endToEndLatency.p50(), endToEndLatency.p99()));
+        report.append("Atraso por etapa (p50/p99):");
+        stageLatency.forEach((stage, latency) -> report.append(String.format(" %s %.0f/%.0f ms;", stage, latency.p50(), latency.p99())));
+        report.append(System.lineSeparator());
+        report.append(String.format("Heap máximo em uso: %d MB (limite da JVM: %d MB)%n", heapHighWaterBytes >> 20, maxHeapBytes >> 20));
+        report.append(String.format("Reentregas: %d; descartadas após %d entregas: %d; mensagens recusadas pelo SQS: %d%n",
+                redeliveries, options.maxReceiveCount(), deadLettered, sqsFailedEntries));
+        return report.toString();
+    }
+
+    private static double perSecond(long count, Duration duration) {
+        return duration.isZero() ? 0 : count / seconds(duration);
+    }
+
+    private static double seconds(Duration duration) {
+        return duration.toNanos() / 1e9;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.challenge.loadtest;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Gera os arquivos CSV de transações do teste de carga a partir das linhas de exemplo de {@code docs/example_valid.csv}
+ * e {@code docs/example_invalid.csv}. Cada linha gerada repete uma linha de exemplo com um transaction_id único
+ * entre todos os arquivos. O diretório dos exemplos é definido pela propriedade de sistema {@code fixtures.dir}.
+ * <p>
+ * Os arquivos são gravados em disco antes da medição, para que o conteúdo não ocupe o heap medido.
+ */
+final class SyntheticCsvFiles {
+
+    private static final Path FIXTURES_DIR = Path.of(System.getProperty("fixtures.dir", "../docs"));
+
+    private final List<String> valid;
+    private final List<String> invalid;
+
+    SyntheticCsvFiles() {
+        this.valid = readLines("example_valid.csv");
+        this.invalid = readLines("example_invalid.csv");
+    }
+
+    /**
+     * @param file O arquivo de destino.
+     * @param prefix O prefixo dos transaction_ids do arquivo.
+     * @param rows O número de linhas de dados.
+     * @param invalidPercent O percentual de linhas geradas a partir dos exemplos inválidos (0 a 100).
+     * @return O arquivo gerado.
+     */
+    Path write(Path file, String prefix, int rows, int invalidPercent) {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.append(valid.get(0)).append('\n');
+            for (int i = 0; i < rows; i++) {
+                List<String> templates = i % 100 < invalidPercent ? invalid : valid;
+                String template = templates.get(1 + i % (templates.size() - 1));
+                writer.append(prefix).append(Integer.toString(i)).append(template, template.indexOf(','), template.length()).append('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao gerar o arquivo CSV " + file, e);
+        }
+        return file;
+    }
+
+    private static List<String> readLines(String fileName) {
+        try {
+            List<String> lines = Files.readAllLines(FIXTURES_DIR.resolve(fileName), StandardCharsets.UTF_8).stream()
+                    .filter(line -> !line.isBlank())
+                    .toList();
+            if (lines.size() < 2) {
+                throw new IllegalStateException("O arquivo de exemplo " + fileName + " não possui linhas de dados.");
+            }
+            return lines;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao ler o arquivo de exemplo " + FIXTURES_DIR.resolve(fileName), e);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.challenge.loadtest.fake;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import com.google.api.client.util.DateTime;
+import com.google.api.services.drive.Drive;
+import com.google.api.services.drive.model.File;
+import com.google.api.services.drive.model.FileList;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Pasta do Google Drive simulada, servida ao cliente oficial {@link Drive} por um {@link HttpTransport} em memória.
+ * Atende às chamadas usadas pelo app-producer no modo de listagem FULL: {@code files.list} (paginado),
+ * o download de conteúdo ({@code alt=media}, lido do arquivo local) e {@code files.update}, que move o arquivo para a lixeira.
+ * A latência configurada é aplicada a cada requisição HTTP; os erros simulados respondem com HTTP 503.
+ */
+public class FakeDrive {
+
+    private static final JsonFactory JSON_FACTORY = GsonFactory.getDefaultInstance();
+    private static final String CSV_MIME_TYPE = "text/csv";
+
+    private record StoredFile(String id, String name, Path content, DateTime modifiedTime, boolean trashed) {
+    }
+
+    private final FaultProfile faults;
+    private final Map<String, StoredFile> files = new ConcurrentSkipListMap<>();
+
+    public FakeDrive(FaultProfile faults) {
+        this.faults = faults;
+    }
+
+    /**
+     * Adiciona um arquivo CSV à pasta.
+     *
+     * @param content O arquivo local com o conteúdo, lido a cada download.
+     */
+    public void addCsvFile(String id, String name, Path content) {
+        files.put(id, new StoredFile(id, name, content, new DateTime(System.currentTimeMillis()), false));
+    }
+
+    /**
+     * @return O número de arquivos ainda fora da lixeira (não processados).
+     */
+    public long pendingFiles() {
+        return files.values().stream().filter(file -> !file.trashed()).count();
+    }
+
+    /**
+     * @return Um cliente do Google Drive que acessa esta pasta.
+     */
+    public Drive drive() {
+        return new Drive.Builder(new Transport(), JSON_FACTORY, null)
+                .setApplicationName("transaction-processor-load-test")
+                .build();
+    }
+
+    private LowLevelHttpResponse handle(String method, GenericUrl url) throws IOException {
+        faults.sleep();
+        if (faults.shouldFail()) {
+            return json(503, "{\"error\":{\"code\":503,\"message\":\"Falha simulada do Google Drive.\"}}");
+        }
+
+        List<String> path = url.getPathParts();
+        int filesIndex = path.indexOf("files");
+        if (filesIndex < 0) {
+            return notFound();
+        }
+        if (filesIndex == path.size() - 1 && "GET".equals(method)) {
+            return list(url);
+        }
+
+        StoredFile file = files.get(path.get(filesIndex + 1));
+        if (file == null) {
+            return notFound();
+        }
+        if ("GET".equals(method) && "media".equals(url.getFirst("alt"))) {
+            return new MockLowLevelHttpResponse()
+                    .setContentType(CSV_MIME_TYPE)
+                    .setContentLength(Files.size(file.content()))
+                    .setContent(Files.newInputStream(file.content()));
+        }
+        if ("PATCH".equals(method)) {
+            // A única atualização feita pelo app-producer é mover o arquivo processado para a lixeira
+            StoredFile trashed = new StoredFile(file.id(), file.name(), file.content(), new DateTime(System.currentTimeMillis()), true);
+            files.put(file.id(), trashed);
+            return json(200, JSON_FACTORY.toString(toDriveFile(trashed)));
+        }
+        return notFound();
+    }
+
+    private LowLevelHttpResponse list(GenericUrl url) throws IOException {
+        Object pageSizeParameter = url.getFirst("pageSize");
+        Object pageTokenParameter = url.getFirst("pageToken");
+        int pageSize = pageSizeParameter == null ? 100 : Integer.parseInt(pageSizeParameter.toString());
+        int offset = pageTokenParameter == null ? 0 : Integer.parseInt(pageTokenParameter.toString());
+
+        List<File> pending = files.values().stream().filter(file -> !file.trashed()).map(FakeDrive::toDriveFile).toList();
+        int end = Math.min(offset + pageSize, pending.size());
+        FileList page = new FileList().setFiles(pending.subList(Math.min(offset, end), end));
+        if (end < pending.size()) {
+            page.setNextPageToken(Integer.toString(end));
+        }
+        return json(200, JSON_FACTORY.toString(page));
+    }
+
+    private static File toDriveFile(StoredFile file) {
+        return new File()
+                .setId(file.id())
+                .setName(file.name())
+                .setMimeType(CSV_MIME_TYPE)
+                .setModifiedTime(file.modifiedTime())
+                .setTrashed(file.trashed());
+    }
+
+    private static LowLevelHttpResponse json(int statusCode, String body) {
+        return new MockLowLevelHttpResponse().setStatusCode(statusCode).setContentType("application/json; charset=UTF-8").setContent(body);
+    }
+
+    private static LowLevelHttpResponse notFound() {
+        return json(404, "{\"error\":{\"code\":404,\"message\":\"File not found.\"}}");
+    }
+
+    private final class Transport extends HttpTransport {
+
+        @Override
+        public boolean supportsMethod(String method) {
+            return true;
+        }
+
+        @Override
+        protected LowLevelHttpRequest buildRequest(String method, String url) {
+            return new LowLevelHttpRequest() {
+                @Override
+                public void addHeader(String name, String value) {
+                }
+
+                @Override
+                public LowLevelHttpResponse execute() throws IOException {
+                    return handle(method, new GenericUrl(url));
+                }
+            };
+        }
+    }
+}
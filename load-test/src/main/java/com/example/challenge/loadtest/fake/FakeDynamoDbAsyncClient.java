@@ -0,0 +1,39 @@
+package com.example.challenge.loadtest.fake;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * {@link DynamoDbAsyncClient} sobre o mesmo {@link FakeDynamoDbClient}, com o BatchWriteItem usado pelo índice de
+ * idempotência do app-producer. A latência e as falhas do perfil do DynamoDB são aplicadas em threads virtuais,
+ * sem ocupar a thread que chama, como um cliente HTTP não bloqueante.
+ */
+public class FakeDynamoDbAsyncClient implements DynamoDbAsyncClient {
+
+    private final FakeDynamoDbClient delegate;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public FakeDynamoDbAsyncClient(FakeDynamoDbClient delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public CompletableFuture<BatchWriteItemResponse> batchWriteItem(BatchWriteItemRequest request) {
+        return CompletableFuture.supplyAsync(() -> delegate.batchWriteItem(request), executor);
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+    }
+}
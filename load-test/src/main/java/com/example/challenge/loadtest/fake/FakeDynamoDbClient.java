@@ -0,0 +1,241 @@
+package com.example.challenge.loadtest.fake;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@link DynamoDbClient} em memória com as operações usadas pelos repositórios do app-producer (pelo enhanced client)
+ * e pelo índice de idempotência do app-consumer: GetItem, PutItem (com {@code attribute_not_exists}/{@code attribute_exists}),
+ * BatchGetItem, BatchWriteItem e Query (igualdade da chave de partição e {@code begins_with} na chave de ordenação).
+ * As consultas não são paginadas e as projeções são ignoradas (o item inteiro é devolvido).
+ */
+public class FakeDynamoDbClient implements DynamoDbClient {
+
+    private static final Pattern EQUALS_CONDITION = Pattern.compile("^(\\S+)\\s*=\\s*(:\\S+)$");
+    private static final Pattern BEGINS_WITH_CONDITION = Pattern.compile("^begins_with\\s*\\(\\s*([^\\s,]+)\\s*,\\s*(:[^\\s)]+)\\s*\\)$");
+    private static final Pattern ATTRIBUTE_CONDITION = Pattern.compile("^attribute_(not_exists|exists)\\s*\\(\\s*([^\\s)]+)\\s*\\)$");
+
+    private final FaultProfile faults;
+    private final Map<String, Table> tables = new ConcurrentHashMap<>();
+
+    public FakeDynamoDbClient(FaultProfile faults) {
+        this.faults = faults;
+    }
+
+    /**
+     * Cria uma tabela vazia.
+     *
+     * @param sortKey O nome da chave de ordenação, ou {@code null} se a tabela só tiver chave de partição.
+     */
+    public void createTable(String tableName, String partitionKey, String sortKey) {
+        tables.put(tableName, new Table(partitionKey, sortKey));
+    }
+
+    /**
+     * @return O número de itens da tabela.
+     */
+    public long itemCount(String tableName) {
+        return table(tableName).items.values().stream().mapToLong(Map::size).sum();
+    }
+
+    @Override
+    public GetItemResponse getItem(GetItemRequest request) {
+        faults.apply(FakeDynamoDbClient::throttled);
+        Map<String, AttributeValue> item = table(request.tableName()).get(request.key());
+        GetItemResponse.Builder response = GetItemResponse.builder();
+        if (item != null) {
+            response.item(item);
+        }
+        return response.build();
+    }
+
+    @Override
+    public PutItemResponse putItem(PutItemRequest request) {
+        faults.apply(FakeDynamoDbClient::throttled);
+        Table table = table(request.tableName());
+        synchronized (table) {
+            if (request.conditionExpression() != null) {
+                checkCondition(table.get(request.item()), request.conditionExpression(), request.expressionAttributeNames());
+            }
+            table.put(request.item());
+        }
+        return PutItemResponse.builder().build();
+    }
+
+    @Override
+    public BatchGetItemResponse batchGetItem(BatchGetItemRequest request) {
+        faults.apply(FakeDynamoDbClient::throttled);
+        Map<String, List<Map<String, AttributeValue>>> responses = new HashMap<>();
+        for (Map.Entry<String, KeysAndAttributes> entry : request.requestItems().entrySet()) {
+            Table table = table(entry.getKey());
+            List<Map<String, AttributeValue>> found = new ArrayList<>();
+            for (Map<String, AttributeValue> key : entry.getValue().keys()) {
+                Map<String, AttributeValue> item = table.get(key);
+                if (item != null) {
+                    found.add(item);
+                }
+            }
+            responses.put(entry.getKey(), found);
+        }
+        return BatchGetItemResponse.builder().responses(responses).unprocessedKeys(Map.of()).build();
+    }
+
+    @Override
+    public BatchWriteItemResponse batchWriteItem(BatchWriteItemRequest request) {
+        faults.apply(FakeDynamoDbClient::throttled);
+        for (Map.Entry<String, List<WriteRequest>> entry : request.requestItems().entrySet()) {
+            Table table = table(entry.getKey());
+            for (WriteRequest write : entry.getValue()) {
+                if (write.putRequest() != null) {
+                    table.put(write.putRequest().item());
+                } else if (write.deleteRequest() != null) {
+                    table.delete(write.deleteRequest().key());
+                }
+            }
+        }
+        return BatchWriteItemResponse.builder().unprocessedItems(Map.of()).build();
+    }
+
+    @Override
+    public QueryResponse query(QueryRequest request) {
+        faults.apply(FakeDynamoDbClient::throttled);
+        Table table = table(request.tableName());
+        String partitionValue = null;
+        Predicate<Map<String, AttributeValue>> filter = item -> true;
+        for (String condition : request.keyConditionExpression().split("(?i)\\s+AND\\s+")) {
+            String trimmed = condition.trim();
+            Matcher equals = EQUALS_CONDITION.matcher(trimmed);
+            Matcher beginsWith = BEGINS_WITH_CONDITION.matcher(trimmed);
+            if (equals.matches()) {
+                String name = attributeName(equals.group(1), request.expressionAttributeNames());
+                String value = keyValue(request.expressionAttributeValues().get(equals.group(2)));
+                if (name.equals(table.partitionKey)) {
+                    partitionValue = value;
+                } else {
+                    filter = filter.and(item -> value.equals(keyValue(item.get(name))));
+                }
+            } else if (beginsWith.matches()) {
+                String name = attributeName(beginsWith.group(1), request.expressionAttributeNames());
+                String prefix = keyValue(request.expressionAttributeValues().get(beginsWith.group(2)));
+                filter = filter.and(item -> item.get(name) != null && keyValue(item.get(name)).startsWith(prefix));
+            } else {
+                throw new UnsupportedOperationException("Condição de chave não suportada pelo DynamoDB simulado: " + condition);
+            }
+        }
+        if (partitionValue == null) {
+            throw new IllegalArgumentException("A consulta deve informar a chave de partição " + table.partitionKey + ".");
+        }
+
+        List<Map<String, AttributeValue>> items = new ArrayList<>();
+        NavigableMap<String, Map<String, AttributeValue>> partition = table.items.get(partitionValue);
+        if (partition != null) {
+            partition.values().stream().filter(filter).forEach(items::add);
+        }
+        return QueryResponse.builder().items(items).count(items.size()).scannedCount(items.size()).build();
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private Table table(String tableName) {
+        Table table = tables.get(tableName);
+        if (table == null) {
+            throw ResourceNotFoundException.builder().message("Tabela " + tableName + " inexistente.").statusCode(400).build();
+        }
+        return table;
+    }
+
+    private static void checkCondition(Map<String, AttributeValue> existing, String conditionExpression, Map<String, String> names) {
+        Matcher matcher = ATTRIBUTE_CONDITION.matcher(conditionExpression.trim());
+        if (!matcher.matches()) {
+            throw new UnsupportedOperationException("Condição não suportada pelo DynamoDB simulado: " + conditionExpression);
+        }
+        boolean exists = existing != null && existing.containsKey(attributeName(matcher.group(2), names));
+        if (exists == "not_exists".equals(matcher.group(1))) {
+            throw ConditionalCheckFailedException.builder().message("The conditional request failed").statusCode(400).build();
+        }
+    }
+
+    private static String attributeName(String name, Map<String, String> names) {
+        return name.startsWith("#") ? names.get(name) : name;
+    }
+
+    private static String keyValue(AttributeValue value) {
+        if (value == null) {
+            return null;
+        }
+        return value.s() != null ? value.s() : value.n();
+    }
+
+    private static ProvisionedThroughputExceededException throttled() {
+        return (ProvisionedThroughputExceededException) ProvisionedThroughputExceededException.builder()
+                .message("Falha simulada do DynamoDB.")
+                .statusCode(400)
+                .build();
+    }
+
+    private static final class Table {
+
+        private final String partitionKey;
+        private final String sortKey;
+        private final Map<String, NavigableMap<String, Map<String, AttributeValue>>> items = new ConcurrentHashMap<>();
+
+        Table(String partitionKey, String sortKey) {
+            this.partitionKey = partitionKey;
+            this.sortKey = sortKey;
+        }
+
+        Map<String, AttributeValue> get(Map<String, AttributeValue> key) {
+            NavigableMap<String, Map<String, AttributeValue>> partition = items.get(keyValue(key.get(partitionKey)));
+            return partition == null ? null : partition.get(sortValue(key));
+        }
+
+        void put(Map<String, AttributeValue> item) {
+            items.computeIfAbsent(keyValue(item.get(partitionKey)), ignored -> new ConcurrentSkipListMap<>())
+                    .put(sortValue(item), Map.copyOf(item));
+        }
+
+        void delete(Map<String, AttributeValue> key) {
+            NavigableMap<String, Map<String, AttributeValue>> partition = items.get(keyValue(key.get(partitionKey)));
+            if (partition != null) {
+                partition.remove(sortValue(key));
+            }
+        }
+
+        private String sortValue(Map<String, AttributeValue> key) {
+            return sortKey == null ? "" : keyValue(key.get(sortKey));
+        }
+    }
+}
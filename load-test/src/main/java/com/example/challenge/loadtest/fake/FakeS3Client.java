@@ -0,0 +1,137 @@
+package com.example.challenge.loadtest.fake;
+
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchUploadException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link S3Client} em memória com as operações usadas pelos dois serviços: PutObject e o upload multipart.
+ * O conteúdo dos objetos é lido por completo, mas apenas o tamanho é mantido, para que o consumo de memória
+ * do próprio simulador não distorça a medição de heap.
+ */
+public class FakeS3Client implements S3Client {
+
+    private final FaultProfile faults;
+    private final Map<String, Long> objectSizes = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> multipartUploads = new ConcurrentHashMap<>();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final AtomicLong lastWriteMillis = new AtomicLong();
+
+    public FakeS3Client(FaultProfile faults) {
+        this.faults = faults;
+    }
+
+    @Override
+    public PutObjectResponse putObject(PutObjectRequest request, RequestBody requestBody) {
+        faults.apply(FakeS3Client::slowDown);
+        store(request.bucket(), request.key(), consume(requestBody));
+        return PutObjectResponse.builder().eTag(UUID.randomUUID().toString()).build();
+    }
+
+    @Override
+    public CreateMultipartUploadResponse createMultipartUpload(CreateMultipartUploadRequest request) {
+        faults.apply(FakeS3Client::slowDown);
+        String uploadId = UUID.randomUUID().toString();
+        multipartUploads.put(uploadId, new AtomicLong());
+        return CreateMultipartUploadResponse.builder().bucket(request.bucket()).key(request.key()).uploadId(uploadId).build();
+    }
+
+    @Override
+    public UploadPartResponse uploadPart(UploadPartRequest request, RequestBody requestBody) {
+        faults.apply(FakeS3Client::slowDown);
+        upload(request.uploadId()).addAndGet(consume(requestBody));
+        return UploadPartResponse.builder().eTag(UUID.randomUUID().toString()).build();
+    }
+
+    @Override
+    public CompleteMultipartUploadResponse completeMultipartUpload(CompleteMultipartUploadRequest request) {
+        faults.apply(FakeS3Client::slowDown);
+        store(request.bucket(), request.key(), upload(request.uploadId()).get());
+        multipartUploads.remove(request.uploadId());
+        return CompleteMultipartUploadResponse.builder().bucket(request.bucket()).key(request.key()).build();
+    }
+
+    @Override
+    public AbortMultipartUploadResponse abortMultipartUpload(AbortMultipartUploadRequest request) {
+        multipartUploads.remove(request.uploadId());
+        return AbortMultipartUploadResponse.builder().build();
+    }
+
+    /**
+     * @return O número de objetos do bucket cuja chave começa com o prefixo.
+     */
+    public long countObjects(String bucket, String keyPrefix) {
+        String prefix = bucket + "/" + keyPrefix;
+        return objectSizes.keySet().stream().filter(key -> key.startsWith(prefix)).count();
+    }
+
+    public long bytesWritten() {
+        return bytesWritten.get();
+    }
+
+    /**
+     * @return O instante, em milissegundos desde a época, da última gravação de objeto.
+     */
+    public long lastWriteMillis() {
+        return lastWriteMillis.get();
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private void store(String bucket, String key, long size) {
+        objectSizes.put(bucket + "/" + key, size);
+        bytesWritten.addAndGet(size);
+        lastWriteMillis.accumulateAndGet(System.currentTimeMillis(), Math::max);
+    }
+
+    private AtomicLong upload(String uploadId) {
+        AtomicLong upload = multipartUploads.get(uploadId);
+        if (upload == null) {
+            throw NoSuchUploadException.builder().message("Upload multipart " + uploadId + " inexistente.").statusCode(404).build();
+        }
+        return upload;
+    }
+
+    private static long consume(RequestBody requestBody) {
+        try (InputStream content = requestBody.contentStreamProvider().newStream()) {
+            return content.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static S3Exception slowDown() {
+        return (S3Exception) S3Exception.builder()
+                .statusCode(503)
+                .awsErrorDetails(AwsErrorDetails.builder().errorCode("SlowDown").errorMessage("Falha simulada do S3.").build())
+                .build();
+    }
+}
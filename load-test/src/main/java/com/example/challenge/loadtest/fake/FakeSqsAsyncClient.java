@@ -0,0 +1,38 @@
+package com.example.challenge.loadtest.fake;
+
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SqsAsyncClient} que envia os lotes para uma {@link InMemorySqsQueue}. A latência configurada na fila
+ * é simulada com um executor atrasado, sem ocupar uma thread por requisição, como um cliente HTTP não bloqueante.
+ */
+public class FakeSqsAsyncClient implements SqsAsyncClient {
+
+    private final InMemorySqsQueue queue;
+    private final Executor responseExecutor;
+
+    public FakeSqsAsyncClient(InMemorySqsQueue queue) {
+        this.queue = queue;
+        this.responseExecutor = CompletableFuture.delayedExecutor(queue.faults().latency().toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public CompletableFuture<SendMessageBatchResponse> sendMessageBatch(SendMessageBatchRequest request) {
+        return CompletableFuture.supplyAsync(() -> queue.sendBatch(request), responseExecutor);
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.challenge.loadtest.fake;
+
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+
+/**
+ * {@link SqsClient} síncrono que envia os lotes para uma {@link InMemorySqsQueue}, bloqueando a thread
+ * pela latência configurada na fila.
+ */
+public class FakeSqsClient implements SqsClient {
+
+    private final InMemorySqsQueue queue;
+
+    public FakeSqsClient(InMemorySqsQueue queue) {
+        this.queue = queue;
+    }
+
+    @Override
+    public SendMessageBatchResponse sendMessageBatch(SendMessageBatchRequest request) {
+        queue.faults().sleep();
+        return queue.sendBatch(request);
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+}
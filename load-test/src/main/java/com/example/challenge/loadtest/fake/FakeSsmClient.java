@@ -0,0 +1,49 @@
+package com.example.challenge.loadtest.fake;
+
+import software.amazon.awssdk.services.ssm.SsmClient;
+import software.amazon.awssdk.services.ssm.model.GetParameterRequest;
+import software.amazon.awssdk.services.ssm.model.GetParameterResponse;
+import software.amazon.awssdk.services.ssm.model.Parameter;
+import software.amazon.awssdk.services.ssm.model.ParameterNotFoundException;
+import software.amazon.awssdk.services.ssm.model.PutParameterRequest;
+import software.amazon.awssdk.services.ssm.model.PutParameterResponse;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link SsmClient} em memória para as regras de processamento e o token de alterações do Google Drive.
+ * Cada gravação de um parâmetro incrementa sua versão.
+ */
+public class FakeSsmClient implements SsmClient {
+
+    private final Map<String, Parameter> parameters = new ConcurrentHashMap<>();
+
+    @Override
+    public GetParameterResponse getParameter(GetParameterRequest request) {
+        Parameter parameter = parameters.get(request.name());
+        if (parameter == null) {
+            throw ParameterNotFoundException.builder().message("Parâmetro " + request.name() + " inexistente.").statusCode(400).build();
+        }
+        return GetParameterResponse.builder().parameter(parameter).build();
+    }
+
+    @Override
+    public PutParameterResponse putParameter(PutParameterRequest request) {
+        Parameter updated = parameters.compute(request.name(), (name, previous) -> Parameter.builder()
+                .name(name)
+                .value(request.value())
+                .version(previous == null ? 1 : previous.version() + 1)
+                .build());
+        return PutParameterResponse.builder().version(updated.version()).build();
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+}
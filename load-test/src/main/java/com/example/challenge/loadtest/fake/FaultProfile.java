@@ -0,0 +1,56 @@
+package com.example.challenge.loadtest.fake;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Latência e taxa de erro injetadas em cada chamada a um serviço simulado.
+ *
+ * @param latency A latência de cada chamada.
+ * @param errorRate A probabilidade (0 a 1) de uma chamada falhar.
+ */
+public record FaultProfile(Duration latency, double errorRate) {
+
+    /** Sem latência nem erros. */
+    public static final FaultProfile NONE = new FaultProfile(Duration.ZERO, 0);
+
+    public FaultProfile {
+        if (latency.isNegative()) {
+            throw new IllegalArgumentException("A latência simulada não pode ser negativa.");
+        }
+        if (errorRate < 0 || errorRate > 1) {
+            throw new IllegalArgumentException("A taxa de erro simulada deve estar entre 0 e 1.");
+        }
+    }
+
+    /**
+     * Aguarda a latência configurada e, com a probabilidade configurada, lança o erro do serviço.
+     *
+     * @param error Cria a exceção lançada em caso de erro.
+     */
+    public void apply(Supplier<? extends RuntimeException> error) {
+        sleep();
+        if (shouldFail()) {
+            throw error.get();
+        }
+    }
+
+    /**
+     * @return true se a chamada atual deve falhar.
+     */
+    public boolean shouldFail() {
+        return errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate;
+    }
+
+    public void sleep() {
+        if (latency.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
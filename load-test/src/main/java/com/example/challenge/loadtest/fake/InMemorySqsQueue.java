@@ -0,0 +1,133 @@
+package com.example.challenge.loadtest.fake;
+
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResultEntry;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fila SQS em memória compartilhada pelos clientes simulados do app-producer e pelos consumidores do app-consumer.
+ * Com a taxa de erro configurada, cada mensagem de um lote falha individualmente (falha parcial do SendMessageBatch),
+ * como o SQS faz em caso de erro interno.
+ */
+public class InMemorySqsQueue {
+
+    /**
+     * Uma mensagem da fila.
+     *
+     * @param receiveCount O número de entregas anteriores da mensagem.
+     */
+    public record QueuedMessage(String messageId, String body, Map<String, MessageAttributeValue> attributes,
+                                long sentAtMillis, int receiveCount) {
+    }
+
+    private final LinkedBlockingQueue<QueuedMessage> messages = new LinkedBlockingQueue<>();
+    private final FaultProfile faults;
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failedEntries = new AtomicLong();
+    private final AtomicLong sendRequests = new AtomicLong();
+    private final AtomicLong sentBytes = new AtomicLong();
+
+    public InMemorySqsQueue(FaultProfile faults) {
+        this.faults = faults;
+    }
+
+    /**
+     * Enfileira as mensagens de um lote. A latência configurada é aplicada pelo cliente que chama este método.
+     */
+    SendMessageBatchResponse sendBatch(SendMessageBatchRequest request) {
+        List<SendMessageBatchResultEntry> successful = new ArrayList<>(request.entries().size());
+        List<BatchResultErrorEntry> failed = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        sendRequests.incrementAndGet();
+        for (SendMessageBatchRequestEntry entry : request.entries()) {
+            if (faults.shouldFail()) {
+                failedEntries.incrementAndGet();
+                failed.add(BatchResultErrorEntry.builder()
+                        .id(entry.id())
+                        .code("InternalError")
+                        .message("Falha simulada do SQS.")
+                        .senderFault(false)
+                        .build());
+                continue;
+            }
+            String messageId = UUID.randomUUID().toString();
+            messages.add(new QueuedMessage(messageId, entry.messageBody(), entry.messageAttributes(), now, 0));
+            sent.incrementAndGet();
+            sentBytes.addAndGet(messageBytes(entry));
+            successful.add(SendMessageBatchResultEntry.builder().id(entry.id()).messageId(messageId).build());
+        }
+        return SendMessageBatchResponse.builder().successful(successful).failed(failed).build();
+    }
+
+    /**
+     * @return A próxima mensagem, ou {@code null} se a fila continuar vazia durante a espera.
+     */
+    public QueuedMessage poll(Duration wait) throws InterruptedException {
+        return messages.poll(wait.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Devolve à fila uma mensagem cujo processamento falhou, como ao fim do visibility timeout.
+     */
+    public void redeliver(QueuedMessage message) {
+        messages.add(new QueuedMessage(message.messageId(), message.body(), message.attributes(), message.sentAtMillis(),
+                message.receiveCount() + 1));
+    }
+
+    FaultProfile faults() {
+        return faults;
+    }
+
+    /**
+     * @return O número de mensagens aceitas pela fila.
+     */
+    public long sentCount() {
+        return sent.get();
+    }
+
+    /**
+     * @return O número de mensagens recusadas pela falha simulada.
+     */
+    public long failedEntryCount() {
+        return failedEntries.get();
+    }
+
+    /**
+     * @return O número de chamadas SendMessageBatch recebidas.
+     */
+    public long sendRequestCount() {
+        return sendRequests.get();
+    }
+
+    /**
+     * @return O tamanho das mensagens aceitas, somando o corpo e os atributos como o SQS faz para o limite e a cobrança.
+     */
+    public long sentBytes() {
+        return sentBytes.get();
+    }
+
+    public int size() {
+        return messages.size();
+    }
+
+    private static long messageBytes(SendMessageBatchRequestEntry entry) {
+        long bytes = entry.messageBody().getBytes(StandardCharsets.UTF_8).length;
+        for (Map.Entry<String, MessageAttributeValue> attribute : entry.messageAttributes().entrySet()) {
+            bytes += attribute.getKey().length() + attribute.getValue().dataType().length() + attribute.getValue().stringValue().length();
+        }
+        return bytes;
+    }
+}
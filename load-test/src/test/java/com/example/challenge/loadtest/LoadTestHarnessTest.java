@@ -0,0 +1,63 @@
+package com.example.challenge.loadtest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoadTestHarnessTest {
+
+    @Test
+    @DisplayName("Deve levar todas as linhas válidas dos arquivos do Google Drive até o S3 e medir a execução")
+    void shouldDeliverAllValidRowsToS3() throws Exception {
+        LoadTestReport report = new LoadTestHarness(HarnessOptions.parse(
+                "--files=3", "--rows=500", "--invalid-percent=10", "--consumers=4", "--poll-interval=50ms", "--timeout=1m")).run();
+
+        assertThat(report.complete()).isTrue();
+        assertThat(report.rowsRead()).isEqualTo(1500);
+        assertThat(report.rowsRejected()).isPositive();
+        assertThat(report.eventsWritten()).isEqualTo(report.rowsAccepted());
+        assertThat(report.rowsPerSecond()).isPositive();
+        assertThat(report.endToEndLatency().p99()).isGreaterThanOrEqualTo(report.endToEndLatency().p50());
+        assertThat(report.stageLatency()).containsOnlyKeys("parse", "publish", "queue", "write");
+        assertThat(report.heapHighWaterBytes()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Deve concluir a execução com erros injetados no SQS, no S3 e no DynamoDB")
+    void shouldCompleteWithInjectedErrors() throws Exception {
+        LoadTestReport report = new LoadTestHarness(HarnessOptions.parse(
+                "--files=2", "--rows=500", "--invalid-percent=0", "--publisher-mode=SYNC", "--poll-interval=50ms", "--timeout=1m",
+                "--sqs-error-rate=0.05", "--s3-error-rate=0.05", "--dynamodb-error-rate=0.01", "--sqs-latency=1ms")).run();
+
+        assertThat(report.complete()).isTrue();
+        assertThat(report.eventsWritten()).isEqualTo(1000);
+        assertThat(report.sqsFailedEntries()).isPositive();
+        assertThat(report.redeliveries()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Deve entregar as mensagens agrupadas em Smile com menos requisições e bytes no SQS")
+    void shouldDeliverPackedSmileMessages() throws Exception {
+        LoadTestReport json = new LoadTestHarness(HarnessOptions.parse(
+                "--files=1", "--rows=1000", "--invalid-percent=0", "--poll-interval=50ms", "--timeout=1m")).run();
+        LoadTestReport smile = new LoadTestHarness(HarnessOptions.parse(
+                "--files=1", "--rows=1000", "--invalid-percent=0", "--poll-interval=50ms", "--timeout=1m",
+                "--encoding=SMILE", "--events-per-message=20")).run();
+
+        assertThat(smile.complete()).isTrue();
+        assertThat(smile.eventsWritten()).isEqualTo(1000);
+        assertThat(smile.sqsMessages()).isEqualTo(50);
+        assertThat(smile.sqsRequests()).isLessThan(json.sqsRequests());
+        assertThat(smile.sqsBytes()).isLessThan(json.sqsBytes());
+    }
+
+    @Test
+    @DisplayName("Deve recusar argumentos desconhecidos")
+    void shouldRejectUnknownArguments() {
+        assertThatThrownBy(() -> HarnessOptions.parse("--rows=10", "--sqs-throughput=5"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("--sqs-throughput");
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.challenge.loadtest.fake;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FakeDynamoDbClientTest {
+
+    private static final String TABLE = "transaction-idempotency";
+
+    private FakeDynamoDbClient dynamoDb;
+
+    @BeforeEach
+    void setUp() {
+        dynamoDb = new FakeDynamoDbClient(FaultProfile.NONE);
+        dynamoDb.createTable(TABLE, "sourceFileId", "idempotencyKey");
+    }
+
+    @Test
+    @DisplayName("Deve recusar a escrita condicional de um item já existente")
+    void shouldRejectConditionalPutOfExistingItem() {
+        PutItemRequest request = PutItemRequest.builder()
+                .tableName(TABLE)
+                .item(item("file-1", "PROCESSED#tx_1"))
+                .conditionExpression("attribute_not_exists(idempotencyKey)")
+                .build();
+
+        dynamoDb.putItem(request);
+
+        assertThatThrownBy(() -> dynamoDb.putItem(request)).isInstanceOf(ConditionalCheckFailedException.class);
+        assertThat(dynamoDb.getItem(GetItemRequest.builder().tableName(TABLE).key(item("file-1", "PROCESSED#tx_1")).build()).hasItem()).isTrue();
+        assertThat(dynamoDb.getItem(GetItemRequest.builder().tableName(TABLE).key(item("file-1", "PROCESSED#tx_2")).build()).hasItem()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve consultar a partição pelo prefixo da chave de ordenação, com nomes e valores de expressão")
+    void shouldQueryPartitionBySortKeyPrefix() {
+        dynamoDb.putItem(PutItemRequest.builder().tableName(TABLE).item(item("file-1", "PROCESSED#tx_1")).build());
+        dynamoDb.putItem(PutItemRequest.builder().tableName(TABLE).item(item("file-1", "PUBLISHED#tx_1")).build());
+        dynamoDb.putItem(PutItemRequest.builder().tableName(TABLE).item(item("file-2", "PROCESSED#tx_9")).build());
+
+        QueryRequest request = QueryRequest.builder()
+                .tableName(TABLE)
+                .keyConditionExpression("#pk = :pk AND begins_with ( #sk, :prefix )")
+                .expressionAttributeNames(Map.of("#pk", "sourceFileId", "#sk", "idempotencyKey"))
+                .expressionAttributeValues(Map.of(":pk", AttributeValue.fromS("file-1"), ":prefix", AttributeValue.fromS("PROCESSED#")))
+                .build();
+
+        assertThat(dynamoDb.query(request).items())
+                .extracting(found -> found.get("idempotencyKey").s())
+                .containsExactly("PROCESSED#tx_1");
+    }
+
+    @Test
+    @DisplayName("Deve falhar todas as chamadas com taxa de erro 1")
+    void shouldFailEveryCallWithErrorRateOne() {
+        FakeDynamoDbClient failing = new FakeDynamoDbClient(new FaultProfile(Duration.ZERO, 1));
+        failing.createTable(TABLE, "sourceFileId", "idempotencyKey");
+
+        assertThatThrownBy(() -> failing.putItem(PutItemRequest.builder().tableName(TABLE).item(item("file-1", "PROCESSED#tx_1")).build()))
+                .isInstanceOf(ProvisionedThroughputExceededException.class);
+        assertThat(failing.itemCount(TABLE)).isZero();
+    }
+
+    private static Map<String, AttributeValue> item(String sourceFileId, String idempotencyKey) {
+        return Map.of("sourceFileId", AttributeValue.fromS(sourceFileId), "idempotencyKey", AttributeValue.fromS(idempotencyKey));
+    }
+}